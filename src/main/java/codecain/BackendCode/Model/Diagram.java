@@ -0,0 +1,468 @@
+package codecain.BackendCode.Model;
+
+import codecain.BackendCode.UndoRedo.StateManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * A single UML diagram: its classes, relationships and undo history.
+ * <p>
+ * The static APIs in {@link UMLClass}, {@link Relationship}, {@link SaveManager} and the field/method
+ * managers all work on the "current" diagram. By default that is one process-wide diagram, which is
+ * what the GUI and CLI use. Code that works on several diagrams at once, such as a rendering service,
+ * creates its own {@code Diagram} objects and binds one to the running thread with
+ * {@link #runWith(Diagram, Runnable)} or {@link #callWith(Diagram, Supplier)}, so each thread sees
+ * only its own diagram.
+ * </p>
+ * <p>
+ * A diagram can be read and modified from several threads. Queries run through {@link #read(Supplier)},
+ * which first tries an optimistic, lock-free read and only takes a shared read lock if a write happened
+ * in the meantime. Changes run through {@link #write(Runnable)}, which holds an exclusive lock.
+ * Readers that need a stable view for a long time, such as a background export, can take a
+ * {@link #snapshot()} instead.
+ * </p>
+ * <p>
+ * Every change is reported through the diagram's {@link ModelEventBus}; the events of one write are
+ * delivered together after it finishes.
+ * </p>
+ */
+public class Diagram {
+
+    /**
+     * The diagram used by threads that have not bound one of their own.
+     */
+    private static volatile Diagram defaultDiagram = new Diagram();
+
+    /**
+     * The diagram bound to the running thread, if any.
+     */
+    private static final ThreadLocal<Diagram> boundDiagram = new ThreadLocal<>();
+
+    /**
+     * The classes in this diagram, keyed by class name.
+     */
+    private Map<String, UMLClassInfo> classMap = new HashMap<>();
+
+    /**
+     * Every relationship between classes in this diagram.
+     */
+    private ArrayList<Relationship> relationshipList = new ArrayList<>();
+
+    /**
+     * The undo and redo history of this diagram.
+     */
+    private final StateManager stateManager = new StateManager(this);
+
+    /**
+     * Which segments of a segmented save file this diagram was last saved to or loaded from.
+     */
+    final SegmentedDiagramStore segmentedStore = new SegmentedDiagramStore(SaveManager.objectMapper);
+
+    /**
+     * Whether relationships of the same type into the same class are drawn as one shared line.
+     */
+    private volatile boolean lineBundling;
+
+    /**
+     * Reports changes to this diagram's classes and relationships.
+     */
+    private final ModelEventBus events = new ModelEventBus();
+
+    /**
+     * Guards the classes and relationships of this diagram.
+     */
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * The thread holding the write lock, so nested reads and writes on that thread run directly.
+     */
+    private volatile Thread writer;
+
+    /**
+     * How many read locks the running thread holds on this diagram, so nested reads run directly.
+     */
+    private final ThreadLocal<int[]> readDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+    /**
+     * Returns the diagram the static model APIs currently operate on: the diagram bound to the
+     * running thread if there is one, otherwise the process-wide default diagram.
+     *
+     * @return the current diagram
+     */
+    public static Diagram current() {
+        Diagram diagram = boundDiagram.get();
+        return diagram != null ? diagram : defaultDiagram;
+    }
+
+    /**
+     * Replaces the process-wide default diagram.
+     *
+     * @param diagram the diagram threads without a bound diagram should use
+     * @throws IllegalArgumentException if the diagram is null
+     */
+    public static void setDefault(Diagram diagram) {
+        if (diagram == null) {
+            throw new IllegalArgumentException("Diagram cannot be null");
+        }
+        defaultDiagram = diagram;
+    }
+
+    /**
+     * Runs an action with the given diagram bound to the current thread.
+     * The previous binding is restored afterwards, so calls may be nested.
+     *
+     * @param diagram the diagram to operate on
+     * @param action  the action to run
+     */
+    public static void runWith(Diagram diagram, Runnable action) {
+        callWith(diagram, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Computes a value with the given diagram bound to the current thread.
+     * The previous binding is restored afterwards, so calls may be nested.
+     *
+     * @param diagram the diagram to operate on
+     * @param action  the computation to run
+     * @param <T>     the result type
+     * @return the result of the computation
+     */
+    public static <T> T callWith(Diagram diagram, Supplier<T> action) {
+        if (diagram == null) {
+            throw new IllegalArgumentException("Diagram cannot be null");
+        }
+        Diagram previous = boundDiagram.get();
+        boundDiagram.set(diagram);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                boundDiagram.remove();
+            } else {
+                boundDiagram.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Runs a query against this diagram without blocking writers where possible.
+     * The query is first run optimistically without a lock; if a write happened while it ran,
+     * or it failed because of one, it is run again under a shared read lock.
+     * Queries should therefore not have side effects beyond building their result. Reading the
+     * fields or methods of a class can load them from a lazily loaded file, so queries that touch
+     * class members belong in {@link #readLocked(Supplier)}.
+     *
+     * @param query the query to run
+     * @param <T>   the result type
+     * @return the result of the query
+     */
+    public <T> T read(Supplier<T> query) {
+        if (writer == Thread.currentThread() || readDepth.get()[0] > 0) {
+            return query.get();
+        }
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = query.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        return readLocked(query);
+    }
+
+    /**
+     * Runs a query against this diagram while holding the shared read lock, without first trying
+     * an optimistic read. Use this for queries with side effects, such as writing a file or loading
+     * the members of a class, that must run exactly once.
+     *
+     * @param query the query to run
+     * @param <T>   the result type
+     * @return the result of the query
+     */
+    public <T> T readLocked(Supplier<T> query) {
+        if (writer == Thread.currentThread() || readDepth.get()[0] > 0) {
+            return query.get();
+        }
+        long stamp = lock.readLock();
+        int[] depth = readDepth.get();
+        depth[0]++;
+        try {
+            return query.get();
+        } finally {
+            depth[0]--;
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Runs a change to this diagram while holding its exclusive write lock.
+     * Writes may be nested; inner writes on the same thread run directly.
+     *
+     * @param action the change to make
+     */
+    public void write(Runnable action) {
+        write(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs a change to this diagram while holding its exclusive write lock and returns its result.
+     * Writes may be nested; inner writes on the same thread run directly.
+     *
+     * @param action the change to make
+     * @param <T>    the result type
+     * @return the result of the change
+     * @throws IllegalStateException if the running thread is inside a read of this diagram
+     */
+    public <T> T write(Supplier<T> action) {
+        if (writer == Thread.currentThread()) {
+            return action.get();
+        }
+        if (readDepth.get()[0] > 0) {
+            throw new IllegalStateException("Cannot modify a diagram while reading it");
+        }
+        long stamp = lock.writeLock();
+        writer = Thread.currentThread();
+        List<ModelEvent> batch = List.of();
+        try {
+            return action.get();
+        } finally {
+            batch = events.takePending();
+            writer = null;
+            lock.unlockWrite(stamp);
+            events.deliver(batch);
+        }
+    }
+
+    /**
+     * Gets the bus that reports changes to this diagram.
+     *
+     * @return the diagram's event bus
+     */
+    public ModelEventBus getEvents() {
+        return events;
+    }
+
+    /**
+     * Reports a change to this diagram's listeners, at the end of the running write if there is one.
+     *
+     * @param event the change
+     */
+    void post(ModelEvent event) {
+        events.post(event, writer == Thread.currentThread());
+    }
+
+    /**
+     * Reports a change to a class, if the class belongs to this diagram. Classes that are being
+     * loaded or copied, and so are not in the class map yet, report nothing.
+     *
+     * @param classInfo the class that changed
+     * @param kind      what changed
+     */
+    void postClassChange(UMLClassInfo classInfo, ModelEvent.Kind kind) {
+        if (events.hasListeners() && classMap.get(classInfo.getClassName()) == classInfo) {
+            post(ModelEvent.forClass(kind, classInfo.getClassName()));
+        }
+    }
+
+    /**
+     * Creates an independent deep copy of this diagram's classes and relationships.
+     * The copy has its own, empty undo history and can be read or changed freely without
+     * affecting this diagram.
+     *
+     * @return the copy
+     */
+    public Diagram snapshot() {
+        return read(() -> {
+            Diagram copy = new Diagram();
+            Map<String, UMLClassInfo> classes = new HashMap<>();
+            for (Map.Entry<String, UMLClassInfo> entry : classMap.entrySet()) {
+                classes.put(entry.getKey(), new UMLClassInfo(entry.getValue()));
+            }
+            ArrayList<Relationship> relationships = new ArrayList<>();
+            for (Relationship relationship : relationshipList) {
+                relationships.add(Relationship.copyOf(relationship));
+            }
+            copy.classMap = classes;
+            copy.relationshipList = relationships;
+            copy.lineBundling = lineBundling;
+            return copy;
+        });
+    }
+
+    /**
+     * Gets the classes in this diagram, keyed by class name.
+     *
+     * @return the live class map
+     */
+    public Map<String, UMLClassInfo> getClassMap() {
+        return classMap;
+    }
+
+    /**
+     * Replaces the classes in this diagram.
+     *
+     * @param classMap the new class map
+     */
+    public void setClassMap(Map<String, UMLClassInfo> classMap) {
+        write(() -> {
+            Map<String, UMLClassInfo> previous = this.classMap;
+            this.classMap = classMap;
+            if (!events.hasListeners()) {
+                return;
+            }
+            // report only the difference, so views keep what did not change
+            for (Map.Entry<String, UMLClassInfo> entry : previous.entrySet()) {
+                UMLClassInfo replacement = classMap.get(entry.getKey());
+                if (replacement == null) {
+                    post(ModelEvent.forClass(ModelEvent.Kind.CLASS_REMOVED, entry.getKey()));
+                } else if (replacement != entry.getValue()) {
+                    post(ModelEvent.forClass(ModelEvent.Kind.CLASS_REPLACED, entry.getKey()));
+                }
+            }
+            for (String className : classMap.keySet()) {
+                if (!previous.containsKey(className)) {
+                    post(ModelEvent.forClass(ModelEvent.Kind.CLASS_ADDED, className));
+                }
+            }
+        });
+    }
+
+    /**
+     * Brings this diagram to a saved state with as few changes as possible, for undo and redo.
+     * Classes missing from the state are removed and new ones are added; classes in both keep
+     * their object and only take over the position and members that differ. Relationships that
+     * match a saved one by source, destination and type are kept as well. Only what actually
+     * changed is reported to the event bus, so views can update just that.
+     * The saved objects themselves are copied, never adopted, so the state can be restored again.
+     *
+     * @param classes       the saved classes, keyed by class name
+     * @param relationships the saved relationships, in order
+     */
+    public void restore(Map<String, UMLClassInfo> classes, Collection<Relationship> relationships) {
+        // classes report their own changes to the current diagram, so make sure that is this one
+        runWith(this, () -> write(() -> {
+            Iterator<Map.Entry<String, UMLClassInfo>> entries = classMap.entrySet().iterator();
+            while (entries.hasNext()) {
+                String className = entries.next().getKey();
+                if (!classes.containsKey(className)) {
+                    entries.remove();
+                    post(ModelEvent.forClass(ModelEvent.Kind.CLASS_REMOVED, className));
+                }
+            }
+            for (Map.Entry<String, UMLClassInfo> entry : classes.entrySet()) {
+                UMLClassInfo current = classMap.get(entry.getKey());
+                if (current == null) {
+                    classMap.put(entry.getKey(), new UMLClassInfo(entry.getValue()));
+                    post(ModelEvent.forClass(ModelEvent.Kind.CLASS_ADDED, entry.getKey()));
+                } else {
+                    current.restoreFrom(entry.getValue());
+                }
+            }
+
+            Map<String, Deque<Relationship>> currentByKey = new HashMap<>();
+            for (Relationship relationship : relationshipList) {
+                currentByKey.computeIfAbsent(relationshipKey(relationship), key -> new ArrayDeque<>()).add(relationship);
+            }
+            ArrayList<Relationship> restored = new ArrayList<>(relationships.size());
+            for (Relationship saved : relationships) {
+                Deque<Relationship> matches = currentByKey.get(relationshipKey(saved));
+                Relationship match = matches == null ? null : matches.poll();
+                restored.add(match != null ? match : Relationship.copyOf(saved));
+            }
+            setRelationshipList(restored);
+        }));
+    }
+
+    private static String relationshipKey(Relationship relationship) {
+        return relationship.getSource() + "\n" + relationship.getDestination() + "\n" + relationship.getType();
+    }
+
+    /**
+     * Gets the relationships in this diagram.
+     *
+     * @return the live relationship list
+     */
+    public ArrayList<Relationship> getRelationshipList() {
+        return relationshipList;
+    }
+
+    /**
+     * Replaces the relationships in this diagram.
+     *
+     * @param relationshipList the new relationships
+     */
+    public void setRelationshipList(Collection<Relationship> relationshipList) {
+        write(() -> {
+            ArrayList<Relationship> previous = this.relationshipList;
+            this.relationshipList = relationshipList instanceof ArrayList<Relationship> list
+                    ? list
+                    : new ArrayList<>(relationshipList);
+            if (!events.hasListeners()) {
+                return;
+            }
+            Map<Relationship, Boolean> kept = new IdentityHashMap<>();
+            this.relationshipList.forEach(relationship -> kept.put(relationship, Boolean.TRUE));
+            for (Relationship relationship : previous) {
+                if (kept.remove(relationship) == null) {
+                    post(ModelEvent.forRelationship(ModelEvent.Kind.RELATIONSHIP_REMOVED, relationship));
+                }
+            }
+            // what is left was not in the previous list
+            for (Relationship relationship : this.relationshipList) {
+                if (kept.containsKey(relationship)) {
+                    post(ModelEvent.forRelationship(ModelEvent.Kind.RELATIONSHIP_ADDED, relationship));
+                }
+            }
+        });
+    }
+
+    /**
+     * Gets the undo and redo history of this diagram.
+     *
+     * @return the diagram's state manager
+     */
+    public StateManager getStateManager() {
+        return stateManager;
+    }
+
+    /**
+     * Turns bundling of this diagram's relationship lines on or off, in the editor and in exports.
+     * Other diagrams keep their own setting.
+     *
+     * @param enabled true to draw relationships of the same type into the same class as one shared line
+     */
+    public void setLineBundling(boolean enabled) {
+        lineBundling = enabled;
+    }
+
+    /**
+     * Checks whether relationships of the same type into the same class share one line.
+     *
+     * @return true if bundling is on for this diagram
+     */
+    public boolean isLineBundling() {
+        return lineBundling;
+    }
+}
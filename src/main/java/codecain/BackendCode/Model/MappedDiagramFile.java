@@ -0,0 +1,191 @@
+package codecain.BackendCode.Model;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * A memory-mapped view of a saved diagram file.
+ * Opening the file makes a single streaming pass that records the byte range of every class object,
+ * reading only the class name and position. Fields and methods are parsed from the mapped bytes
+ * the first time a class is asked for them.
+ * Ranges are immutable and may be shared, for example by undo snapshots, so the bytes are copied
+ * to the heap with {@link #release(Path)} before the file is overwritten.
+ */
+final class MappedDiagramFile {
+
+    /**
+     * The files that are still mapped, so a save can detach the ones it is about to overwrite.
+     */
+    private static final Set<MappedDiagramFile> MAPPED =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private final Path path;
+    private volatile ByteBuffer buffer;
+    private final ObjectMapper objectMapper;
+    private final Map<String, UMLClassInfo> classes = new LinkedHashMap<>();
+    private List<Relationship> relationships = new ArrayList<>();
+
+    private MappedDiagramFile(Path path, MappedByteBuffer buffer, ObjectMapper objectMapper) {
+        this.path = path;
+        this.buffer = buffer;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Maps the file and indexes its classes and relationships.
+     *
+     * @param path         the diagram file
+     * @param objectMapper the mapper used to materialize class members
+     * @return the indexed file
+     * @throws IOException if the file cannot be read or is not a diagram
+     */
+    static MappedDiagramFile open(Path path, ObjectMapper objectMapper) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("File is too large to be mapped: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        MappedDiagramFile file = new MappedDiagramFile(path.toAbsolutePath().normalize(), buffer, objectMapper);
+        file.index();
+        MAPPED.add(file);
+        return file;
+    }
+
+    /**
+     * Copies the bytes of every file mapped from a path to the heap, so the ranges that point
+     * into it stay readable after the path is overwritten.
+     *
+     * @param path the file about to be written
+     */
+    static void release(Path path) {
+        Path target = path.toAbsolutePath().normalize();
+        synchronized (MAPPED) {
+            Iterator<MappedDiagramFile> files = MAPPED.iterator();
+            while (files.hasNext()) {
+                MappedDiagramFile file = files.next();
+                if (file.path.equals(target)) {
+                    ByteBuffer copy = ByteBuffer.allocate(file.buffer.limit());
+                    copy.put(file.buffer.duplicate().rewind());
+                    file.buffer = copy.flip();
+                    files.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the indexed classes, keyed by name, in file order
+     */
+    Map<String, UMLClassInfo> getClasses() {
+        return classes;
+    }
+
+    /**
+     * @return the relationships stored in the file
+     */
+    List<Relationship> getRelationships() {
+        return relationships;
+    }
+
+    private void index() throws IOException {
+        JsonFactory factory = objectMapper.getFactory();
+        try (JsonParser parser = factory.createParser(stream(0, buffer.limit()))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Diagram file must contain a JSON object.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String section = parser.getCurrentName();
+                parser.nextToken();
+                if ("classes".equals(section) && parser.currentToken() == JsonToken.START_OBJECT) {
+                    indexClasses(parser);
+                } else if ("relationships".equals(section) && parser.currentToken() == JsonToken.START_ARRAY) {
+                    relationships = new ArrayList<>(objectMapper.readValue(parser, new TypeReference<List<Relationship>>() {}));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private void indexClasses(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.getCurrentName();
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            int start = (int) parser.getTokenLocation().getByteOffset();
+            String className = key;
+            int x = 0;
+            int y = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String property = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                switch (property) {
+                    case "className" -> {
+                        if (value == JsonToken.VALUE_STRING) {
+                            className = parser.getText();
+                        }
+                    }
+                    case "x" -> x = parser.getValueAsInt();
+                    case "y" -> y = parser.getValueAsInt();
+                    default -> parser.skipChildren();
+                }
+            }
+            int end = (int) parser.getCurrentLocation().getByteOffset();
+            classes.put(key, new UMLClassInfo(className, x, y, new Range(this, start, end)));
+        }
+    }
+
+    private InputStream stream(int start, int end) {
+        ByteBuffer slice = buffer.slice(start, end - start);
+        return new ByteBufferBackedInputStream(slice);
+    }
+
+    /**
+     * The location of one class object inside a mapped file.
+     */
+    static final class Range {
+        private final MappedDiagramFile file;
+        private final int start;
+        private final int end;
+
+        Range(MappedDiagramFile file, int start, int end) {
+            this.file = file;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Parses the full class object this range points at.
+         *
+         * @return the deserialized class
+         * @throws IOException if the mapped bytes are not a valid class
+         */
+        UMLClassInfo read() throws IOException {
+            return file.objectMapper.readValue(file.stream(start, end), UMLClassInfo.class);
+        }
+    }
+}
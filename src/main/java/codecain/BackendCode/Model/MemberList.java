@@ -0,0 +1,85 @@
+package codecain.BackendCode.Model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * A list of class members that reports every change to its owner.
+ * Each element added to the list is handed to {@code adopt} so it can link back to the owner,
+ * and every structural change runs {@code onChange} so the owning class is marked dirty.
+ *
+ * @param <E> the member type (fields, methods or parameters)
+ */
+final class MemberList<E> extends AbstractList<E> implements RandomAccess {
+
+    private final ArrayList<E> elements;
+    private final Consumer<E> adopt;
+    private final Runnable onChange;
+
+    /**
+     * Creates a list holding the given members without reporting a change.
+     *
+     * @param initial  the starting members, may be null
+     * @param adopt    links an added member to the owner
+     * @param onChange called after every change to the list
+     */
+    MemberList(Collection<? extends E> initial, Consumer<E> adopt, Runnable onChange) {
+        this.elements = initial == null ? new ArrayList<>() : new ArrayList<>(initial);
+        this.adopt = adopt;
+        this.onChange = onChange;
+        this.elements.forEach(this::adoptElement);
+    }
+
+    @Override
+    public E get(int index) {
+        return elements.get(index);
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public E set(int index, E element) {
+        E previous = elements.set(index, element);
+        adoptElement(element);
+        onChange.run();
+        return previous;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        elements.add(index, element);
+        adoptElement(element);
+        modCount++;
+        onChange.run();
+    }
+
+    @Override
+    public E remove(int index) {
+        E removed = elements.remove(index);
+        modCount++;
+        onChange.run();
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        if (elements.isEmpty()) {
+            return;
+        }
+        elements.clear();
+        modCount++;
+        onChange.run();
+    }
+
+    private void adoptElement(E element) {
+        if (element != null) {
+            adopt.accept(element);
+        }
+    }
+}
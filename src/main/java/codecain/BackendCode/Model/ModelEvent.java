@@ -0,0 +1,162 @@
+package codecain.BackendCode.Model;
+
+import java.util.Objects;
+
+/**
+ * Describes one change to a {@link Diagram}, as delivered by its {@link ModelEventBus}.
+ * <p>
+ * Class events carry the name of the class; a rename also carries the old name. Relationship
+ * events carry the relationship object. Two events of the same kind about the same class or
+ * relationship are equal, so the bus can drop repeats within one batch.
+ * </p>
+ */
+public final class ModelEvent {
+
+    /**
+     * The kinds of change a diagram reports.
+     */
+    public enum Kind {
+        /** A class was added. */
+        CLASS_ADDED,
+        /** A class was removed. */
+        CLASS_REMOVED,
+        /** A class was renamed; {@link #getOldClassName()} holds its previous name. */
+        CLASS_RENAMED,
+        /** A class was replaced by another object with the same name, for example by undo or a load. */
+        CLASS_REPLACED,
+        /** Fields, methods or parameters of a class were added, removed or edited. */
+        MEMBERS_CHANGED,
+        /** A class box was moved. */
+        POSITION_CHANGED,
+        /** A relationship was added. */
+        RELATIONSHIP_ADDED,
+        /** A relationship was removed. */
+        RELATIONSHIP_REMOVED,
+        /** The type or direction of a relationship changed. */
+        RELATIONSHIP_CHANGED
+    }
+
+    private final Kind kind;
+    private final String className;
+    private final String oldClassName;
+    private final Relationship relationship;
+
+    private ModelEvent(Kind kind, String className, String oldClassName, Relationship relationship) {
+        this.kind = kind;
+        this.className = className;
+        this.oldClassName = oldClassName;
+        this.relationship = relationship;
+    }
+
+    /**
+     * Creates an event about a class.
+     *
+     * @param kind      one of the class kinds, {@link Kind#MEMBERS_CHANGED} or {@link Kind#POSITION_CHANGED}
+     * @param className the name of the class
+     * @return the event
+     * @throws IllegalArgumentException if the kind is a relationship kind or a rename
+     */
+    public static ModelEvent forClass(Kind kind, String className) {
+        if (kind == Kind.CLASS_RENAMED || kind.name().startsWith("RELATIONSHIP")) {
+            throw new IllegalArgumentException("Not a class event: " + kind);
+        }
+        return new ModelEvent(kind, className, null, null);
+    }
+
+    /**
+     * Creates an event about a renamed class.
+     *
+     * @param oldClassName the previous name
+     * @param newClassName the new name
+     * @return the event
+     */
+    public static ModelEvent renamed(String oldClassName, String newClassName) {
+        return new ModelEvent(Kind.CLASS_RENAMED, newClassName, oldClassName, null);
+    }
+
+    /**
+     * Creates an event about a relationship.
+     *
+     * @param kind         one of the relationship kinds
+     * @param relationship the relationship
+     * @return the event
+     * @throws IllegalArgumentException if the kind is not a relationship kind
+     */
+    public static ModelEvent forRelationship(Kind kind, Relationship relationship) {
+        if (!kind.name().startsWith("RELATIONSHIP")) {
+            throw new IllegalArgumentException("Not a relationship event: " + kind);
+        }
+        return new ModelEvent(kind, null, null, relationship);
+    }
+
+    /**
+     * Gets the kind of change.
+     *
+     * @return the kind
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets the name of the class the event is about; for a rename, the new name.
+     *
+     * @return the class name, or null for relationship events
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Gets the previous name of a renamed class.
+     *
+     * @return the old name, or null for other events
+     */
+    public String getOldClassName() {
+        return oldClassName;
+    }
+
+    /**
+     * Gets the relationship the event is about.
+     *
+     * @return the relationship, or null for class events
+     */
+    public Relationship getRelationship() {
+        return relationship;
+    }
+
+    /**
+     * Checks whether the event is about a relationship rather than a class.
+     *
+     * @return true for relationship events
+     */
+    public boolean isRelationshipEvent() {
+        return relationship != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ModelEvent other)) {
+            return false;
+        }
+        // relationships have no equals of their own, so they are compared by identity
+        return kind == other.kind && relationship == other.relationship
+                && Objects.equals(className, other.className) && Objects.equals(oldClassName, other.oldClassName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, className, oldClassName, System.identityHashCode(relationship));
+    }
+
+    @Override
+    public String toString() {
+        if (relationship != null) {
+            return kind + " " + relationship.getSource() + " -> " + relationship.getDestination();
+        }
+        return oldClassName != null ? kind + " " + oldClassName + " -> " + className : kind + " " + className;
+    }
+}
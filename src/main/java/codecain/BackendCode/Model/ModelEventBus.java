@@ -0,0 +1,107 @@
+package codecain.BackendCode.Model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Tells listeners what changed in a {@link Diagram}, so views and other derived state can update
+ * only what a change touched instead of rebuilding everything.
+ * <p>
+ * Events raised inside {@link Diagram#write(Runnable)} are collected and delivered together once the
+ * outermost write has finished and released the lock, so a command that changes many things, an
+ * undo or a load produces one batch. Repeated events within a batch, such as the many position
+ * changes of one drag, are delivered once. Events raised outside a write are delivered right away.
+ * Listeners run on the thread that made the change.
+ * </p>
+ */
+public class ModelEventBus {
+
+    private final List<Consumer<List<ModelEvent>>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Events of the running write, in order, without repeats. Only touched by the thread holding
+     * the diagram's write lock.
+     */
+    private Set<ModelEvent> pending = new LinkedHashSet<>();
+
+    /**
+     * Adds a listener that receives every batch of events.
+     *
+     * @param listener the listener
+     * @throws IllegalArgumentException if the listener is null
+     */
+    public void addListener(Consumer<List<ModelEvent>> listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added with {@link #addListener(Consumer)}.
+     *
+     * @param listener the listener
+     */
+    public void removeListener(Consumer<List<ModelEvent>> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Checks whether anybody is listening, so callers can skip building events nobody receives.
+     *
+     * @return true if there is at least one listener
+     */
+    public boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    /**
+     * Reports a change. Inside a write the event is held until the write finishes.
+     *
+     * @param event   the change
+     * @param batched whether the caller holds the diagram's write lock
+     */
+    void post(ModelEvent event, boolean batched) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        if (batched) {
+            pending.add(event);
+        } else {
+            deliver(List.of(event));
+        }
+    }
+
+    /**
+     * Takes the events collected during the write that is finishing. Called while the lock is still held.
+     *
+     * @return the collected events, possibly empty
+     */
+    List<ModelEvent> takePending() {
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+        List<ModelEvent> batch = new ArrayList<>(pending);
+        pending = new LinkedHashSet<>();
+        return batch;
+    }
+
+    /**
+     * Hands a batch of events to every listener.
+     *
+     * @param batch the events
+     */
+    void deliver(List<ModelEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<ModelEvent> events = List.copyOf(batch);
+        for (Consumer<List<ModelEvent>> listener : listeners) {
+            listener.accept(events);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.function.Predicate;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Relationship {
@@ -28,10 +29,23 @@ public class Relationship {
     private String destination;
 
     /**
-     * ArrayList for every single relationship created.
-     * This is a static list, so every relationship created only exists in this list
+     * Gets every relationship in the current {@link Diagram}.
+     * Relationships created with the public constructor are added to this list.
+     *
+     * @return the live relationship list of the current diagram
      */
-    public static ArrayList<Relationship> relationshipList = new ArrayList<>();
+    public static ArrayList<Relationship> getRelationshipList() {
+        return Diagram.current().getRelationshipList();
+    }
+
+    /**
+     * Replaces the relationships of the current {@link Diagram}.
+     *
+     * @param relationshipList the new relationships
+     */
+    public static void setRelationshipList(Collection<Relationship> relationshipList) {
+        Diagram.current().setRelationshipList(relationshipList);
+    }
 
     /**
      * Default constructor needed for Jackson deserialization
@@ -57,7 +71,24 @@ public class Relationship {
         this.classNames.add(destination);
         this.source = source;
         this.destination = destination;
-        relationshipList.add(this);
+        Diagram.current().write(() -> {
+            getRelationshipList().add(this);
+            Diagram.current().post(ModelEvent.forRelationship(ModelEvent.Kind.RELATIONSHIP_ADDED, this));
+        });
+    }
+
+    /**
+     * Creates a copy of a relationship without adding it to any relationship list.
+     * @param other the relationship to copy
+     * @return the copy
+     */
+    public static Relationship copyOf(Relationship other) {
+        Relationship copy = new Relationship();
+        copy.type = other.type;
+        copy.classNames = new HashSet<>(other.classNames);
+        copy.source = other.source;
+        copy.destination = other.destination;
+        return copy;
     }
 
     /**
@@ -82,7 +113,9 @@ public class Relationship {
      * Deletes all relationships that contain the specified class
      */
     public static void removeAttachedRelationships(String className) {
-        relationshipList.removeIf(r -> r.classNames.contains(className));
+        Diagram.current().write(() -> {
+            removeAndPost(r -> r.classNames.contains(className));
+        });
     }
 
     /**
@@ -91,12 +124,14 @@ public class Relationship {
      * @return true if there is a relationship with that class
      */
     public static boolean relationshipHasClass(String class1) {
-        for (Relationship r : relationshipList) {
-            if (r.classNames.contains(class1)) {
-                return true;
+        return Diagram.current().read(() -> {
+            for (Relationship r : getRelationshipList()) {
+                if (r.classNames.contains(class1)) {
+                    return true;
+                }
             }
-        }
-        return false;
+            return false;
+        });
     }
 
     /**
@@ -106,12 +141,14 @@ public class Relationship {
      * @return true if the relationship exists
      */
     public static boolean relationshipExists(String class1, String class2) {
-        for (Relationship r : relationshipList) {
-            if (r.classNames.contains(class1) && r.classNames.contains(class2)) {
-                return true;
+        return Diagram.current().read(() -> {
+            for (Relationship r : getRelationshipList()) {
+                if (r.classNames.contains(class1) && r.classNames.contains(class2)) {
+                    return true;
+                }
             }
-        }
-        return false;
+            return false;
+        });
     }
 
 
@@ -122,12 +159,14 @@ public class Relationship {
      * @return true if the relationship exists
      */
     public static boolean relationshipExists(String class1, String class2, RelationshipType type){
-        for (Relationship r : relationshipList) {
-            if (r.classNames.contains(class1) && r.classNames.contains(class2) && r.type.equals(type)) {
-                return true;
+        return Diagram.current().read(() -> {
+            for (Relationship r : getRelationshipList()) {
+                if (r.classNames.contains(class1) && r.classNames.contains(class2) && r.type.equals(type)) {
+                    return true;
+                }
             }
-        }
-        return false;
+            return false;
+        });
     }
 
 
@@ -139,23 +178,24 @@ public class Relationship {
      * @return true if the input is valid, false if the input is invalid.
      */
     public static boolean addRelationship(String class1, String class2, RelationshipType type) {
+        return Diagram.current().write(() -> {
+            if (relationshipExists(class1, class2)) {
+                System.out.println("Relationship already exists");
+                return false;
+            }
+            if (!UMLClass.getClassMap().containsKey(class1)) {
+                System.out.println(class1 + " is not an existing class");
+                return false;
+            }
+            if (!UMLClass.getClassMap().containsKey(class2)) {
+                System.out.println(class2 + " is not an existing class");
+                return false;
+            }
 
-        if (relationshipExists(class1, class2)) {
-            System.out.println("Relationship already exists");
-            return false;
-        }
-        if (!UMLClass.classMap.containsKey(class1)) {
-            System.out.println(class1 + " is not an existing class");
-            return false;
-        }
-        if (!UMLClass.classMap.containsKey(class2)) {
-            System.out.println(class2 + " is not an existing class");
-            return false;
-        }
-
-        Relationship newRelationship = new Relationship(class1, class2, type);
-        System.out.println("Relationship between " + class1 + " and " + class2 + " added");
-        return true;
+            Relationship newRelationship = new Relationship(class1, class2, type);
+            System.out.println("Relationship between " + class1 + " and " + class2 + " added");
+            return true;
+        });
     }
 
     /**
@@ -165,15 +205,18 @@ public class Relationship {
      * @return true if the relationship is removed, otherwise it returns false;
      */
     public static boolean removeRelationship(String class1, String class2) {
-        for (Relationship r : relationshipList) {
-            if (r.classNames.contains(class1) && r.classNames.contains(class2)) {
-                relationshipList.remove(r);
-                System.out.println("Relationship between " + class1 + " and " + class2 + " removed");
-                return true;
+        return Diagram.current().write(() -> {
+            for (Relationship r : getRelationshipList()) {
+                if (r.classNames.contains(class1) && r.classNames.contains(class2)) {
+                    getRelationshipList().remove(r);
+                    Diagram.current().post(ModelEvent.forRelationship(ModelEvent.Kind.RELATIONSHIP_REMOVED, r));
+                    System.out.println("Relationship between " + class1 + " and " + class2 + " removed");
+                    return true;
+                }
             }
-        }
-        System.out.println("Relationship not found");
-        return false;
+            System.out.println("Relationship not found");
+            return false;
+        });
     }
 
     /**
@@ -181,21 +224,23 @@ public class Relationship {
      * @return String - the list of relationships
      */
     public static String listToString() {
-        if (relationshipList.isEmpty()) return "";
-
-        StringBuilder s = new StringBuilder();
-
-        for (Relationship r : relationshipList) {
-            String[] names = r.getClassNamesAsArray();
-            //!!!
-            if (names.length < 2) {
-                continue;
-            } else {
-                s.append(names[0]).append(r.type.getArrowString())
-                        .append(names[1]).append(" ").append(r.type).append("\n");
+        return Diagram.current().read(() -> {
+            if (getRelationshipList().isEmpty()) return "";
+
+            StringBuilder s = new StringBuilder();
+
+            for (Relationship r : getRelationshipList()) {
+                String[] names = r.getClassNamesAsArray();
+                //!!!
+                if (names.length < 2) {
+                    continue;
+                } else {
+                    s.append(names[0]).append(r.type.getArrowString())
+                            .append(names[1]).append(" ").append(r.type).append("\n");
+                }
             }
-        }
-        return s.toString();
+            return s.toString();
+        });
     }
 
     /**
@@ -239,6 +284,7 @@ public class Relationship {
             throw new IllegalArgumentException("Class must be inside the relationship");
         }
         this.source = source;
+        postChanged();
     }
 
     /**
@@ -255,6 +301,7 @@ public class Relationship {
      */
     public void setType(RelationshipType type){
         this.type = type;
+        postChanged();
     }
 
     /**
@@ -267,34 +314,69 @@ public class Relationship {
      * @throws IllegalArgumentException if the class doesn't exist
      */
     public static Relationship getRelationship(String class1, String class2, RelationshipType type){
-        for (Relationship r : relationshipList){
-            if (/*r.type.equals(type) &&*/ r.classNames.contains(class1) && r.classNames.contains(class2)){
-                return r;
+        return Diagram.current().read(() -> {
+            for (Relationship r : getRelationshipList()){
+                if (/*r.type.equals(type) &&*/ r.classNames.contains(class1) && r.classNames.contains(class2)){
+                    return r;
+                }
             }
-        }
-        throw new IllegalArgumentException("this class does not exist");
+            throw new IllegalArgumentException("this class does not exist");
+        });
     }
 
 
     public ArrayList<Relationship> getAttachedRelationships(String className){
-        ArrayList<Relationship> relationships = new ArrayList<>();
-        for (Relationship r : relationshipList){
-            if (r.getClassNames().contains(className)){
-                relationships.add(r);
+        return Diagram.current().read(() -> {
+            ArrayList<Relationship> relationships = new ArrayList<>();
+            for (Relationship r : getRelationshipList()){
+                if (r.getClassNames().contains(className)){
+                    relationships.add(r);
+                }
             }
-        }
-        return relationships;
+            return relationships;
+        });
     }
 
     /**
      * removes all relationships with invalid source and destination classes
      */
     public static void removeInvalidRelationships(){
-        for (Relationship r : relationshipList){
-            if (!hasClasses(r)){
-                relationshipList.remove(r);
+        Diagram.current().write(() -> {
+            removeAndPost(r -> !hasClasses(r));
+        });
+    }
+
+    /**
+     * Removes the relationships of the current diagram that match a condition and reports each one.
+     * Must be called inside a write.
+     */
+    private static void removeAndPost(Predicate<Relationship> condition) {
+        getRelationshipList().removeIf(r -> {
+            if (condition.test(r)) {
+                Diagram.current().post(ModelEvent.forRelationship(ModelEvent.Kind.RELATIONSHIP_REMOVED, r));
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Reports a change to this relationship if it belongs to the current diagram.
+     */
+    private void postChanged() {
+        Diagram diagram = Diagram.current();
+        if (diagram.getEvents().hasListeners() && diagram.read(() -> containsInstance(getRelationshipList(), this))) {
+            diagram.post(ModelEvent.forRelationship(ModelEvent.Kind.RELATIONSHIP_CHANGED, this));
+        }
+    }
+
+    private static boolean containsInstance(Collection<Relationship> relationships, Relationship relationship) {
+        for (Relationship r : relationships) {
+            if (r == relationship) {
+                return true;
             }
         }
+        return false;
     }
 
     private static boolean hasClasses(Relationship r){
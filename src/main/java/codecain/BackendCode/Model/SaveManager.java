@@ -6,10 +6,13 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * The SaveManager class handles saving and loading UML diagrams in JSON format.
@@ -17,44 +20,173 @@ import java.util.Map;
  */
 public class SaveManager {
 
-    private static final ObjectMapper objectMapper = new ObjectMapper()
+    static final ObjectMapper objectMapper = new ObjectMapper()
             .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
 
     /**
      * Saves the current UML diagram, including classes and relationships, into a JSON file.
+     * If the file is already a segmented diagram it is saved incrementally in that format.
      *
      * @param filePath The path to save the JSON file.
      * @throws IOException If an I/O error occurs while saving the file.
      */
     public static void saveToJSON(String filePath) throws IOException {
         validateJSONFile(filePath); //added check to ensure .json file
-        Map<String, Object> umlData = new HashMap<>();
-        umlData.put("classes", UMLClass.classMap);
-        umlData.put("relationships", Relationship.relationshipList);
+        if (segmentedStore().isManifest(Path.of(filePath))) {
+            saveToSegmentedJSON(filePath);
+            return;
+        }
+        Diagram diagram = Diagram.current();
+        underLock(diagram, false, () -> {
+            loadAllMembers(diagram.getClassMap(), filePath);
+            Map<String, Object> umlData = new HashMap<>();
+            umlData.put("classes", diagram.getClassMap());
+            umlData.put("relationships", diagram.getRelationshipList());
 
-        objectMapper.writeValue(new File(filePath), umlData);
+            objectMapper.writeValue(new File(filePath), umlData);
+            return null;
+        });
         System.out.println("UML diagram saved successfully to JSON at " + filePath);
     }
 
+    /**
+     * Saves the current UML diagram incrementally as a manifest file plus a directory of segments.
+     * Only classes that changed since the last segmented save or load of the same file, and the
+     * relationships if they changed, are written; the manifest is then swapped in atomically.
+     *
+     * @param filePath The path of the manifest file.
+     * @throws IOException If an I/O error occurs while saving.
+     */
+    public static void saveToSegmentedJSON(String filePath) throws IOException {
+        validateJSONFile(filePath);
+        Diagram diagram = Diagram.current();
+        int written = underLock(diagram, true, () -> diagram.segmentedStore.save(
+                Path.of(filePath), diagram.getClassMap(), diagram.getRelationshipList()));
+        System.out.println("UML diagram saved to " + filePath + " (" + written + " segments written)");
+    }
+
+    /**
+     * Checks whether a file holds a diagram in the segmented format.
+     *
+     * @param filePath The path of the file to check.
+     * @return true if the file is a segmented diagram manifest
+     */
+    public static boolean isSegmentedJSON(String filePath) {
+        return segmentedStore().isManifest(Path.of(filePath));
+    }
+
+    /**
+     * Loads a UML diagram from a JSON file, in either the single-document or the segmented format.
+     * The file is read before the diagram is locked, and the loaded classes and relationships
+     * then replace the current ones in a single write.
+     *
+     * @param filePath The path of the JSON file to load.
+     * @throws IOException If the file cannot be read or is not a valid diagram.
+     */
     public static void loadFromJSON(String filePath) throws IOException {
+        boolean segmented = loadInto(Diagram.current(), filePath);
+        System.out.println(segmented
+                ? "UML diagram loaded successfully from segmented JSON."
+                : "UML diagram loaded successfully from JSON.");
+    }
+
+    /**
+     * Reads a UML diagram from a JSON file into a new diagram, leaving the current diagram untouched.
+     * Used to work on many diagram files at once, each in its own model.
+     * Classes and relationships report their changes to the current diagram while they are read,
+     * so the new diagram is bound to the running thread until it is built; readers on other
+     * threads never touch, or wait for, whatever diagram the thread was bound to.
+     *
+     * @param filePath The path of the JSON file to read.
+     * @return the diagram read from the file
+     * @throws IOException If the file cannot be read or is not a valid diagram.
+     */
+    public static Diagram readDiagram(String filePath) throws IOException {
+        Diagram diagram = new Diagram();
+        try {
+            Diagram.runWith(diagram, () -> {
+                try {
+                    loadInto(diagram, filePath);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return diagram;
+    }
+
+    /**
+     * Replaces the classes and relationships of a diagram with those in a JSON file.
+     *
+     * @return true if the file was a segmented diagram
+     */
+    private static boolean loadInto(Diagram diagram, String filePath) throws IOException {
         validateJSONFile(filePath);
+        if (diagram.segmentedStore.isManifest(Path.of(filePath))) {
+            loadFromSegmentedJSON(diagram, filePath);
+            return true;
+        }
         Map<String, Object> umlData = objectMapper.readValue(new File(filePath), Map.class);
 
         Map<String, UMLClassInfo> classes = objectMapper.convertValue(
                 umlData.get("classes"), new TypeReference<Map<String, UMLClassInfo>>() {}
         );
-        UMLClass.classMap = classes;
 
         List<Relationship> relationships = objectMapper.convertValue(
                 umlData.get("relationships"), new TypeReference<List<Relationship>>() {}
         );
-        Relationship.relationshipList = new ArrayList<>(relationships);
+        diagram.write(() -> {
+            diagram.setClassMap(classes);
+            diagram.setRelationshipList(new ArrayList<>(relationships));
+            diagram.segmentedStore.reset();
+        });
+        return false;
+    }
 
-        System.out.println("UML diagram loaded successfully from JSON.");
+    private static void loadFromSegmentedJSON(Diagram diagram, String filePath) throws IOException {
+        Map<String, UMLClassInfo> classes = new HashMap<>();
+        List<Relationship> relationships = new ArrayList<>();
+        underLock(diagram, true, () -> {
+            diagram.segmentedStore.load(Path.of(filePath), classes, relationships);
+            diagram.setClassMap(classes);
+            diagram.setRelationshipList(new ArrayList<>(relationships));
+            return null;
+        });
+    }
+
+    /**
+     * Loads a UML diagram without reading the members of its classes.
+     * The file is memory-mapped and indexed in a single pass; class names, positions and
+     * relationships are available immediately, while fields and methods are read from the
+     * mapped file the first time each class is asked for them.
+     *
+     * @param filePath The path of the JSON file to load.
+     * @throws IOException If the file cannot be read or is not a valid diagram.
+     */
+    public static void loadFromJSONLazy(String filePath) throws IOException {
+        validateJSONFile(filePath);
+        if (segmentedStore().isManifest(Path.of(filePath))) {
+            loadFromSegmentedJSON(Diagram.current(), filePath);
+            System.out.println("UML diagram loaded successfully from segmented JSON.");
+            return;
+        }
+        MappedDiagramFile file = MappedDiagramFile.open(Path.of(filePath), objectMapper);
+
+        Diagram diagram = Diagram.current();
+        diagram.write(() -> {
+            diagram.setClassMap(new HashMap<>(file.getClasses()));
+            diagram.setRelationshipList(new ArrayList<>(file.getRelationships()));
+            diagram.segmentedStore.reset();
+        });
+
+        System.out.println("UML diagram indexed from JSON: " + file.getClasses().size() + " classes.");
     }
 
     public static void saveToJSON(String filePath, Map<String, UMLClassInfo> classMap, List<Relationship> relationshipList) throws IOException {
         validateJSONFile(filePath);
+        loadAllMembers(classMap, filePath);
         Map<String, Object> umlData = new HashMap<>();
         umlData.put("classes", classMap);
         umlData.put("relationships", relationshipList);
@@ -64,6 +196,55 @@ public class SaveManager {
     }
 
 
+    /**
+     * Reads the members of every lazily loaded class before a save, so the file they are
+     * mapped from is never read while it is being overwritten.
+     * Undo snapshots can still share the ranges of that file, so its bytes are detached as well.
+     *
+     * @param classMap the classes about to be saved
+     * @param filePath the file about to be written
+     */
+    private static void loadAllMembers(Map<String, UMLClassInfo> classMap, String filePath) {
+        for (UMLClassInfo classInfo : classMap.values()) {
+            classInfo.loadMembers();
+        }
+        MappedDiagramFile.release(Path.of(filePath));
+    }
+
+    /**
+     * A file operation run while the diagram is locked.
+     */
+    @FunctionalInterface
+    private interface LockedIO<T> {
+        T run() throws IOException;
+    }
+
+    /**
+     * Runs a file operation under the diagram's write lock, or under its shared read lock
+     * (never optimistically, since the operation must run exactly once).
+     */
+    private static <T> T underLock(Diagram diagram, boolean write, LockedIO<T> operation) throws IOException {
+        Supplier<T> task = () -> {
+            try {
+                return operation.run();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        try {
+            return write ? diagram.write(task) : diagram.readLocked(task);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * @return the segment bookkeeping of the current diagram
+     */
+    private static SegmentedDiagramStore segmentedStore() {
+        return Diagram.current().segmentedStore;
+    }
+
     /**
      * Validates that the file has a .json extension.
      *
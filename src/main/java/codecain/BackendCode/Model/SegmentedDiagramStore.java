@@ -0,0 +1,318 @@
+package codecain.BackendCode.Model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Saves diagrams as a small manifest plus a directory of segment files, so a save only rewrites
+ * the parts of the diagram that changed.
+ * <p>
+ * Classes are packed into chunks of up to {@value #CHUNK_SIZE}. A chunk is reused as long as every
+ * class in it is still in the diagram and has not been marked dirty; otherwise its remaining classes
+ * are written again together with any new classes. Relationships live in their own segment, which is
+ * rewritten only when its content changes. New segments always get new file names, and the manifest
+ * is replaced with an atomic move, so a crash mid-save leaves the previous save intact. Segments no
+ * longer referenced by the manifest are deleted afterwards.
+ * </p>
+ */
+final class SegmentedDiagramStore {
+
+    static final String FORMAT = "segmented";
+    static final int CHUNK_SIZE = 64;
+
+    private static final String SEGMENT_DIRECTORY_SUFFIX = ".segments";
+
+    private final ObjectMapper objectMapper;
+
+    /** The manifest the chunk records below describe, or null before the first save or load. */
+    private Path manifestPath;
+    private List<Chunk> chunks = new ArrayList<>();
+    private String relationshipSegment;
+    private byte[] relationshipBytes;
+    private long nextSegmentId;
+
+    SegmentedDiagramStore(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Checks whether a file is a segmented diagram manifest by reading its first property.
+     *
+     * @param path the file to check
+     * @return true if the file starts with the segmented format marker
+     */
+    boolean isManifest(Path path) {
+        if (manifestPath != null && manifestPath.equals(path.toAbsolutePath().normalize())) {
+            return true;
+        }
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+        try (JsonParser parser = objectMapper.getFactory().createParser(path.toFile())) {
+            return parser.nextToken() == JsonToken.START_OBJECT
+                    && parser.nextToken() == JsonToken.FIELD_NAME
+                    && "format".equals(parser.getCurrentName())
+                    && parser.nextToken() == JsonToken.VALUE_STRING
+                    && FORMAT.equals(parser.getText());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes the diagram to the manifest at {@code path}, reusing every segment that is still valid.
+     *
+     * @param path          the manifest file
+     * @param classMap      the classes to save
+     * @param relationships the relationships to save
+     * @return the number of segment files written
+     * @throws IOException if a segment or the manifest cannot be written
+     */
+    int save(Path path, Map<String, UMLClassInfo> classMap, List<Relationship> relationships) throws IOException {
+        Path manifest = path.toAbsolutePath().normalize();
+        Path segmentDirectory = segmentDirectory(manifest);
+        Files.createDirectories(segmentDirectory);
+
+        boolean sameTarget = manifest.equals(manifestPath) && Files.isRegularFile(manifest);
+        if (!sameTarget) {
+            chunks = new ArrayList<>();
+            relationshipSegment = null;
+            relationshipBytes = null;
+            nextSegmentId = Math.max(nextSegmentId, highestSegmentId(segmentDirectory) + 1);
+        }
+
+        List<Chunk> keptChunks = new ArrayList<>();
+        Set<String> placed = new HashSet<>();
+        for (Chunk chunk : chunks) {
+            if (chunk.isUnchanged(classMap)) {
+                keptChunks.add(chunk);
+                placed.addAll(chunk.classes.keySet());
+            }
+        }
+        int expectedChunks = (classMap.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        if (keptChunks.size() > 2 * expectedChunks + 1) {
+            keptChunks.clear();
+            placed.clear();
+        }
+
+        int written = 0;
+        List<Chunk> newChunks = new ArrayList<>(keptChunks);
+        Map<String, UMLClassInfo> pending = new LinkedHashMap<>();
+        for (Map.Entry<String, UMLClassInfo> entry : classMap.entrySet()) {
+            if (placed.contains(entry.getKey())) {
+                continue;
+            }
+            entry.getValue().loadMembers();
+            pending.put(entry.getKey(), entry.getValue());
+            if (pending.size() == CHUNK_SIZE) {
+                newChunks.add(writeChunk(segmentDirectory, pending));
+                pending = new LinkedHashMap<>();
+                written++;
+            }
+        }
+        if (!pending.isEmpty()) {
+            newChunks.add(writeChunk(segmentDirectory, pending));
+            written++;
+        }
+
+        // relationships have no dirty flag: the live list is handed out and changed directly, and
+        // changes are only reported while someone listens, so comparing the bytes is what is sure
+        byte[] newRelationshipBytes = objectMapper.writeValueAsBytes(relationships);
+        String newRelationshipSegment = relationshipSegment;
+        if (newRelationshipSegment == null || !Arrays.equals(newRelationshipBytes, relationshipBytes)) {
+            newRelationshipSegment = "relationships-" + (nextSegmentId++) + ".json";
+            writeDurably(segmentDirectory.resolve(newRelationshipSegment), newRelationshipBytes);
+            written++;
+        }
+
+        writeManifest(manifest, segmentDirectory, newChunks, newRelationshipSegment);
+
+        chunks = newChunks;
+        relationshipSegment = newRelationshipSegment;
+        relationshipBytes = newRelationshipBytes;
+        manifestPath = manifest;
+        for (UMLClassInfo classInfo : classMap.values()) {
+            classInfo.markClean();
+        }
+        deleteUnreferencedSegments(segmentDirectory);
+        return written;
+    }
+
+    /**
+     * Reads a segmented diagram. Loaded classes start out clean, so the next save to the same
+     * manifest only writes what changes after this load.
+     *
+     * @param path          the manifest file
+     * @param classMap      receives the loaded classes
+     * @param relationships receives the loaded relationships
+     * @throws IOException if the manifest or a segment cannot be read
+     */
+    void load(Path path, Map<String, UMLClassInfo> classMap, List<Relationship> relationships) throws IOException {
+        Path manifest = path.toAbsolutePath().normalize();
+        Map<String, Object> manifestData = objectMapper.readValue(manifest.toFile(), new TypeReference<>() {});
+        if (!FORMAT.equals(manifestData.get("format"))) {
+            throw new IOException("Not a segmented diagram: " + path);
+        }
+        Path segmentDirectory = manifest.resolveSibling(String.valueOf(manifestData.get("segments")));
+
+        List<Chunk> loadedChunks = new ArrayList<>();
+        List<?> chunkFiles = (List<?>) manifestData.getOrDefault("chunks", List.of());
+        for (Object chunkFile : chunkFiles) {
+            String fileName = String.valueOf(chunkFile);
+            Map<String, UMLClassInfo> classes = objectMapper.readValue(
+                    segmentDirectory.resolve(fileName).toFile(),
+                    new TypeReference<LinkedHashMap<String, UMLClassInfo>>() {});
+            classes.values().forEach(UMLClassInfo::markClean);
+            classMap.putAll(classes);
+            loadedChunks.add(new Chunk(fileName, classes));
+        }
+
+        String loadedRelationshipSegment = (String) manifestData.get("relationships");
+        byte[] loadedRelationshipBytes = null;
+        if (loadedRelationshipSegment != null) {
+            loadedRelationshipBytes = Files.readAllBytes(segmentDirectory.resolve(loadedRelationshipSegment));
+            relationships.addAll(objectMapper.readValue(loadedRelationshipBytes, new TypeReference<List<Relationship>>() {}));
+            loadedRelationshipBytes = objectMapper.writeValueAsBytes(relationships);
+        }
+
+        chunks = loadedChunks;
+        relationshipSegment = loadedRelationshipSegment;
+        relationshipBytes = loadedRelationshipBytes;
+        nextSegmentId = ((Number) manifestData.getOrDefault("nextSegment", 0)).longValue();
+        if (Files.isDirectory(segmentDirectory)) {
+            // a save that failed before it replaced the manifest can leave segments behind that
+            // the manifest does not know about, so new segments must not reuse their names
+            nextSegmentId = Math.max(nextSegmentId, highestSegmentId(segmentDirectory) + 1);
+        }
+        manifestPath = manifest;
+    }
+
+    /**
+     * Forgets which segments the last save or load used, so the next save writes everything.
+     */
+    void reset() {
+        manifestPath = null;
+        chunks = new ArrayList<>();
+        relationshipSegment = null;
+        relationshipBytes = null;
+    }
+
+    private Chunk writeChunk(Path segmentDirectory, Map<String, UMLClassInfo> classes) throws IOException {
+        String fileName = "classes-" + (nextSegmentId++) + ".json";
+        writeDurably(segmentDirectory.resolve(fileName), objectMapper.writeValueAsBytes(classes));
+        return new Chunk(fileName, classes);
+    }
+
+    private void writeManifest(Path manifest, Path segmentDirectory, List<Chunk> manifestChunks,
+                               String relationships) throws IOException {
+        Map<String, Object> manifestData = new LinkedHashMap<>();
+        manifestData.put("format", FORMAT);
+        manifestData.put("segments", segmentDirectory.getFileName().toString());
+        manifestData.put("nextSegment", nextSegmentId);
+        manifestData.put("chunks", manifestChunks.stream().map(chunk -> chunk.fileName).toList());
+        manifestData.put("relationships", relationships);
+
+        Path temporary = manifest.resolveSibling(manifest.getFileName() + ".tmp");
+        Files.deleteIfExists(temporary);
+        writeDurably(temporary, objectMapper.writeValueAsBytes(manifestData));
+        try {
+            Files.move(temporary, manifest, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, manifest, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void deleteUnreferencedSegments(Path segmentDirectory) throws IOException {
+        Set<String> referenced = new HashSet<>();
+        chunks.forEach(chunk -> referenced.add(chunk.fileName));
+        referenced.add(relationshipSegment);
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(segmentDirectory, "*.json")) {
+            for (Path segment : segments) {
+                if (!referenced.contains(segment.getFileName().toString())) {
+                    Files.deleteIfExists(segment);
+                }
+            }
+        }
+    }
+
+    private static long highestSegmentId(Path segmentDirectory) throws IOException {
+        long highest = -1;
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(segmentDirectory, "*.json")) {
+            for (Path segment : segments) {
+                String name = segment.getFileName().toString();
+                int dash = name.lastIndexOf('-');
+                try {
+                    highest = Math.max(highest, Long.parseLong(name.substring(dash + 1, name.length() - 5)));
+                } catch (NumberFormatException | IndexOutOfBoundsException ignored) {
+                    // not one of our segments
+                }
+            }
+        }
+        return highest;
+    }
+
+    private static Path segmentDirectory(Path manifest) {
+        String name = manifest.getFileName().toString();
+        String base = name.endsWith(".json") ? name.substring(0, name.length() - 5) : name;
+        return manifest.resolveSibling(base + SEGMENT_DIRECTORY_SUFFIX);
+    }
+
+    /**
+     * Writes a new file and forces it to disk before returning.
+     */
+    private static void writeDurably(Path file, byte[] bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * A segment file and the exact class objects that were written to it.
+     */
+    private static final class Chunk {
+        private final String fileName;
+        private final Map<String, UMLClassInfo> classes;
+
+        Chunk(String fileName, Map<String, UMLClassInfo> classes) {
+            this.fileName = fileName;
+            this.classes = classes;
+        }
+
+        /**
+         * @return true if every class in the chunk is still in the diagram, under the same name,
+         * and has not changed since the chunk was written
+         */
+        boolean isUnchanged(Map<String, UMLClassInfo> classMap) {
+            for (Map.Entry<String, UMLClassInfo> entry : classes.entrySet()) {
+                UMLClassInfo current = classMap.get(entry.getKey());
+                if (current != entry.getValue() || current.isDirty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -8,15 +8,29 @@ import java.util.stream.Collectors;
 /**
  * The UMLClass class provides static methods to manage UML classes.
  * It includes functionality to add, remove, and rename classes.
- * All class information is stored in a static map where the key is the class name
- * and the value is the UMLClassInfo object containing details about the class.
+ * All class information is stored in the class map of the current {@link Diagram}, where the key
+ * is the class name and the value is the UMLClassInfo object containing details about the class.
  */
 public class UMLClass {
 
     /**
-     * A static map storing all classes, where the key is the class name and the value is the UMLClassInfo object.
+     * Gets the classes of the current {@link Diagram}, where the key is the class name and the value
+     * is the UMLClassInfo object.
+     *
+     * @return the live class map of the current diagram
+     */
+    public static Map<String, UMLClassInfo> getClassMap() {
+        return Diagram.current().getClassMap();
+    }
+
+    /**
+     * Replaces the classes of the current {@link Diagram}.
+     *
+     * @param classMap the new class map
      */
-    public static Map<String, UMLClassInfo> classMap = new HashMap<>();
+    public static void setClassMap(Map<String, UMLClassInfo> classMap) {
+        Diagram.current().setClassMap(classMap);
+    }
 
     /**
      * Adds a new class to the classMap if it does not already exist.
@@ -24,31 +38,33 @@ public class UMLClass {
      * @param className the name of the class to be added
      */
     public static void addClass(String className) {
-
-        // new logic for addClass. Old logic was incorrect.
-        // boolean result = false;
-        // if (className == null || className.isBlank()) {
-        //     System.out.println("Canceled: Inputted Class Name is Blank");
-        // } else if (exists(className)) {
-        //     System.out.println("Class " + className + " already exists");
-        // } else {
-        //     classMap.put(className, new UMLClassInfo(className));
-        //     System.out.println("Class " + className + " added");
-        //     result = true;
-        // }
-
-        // Old logic for addClass
-
-        if (className == null || className.isBlank()) {
-            System.out.println("Canceled: Inputted Class Name is Blank");
-            return;
-        }
-        if (exists(className)) {
-            System.out.println("Class " + className + " already exists");
-        } else {
-            classMap.put(className, new UMLClassInfo(className));
-            System.out.println("Class " + className + " added");
-        }
+        Diagram.current().write(() -> {
+            // new logic for addClass. Old logic was incorrect.
+            // boolean result = false;
+            // if (className == null || className.isBlank()) {
+            //     System.out.println("Canceled: Inputted Class Name is Blank");
+            // } else if (exists(className)) {
+            //     System.out.println("Class " + className + " already exists");
+            // } else {
+            //     getClassMap().put(className, new UMLClassInfo(className));
+            //     System.out.println("Class " + className + " added");
+            //     result = true;
+            // }
+
+            // Old logic for addClass
+
+            if (className == null || className.isBlank()) {
+                System.out.println("Canceled: Inputted Class Name is Blank");
+                return;
+            }
+            if (exists(className)) {
+                System.out.println("Class " + className + " already exists");
+            } else {
+                getClassMap().put(className, new UMLClassInfo(className));
+                Diagram.current().post(ModelEvent.forClass(ModelEvent.Kind.CLASS_ADDED, className));
+                System.out.println("Class " + className + " added");
+            }
+        });
     }
 
     /**
@@ -57,17 +73,20 @@ public class UMLClass {
      * @param className the name of the class to be removed
      */
     public static void removeClass(String className) {
-        if (className == null || className.isBlank()) {
-            System.out.println("Canceled: Inputted Class Name is Blank");
-            return;
-        }
-        if (!exists(className)) {
-            System.out.println("Class " + className + " does not exist");
-        } else {
-            Relationship.removeAttachedRelationships(className);
-            classMap.remove(className);
-            System.out.println("Class " + className + " removed");
-        }
+        Diagram.current().write(() -> {
+            if (className == null || className.isBlank()) {
+                System.out.println("Canceled: Inputted Class Name is Blank");
+                return;
+            }
+            if (!exists(className)) {
+                System.out.println("Class " + className + " does not exist");
+            } else {
+                Relationship.removeAttachedRelationships(className);
+                getClassMap().remove(className);
+                Diagram.current().post(ModelEvent.forClass(ModelEvent.Kind.CLASS_REMOVED, className));
+                System.out.println("Class " + className + " removed");
+            }
+        });
     }
 
     /**
@@ -77,24 +96,27 @@ public class UMLClass {
      * @param newClassName the new name for the class
      */
     public static void renameClass(String oldClassName, String newClassName) {
-        if (oldClassName == null || oldClassName.isBlank()) {
-            System.out.println("Canceled: Inputted Old Class Name is Blank");
-            return;
-        }
-        if (newClassName == null || newClassName.isBlank()) {
-            System.out.println("Canceled: Inputted New Class Name is Blank");
-            return;
-        }
-        if (!exists(oldClassName)) {
-            System.out.println("Class " + oldClassName + " does not exist");
-        } else if (exists(newClassName)) {
-            System.out.println("Class " + newClassName + " already exists");
-        } else {
-            UMLClassInfo classInfo = classMap.remove(oldClassName);
-            classInfo.setClassName(newClassName);
-            classMap.put(newClassName, classInfo);
-            System.out.println("Class " + oldClassName + " renamed to " + newClassName);
-        }
+        Diagram.current().write(() -> {
+            if (oldClassName == null || oldClassName.isBlank()) {
+                System.out.println("Canceled: Inputted Old Class Name is Blank");
+                return;
+            }
+            if (newClassName == null || newClassName.isBlank()) {
+                System.out.println("Canceled: Inputted New Class Name is Blank");
+                return;
+            }
+            if (!exists(oldClassName)) {
+                System.out.println("Class " + oldClassName + " does not exist");
+            } else if (exists(newClassName)) {
+                System.out.println("Class " + newClassName + " already exists");
+            } else {
+                UMLClassInfo classInfo = getClassMap().remove(oldClassName);
+                classInfo.setClassName(newClassName);
+                getClassMap().put(newClassName, classInfo);
+                Diagram.current().post(ModelEvent.renamed(oldClassName, newClassName));
+                System.out.println("Class " + oldClassName + " renamed to " + newClassName);
+            }
+        });
     }
 
     /**
@@ -104,24 +126,26 @@ public class UMLClass {
      * @return a formatted string of all classes, fields, and methods
      */
     public static String listAllClassesInfo() {
-        if (classMap.isEmpty()) {
-            return "No classes to display.";
-        }
-        StringBuilder result = new StringBuilder();
-        for (Map.Entry<String, UMLClassInfo> entry : classMap.entrySet()) {
-            UMLClassInfo classInfo = entry.getValue();
-            result.append("Class: ").append(classInfo.getClassName()).append("\n");
-            result.append("  Fields:\n");
-            for (UMLFieldInfo field : classInfo.getFields()) {
-                result.append("    - ").append(field).append("\n");
+        return Diagram.current().readLocked(() -> {
+            if (getClassMap().isEmpty()) {
+                return "No classes to display.";
             }
-            result.append("  Methods:\n");
-            for (UMLMethodInfo method : classInfo.getMethods()) {
-                result.append("    - ").append(method).append("\n");
+            StringBuilder result = new StringBuilder();
+            for (Map.Entry<String, UMLClassInfo> entry : getClassMap().entrySet()) {
+                UMLClassInfo classInfo = entry.getValue();
+                result.append("Class: ").append(classInfo.getClassName()).append("\n");
+                result.append("  Fields:\n");
+                for (UMLFieldInfo field : classInfo.getFields()) {
+                    result.append("    - ").append(field).append("\n");
+                }
+                result.append("  Methods:\n");
+                for (UMLMethodInfo method : classInfo.getMethods()) {
+                    result.append("    - ").append(method).append("\n");
+                }
+                result.append("\n");
             }
-            result.append("\n");
-        }
-        return result.toString();
+            return result.toString();
+        });
     }
 
     /**
@@ -131,7 +155,9 @@ public class UMLClass {
      * @return true if the class exists, false otherwise
      */
     public static boolean exists(String className) {
-        return classMap.containsKey(className);
+        return Diagram.current().read(() -> {
+            return getClassMap().containsKey(className);
+        });
     }
 
 
@@ -142,7 +168,9 @@ public class UMLClass {
      * @return the name if the class exists, null otherwise
      */
     public static UMLClassInfo getClassInfo(String className) {
-        return classMap.get(className);
+        return Diagram.current().read(() -> {
+            return getClassMap().get(className);
+        });
     }
 
     /**
@@ -152,42 +180,43 @@ public class UMLClass {
      * @return A formatted string containing class details and its relationships
      */
     public static String getClassDetails(String className) {
+        return Diagram.current().readLocked(() -> {
+            if (!getClassMap().containsKey(className)) {
+                return "Class '" + className + "' does not exist in the system.";
+            }
+
+            UMLClassInfo classInfo = getClassMap().get(className);
+
+            StringBuilder details = new StringBuilder();
+            details.append("Class Name: ").append(classInfo.getClassName()).append("\n");
+            details.append("Fields:\n");
+            for (UMLFieldInfo field : classInfo.getFields()) {
+                details.append("  - ").append(field.toString()).append("\n");
+            }
+            details.append("Methods:\n");
+            for (UMLMethodInfo method : classInfo.getMethods()) {
+                details.append("  - ").append(method.toString()).append("\n");
+            }
 
-        if (!UMLClass.classMap.containsKey(className)) {
-            return "Class '" + className + "' does not exist in the system.";
-        }
-
-        UMLClassInfo classInfo = UMLClass.classMap.get(className);
-
-        StringBuilder details = new StringBuilder();
-        details.append("Class Name: ").append(classInfo.getClassName()).append("\n");
-        details.append("Fields:\n");
-        for (UMLFieldInfo field : classInfo.getFields()) {
-            details.append("  - ").append(field.toString()).append("\n");
-        }
-        details.append("Methods:\n");
-        for (UMLMethodInfo method : classInfo.getMethods()) {
-            details.append("  - ").append(method.toString()).append("\n");
-        }
-
-        ArrayList<Relationship> relationships = Relationship.relationshipList.stream()
-                .filter(rel -> rel.getClassNames().contains(className))
-                .collect(Collectors.toCollection(ArrayList::new));
-
-        details.append("Relationships:\n");
-        if (relationships.isEmpty()) {
-            details.append("  No relationships found.\n");
-        } else {
-            for (Relationship rel : relationships) {
-                String[] classNames = rel.getClassNamesAsArray();
-                String otherClass = classNames[0].equals(className) ? classNames[1] : classNames[0];
-                details.append("  ").append(className)
-                        .append(rel.getType().getArrowString())
-                        .append(otherClass)
-                        .append(" (").append(rel.getType().toString()).append(")\n");
+            ArrayList<Relationship> relationships = Relationship.getRelationshipList().stream()
+                    .filter(rel -> rel.getClassNames().contains(className))
+                    .collect(Collectors.toCollection(ArrayList::new));
+
+            details.append("Relationships:\n");
+            if (relationships.isEmpty()) {
+                details.append("  No relationships found.\n");
+            } else {
+                for (Relationship rel : relationships) {
+                    String[] classNames = rel.getClassNamesAsArray();
+                    String otherClass = classNames[0].equals(className) ? classNames[1] : classNames[0];
+                    details.append("  ").append(className)
+                            .append(rel.getType().getArrowString())
+                            .append(otherClass)
+                            .append(" (").append(rel.getType().toString()).append(")\n");
+                }
             }
-        }
 
-        return details.toString();
+            return details.toString();
+        });
     }
 }
@@ -1,7 +1,12 @@
 package codecain.BackendCode.Model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
 
@@ -34,12 +39,28 @@ public class UMLClassInfo {
      */
     private int y;
 
+    /**
+     * Where the fields and methods of a lazily loaded class live in its mapped save file,
+     * or null once they have been read (or if the class was never lazily loaded).
+     */
+    private volatile MappedDiagramFile.Range memberSource;
+
+    /**
+     * Whether the class has changed since it was last written to a segmented save.
+     */
+    private boolean dirty = true;
+
+    /**
+     * A copy of the class as it is now, shared by every undo state taken until the class changes again.
+     */
+    private volatile UMLClassInfo snapshot;
+
     /**
      * Default constructor for UMLClassInfo. Required for JSON deserialization.
      */
     public UMLClassInfo() {
-        this.fields = new ArrayList<>();
-        this.methods = new ArrayList<>();
+        this.fields = trackFields(null);
+        this.methods = trackMethods(null);
     }
 
     /**
@@ -50,12 +71,58 @@ public class UMLClassInfo {
      */
     public UMLClassInfo(String className) {
         this.className = className;
-        this.fields = new ArrayList<>();
-        this.methods = new ArrayList<>();
+        this.fields = trackFields(null);
+        this.methods = trackMethods(null);
         this.x = 0;
         this.y = 0;
     }
 
+    /**
+     * Constructs a deep copy of another UMLClassInfo, including copies of all its fields,
+     * methods and parameters.
+     * A class whose members have not been loaded yet is copied without loading them; the copy
+     * shares the mapped location they are read from instead.
+     *
+     * @param other the class to copy
+     */
+    public UMLClassInfo(UMLClassInfo other) {
+        this.className = other.className;
+        this.x = other.x;
+        this.y = other.y;
+        synchronized (other) {
+            if (other.memberSource != null) {
+                this.memberSource = other.memberSource;
+                return;
+            }
+        }
+        List<UMLFieldInfo> fieldCopies = new ArrayList<>();
+        for (UMLFieldInfo field : other.getFields()) {
+            fieldCopies.add(new UMLFieldInfo(field));
+        }
+        List<UMLMethodInfo> methodCopies = new ArrayList<>();
+        for (UMLMethodInfo method : other.getMethods()) {
+            methodCopies.add(new UMLMethodInfo(method));
+        }
+        this.fields = trackFields(fieldCopies);
+        this.methods = trackMethods(methodCopies);
+    }
+
+    /**
+     * Constructs a lazily loaded UMLClassInfo whose fields and methods are read from
+     * the mapped save file the first time they are accessed.
+     *
+     * @param className    the name of the UML class
+     * @param x            the x-coordinate of the class box
+     * @param y            the y-coordinate of the class box
+     * @param memberSource the location of the full class object in the mapped file
+     */
+    UMLClassInfo(String className, int x, int y, MappedDiagramFile.Range memberSource) {
+        this.className = className;
+        this.x = x;
+        this.y = y;
+        this.memberSource = memberSource;
+    }
+
     /**
      * Gets the name of the UML class.
      *
@@ -72,7 +139,10 @@ public class UMLClassInfo {
      * @param className the new name of the class
      */
     public void setClassName(String className) {
-        this.className = className;
+        if (!Objects.equals(this.className, className)) {
+            this.className = className;
+            markDirty();
+        }
     }
 
     /**
@@ -81,18 +151,72 @@ public class UMLClassInfo {
      * @return a list of UMLFieldsInfo objects representing the fields
      */
     public List<UMLFieldInfo> getFields() {
+        loadMembers();
         return this.fields;
     }
 
+    /**
+     * Replaces the fields of the UML class.
+     *
+     * @param fields the new fields
+     */
+    public void setFields(List<UMLFieldInfo> fields) {
+        loadMembers();
+        this.fields = trackFields(fields);
+        membersChanged();
+    }
+
     /**
      * Gets the list of methods in the UML class.
      *
      * @return a list of UMLMethodInfo objects representing the methods
      */
     public List<UMLMethodInfo> getMethods() {
+        loadMembers();
         return this.methods;
     }
 
+    /**
+     * Replaces the methods of the UML class.
+     *
+     * @param methods the new methods
+     */
+    public void setMethods(List<UMLMethodInfo> methods) {
+        loadMembers();
+        this.methods = trackMethods(methods);
+        membersChanged();
+    }
+
+    /**
+     * Checks whether the fields and methods of this class are in memory.
+     * Only classes opened with {@link SaveManager#loadFromJSONLazy(String)} can return false.
+     *
+     * @return true if the members have been loaded
+     */
+    @JsonIgnore
+    public boolean isLoaded() {
+        return memberSource == null;
+    }
+
+    /**
+     * Reads the fields and methods of a lazily loaded class from its mapped save file.
+     * Does nothing if they are already loaded.
+     */
+    synchronized void loadMembers() {
+        MappedDiagramFile.Range source = memberSource;
+        if (source == null) {
+            return;
+        }
+        try {
+            UMLClassInfo full = source.read();
+            this.fields = trackFields(full.fields);
+            this.methods = trackMethods(full.methods);
+            this.memberSource = null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load members of class " + className, e);
+        }
+    }
+
 
     public int getX() {
         return x;
@@ -104,7 +228,11 @@ public class UMLClassInfo {
      * @param x the x-coordinate
      */
     public void setX(int x) {
-        this.x = x;
+        if (this.x != x) {
+            this.x = x;
+            markDirty();
+            Diagram.current().postClassChange(this, ModelEvent.Kind.POSITION_CHANGED);
+        }
     }
 
     /**
@@ -122,7 +250,62 @@ public class UMLClassInfo {
      * @param y the y-coordinate
      */
     public void setY(int y) {
-        this.y = y;
+        if (this.y != y) {
+            this.y = y;
+            markDirty();
+            Diagram.current().postClassChange(this, ModelEvent.Kind.POSITION_CHANGED);
+        }
+    }
+
+    /**
+     * Takes over the position and members of a saved copy of this class, for undo and redo.
+     * Only what differs is changed, and the saved members are copied, so the saved class stays
+     * untouched and an unchanged class reports nothing.
+     *
+     * @param saved the saved state of this class
+     */
+    void restoreFrom(UMLClassInfo saved) {
+        setX(saved.getX());
+        setY(saved.getY());
+        if (memberSource != null && memberSource == saved.memberSource) {
+            return; // neither side has been loaded, so the members are the same
+        }
+        if (!sameFields(getFields(), saved.getFields())) {
+            List<UMLFieldInfo> copies = new ArrayList<>();
+            saved.getFields().forEach(field -> copies.add(new UMLFieldInfo(field)));
+            setFields(copies);
+        }
+        if (!sameMethods(getMethods(), saved.getMethods())) {
+            List<UMLMethodInfo> copies = new ArrayList<>();
+            saved.getMethods().forEach(method -> copies.add(new UMLMethodInfo(method)));
+            setMethods(copies);
+        }
+    }
+
+    private static boolean sameFields(List<UMLFieldInfo> a, List<UMLFieldInfo> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!Objects.equals(a.get(i).getFieldName(), b.get(i).getFieldName())
+                    || !Objects.equals(a.get(i).getFieldType(), b.get(i).getFieldType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameMethods(List<UMLMethodInfo> a, List<UMLMethodInfo> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!Objects.equals(a.get(i).getMethodName(), b.get(i).getMethodName())
+                    || !a.get(i).getParameters().equals(b.get(i).getParameters())) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -132,11 +315,70 @@ public class UMLClassInfo {
      * @return the UMLMethodInfo object representing the method if found, or null if not found
      */
     public UMLMethodInfo getMethodByName(String methodName) {
-        for (UMLMethodInfo method : methods) {
+        for (UMLMethodInfo method : getMethods()) {
             if (method.getMethodName().equals(methodName)) {
                 return method;
             }
         }
         return null;
     }
+
+    /**
+     * Gets a copy of the class as it is now, for an undo state. The copy is only made again after
+     * the class changes, so states taken in between share it instead of copying every class each time.
+     * The copy must not be changed.
+     *
+     * @return an unchanging copy of the class
+     */
+    public UMLClassInfo snapshot() {
+        UMLClassInfo copy = snapshot;
+        if (copy == null) {
+            copy = new UMLClassInfo(this);
+            snapshot = copy;
+        }
+        return copy;
+    }
+
+    /**
+     * Checks whether the class has changed since it was last written to a segmented save.
+     * Classes that were never saved that way are always dirty.
+     *
+     * @return true if the class needs to be written again
+     */
+    @JsonIgnore
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Records that the class, one of its members, or one of their parameters has changed since the last save.
+     */
+    void markDirty() {
+        dirty = true;
+        snapshot = null;
+    }
+
+    /**
+     * Records that a member of the class or one of their parameters has changed, and reports it
+     * to the listeners of the current diagram if the class belongs to it.
+     */
+    void membersChanged() {
+        markDirty();
+        Diagram.current().postClassChange(this, ModelEvent.Kind.MEMBERS_CHANGED);
+    }
+
+    /**
+     * Records that the class has just been written to, or read from, a segmented save.
+     */
+    void markClean() {
+        dirty = false;
+    }
+
+    private List<UMLFieldInfo> trackFields(List<UMLFieldInfo> fields) {
+        return new MemberList<>(fields, field -> field.owner = this, this::membersChanged);
+    }
+
+    private List<UMLMethodInfo> trackMethods(List<UMLMethodInfo> methods) {
+        return new MemberList<>(methods, method -> method.owner = this, this::membersChanged);
+    }
 }
@@ -20,6 +20,11 @@ public class UMLFieldInfo {
      */
     private String fieldType;
 
+    /**
+     * The class this field belongs to, notified when the field changes.
+     */
+    UMLClassInfo owner;
+
     /**
 
      * Constructs a UMLFieldsInfo object with default values for the field name and field type.
@@ -41,6 +46,16 @@ public class UMLFieldInfo {
         this.fieldType = fieldType;
     }
 
+    /**
+     * Constructs a copy of another field.
+     *
+     * @param other the field to copy
+     */
+    public UMLFieldInfo(UMLFieldInfo other) {
+        this.fieldName = other.fieldName;
+        this.fieldType = other.fieldType;
+    }
+
     /**
      * Gets the name of the field.
      *
@@ -66,6 +81,7 @@ public class UMLFieldInfo {
      */
     public void setFieldName(String fieldName) {
         this.fieldName = fieldName;
+        markOwnerDirty();
     }
 
     /**
@@ -75,6 +91,16 @@ public class UMLFieldInfo {
      */
     public void setFieldType(String fieldType) {
         this.fieldType = fieldType;
+        markOwnerDirty();
+    }
+
+    /**
+     * Marks the owning class as changed since its last save.
+     */
+    private void markOwnerDirty() {
+        if (owner != null) {
+            owner.membersChanged();
+        }
     }
 
     /**
@@ -14,20 +14,22 @@ public class UMLFields {
      * @param fieldType the type of the field being added
      */
     public void addField(String className, String fieldType, String fieldName) {
-        if (isInputInvalid(className, fieldName)) return;
-        if (fieldType == null || fieldType.isBlank()) {
-            System.out.println("Action Canceled: Field type is invalid");
-            return;
-        }
-        UMLClassInfo classInfo = getClassInfo(className);
-        if (classInfo == null) return;
-        if (doesFieldExist(classInfo, fieldName)) {
+        Diagram.current().write(() -> {
+            if (isInputInvalid(className, fieldName)) return;
+            if (fieldType == null || fieldType.isBlank()) {
+                System.out.println("Action Canceled: Field type is invalid");
+                return;
+            }
+            UMLClassInfo classInfo = getClassInfo(className);
+            if (classInfo == null) return;
+            if (doesFieldExist(classInfo, fieldName)) {
 
-            System.out.println("Action Canceled: Field of type " + fieldType + " " + fieldName + " already exists in class " + className);
-            return;
-        }
-        classInfo.getFields().add(new UMLFieldInfo(fieldType, fieldName));
-        System.out.println("Field of type " + fieldType + " " + fieldName + " added to class " + className);
+                System.out.println("Action Canceled: Field of type " + fieldType + " " + fieldName + " already exists in class " + className);
+                return;
+            }
+            classInfo.getFields().add(new UMLFieldInfo(fieldType, fieldName));
+            System.out.println("Field of type " + fieldType + " " + fieldName + " added to class " + className);
+        });
     }
 
     /**
@@ -37,16 +39,18 @@ public class UMLFields {
      * @param fieldName the name of the field to be removed
      */
     public void removeField(String className, String fieldName) {
-        if (isInputInvalid(className, fieldName)) return;
-        UMLClassInfo classInfo = getClassInfo(className);
-        if (classInfo == null) return;
-        UMLFieldInfo field = getFieldByName(classInfo, fieldName);
-        if (field == null) {
-            System.out.println("Action Canceled: Field " + fieldName + " does not exist in class " + className);
-            return;
-        }
-        classInfo.getFields().remove(field);
-        System.out.println("Field " + fieldName + " removed from class " + className);
+        Diagram.current().write(() -> {
+            if (isInputInvalid(className, fieldName)) return;
+            UMLClassInfo classInfo = getClassInfo(className);
+            if (classInfo == null) return;
+            UMLFieldInfo field = getFieldByName(classInfo, fieldName);
+            if (field == null) {
+                System.out.println("Action Canceled: Field " + fieldName + " does not exist in class " + className);
+                return;
+            }
+            classInfo.getFields().remove(field);
+            System.out.println("Field " + fieldName + " removed from class " + className);
+        });
     }
 
     /**
@@ -58,23 +62,25 @@ public class UMLFields {
      * @param newFieldType the new type for the field
      */
     public void renameField(String className, String oldFieldName, String newFieldType, String newFieldName) {
-        if (isInputInvalid(className, oldFieldName) || isInputInvalid(className, newFieldName)) {
-            return;
-        }
-        UMLClassInfo classInfo = getClassInfo(className);
-        if (classInfo == null) return;
-        UMLFieldInfo field = getFieldByName(classInfo, oldFieldName);
-        if (field == null) {
-            System.out.println("Action Canceled: Field " + oldFieldName + " does not exist in class " + className);
-            return;
-        }
-        if (!oldFieldName.equals(newFieldName) && getFieldByName(classInfo, newFieldName) != null) {
-            System.out.println("Action Canceled: Field " + newFieldName + " already exists in class " + className);
-            return;
-        }
-        field.setFieldName(newFieldName);
-        field.setFieldType(newFieldType);
-        System.out.println("Field " + oldFieldName + " renamed to " + newFieldName + " with type " + newFieldType + " in class " + className);
+        Diagram.current().write(() -> {
+            if (isInputInvalid(className, oldFieldName) || isInputInvalid(className, newFieldName)) {
+                return;
+            }
+            UMLClassInfo classInfo = getClassInfo(className);
+            if (classInfo == null) return;
+            UMLFieldInfo field = getFieldByName(classInfo, oldFieldName);
+            if (field == null) {
+                System.out.println("Action Canceled: Field " + oldFieldName + " does not exist in class " + className);
+                return;
+            }
+            if (!oldFieldName.equals(newFieldName) && getFieldByName(classInfo, newFieldName) != null) {
+                System.out.println("Action Canceled: Field " + newFieldName + " already exists in class " + className);
+                return;
+            }
+            field.setFieldName(newFieldName);
+            field.setFieldType(newFieldType);
+            System.out.println("Field " + oldFieldName + " renamed to " + newFieldName + " with type " + newFieldType + " in class " + className);
+        });
     }
 
 
@@ -105,7 +111,7 @@ public class UMLFields {
      * @return the UMLClassInfo object, or null if class does not exist
      */
     private UMLClassInfo getClassInfo(String className) {
-        UMLClassInfo classInfo = UMLClass.classMap.get(className);
+        UMLClassInfo classInfo = UMLClass.getClassMap().get(className);
         if (classInfo == null) {
             System.out.println("Action Canceled: Class " + className + " does not exist");
         }
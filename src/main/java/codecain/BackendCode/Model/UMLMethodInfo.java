@@ -19,12 +19,17 @@ public class UMLMethodInfo {
      */
     private List<UMLParameterInfo> parameters;
 
+    /**
+     * The class this method belongs to, notified when the method changes.
+     */
+    UMLClassInfo owner;
+
 
     /**
      * Constructs a UMLMethodInfo object with an empty list of parameters.
      */
     public UMLMethodInfo() {
-        this.parameters = new ArrayList<>();
+        this.parameters = trackParameters(null);
     }
 
 
@@ -36,10 +41,39 @@ public class UMLMethodInfo {
      */
     public UMLMethodInfo(String methodName, List<UMLParameterInfo> parameters) {
         this.methodName = methodName;
-        if (parameters != null) {
-            this.parameters = new ArrayList<>(parameters);
-        } else {
-            this.parameters = new ArrayList<>();
+        this.parameters = trackParameters(parameters);
+    }
+
+    /**
+     * Constructs a deep copy of another method, including copies of its parameters.
+     *
+     * @param other the method to copy
+     */
+    public UMLMethodInfo(UMLMethodInfo other) {
+        this.methodName = other.methodName;
+        List<UMLParameterInfo> parameterCopies = new ArrayList<>();
+        for (UMLParameterInfo parameter : other.parameters) {
+            parameterCopies.add(new UMLParameterInfo(parameter));
+        }
+        this.parameters = trackParameters(parameterCopies);
+    }
+
+    /**
+     * Wraps parameters in a list that reports changes to the owning class.
+     *
+     * @param parameters the parameters to track (can be null)
+     * @return a tracked copy of the parameters
+     */
+    private List<UMLParameterInfo> trackParameters(List<UMLParameterInfo> parameters) {
+        return new MemberList<>(parameters, parameter -> parameter.owner = this, this::markDirty);
+    }
+
+    /**
+     * Marks the owning class as changed since its last save.
+     */
+    void markDirty() {
+        if (owner != null) {
+            owner.membersChanged();
         }
     }
 
@@ -60,6 +94,7 @@ public class UMLMethodInfo {
      */
     public void setMethodName(String methodName) {
         this.methodName = methodName;
+        markDirty();
     }
 
     /**
@@ -76,7 +111,10 @@ public class UMLMethodInfo {
      *
      * @param parameters
      */
-    public void setParameters(List<UMLParameterInfo> parameters) { this.parameters = parameters; }
+    public void setParameters(List<UMLParameterInfo> parameters) {
+        this.parameters = trackParameters(parameters);
+        markDirty();
+    }
 
     /**
      * Adds a parameter to the method.
@@ -16,17 +16,19 @@ public class UMLMethods {
      * @param parameters  A list of UMLParameterInfo objects for the method
      */
     public void addMethod(String className, String methodName, List<UMLParameterInfo> parameters) {
-        if (isInputInvalid(className, methodName)) return;
-        UMLClassInfo classInfo = getClassInfo(className);
-        if (classInfo == null) return;
-
-        UMLMethodInfo existingMethod = classInfo.getMethodByName(methodName);
-        if (existingMethod != null && existingMethod.getParameters().equals(parameters)) {
-            System.out.println("Action Canceled: Method " + methodName + " with " + parameters + " already exists in class " + className);
-        } else {
-            classInfo.getMethods().add(new UMLMethodInfo(methodName, parameters));
-            System.out.println("Method " + methodName + " with " + parameters + " added to class " + className);
-        }
+        Diagram.current().write(() -> {
+            if (isInputInvalid(className, methodName)) return;
+            UMLClassInfo classInfo = getClassInfo(className);
+            if (classInfo == null) return;
+
+            UMLMethodInfo existingMethod = classInfo.getMethodByName(methodName);
+            if (existingMethod != null && existingMethod.getParameters().equals(parameters)) {
+                System.out.println("Action Canceled: Method " + methodName + " with " + parameters + " already exists in class " + className);
+            } else {
+                classInfo.getMethods().add(new UMLMethodInfo(methodName, parameters));
+                System.out.println("Method " + methodName + " with " + parameters + " added to class " + className);
+            }
+        });
     }
 
 
@@ -37,15 +39,17 @@ public class UMLMethods {
      * @param methodName The name of the method to remove
      */
     public void removeMethod(String className, String methodName) {
-        UMLClassInfo classInfo = getClassInfo(className);
-        if (classInfo == null) return;
-        UMLMethodInfo method = classInfo.getMethodByName(methodName);
-        if (method == null) {
-            System.out.println("Action Canceled: Method " + methodName + " does not exist in class " + className);
-        } else {
-            classInfo.getMethods().remove(method);
-            System.out.println("Method " + methodName + " removed from class " + className);
-        }
+        Diagram.current().write(() -> {
+            UMLClassInfo classInfo = getClassInfo(className);
+            if (classInfo == null) return;
+            UMLMethodInfo method = classInfo.getMethodByName(methodName);
+            if (method == null) {
+                System.out.println("Action Canceled: Method " + methodName + " does not exist in class " + className);
+            } else {
+                classInfo.getMethods().remove(method);
+                System.out.println("Method " + methodName + " removed from class " + className);
+            }
+        });
     }
 
     /**
@@ -56,18 +60,20 @@ public class UMLMethods {
      * @param newMethodName The new name for the method
      */
     public void renameMethod(String className, String oldMethodName, String newMethodName) {
-        UMLClassInfo classInfo = getClassInfo(className);
-        if (classInfo == null) return;
-        UMLMethodInfo method = classInfo.getMethodByName(oldMethodName);
-        if (method == null) {
-            System.out.println("Action Canceled: Method " + oldMethodName + " does not exist in class " + className);
-        } else if (classInfo.getMethodByName(newMethodName) != null) {
-            System.out.println("Action Canceled: Method " + newMethodName + " already exists in class " + className);
-            // Needs Fixed to work with overloaded methods
-        } else {
-            method.setMethodName(newMethodName);
-            System.out.println("Method " + oldMethodName + " renamed to " + newMethodName + " in class " + className);
-        }
+        Diagram.current().write(() -> {
+            UMLClassInfo classInfo = getClassInfo(className);
+            if (classInfo == null) return;
+            UMLMethodInfo method = classInfo.getMethodByName(oldMethodName);
+            if (method == null) {
+                System.out.println("Action Canceled: Method " + oldMethodName + " does not exist in class " + className);
+            } else if (classInfo.getMethodByName(newMethodName) != null) {
+                System.out.println("Action Canceled: Method " + newMethodName + " already exists in class " + className);
+                // Needs Fixed to work with overloaded methods
+            } else {
+                method.setMethodName(newMethodName);
+                System.out.println("Method " + oldMethodName + " renamed to " + newMethodName + " in class " + className);
+            }
+        });
     }
 
     /**
@@ -79,20 +85,22 @@ public class UMLMethods {
      * @param parameterName The name of the parameter to add
      */
     public void addParameter(String className, String methodName, String parameterType, String parameterName) {
-        UMLClassInfo classInfo = getClassInfo(className);
-        if (classInfo == null) return;
-        UMLMethodInfo method = classInfo.getMethodByName(methodName);
-        if (method == null) {
-            System.out.println("Action Canceled: Method " + methodName + " does not exist in class " + className);
-            return;
-        }
-        UMLParameterInfo newParameter = new UMLParameterInfo(parameterType, parameterName);
-        if (!method.getParameters().contains(newParameter)) {
-            method.addParameter(newParameter);
-            System.out.println("Parameter " + newParameter + " added to method " + methodName + " in class " + className);
-        } else {
-            System.out.println("Action Canceled: Parameter " + newParameter + " already exists in method " + methodName);
-        }
+        Diagram.current().write(() -> {
+            UMLClassInfo classInfo = getClassInfo(className);
+            if (classInfo == null) return;
+            UMLMethodInfo method = classInfo.getMethodByName(methodName);
+            if (method == null) {
+                System.out.println("Action Canceled: Method " + methodName + " does not exist in class " + className);
+                return;
+            }
+            UMLParameterInfo newParameter = new UMLParameterInfo(parameterType, parameterName);
+            if (!method.getParameters().contains(newParameter)) {
+                method.addParameter(newParameter);
+                System.out.println("Parameter " + newParameter + " added to method " + methodName + " in class " + className);
+            } else {
+                System.out.println("Action Canceled: Parameter " + newParameter + " already exists in method " + methodName);
+            }
+        });
     }
 
     /**
@@ -103,20 +111,22 @@ public class UMLMethods {
      * @param parameterName The name of the parameter to remove
      */
     public void removeParameter(String className, String methodName, String parameterName) {
-        UMLClassInfo classInfo = getClassInfo(className);
-        if (classInfo == null) return;
-        UMLMethodInfo method = classInfo.getMethodByName(methodName);
-        if (method == null) {
-            System.out.println("Action Canceled: Method " + methodName + " does not exist in class " + className);
-            return;
-        }
-        UMLParameterInfo parameterToRemove = getParameterByName(method, parameterName);
-        if (parameterToRemove != null) {
-            method.removeParameter(parameterToRemove);
-            System.out.println("Parameter '" + parameterName + "' removed from method '" + methodName + "' in class '" + className + "'.");
-        } else {
-            System.out.println("Action Canceled: Parameter '" + parameterName + "' does not exist in method '" + methodName + "'.");
-        }
+        Diagram.current().write(() -> {
+            UMLClassInfo classInfo = getClassInfo(className);
+            if (classInfo == null) return;
+            UMLMethodInfo method = classInfo.getMethodByName(methodName);
+            if (method == null) {
+                System.out.println("Action Canceled: Method " + methodName + " does not exist in class " + className);
+                return;
+            }
+            UMLParameterInfo parameterToRemove = getParameterByName(method, parameterName);
+            if (parameterToRemove != null) {
+                method.removeParameter(parameterToRemove);
+                System.out.println("Parameter '" + parameterName + "' removed from method '" + methodName + "' in class '" + className + "'.");
+            } else {
+                System.out.println("Action Canceled: Parameter '" + parameterName + "' does not exist in method '" + methodName + "'.");
+            }
+        });
     }
 
 
@@ -128,13 +138,15 @@ public class UMLMethods {
      * @param newParameters The new list of UMLParameterInfo objects to set as the parameters of the method
      */
     public void changeAllParameters(String className, String methodName, List<UMLParameterInfo> newParameters) {
-        UMLClassInfo classInfo = getClassInfo(className);
-        if (classInfo == null) return;
-        UMLMethodInfo method = getMethodInfo(classInfo, methodName);
-        if (method == null) return;
-        method.getParameters().clear();
-        newParameters.forEach(param -> addParameter(className, methodName, param.getParameterType(), param.getParameterName()));
-        System.out.println("All parameters replaced for method " + methodName + " in class " + className);
+        Diagram.current().write(() -> {
+            UMLClassInfo classInfo = getClassInfo(className);
+            if (classInfo == null) return;
+            UMLMethodInfo method = getMethodInfo(classInfo, methodName);
+            if (method == null) return;
+            method.getParameters().clear();
+            newParameters.forEach(param -> addParameter(className, methodName, param.getParameterType(), param.getParameterName()));
+            System.out.println("All parameters replaced for method " + methodName + " in class " + className);
+        });
     }
 
     /**
@@ -147,18 +159,20 @@ public class UMLMethods {
      * @param newParameterName The name of the new parameter
      */
     public void changeSingleParameter(String className, String methodName, String oldParameterName, String newParameterType, String newParameterName) {
-        UMLClassInfo classInfo = getClassInfo(className);
-        if (classInfo == null) return;
-        UMLMethodInfo method = classInfo.getMethodByName(methodName);
-        if (method == null) {
-            System.out.println("Action Canceled: Method " + methodName + " does not exist in class " + className);
-            return;
-        }
-        if (renameParameter(method, oldParameterName, newParameterType, newParameterName)) {
-            System.out.println("Parameter " + oldParameterName + " updated to " + newParameterType + " " + newParameterName + " in method " + methodName + " of class " + className);
-        } else {
-            System.out.println("Action Canceled: Parameter " + oldParameterName + " does not exist in method " + methodName);
-        }
+        Diagram.current().write(() -> {
+            UMLClassInfo classInfo = getClassInfo(className);
+            if (classInfo == null) return;
+            UMLMethodInfo method = classInfo.getMethodByName(methodName);
+            if (method == null) {
+                System.out.println("Action Canceled: Method " + methodName + " does not exist in class " + className);
+                return;
+            }
+            if (renameParameter(method, oldParameterName, newParameterType, newParameterName)) {
+                System.out.println("Parameter " + oldParameterName + " updated to " + newParameterType + " " + newParameterName + " in method " + methodName + " of class " + className);
+            } else {
+                System.out.println("Action Canceled: Parameter " + oldParameterName + " does not exist in method " + methodName);
+            }
+        });
     }
 
     /**
@@ -208,7 +222,7 @@ public class UMLMethods {
      * @return The UMLClassInfo object if the class exists; null otherwise.
      */
     private UMLClassInfo getClassInfo(String className) {
-        UMLClassInfo classInfo = UMLClass.classMap.get(className);
+        UMLClassInfo classInfo = UMLClass.getClassMap().get(className);
         if (classInfo == null) {
             System.out.println("Action Canceled: Class " + className + " does not exist");
         }
@@ -18,6 +18,11 @@ public class UMLParameterInfo {
      */
     private String parameterType;
 
+    /**
+     * The method this parameter belongs to, notified when the parameter changes.
+     */
+    UMLMethodInfo owner;
+
     /**
      * No-argument constructor for Jackson deserialization.
      */
@@ -34,6 +39,16 @@ public class UMLParameterInfo {
         this.parameterName = parameterName;
     }
 
+    /**
+     * Constructs a copy of another parameter.
+     *
+     * @param other the parameter to copy
+     */
+    public UMLParameterInfo(UMLParameterInfo other) {
+        this.parameterType = other.parameterType;
+        this.parameterName = other.parameterName;
+    }
+
     /**
      * Gets the name of the parameter.
      *
@@ -50,6 +65,7 @@ public class UMLParameterInfo {
      */
     public void setParameterName(String parameterName) {
         this.parameterName = parameterName;
+        markOwnerDirty();
     }
 
     /**
@@ -68,6 +84,16 @@ public class UMLParameterInfo {
      */
     public void setParameterType(String parameterType) {
         this.parameterType = parameterType;
+        markOwnerDirty();
+    }
+
+    /**
+     * Marks the class owning this parameter's method as changed since its last save.
+     */
+    private void markOwnerDirty() {
+        if (owner != null) {
+            owner.markDirty();
+        }
     }
 
     /**
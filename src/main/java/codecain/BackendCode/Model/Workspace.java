@@ -0,0 +1,84 @@
+package codecain.BackendCode.Model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A named collection of independent diagrams.
+ * Each diagram keeps its own classes, relationships and undo history, so several can be open
+ * and worked on at the same time, including from different threads.
+ */
+public class Workspace {
+
+    /**
+     * The diagrams in this workspace, keyed by name.
+     */
+    private final ConcurrentMap<String, Diagram> diagrams = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the diagram with the given name, creating an empty one if it does not exist yet.
+     *
+     * @param name the diagram name
+     * @return the diagram
+     * @throws IllegalArgumentException if the name is null or blank
+     */
+    public Diagram open(String name) {
+        validateName(name);
+        return diagrams.computeIfAbsent(name, key -> new Diagram());
+    }
+
+    /**
+     * Adds an existing diagram under the given name, replacing any diagram with that name.
+     *
+     * @param name    the diagram name
+     * @param diagram the diagram to add
+     * @throws IllegalArgumentException if the name is blank or the diagram is null
+     */
+    public void put(String name, Diagram diagram) {
+        validateName(name);
+        if (diagram == null) {
+            throw new IllegalArgumentException("Diagram cannot be null");
+        }
+        diagrams.put(name, diagram);
+    }
+
+    /**
+     * Gets the diagram with the given name.
+     *
+     * @param name the diagram name
+     * @return the diagram, or null if there is none with that name
+     */
+    public Diagram get(String name) {
+        return name == null ? null : diagrams.get(name);
+    }
+
+    /**
+     * Removes the diagram with the given name.
+     *
+     * @param name the diagram name
+     * @return true if a diagram was removed
+     */
+    public boolean close(String name) {
+        return name != null && diagrams.remove(name) != null;
+    }
+
+    /**
+     * Lists the names of the open diagrams in alphabetical order.
+     *
+     * @return the diagram names
+     */
+    public List<String> names() {
+        List<String> names = new ArrayList<>(diagrams.keySet());
+        Collections.sort(names);
+        return names;
+    }
+
+    private static void validateName(String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Diagram name cannot be empty");
+        }
+    }
+}
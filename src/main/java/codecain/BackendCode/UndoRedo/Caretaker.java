@@ -11,8 +11,14 @@ import java.util.*;
  * It maintains two stacks: one for undo operations and another for redo operations.
  * Each stack stores Memento objects that represent the state of the UML diagram
  * at a given point in time.
+ * Only the last {@link #MAX_HISTORY} states are kept; older ones are dropped.
  */
 public class Caretaker {
+    /**
+     * The most states kept on each stack.
+     */
+    public static final int MAX_HISTORY = 100;
+
     private final Stack<Memento> undoStack = new Stack<>();
     private final Stack<Memento> redoStack = new Stack<>();
 
@@ -28,10 +34,33 @@ public class Caretaker {
         if (classMap == null || relationshipList == null) {
             throw new IllegalArgumentException("classMap and relationshipList cannot be null");
         }
-        undoStack.push(new Memento(new HashMap<>(classMap), new ArrayList<>(relationshipList))); // Deep copy
+        push(undoStack, new Memento(classMap, relationshipList));
+        redoStack.clear();
+    }
+
+    /**
+     * Saves a state that was copied earlier to the undo stack, and clears the redo stack.
+     *
+     * @param memento the state to save
+     */
+    public void saveState(Memento memento) {
+        if (memento == null) {
+            throw new IllegalArgumentException("memento cannot be null");
+        }
+        push(undoStack, memento);
         redoStack.clear();
     }
 
+    /**
+     * Pushes a state, dropping the oldest one if the stack is full.
+     */
+    private static void push(Stack<Memento> stack, Memento memento) {
+        stack.push(memento);
+        if (stack.size() > MAX_HISTORY) {
+            stack.remove(0);
+        }
+    }
+
     /**
      * Performs an undo operation by restoring the last saved state.
      * Moves the current state to the redo stack for potential redo operations.
@@ -39,9 +68,21 @@ public class Caretaker {
      * @return The Memento representing the last saved state, or null if undo is not possible.
      */
     public Memento undo() {
+        return undo(UMLClass.getClassMap(), Relationship.getRelationshipList());
+    }
+
+    /**
+     * Performs an undo operation by restoring the last saved state.
+     * Moves the given current state to the redo stack for potential redo operations.
+     *
+     * @param classMap         The current mapping of class names to UMLClassInfo objects.
+     * @param relationshipList The current list of relationships between UML classes.
+     * @return The Memento representing the last saved state, or null if undo is not possible.
+     */
+    public Memento undo(Map<String, UMLClassInfo> classMap, List<Relationship> relationshipList) {
         if (!undoStack.isEmpty()) {
             Memento state = undoStack.pop();
-            redoStack.push(new Memento(UMLClass.classMap, Relationship.relationshipList));
+            push(redoStack, new Memento(classMap, relationshipList));
 
 
             return state;
@@ -56,9 +97,21 @@ public class Caretaker {
      * @return The Memento representing the last undone state, or null if redo is not possible.
      */
     public Memento redo() {
+        return redo(UMLClass.getClassMap(), Relationship.getRelationshipList());
+    }
+
+    /**
+     * Performs a redo operation by restoring the last undone state.
+     * Moves the given current state to the undo stack for potential further undo operations.
+     *
+     * @param classMap         The current mapping of class names to UMLClassInfo objects.
+     * @param relationshipList The current list of relationships between UML classes.
+     * @return The Memento representing the last undone state, or null if redo is not possible.
+     */
+    public Memento redo(Map<String, UMLClassInfo> classMap, List<Relationship> relationshipList) {
         if (!redoStack.isEmpty()) {
             Memento state = redoStack.pop();
-            undoStack.push(new Memento(UMLClass.classMap, Relationship.relationshipList));
+            push(undoStack, new Memento(classMap, relationshipList));
 
 
             return state;
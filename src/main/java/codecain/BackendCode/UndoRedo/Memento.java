@@ -15,20 +15,29 @@ public class Memento {
     private final List<Relationship> relationshipListSnapshot;
 
     /**
-     * Constructs a new Memento object with the provided snapshots of the class map and relationship list.
+     * Constructs a new Memento object with copies of the class map and relationship list,
+     * so later changes to the diagram's classes, members and relationships do not reach the snapshot.
+     * A class is only copied again if it changed since the last snapshot was taken; states share
+     * the copies of the classes that did not.
      *
-     * @param classMap        A snapshot of the current mapping of class names to UMLClassInfo objects.
-     * @param relationshipList A snapshot of the current list of relationships between UML classes.
+     * @param classMap        The current mapping of class names to UMLClassInfo objects.
+     * @param relationshipList The current list of relationships between UML classes.
      */
     public Memento(Map<String, UMLClassInfo> classMap, List<Relationship> relationshipList) {
-        this.classMapSnapshot = new HashMap<>(classMap);
-        this.relationshipListSnapshot = new ArrayList<>(relationshipList);
+        this.classMapSnapshot = new HashMap<>();
+        for (Map.Entry<String, UMLClassInfo> entry : classMap.entrySet()) {
+            this.classMapSnapshot.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        this.relationshipListSnapshot = new ArrayList<>();
+        for (Relationship relationship : relationshipList) {
+            this.relationshipListSnapshot.add(Relationship.copyOf(relationship));
+        }
     }
 
     /**
      * Returns the snapshot of the class map stored in this Memento.
      *
-     * @return A deep copy of the class map at the time this Memento was created.
+     * @return A copy of the class map at the time this Memento was created; its classes must not be changed.
      */
     public Map<String, UMLClassInfo> getClassMapSnapshot() {
         return classMapSnapshot;
@@ -1,9 +1,10 @@
 package codecain.BackendCode.UndoRedo;
 
-import codecain.BackendCode.Model.Relationship;
-import codecain.BackendCode.Model.UMLClass;
+import codecain.BackendCode.Model.Diagram;
+import codecain.BackendCode.Model.ModelEvent;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * The StateManager class provides an interface for managing the state of the UML diagram.
@@ -13,43 +14,172 @@ import java.util.*;
 public class StateManager {
     private final Caretaker caretaker = new Caretaker();
 
+    /**
+     * The diagram whose history is managed, or null to follow {@link Diagram#current()}.
+     */
+    private final Diagram diagram;
+
+    /**
+     * The batches open on each thread. A batch belongs to the thread, and so the session, that
+     * opened it, so one session's batch never swallows the undo steps of another session.
+     */
+    private final ThreadLocal<Batch> batch = ThreadLocal.withInitial(Batch::new);
+
+    /**
+     * The batches open on one thread.
+     */
+    private static final class Batch {
+        /**
+         * How many batches are open; while any is, only the first saveState call records a state.
+         */
+        private int depth;
+
+        /**
+         * Whether a state has already been recorded for the open batch.
+         */
+        private boolean saved;
+    }
+
+    /**
+     * Creates a state manager for whichever diagram is current when each operation runs.
+     */
+    public StateManager() {
+        this(null);
+    }
+
+    /**
+     * Creates a state manager for one specific diagram.
+     *
+     * @param diagram the diagram whose history is managed, or null to follow the current diagram
+     */
+    public StateManager(Diagram diagram) {
+        this.diagram = diagram;
+    }
+
+    private Diagram diagram() {
+        return diagram != null ? diagram : Diagram.current();
+    }
+
+    /**
+     * Starts a batch of changes that should be undone as a single step.
+     * Until the matching {@link #endBatch()}, only the first call to {@link #saveState()} records
+     * a state, so undo restores the diagram as it was before the batch changed anything.
+     * Batches may be nested; the outermost one decides the undo step. A batch only groups the
+     * calls made on the thread that started it.
+     */
+    public void beginBatch() {
+        Batch open = batch.get();
+        if (open.depth++ == 0) {
+            open.saved = false;
+        }
+    }
+
+    /**
+     * Ends a batch started with {@link #beginBatch()} on the same thread.
+     *
+     * @throws IllegalStateException if no batch is open
+     */
+    public void endBatch() {
+        Batch open = batch.get();
+        if (open.depth == 0) {
+            throw new IllegalStateException("No batch is open");
+        }
+        open.depth--;
+    }
+
+    /**
+     * Checks whether a batch is currently open on the running thread.
+     *
+     * @return {@code true} if changes are being grouped into one undo step
+     */
+    public boolean inBatch() {
+        return batch.get().depth > 0;
+    }
+
     /**
      * Saves the current state of the UML diagram by storing the class map and relationship list.
      * This state is pushed onto the undo stack in the Caretaker.
+     * Inside a batch, only the first call records a state.
+     * The history is only changed under the diagram's write lock, like undo and redo do, so
+     * sessions sharing a diagram cannot record states at the same time.
      */
     public void saveState() {
-        caretaker.saveState(UMLClass.classMap, Relationship.relationshipList);
+        Batch open = batch.get();
+        if (open.depth > 0) {
+            if (open.saved) {
+                return;
+            }
+            open.saved = true;
+        }
+        Diagram target = diagram();
+        target.write(() -> caretaker.saveState(target.getClassMap(), target.getRelationshipList()));
+    }
+
+    /**
+     * Runs a change and records the state from before it as one undo step, but only if the change
+     * actually changed the diagram. A change that is cancelled or rejected, for example because
+     * the user entered an invalid name, leaves the undo and redo history as it was.
+     * Inside a batch, the state is only recorded if none has been recorded for the batch yet.
+     *
+     * @param change the change to run
+     * @return {@code true} if the change reported a change to the diagram
+     */
+    public boolean recordChange(Runnable change) {
+        Batch open = batch.get();
+        Diagram target = diagram();
+        Memento before = open.depth > 0 && open.saved ? null
+                : target.readLocked(() -> new Memento(target.getClassMap(), target.getRelationshipList()));
+        boolean[] changed = new boolean[1];
+        Consumer<List<ModelEvent>> listener = events -> changed[0] = true;
+        target.getEvents().addListener(listener);
+        try {
+            change.run();
+        } finally {
+            target.getEvents().removeListener(listener);
+        }
+        if (changed[0] && before != null) {
+            if (open.depth > 0) {
+                open.saved = true;
+            }
+            target.write(() -> caretaker.saveState(before));
+        }
+        return changed[0];
     }
 
     /**
      * Restores the last saved state by performing an undo operation.
-     * Updates the UMLClass and Relationship objects with the restored state.
+     * The diagram is patched to match the restored state with {@link Diagram#restore}, so classes
+     * and relationships that did not change keep their objects and report no change.
      *
      * @return {@code true} if the undo operation was successful, {@code false} if there is no state to undo.
      */
     public boolean undo() {
-        Memento memento = caretaker.undo();
-        if (memento != null) {
-            UMLClass.classMap = memento.getClassMapSnapshot();
-            Relationship.relationshipList = new ArrayList<>(memento.getRelationshipListSnapshot());
-            return true;
-        }
-        return false;
+        Diagram target = diagram();
+        return target.write(() -> {
+            Memento memento = caretaker.undo(target.getClassMap(), target.getRelationshipList());
+            if (memento != null) {
+                target.restore(memento.getClassMapSnapshot(), memento.getRelationshipListSnapshot());
+                return true;
+            }
+            return false;
+        });
     }
 
     /**
      * Restores the most recently undone state by performing a redo operation.
-     * Updates the UMLClass and Relationship objects with the restored state.
+     * The diagram is patched to match the restored state, like {@link #undo()} does.
      *
      * @return {@code true} if the redo operation was successful, {@code false} if there is no state to redo.
      */
     public boolean redo() {
-        Memento memento = caretaker.redo();
-        if (memento != null) {
-            UMLClass.classMap = memento.getClassMapSnapshot();
-            Relationship.relationshipList = new ArrayList<>(memento.getRelationshipListSnapshot());
-            return true;
-        }
-        return false;
+        Diagram target = diagram();
+        return target.write(() -> {
+            Memento memento = caretaker.redo(target.getClassMap(), target.getRelationshipList());
+            if (memento != null) {
+                target.restore(memento.getClassMapSnapshot(), memento.getRelationshipListSnapshot());
+                return true;
+            }
+            return false;
+        });
     }
 }
@@ -1,7 +1,9 @@
 package codecain.CommandLineInterface.Controller;
 
 import codecain.CommandLineInterface.View.CLIView;
+import codecain.CommandLineInterface.View.TextAreaOutput;
 import codecain.CommandLineInterface.Model.CommandManager;
+import codecain.CommandLineInterface.Model.DisplayHelper;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -27,27 +29,7 @@ public class CLIController {
      * A predefined list of available commands in the CLI.
      * These are static commands that the user can execute, and they are used for autocomplete suggestions.
      */
-    private final List<String> commands = List.of(
-            "add class",
-            "delete class",
-            "rename class",
-            "add field",
-            "delete field",
-            "rename field",
-            "add method",
-            "delete method",
-            "rename method",
-            "add parameter",
-            "delete parameter",
-            "rename parameter",
-            "rename all_parameters",
-            "add relationship",
-            "delete relationship",
-            "list relationships",
-            "list classes",
-            "export",
-            "help"
-    );
+    private final List<String> commands = CommandManager.COMMANDS;
 
     /**
      * Constructs a CLIController instance, initializing the view and command manager.
@@ -57,7 +39,7 @@ public class CLIController {
      */
     public CLIController(CLIView view) {
         this.view = view;
-        this.commandManager = new CommandManager(view.getCommandOutput());
+        this.commandManager = new CommandManager(new TextAreaOutput(view.getCommandOutput()));
         view.setController(this);
     }
 
@@ -65,16 +47,7 @@ public class CLIController {
      * Initializes the CLI by displaying a welcome message to the user in the command output area.
      */
     public void initialize() {
-        String welcomeMessage = """
-            Welcome to the CSCD 350 UML Editor!
-            
-            Developed by: Code Cain
-            
-            Type 'help' to view available commands and get started.
-            
-            Enjoy designing your UML diagrams!
-            """;
-        view.getCommandOutput().appendText(welcomeMessage);
+view.getCommandOutput().appendText(DisplayHelper.welcomeMessage());
     }
 
     /**
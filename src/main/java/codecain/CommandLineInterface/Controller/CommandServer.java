@@ -0,0 +1,240 @@
+package codecain.CommandLineInterface.Controller;
+
+import codecain.BackendCode.Model.Diagram;
+import codecain.BackendCode.Model.Workspace;
+import codecain.CommandLineInterface.Model.CommandManager;
+import codecain.CommandLineInterface.View.TerminalOutput;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves the CLI command language over a local socket, so tools can drive the editor without
+ * starting a new JVM for every command.
+ * <p>
+ * Clients send one command per line, using the same grammar as {@link CommandManager#parseAndExecute(String)}.
+ * The output of each command is followed by a line containing only {@value #END_OF_RESPONSE}.
+ * If a command asks a question, the client's next line is taken as the answer.
+ * Besides the normal commands, the server understands:
+ * <ul>
+ *   <li>{@code use <name>}: switch this connection to the named diagram, creating it if needed</li>
+ *   <li>{@code diagrams}: list the open diagrams</li>
+ *   <li>{@code quit} or {@code exit}: close this connection</li>
+ * </ul>
+ * Every connection starts on the diagram named {@value #DEFAULT_DIAGRAM}. Each connection runs on its
+ * own virtual thread; connections working on the same diagram are serialized by that diagram's write
+ * lock, while different diagrams are changed in parallel.
+ * </p>
+ */
+public class CommandServer implements Closeable {
+
+    /**
+     * The line sent after the output of each command.
+     */
+    public static final String END_OF_RESPONSE = ".";
+
+    /**
+     * The diagram a new connection works on.
+     */
+    public static final String DEFAULT_DIAGRAM = "default";
+
+    /**
+     * The diagrams shared by all connections.
+     */
+    private final Workspace workspace;
+
+    private final ServerSocketChannel serverChannel;
+
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * The Unix-domain socket file to remove on close, or null for a TCP server.
+     */
+    private final Path socketFile;
+
+    private CommandServer(Workspace workspace, ServerSocketChannel serverChannel, Path socketFile) {
+        this.workspace = workspace;
+        this.serverChannel = serverChannel;
+        this.socketFile = socketFile;
+    }
+
+    /**
+     * Starts a server on a TCP port of the loopback interface.
+     *
+     * @param workspace the diagrams to serve
+     * @param port      the port to listen on, or 0 to pick a free one
+     * @return the running server
+     * @throws IOException if the port cannot be bound
+     */
+    public static CommandServer startTcp(Workspace workspace, int port) throws IOException {
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        return start(workspace, channel, null);
+    }
+
+    /**
+     * Starts a server on a Unix-domain socket. An existing file at the path is replaced.
+     *
+     * @param workspace  the diagrams to serve
+     * @param socketFile the socket file to create
+     * @return the running server
+     * @throws IOException if the socket cannot be created
+     */
+    public static CommandServer startUnix(Workspace workspace, Path socketFile) throws IOException {
+        Files.deleteIfExists(socketFile);
+        ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        channel.bind(UnixDomainSocketAddress.of(socketFile));
+        return start(workspace, channel, socketFile);
+    }
+
+    private static CommandServer start(Workspace workspace, ServerSocketChannel channel, Path socketFile) {
+        CommandServer server = new CommandServer(workspace, channel, socketFile);
+        Thread.ofPlatform().name("command-server").daemon(false).start(server::acceptLoop);
+        return server;
+    }
+
+    /**
+     * Gets the address the server is listening on.
+     *
+     * @return the bound address
+     * @throws IOException if the server has been closed
+     */
+    public SocketAddress getAddress() throws IOException {
+        return serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Stops accepting connections and closes the open ones.
+     *
+     * @throws IOException if the socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        connections.shutdownNow();
+        if (socketFile != null) {
+            Files.deleteIfExists(socketFile);
+        }
+    }
+
+    private void acceptLoop() {
+        while (serverChannel.isOpen()) {
+            try {
+                SocketChannel client = serverChannel.accept();
+                connections.submit(() -> serve(client));
+            } catch (IOException e) {
+                if (serverChannel.isOpen()) {
+                    System.err.println("Failed to accept connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the commands of one connection until the client quits or disconnects.
+     */
+    private void serve(SocketChannel client) {
+        try (client;
+             BufferedReader in = new BufferedReader(new InputStreamReader(
+                     Channels.newInputStream(client), StandardCharsets.UTF_8));
+             PrintStream out = new PrintStream(Channels.newOutputStream(client), false, StandardCharsets.UTF_8)) {
+            Session session = new Session(new TerminalOutput(out));
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!session.handle(line)) {
+                    break;
+                }
+                out.println(END_OF_RESPONSE);
+                out.flush();
+            }
+        } catch (IOException e) {
+            // the client disconnected
+        }
+    }
+
+    /**
+     * The state of one connection: its command manager and the diagram it works on.
+     */
+    private class Session {
+        private final TerminalOutput output;
+        private final CommandManager commandManager;
+        private Diagram diagram = workspace.open(DEFAULT_DIAGRAM);
+
+        Session(TerminalOutput output) {
+            this.output = output;
+            this.commandManager = new CommandManager(output);
+        }
+
+        /**
+         * Handles one line from the client.
+         *
+         * @return false if the client asked to close the connection
+         */
+        boolean handle(String line) {
+            if (output.answerPrompt(line)) {
+                return true;
+            }
+            String command = line.trim();
+            String[] tokens = command.split("\\s+");
+            switch (tokens[0].toLowerCase()) {
+                case "quit", "exit" -> {
+                    return false;
+                }
+                case "use" -> {
+                    if (tokens.length < 2) {
+                        output.append("Usage: use <diagram-name>\n");
+                    } else {
+                        diagram = workspace.open(tokens[1]);
+                        output.append("Using diagram '" + tokens[1] + "'.\n");
+                    }
+                }
+                case "diagrams" -> output.append(String.join("\n", workspace.names()) + "\n");
+                default -> {
+                    if (!command.isEmpty()) {
+                        Diagram.runWith(diagram, () -> commandManager.parseAndExecute(command));
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Runs a server until the process is stopped.
+     * With {@code --socket <path>} it listens on a Unix-domain socket, otherwise on loopback TCP
+     * port 7350 or the one given with {@code --port <port>}.
+     *
+     * @param args command-line arguments
+     * @throws IOException if the server cannot be started
+     */
+    public static void main(String[] args) throws IOException {
+        // The model reports every change on System.out; keep that out of the server's console.
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        CommandServer server;
+        if (args.length >= 2 && args[0].equals("--socket")) {
+            server = startUnix(new Workspace(), Path.of(args[1]));
+        } else {
+            int port = args.length >= 2 && args[0].equals("--port") ? Integer.parseInt(args[1]) : 7350;
+            server = startTcp(new Workspace(), port);
+        }
+        System.err.println("UML command server listening on " + server.getAddress());
+    }
+}
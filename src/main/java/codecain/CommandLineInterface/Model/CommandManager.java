@@ -1,9 +1,16 @@
 package codecain.CommandLineInterface.Model;
 
-import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import codecain.BackendCode.Model.Diagram;
 import codecain.BackendCode.Model.Relationship;
 import codecain.BackendCode.Model.RelationshipType;
 import codecain.BackendCode.Model.UMLClass;
@@ -13,41 +20,110 @@ import codecain.BackendCode.Model.UMLMethodInfo;
 import codecain.BackendCode.Model.UMLMethods;
 import codecain.BackendCode.Model.UMLParameterInfo;
 import codecain.BackendCode.UndoRedo.StateManager;
-import codecain.CommandLineInterface.View.CLIView;
-import codecain.GraphicalUserInterface.Controller.Controller;
-import codecain.GraphicalUserInterface.Model.ExportImage;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
-import javafx.scene.control.TextArea;
-import javafx.scene.layout.Pane;
-import javafx.stage.Stage;
+import codecain.GraphicalUserInterface.Controller.Layout.ForceLayout;
+import codecain.GraphicalUserInterface.Controller.Layout.RoutingOptimizer;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.ClassBounds;
+import codecain.GraphicalUserInterface.Model.Export.BatchExporter;
+import codecain.GraphicalUserInterface.Model.Export.DiagramExporter;
 
 /**
  * Manages and executes user commands for UML diagram operations.
  */
 public class CommandManager {
 
-    private TextArea commandOutput;
+    private CommandOutput commandOutput;
     private FileOperations fileOperations;
-    private final StateManager stateManager; // Centralized StateManager for undo/redo
 
     /**
-     * Initializes a new instance of the CommandManager with the specified JTextArea for command output.
+     * The commands available in the CLI, used for autocomplete suggestions.
+     */
+    public static final List<String> COMMANDS = List.of(
+            "add class",
+            "delete class",
+            "rename class",
+            "add field",
+            "delete field",
+            "rename field",
+            "add method",
+            "delete method",
+            "rename method",
+            "add parameter",
+            "delete parameter",
+            "rename parameter",
+            "rename all_parameters",
+            "add relationship",
+            "delete relationship",
+            "list relationships",
+            "list classes",
+            "export",
+            "export_all",
+            "layout force",
+            "layout nudge",
+            "layout bundle",
+            "source",
+            "help"
+    );
+
+    /**
+     * Commands that cannot run inside a batch, because they wait for the user, undo part of the
+     * batch itself or leave the application.
+     */
+    private static final Set<String> NOT_IN_BATCH = Set.of("source", "undo", "redo", "export", "exit");
+
+    /**
+     * Collects the output of a running batch so it is shown in one append, or null outside a batch.
+     */
+    private StringBuilder batchOutput;
+
+    /**
+     * Initializes a new instance of the CommandManager that sends its output to the given sink.
+     * The JavaFX window passes a {@code TextAreaOutput}; the terminal CLI and the command server
+     * pass sinks that do not load JavaFX.
      *
-     * @param commandOutput JTextArea to display command outputs
+     * @param commandOutput where command output and prompts are sent
      */
-    public CommandManager(TextArea commandOutput) {
+    public CommandManager(CommandOutput commandOutput) {
         this.commandOutput = commandOutput;
         this.fileOperations = new FileOperations();
-        this.stateManager = new StateManager();    }
+    }
 
     /**
-     * Appends text to the command output TextArea.
+     * Gets the undo/redo history of the diagram commands currently operate on.
+     *
+     * @return the current diagram's StateManager
+     */
+    private StateManager stateManager() {
+        return Diagram.current().getStateManager();
+    }
+
+    /**
+     * Appends text to the command output, or to the output of the running batch.
      *
      * @param text the text to append
      */
     private void appendToOutput(String text) {
-        commandOutput.appendText(text);
+        if (batchOutput != null) {
+            batchOutput.append(text);
+        } else {
+            commandOutput.append(text);
+        }
+    }
+
+    /**
+     * Asks the user to choose between ambiguous matches. The answer is handled later, so the
+     * callback runs in its own write section on the diagram that was current when it asked.
+     *
+     * @param prompt   the question to show
+     * @param callback handles the user's answer
+     */
+    private void promptForInput(String prompt, Consumer<String> callback) {
+        if (batchOutput != null) {
+            appendToOutput("Skipped: the command needs a choice between several matches, which a batch cannot ask for.\n");
+            return;
+        }
+        Diagram diagram = Diagram.current();
+        commandOutput.prompt(prompt, userInput -> Diagram.runWith(diagram,
+                () -> diagram.write(() -> callback.accept(userInput))));
     }
 
     /**
@@ -63,26 +139,71 @@ public class CommandManager {
         }
 
         String commandName = tokens[0].toLowerCase();
+        if (batchOutput != null && NOT_IN_BATCH.contains(commandName)) {
+            appendToOutput("'" + commandName + "' cannot be used inside a batch.\n");
+            return;
+        }
         String result = "";
         switch (commandName) {
             case "help" -> {
                 result = DisplayHelper.showHelp();
-                int helpStartPosition = commandOutput.getLength();
-                commandOutput.appendText(">> " + command + "\n" + result + "\n");
-                commandOutput.positionCaret(helpStartPosition);
+                if (batchOutput != null) {
+                    appendToOutput(result + "\n");
+                    return;
+                }
+                commandOutput.appendFromTop(">> " + command + "\n" + result + "\n");
                 return;
             }
-            case "add", "delete", "rename", "list" -> result = handleCommand(tokens);
-            case "save" -> result = fileOperations.saveDiagram(getFileName(tokens));
-            case "load" -> result = fileOperations.loadDiagram(getFileName(tokens));
+            case "add", "delete", "rename" -> result = Diagram.current().write(() -> handleCommand(tokens));
+            case "list" -> result = handleCommand(tokens);
+            case "save" -> result = fileOperations.saveDiagram(getFileName(tokens),
+                    tokens.length > 2 && tokens[2].equalsIgnoreCase("--segmented"));
+            case "load" -> result = fileOperations.loadDiagram(getFileName(tokens),
+                    tokens.length > 2 && tokens[2].equalsIgnoreCase("--lazy"));
+            case "source" -> {
+                if (tokens.length < 2) {
+                    appendToOutput("Usage: source <file-path>\n");
+                    return;
+                }
+                runScript(tokens[1]);
+            }
             case "undo" -> undo();
             case "redo" -> redo();
             case "export" -> {
                 if (tokens.length < 2) {
-                    appendToOutput("Usage: export <file-path>\n");
+                    appendToOutput("Usage: export <file-path> [scale]\n");
+                    return;
+                }
+                if (tokens.length > 2) {
+                    double scale;
+                    try {
+                        scale = Double.parseDouble(tokens[2]);
+                    } catch (NumberFormatException e) {
+                        appendToOutput("Invalid scale '" + tokens[2] + "'. Use a number such as 2 or 4.\n");
+                        return;
+                    }
+                    exportDiagram(tokens[1], scale);
+                } else {
+                    exportDiagram(tokens[1]);
+                }
+            }
+            case "export_all" -> {
+                if (tokens.length < 3) {
+                    appendToOutput("Usage: export_all <directory-or-glob> <output-directory> [png|svg] [scale]\n");
                     return;
                 }
-                openGUIAndExport(tokens[1]);
+                exportAll(tokens);
+            }
+            case "layout" -> {
+                if (tokens.length >= 2 && tokens[1].equalsIgnoreCase("force")) {
+                    forceLayout(tokens);
+                } else if (tokens.length >= 2 && tokens[1].equalsIgnoreCase("nudge")) {
+                    nudgeLayout(tokens);
+                } else if (tokens.length == 3 && tokens[1].equalsIgnoreCase("bundle")) {
+                    bundleLines(tokens[2]);
+                } else {
+                    appendToOutput("Usage: layout force [iterations] | layout nudge [passes] | layout bundle on|off\n");
+                }
             }
             case "exit" -> {
                 System.exit(0);
@@ -97,49 +218,213 @@ public class CommandManager {
     }
 
     /**
-     * Opens the GUI through the Controller and exports the UML diagram as an image.
+     * Runs many commands as one transaction. The commands run inside a single write section on
+     * the current diagram, record a single undo step, and their output is shown in one append
+     * when the batch finishes. Blank lines and lines starting with '#' are skipped.
+     * Commands that need user input, undo or redo are skipped with a message.
+     *
+     * @param commands the commands to run, one per entry
+     * @return the combined output of the batch
+     * @throws IllegalStateException if called while a batch is already running
+     */
+    public String executeBatch(List<String> commands) {
+        if (batchOutput != null) {
+            throw new IllegalStateException("A batch is already running");
+        }
+        Diagram diagram = Diagram.current();
+        StateManager history = diagram.getStateManager();
+        StringBuilder output = new StringBuilder();
+        int[] executed = new int[1];
+        batchOutput = output;
+        try {
+            diagram.write(() -> {
+                history.beginBatch();
+                try {
+                    for (String line : commands) {
+                        String command = line.strip();
+                        if (command.isEmpty() || command.startsWith("#")) {
+                            continue;
+                        }
+                        parseAndExecute(command);
+                        executed[0]++;
+                    }
+                } finally {
+                    history.endBatch();
+                }
+            });
+            output.append("Batch complete: ").append(executed[0]).append(" commands run.\n");
+        } catch (RuntimeException e) {
+            output.append("Batch stopped after ").append(executed[0]).append(" commands: ")
+                    .append(e.getMessage()).append("\nUse 'undo' to revert the whole batch.\n");
+        } finally {
+            batchOutput = null;
+        }
+        appendToOutput(output.toString());
+        return output.toString();
+    }
+
+    /**
+     * Reads a script file and runs its lines as one batch.
+     *
+     * @param filePath the script to run
+     */
+    private void runScript(String filePath) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(Path.of(filePath));
+        } catch (IOException e) {
+            appendToOutput("Failed to read script '" + filePath + "': " + e.getMessage() + "\n");
+            return;
+        }
+        executeBatch(lines);
+    }
+
+    /**
+     * Exports the current diagram as an image, rendered straight from the model without opening the GUI.
+     *
+     * @param exportFilePath The file path to save the UML diagram image. Files ending in ".svg" are
+     *                       written as SVG; ".png" is added to any other name without that extension.
+     */
+    public void exportDiagram(String exportFilePath) {
+        exportDiagram(exportFilePath, 1.0);
+    }
+
+    /**
+     * Exports the current diagram as an image, scaled for printing. The scale only applies to PNG files,
+     * since SVG files can be scaled freely by whatever displays them.
      *
      * @param exportFilePath The file path to save the UML diagram image.
+     * @param scale          The number of pixels per diagram unit in a PNG, for example 2 or 4 for print.
      */
-    public void openGUIAndExport(String exportFilePath) {
+    public void exportDiagram(String exportFilePath, double scale) {
+        String filePath = DiagramExporter.withExtension(exportFilePath);
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/codecain/GraphicalInterface.fxml"));
-            Pane root = loader.load();
-            Controller controller = loader.getController();
-    
-            Stage guiStage = new Stage();
-            guiStage.setTitle("UML Diagram Editor");
-            guiStage.setScene(new Scene(root));
-            guiStage.setOpacity(0);
-            guiStage.show();
-    
-            Pane nodeContainer = controller.getNodeContainer();
-            nodeContainer = controller.populateGUIFromClassMap();
-    
-        if (exportFilePath != null) {
-            if (!exportFilePath.toLowerCase().endsWith(".png")) {
-                exportFilePath += ".png";
+            if (filePath.toLowerCase().endsWith(".png")) {
+                DiagramExporter.exportPng(Diagram.current(), Path.of(filePath), scale);
+            } else {
+                DiagramExporter.export(Diagram.current(), Path.of(filePath));
             }
+            appendToOutput("UML diagram successfully exported to: " + filePath + "\n");
+        } catch (IOException | IllegalArgumentException e) {
+            appendToOutput("Failed to export UML diagram: " + e.getMessage() + "\n");
+        }
+    }
 
-            File exportFile = new File(exportFilePath);
-            ExportImage.exportImage(nodeContainer, exportFile);
-            appendToOutput("UML diagram successfully exported to: " + exportFilePath + "\n");
+    /**
+     * Exports every diagram file in a directory or matching a glob, each loaded into its own model,
+     * on one worker thread per processor. The current diagram is not changed.
+     *
+     * @param tokens the command tokens: input, output directory, and optionally the format and PNG scale
+     */
+    private void exportAll(String[] tokens) {
+        try {
+            String format = tokens.length > 3 ? tokens[3] : "png";
+            double scale = tokens.length > 4 ? Double.parseDouble(tokens[4]) : 1.0;
+            List<Path> inputs = BatchExporter.findDiagrams(tokens[1]);
+            if (inputs.isEmpty()) {
+                appendToOutput("No diagram files found for '" + tokens[1] + "'.\n");
+                return;
+            }
+            BatchExporter exporter = new BatchExporter(Path.of(tokens[2]), format, scale);
+            appendToOutput(exporter.exportAll(inputs).format() + "\n");
+        } catch (NumberFormatException e) {
+            appendToOutput("Invalid scale '" + tokens[4] + "'. Use a number such as 2 or 4.\n");
+        } catch (IOException | IllegalArgumentException e) {
+            appendToOutput("Failed to export diagrams: " + e.getMessage() + "\n");
+        }
+    }
+
+    /**
+     * Arranges every class of the current diagram with a force-directed layout, as one undo step.
+     * Without a GUI to animate it, the layout runs to the end before the command returns.
+     *
+     * @param tokens the command tokens, optionally followed by the most steps to run
+     */
+    private void forceLayout(String[] tokens) {
+        int iterations = ForceLayout.DEFAULT_ITERATIONS;
+        if (tokens.length > 2) {
+            try {
+                iterations = Integer.parseInt(tokens[2]);
+            } catch (NumberFormatException e) {
+                appendToOutput("Invalid iteration count '" + tokens[2] + "'. Use a whole number such as 300.\n");
+                return;
+            }
+            if (iterations < 0) {
+                appendToOutput("Invalid iteration count '" + tokens[2] + "'. Use a whole number such as 300.\n");
+                return;
+            }
+        }
+        int steps = iterations;
+        Diagram diagram = Diagram.current();
+        int moved = diagram.write(() -> {
+            stateManager().saveState();
+            Map<String, ClassBounds> boxes = new LinkedHashMap<>();
+            diagram.getClassMap().forEach((name, classInfo) -> boxes.put(name, ClassBounds.of(classInfo)));
+            int count = 0;
+            for (Map.Entry<String, ClassBounds> entry : ForceLayout.layout(boxes, diagram.getRelationshipList(), steps).entrySet()) {
+                UMLClassInfo classInfo = diagram.getClassMap().get(entry.getKey());
+                int newX = (int) entry.getValue().getX();
+                int newY = (int) entry.getValue().getY();
+                if (classInfo.getX() != newX || classInfo.getY() != newY) {
+                    classInfo.setX(newX);
+                    classInfo.setY(newY);
+                    count++;
+                }
+            }
+            return count;
+        });
+        appendToOutput("Arranged " + moved + " classes with a force-directed layout.\n");
+    }
+
+    /**
+     * Nudges classes of the current diagram to open corridors for relationship lines, as one undo step.
+     *
+     * @param tokens the command tokens, optionally followed by the most passes to make
+     */
+    private void nudgeLayout(String[] tokens) {
+        int passes = RoutingOptimizer.DEFAULT_PASSES;
+        if (tokens.length > 2) {
+            try {
+                passes = Integer.parseInt(tokens[2]);
+            } catch (NumberFormatException e) {
+                appendToOutput("Invalid pass count '" + tokens[2] + "'. Use a whole number such as 10.\n");
+                return;
+            }
+            if (passes < 0) {
+                appendToOutput("Invalid pass count '" + tokens[2] + "'. Use a whole number such as 10.\n");
+                return;
+            }
+        }
+        int count = passes;
+        Diagram diagram = Diagram.current();
+        int moved = diagram.write(() -> {
+            stateManager().saveState();
+            return RoutingOptimizer.optimizeClasses(diagram.getClassMap(), diagram.getRelationshipList(), count,
+                    diagram.isLineBundling());
+        });
+        appendToOutput("Nudged " + moved + " classes to open corridors for relationship lines.\n");
+    }
+
+    /**
+     * Turns line bundling on or off for the current diagram's exports: relationships of the same
+     * type into the same class are drawn as one shared line.
+     *
+     * @param setting "on" or "off"
+     */
+    private void bundleLines(String setting) {
+        if (setting.equalsIgnoreCase("on") || setting.equalsIgnoreCase("off")) {
+            Diagram.current().setLineBundling(setting.equalsIgnoreCase("on"));
+            appendToOutput("Line bundling is " + setting.toLowerCase() + ".\n");
         } else {
-            appendToOutput("Export file path is null. Cannot export UML diagram.\n");
+            appendToOutput("Invalid setting '" + setting + "'. Use on or off.\n");
         }
-        guiStage.close();
-    } catch (Exception e) {
-        appendToOutput("Failed to open GUI and export UML diagram: " + e.getMessage() + "\n");
-        e.printStackTrace();
     }
-}
-    
 
     /**
      * Undo the last action.
      */
     private void undo() {
-        if (stateManager.undo()) {
+        if (stateManager().undo()) {
             appendToOutput("Undo successful.\n");
         } else {
             appendToOutput("No actions to undo.\n");
@@ -150,7 +435,7 @@ public class CommandManager {
      * Redo the last undone action.
      */
     private void redo() {
-        if (stateManager.redo()) {
+        if (stateManager().redo()) {
             appendToOutput("Redo successful.\n");
         } else {
             appendToOutput("No actions to redo.\n");
@@ -210,7 +495,7 @@ public class CommandManager {
      * @return message confirming the addition of the class or notifying if it already exists
      */
     private String handleAddClass(String className) {
-        stateManager.saveState();
+        stateManager().saveState();
         if (UMLClass.exists(className)) {
             return DisplayHelper.classAlreadyExists(className);
         }
@@ -227,7 +512,7 @@ public class CommandManager {
      * @return message confirming or denying the addition of the relationship
      */
     private String handleAddRelationship(String[] tokens) {
-        stateManager.saveState();
+        stateManager().saveState();
         if (tokens.length < 5) {
             return "Usage: add relationship <class1> <class2>";
         }
@@ -250,7 +535,7 @@ public class CommandManager {
      * @return message confirming or denying the addition of the field
      */
     private String handleAddField(String[] tokens) {
-        stateManager.saveState();
+        stateManager().saveState();
         if (tokens.length < 5) {
             return "Usage: add field <className> <fieldType> <fieldName>";
         }
@@ -373,17 +658,17 @@ public class CommandManager {
                 prompt.append((i + 1)).append(": ").append(matchingMethods.get(i)).append("\n");
             }
     
-            CLIView.promptForInput(prompt.toString() + "Enter the number:", userInput -> {
+            promptForInput(prompt.toString() + "Enter the number:", userInput -> {
                 try {
                     int choice = Integer.parseInt(userInput);
                     if (choice > 0 && choice <= matchingMethods.size()) {
                         matchingMethods.get(choice - 1).addParameter(new UMLParameterInfo(parameterType, parameterName));
-                        CLIView.getCommandOutput().appendText("Parameter '" + parameterName + "' added to method '" + methodName + "' (option " + choice + ") in class '" + className + "'.\n");
+                        appendToOutput("Parameter '" + parameterName + "' added to method '" + methodName + "' (option " + choice + ") in class '" + className + "'.\n");
                     } else {
-                        CLIView.getCommandOutput().appendText("Invalid choice. No parameter added.\n");
+                        appendToOutput("Invalid choice. No parameter added.\n");
                     }
                 } catch (NumberFormatException e) {
-                    CLIView.getCommandOutput().appendText("Invalid input. Please enter a valid number.\n");
+                    appendToOutput("Invalid input. Please enter a valid number.\n");
                 }
             });
     
@@ -421,7 +706,7 @@ public class CommandManager {
      * @return message confirming the deletion of the class
      */
     private String handleDeleteClass(String className) {
-        stateManager.saveState();
+        stateManager().saveState();
 
         if (className == null || className.isBlank()) {
             return "Error: The class name provided is invalid.";
@@ -442,7 +727,7 @@ public class CommandManager {
      * @return message confirming or denying the deletion of the relationship
      */
     private String handleDeleteRelationship(String[] tokens) {
-        stateManager.saveState();
+        stateManager().saveState();
         if (tokens.length < 4) {
             return "Usage: delete relationship <class1> <class2>";
         }
@@ -461,7 +746,7 @@ public class CommandManager {
      * @return message confirming or denying the deletion of the field
      */
     private String handleDeleteField(String[] tokens) {
-        stateManager.saveState();
+        stateManager().saveState();
 
         if (tokens.length < 4) {
             return "Usage: delete field <className> <fieldName>";
@@ -530,22 +815,22 @@ public class CommandManager {
             for (int i = 0; i < matchingMethods.size(); i++) {
                 prompt.append((i + 1)).append(": ").append(matchingMethods.get(i)).append("\n");
             }
-            CLIView.promptForInput(prompt.toString() + "Enter the number:", userInput -> {
+            promptForInput(prompt.toString() + "Enter the number:", userInput -> {
                 try {
                     int choice = Integer.parseInt(userInput);
                     if (choice > 0 && choice <= matchingMethods.size()) {
                         var selectedMethod = matchingMethods.get(choice - 1);
                         if (selectedMethod.getParameters().contains(parameterInfo)) {
                             selectedMethod.getParameters().remove(parameterInfo);
-                            CLIView.getCommandOutput().appendText("Parameter '" + parameterInfo + "' removed from method '" + methodName + "' (option " + choice + ") in class '" + className + "'.\n");
+                            appendToOutput("Parameter '" + parameterInfo + "' removed from method '" + methodName + "' (option " + choice + ") in class '" + className + "'.\n");
                         } else {
-                            CLIView.getCommandOutput().appendText("Parameter '" + parameterInfo + "' not found in selected method.\n");
+                            appendToOutput("Parameter '" + parameterInfo + "' not found in selected method.\n");
                         }
                     } else {
-                        CLIView.getCommandOutput().appendText("Invalid choice. No parameter removed.\n");
+                        appendToOutput("Invalid choice. No parameter removed.\n");
                     }
                 } catch (NumberFormatException e) {
-                    CLIView.getCommandOutput().appendText("Invalid input. Please enter a valid number.\n");
+                    appendToOutput("Invalid input. Please enter a valid number.\n");
                 }
             });
     
@@ -584,7 +869,7 @@ public class CommandManager {
      * @return message confirming the renaming of the class
      */
     private String handleRenameClass(String oldName, String newName) {
-        stateManager.saveState();
+        stateManager().saveState();
 
         if (oldName == null || oldName.isBlank()) {
             return "Error: The old class name provided is invalid.";
@@ -612,7 +897,7 @@ public class CommandManager {
      * @return message confirming the renaming of the field, or an error message if the class does not exist
      */
     private String handleRenameField(String[] tokens) {
-        stateManager.saveState();
+        stateManager().saveState();
         String errorMessage = checkClassExists(tokens[2]);
         if (errorMessage != null) {
             return errorMessage;
@@ -634,7 +919,7 @@ public class CommandManager {
             return "Usage: rename method <className> <currentMethodName> <newMethodName>";
         }
 
-        stateManager.saveState();
+        stateManager().saveState();
 
         String className = tokens[2];
         String currentMethodName = tokens[3];
@@ -665,17 +950,17 @@ public class CommandManager {
                 prompt.append((i + 1)).append(": ").append(matchingMethods.get(i)).append("\n");
             }
 
-            CLIView.promptForInput(prompt.toString() + "Enter the number:", userInput -> {
+            promptForInput(prompt.toString() + "Enter the number:", userInput -> {
                 try {
                     int choice = Integer.parseInt(userInput);
                     if (choice > 0 && choice <= matchingMethods.size()) {
                         matchingMethods.get(choice - 1).setMethodName(newMethodName);
-                        CLIView.getCommandOutput().appendText("Method '" + currentMethodName + "' renamed to '" + newMethodName + "' (option " + choice + ") in class '" + className + "'.\n");
+                        appendToOutput("Method '" + currentMethodName + "' renamed to '" + newMethodName + "' (option " + choice + ") in class '" + className + "'.\n");
                     } else {
-                        CLIView.getCommandOutput().appendText("Invalid choice. No method renamed.\n");
+                        appendToOutput("Invalid choice. No method renamed.\n");
                     }
                 } catch (NumberFormatException e) {
-                    CLIView.getCommandOutput().appendText("Invalid input. Please enter a valid number.\n");
+                    appendToOutput("Invalid input. Please enter a valid number.\n");
                 }
             });
 
@@ -691,7 +976,7 @@ public class CommandManager {
      * @return message confirming the renaming of the parameter, or an error message if the class does not exist
      */
     private String handleRenameParameter(String[] tokens) {
-        stateManager.saveState();
+        stateManager().saveState();
         if (tokens.length < 6) {
             return "Usage: rename parameter <className> <methodName> <oldParameterName> <newParameterType> <newParameterName>";
         }
@@ -731,21 +1016,21 @@ public class CommandManager {
                 prompt.append((i + 1)).append(": ").append(matchingMethods.get(i)).append("\n");
             }
 
-            CLIView.promptForInput(prompt.toString() + "Enter the number:", userInput -> {
+            promptForInput(prompt.toString() + "Enter the number:", userInput -> {
                 try {
                     int choice = Integer.parseInt(userInput);
                     if (choice > 0 && choice <= matchingMethods.size()) {
                         UMLMethodInfo selectedMethod = matchingMethods.get(choice - 1);
                         if (renameParameter(selectedMethod, oldParameterName, newParameterType, newParameterName)) {
-                            CLIView.getCommandOutput().appendText("Parameter '" + oldParameterName + "' renamed to '" + newParameterType + " " + newParameterName + "' in method '" + methodName + "' (option " + choice + ") in class '" + className + "'.\n");
+                            appendToOutput("Parameter '" + oldParameterName + "' renamed to '" + newParameterType + " " + newParameterName + "' in method '" + methodName + "' (option " + choice + ") in class '" + className + "'.\n");
                         } else {
-                            CLIView.getCommandOutput().appendText("Parameter '" + oldParameterName + "' not found in selected method.\n");
+                            appendToOutput("Parameter '" + oldParameterName + "' not found in selected method.\n");
                         }
                     } else {
-                        CLIView.getCommandOutput().appendText("Invalid choice. No parameter renamed.\n");
+                        appendToOutput("Invalid choice. No parameter renamed.\n");
                     }
                 } catch (NumberFormatException e) {
-                    CLIView.getCommandOutput().appendText("Invalid input. Please enter a valid number.\n");
+                    appendToOutput("Invalid input. Please enter a valid number.\n");
                 }
             });
 
@@ -782,7 +1067,7 @@ public class CommandManager {
      * @return message confirming the parameter changes, or an error message if the class does not exist
      */
     private String handleChangeAllParameters(String[] tokens) {
-        stateManager.saveState();
+        stateManager().saveState();
         if (tokens.length < 5) {
             return "Usage: change parameters <className> <methodName> <parameterType1> <parameterName1> ...";
         }
@@ -816,19 +1101,19 @@ public class CommandManager {
             for (int i = 0; i < matchingMethods.size(); i++) {
                 prompt.append((i + 1)).append(": ").append(matchingMethods.get(i)).append("\n");
             }
-            CLIView.promptForInput(prompt.toString() + "Enter the number:", userInput -> {
+            promptForInput(prompt.toString() + "Enter the number:", userInput -> {
                 try {
                     int choice = Integer.parseInt(userInput);
                     if (choice > 0 && choice <= matchingMethods.size()) {
                         UMLMethodInfo selectedMethod = matchingMethods.get(choice - 1);
                         selectedMethod.getParameters().clear();
                         selectedMethod.getParameters().addAll(newParameters);
-                        CLIView.getCommandOutput().appendText("All parameters changed for method '" + methodName + "' (option " + choice + ") in class '" + className + "'.\n");
+                        appendToOutput("All parameters changed for method '" + methodName + "' (option " + choice + ") in class '" + className + "'.\n");
                     } else {
-                        CLIView.getCommandOutput().appendText("Invalid choice. No parameters changed.\n");
+                        appendToOutput("Invalid choice. No parameters changed.\n");
                     }
                 } catch (NumberFormatException e) {
-                    CLIView.getCommandOutput().appendText("Invalid input. Please enter a valid number.\n");
+                    appendToOutput("Invalid input. Please enter a valid number.\n");
                 }
             });
 
@@ -917,7 +1202,7 @@ public class CommandManager {
      * @return the UMLClassInfo object, or null if class does not exist
      */
     private UMLClassInfo getClassInfo(String className) {
-        UMLClassInfo classInfo = UMLClass.classMap.get(className);
+        UMLClassInfo classInfo = UMLClass.getClassMap().get(className);
         if (classInfo == null) {
             System.out.println("Class '" + className + "' does not exist.");
         }
@@ -956,17 +1241,17 @@ public class CommandManager {
                 prompt.append((i + 1)).append(": ").append(matchingMethods.get(i)).append("\n");
             }
 
-            CLIView.promptForInput(prompt.toString() + "Enter the number:", userInput -> {
+            promptForInput(prompt.toString() + "Enter the number:", userInput -> {
                 try {
                     int choice = Integer.parseInt(userInput);
                     if (choice > 0 && choice <= matchingMethods.size()) {
                         classInfo.getMethods().remove(matchingMethods.get(choice - 1));
-                        CLIView.getCommandOutput().appendText("Method '" + methodName + "' (option " + choice + ") removed from class '" + className + "'.\n");
+                        appendToOutput("Method '" + methodName + "' (option " + choice + ") removed from class '" + className + "'.\n");
                     } else {
-                        CLIView.getCommandOutput().appendText("Invalid choice. No method removed.\n");
+                        appendToOutput("Invalid choice. No method removed.\n");
                     }
                 } catch (NumberFormatException e) {
-                    CLIView.getCommandOutput().appendText("Invalid input. Please enter a valid number.\n");
+                    appendToOutput("Invalid input. Please enter a valid number.\n");
                 }
             });
 
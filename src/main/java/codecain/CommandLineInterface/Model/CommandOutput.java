@@ -0,0 +1,36 @@
+package codecain.CommandLineInterface.Model;
+
+import java.util.function.Consumer;
+
+/**
+ * Where the {@link CommandManager} sends its output and asks the user for choices.
+ * The graphical CLI shows output in a text area, while the terminal CLI writes it to standard output,
+ * so the command logic does not depend on any particular user interface.
+ */
+public interface CommandOutput {
+
+    /**
+     * Shows text to the user.
+     *
+     * @param text the text to show
+     */
+    void append(String text);
+
+    /**
+     * Shows a long block of text, such as the help message, so that its first line stays visible.
+     *
+     * @param text the text to show
+     */
+    default void appendFromTop(String text) {
+        append(text);
+    }
+
+    /**
+     * Shows a question and passes the user's next line of input to the callback instead of
+     * running it as a command.
+     *
+     * @param prompt   the question to show
+     * @param callback handles the user's answer
+     */
+    void prompt(String prompt, Consumer<String> callback);
+}
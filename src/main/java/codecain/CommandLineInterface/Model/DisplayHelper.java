@@ -5,6 +5,23 @@ package codecain.CommandLineInterface.Model;
  */
 public class DisplayHelper {
 
+    /**
+     * Provides the message shown when the CLI starts.
+     *
+     * @return a multi-line welcome message
+     */
+    public static String welcomeMessage() {
+        return """
+            Welcome to the CSCD 350 UML Editor!
+            
+            Developed by: Code Cain
+            
+            Type 'help' to view available commands and get started.
+            
+            Enjoy designing your UML diagrams!
+            """;
+    }
+
     /**
      * Provides a help message listing available commands for UML diagram operations.
      *
@@ -42,6 +59,8 @@ public class DisplayHelper {
             Save/Load Operations:
             1. save                                - Saves the current state of the project.
             2. load                                - Loads the project state from a file.
+            3. load 'fileName' --lazy              - Opens a large file quickly, reading each class's members only when needed.
+            4. save 'fileName' --segmented         - Saves incrementally; later saves only rewrite the classes that changed.
 
             Listing Operations:
             1. list classes                        - Lists all the classes in the project.
@@ -52,7 +71,14 @@ public class DisplayHelper {
             Other Commands:
             1. help                                - Shows this help message.
             2. exit                                - Exits the application.
-            3. export                              - Exports the UML diagram to a PNG file. Automatically assigns it to PNG format.
+            3. export 'fileName' [scale]           - Exports the UML diagram to a PNG file, or to SVG if the name ends in .svg.
+                                                     An optional scale such as 2 or 4 makes larger PNGs for print.
+            4. export_all 'dirOrGlob' 'outDir' [png|svg] [scale]
+                                                   - Exports every diagram file in a directory or matching a glob, in parallel.
+            5. source 'fileName'                   - Runs every command in a script file as one step that a single 'undo' reverts.
+            6. layout force [iterations]           - Arranges all classes so that related classes end up close together.
+            7. layout nudge [passes]               - Moves classes a little to open corridors for relationship lines.
+            8. layout bundle on|off                - Draws relationships of the same type into one class as a shared line in exports.
 
             Examples:
             - add class Person
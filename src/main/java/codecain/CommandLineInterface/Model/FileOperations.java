@@ -14,11 +14,28 @@ public class FileOperations {
      * @return a confirmation message if the diagram is saved successfully, or an error message if the save fails
      */
     public String saveDiagram(String fileName) {
+        return saveDiagram(fileName, false);
+    }
+
+    /**
+     * Saves the UML diagram to a specified file in JSON format.
+     * A segmented save writes a manifest plus segment files, and later saves to the same
+     * file only rewrite the classes that changed.
+     *
+     * @param fileName  the name of the file to save the diagram to
+     * @param segmented true to save in the incremental segmented format
+     * @return a confirmation message if the diagram is saved successfully, or an error message if the save fails
+     */
+    public String saveDiagram(String fileName, boolean segmented) {
         if (fileName.isEmpty()) {
-            return "Usage: save <filename>";
+            return "Usage: save <filename> [--segmented]";
         }
         try {
-            SaveManager.saveToJSON(fileName + ".json");
+            if (segmented) {
+                SaveManager.saveToSegmentedJSON(fileName + ".json");
+            } else {
+                SaveManager.saveToJSON(fileName + ".json");
+            }
             return "UML diagram saved to " + fileName + ".json";
         } catch (Exception e) {
             return "Error saving UML diagram: " + e.getMessage();
@@ -32,11 +49,27 @@ public class FileOperations {
      * @return a confirmation message if the diagram is loaded successfully, or an error message if the load fails
      */
     public String loadDiagram(String fileName) {
+        return loadDiagram(fileName, false);
+    }
+
+    /**
+     * Loads a UML diagram from a specified file in JSON format.
+     * A lazy load only indexes the file; class members are read when a class is first used.
+     *
+     * @param fileName the name of the file to load the diagram from
+     * @param lazy     true to defer reading class members until they are needed
+     * @return a confirmation message if the diagram is loaded successfully, or an error message if the load fails
+     */
+    public String loadDiagram(String fileName, boolean lazy) {
         if (fileName.isEmpty()) {
-            return "Usage: load <filename>";
+            return "Usage: load <filename> [--lazy]";
         }
         try {
-            SaveManager.loadFromJSON(fileName);
+            if (lazy) {
+                SaveManager.loadFromJSONLazy(fileName);
+            } else {
+                SaveManager.loadFromJSON(fileName);
+            }
             return "UML diagram loaded from " + fileName;
         } catch (Exception e) {
             return "Error loading UML diagram: " + e.getMessage();
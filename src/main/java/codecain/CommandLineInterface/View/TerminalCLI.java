@@ -0,0 +1,108 @@
+package codecain.CommandLineInterface.View;
+
+import codecain.CommandLineInterface.Model.CommandManager;
+import codecain.CommandLineInterface.Model.DisplayHelper;
+import jline.console.ConsoleReader;
+import jline.console.completer.StringsCompleter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Command line interface that runs in a terminal instead of a JavaFX window.
+ * It never starts the JavaFX runtime, so it starts quickly and works on machines without a display;
+ * {@code export} and {@code export_all} draw their images with Java2D, so they work there too.
+ * <p>
+ * Usage:
+ * <ul>
+ *   <li>no arguments: read commands from standard input, with line editing and tab completion
+ *       when it is a terminal, or line by line when it is a pipe</li>
+ *   <li>{@code -c "cmd1; cmd2"}: run the given commands and exit</li>
+ *   <li>{@code <script>}: run a script file as one batch and exit</li>
+ *   <li>{@code -v}: also show the model's diagnostic messages on standard error</li>
+ * </ul>
+ * </p>
+ */
+public class TerminalCLI {
+
+    /**
+     * Runs the terminal CLI.
+     *
+     * @param args command-line arguments as described in the class documentation
+     */
+    public static void main(String[] args) {
+        PrintStream stdout = System.out;
+        boolean verbose = Arrays.asList(args).contains("-v");
+        args = Arrays.stream(args).filter(arg -> !arg.equals("-v")).toArray(String[]::new);
+
+        // The model reports every change on System.out; keep that out of the command output.
+        System.setOut(verbose ? System.err : new PrintStream(OutputStream.nullOutputStream()));
+
+        TerminalOutput output = new TerminalOutput(stdout);
+        CommandManager commandManager = new CommandManager(output);
+        try {
+            if (args.length >= 2 && args[0].equals("-c")) {
+                for (String command : String.join(" ", Arrays.copyOfRange(args, 1, args.length)).split(";")) {
+                    runLine(commandManager, output, command);
+                }
+            } else if (args.length == 1) {
+                commandManager.parseAndExecute("source " + args[0]);
+            } else if (System.console() != null) {
+                runInteractive(commandManager, output);
+            } else {
+                runPiped(commandManager, output);
+            }
+        } catch (IOException e) {
+            stdout.println("Failed to read input: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            System.setOut(stdout);
+        }
+    }
+
+    /**
+     * Reads commands from the terminal with line editing, history and tab completion.
+     */
+    private static void runInteractive(CommandManager commandManager, TerminalOutput output) throws IOException {
+        output.append(DisplayHelper.welcomeMessage());
+        ConsoleReader reader = new ConsoleReader();
+        try {
+            reader.setExpandEvents(false);
+            reader.addCompleter(new StringsCompleter(CommandManager.COMMANDS));
+            String line;
+            while ((line = reader.readLine(">> ")) != null) {
+                runLine(commandManager, output, line);
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads commands from a pipe or redirected file, one per line, until the input ends.
+     */
+    private static void runPiped(CommandManager commandManager, TerminalOutput output) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            runLine(commandManager, output, line);
+        }
+    }
+
+    /**
+     * Runs one line of input, either as the answer to an open prompt or as a command.
+     */
+    private static void runLine(CommandManager commandManager, TerminalOutput output, String line) {
+        if (output.answerPrompt(line)) {
+            return;
+        }
+        String command = line.trim();
+        if (!command.isEmpty()) {
+            commandManager.parseAndExecute(command);
+        }
+    }
+}
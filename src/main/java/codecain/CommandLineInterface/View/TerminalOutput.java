@@ -0,0 +1,61 @@
+package codecain.CommandLineInterface.View;
+
+import codecain.CommandLineInterface.Model.CommandOutput;
+
+import java.io.PrintStream;
+import java.util.function.Consumer;
+
+/**
+ * Command output written to a terminal or pipe.
+ * A prompt is answered by the next line the terminal CLI reads, which is handed to
+ * {@link #answerPrompt(String)} instead of being run as a command.
+ */
+public class TerminalOutput implements CommandOutput {
+
+    /**
+     * The stream the output is written to.
+     */
+    private final PrintStream out;
+
+    /**
+     * Handles the answer to the open prompt, or null if no prompt is waiting.
+     */
+    private Consumer<String> pendingPrompt;
+
+    /**
+     * Creates an output that writes to the given stream.
+     *
+     * @param out the stream to write to
+     */
+    public TerminalOutput(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void append(String text) {
+        out.print(text);
+        out.flush();
+    }
+
+    @Override
+    public void prompt(String prompt, Consumer<String> callback) {
+        append(prompt + "\n");
+        pendingPrompt = callback;
+    }
+
+    /**
+     * Passes a line of input to the open prompt, if there is one.
+     *
+     * @param line the line the user entered
+     * @return true if the line answered a prompt, false if it should be run as a command
+     */
+    public boolean answerPrompt(String line) {
+        Consumer<String> callback = pendingPrompt;
+        if (callback == null) {
+            return false;
+        }
+        pendingPrompt = null;
+        callback.accept(line.trim());
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+package codecain.CommandLineInterface.View;
+
+import codecain.CommandLineInterface.Model.CommandOutput;
+import javafx.scene.control.TextArea;
+
+import java.util.function.Consumer;
+
+/**
+ * Command output shown in the TextArea of the graphical CLI window.
+ */
+public class TextAreaOutput implements CommandOutput {
+
+    /**
+     * The TextArea the output is appended to.
+     */
+    private final TextArea textArea;
+
+    /**
+     * Creates an output that appends to the given TextArea.
+     *
+     * @param textArea the TextArea to append to
+     */
+    public TextAreaOutput(TextArea textArea) {
+        this.textArea = textArea;
+    }
+
+    @Override
+    public void append(String text) {
+        textArea.appendText(text);
+    }
+
+    /**
+     * Appends the text and moves the caret to where it starts, so the first line stays in view.
+     *
+     * @param text the text to show
+     */
+    @Override
+    public void appendFromTop(String text) {
+        int startPosition = textArea.getLength();
+        textArea.appendText(text);
+        textArea.positionCaret(startPosition);
+    }
+
+    @Override
+    public void prompt(String prompt, Consumer<String> callback) {
+        CLIView.promptForInput(prompt, callback);
+    }
+}
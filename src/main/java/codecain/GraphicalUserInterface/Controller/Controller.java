@@ -2,29 +2,40 @@ package codecain.GraphicalUserInterface.Controller;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
 
-import codecain.BackendCode.Model.Relationship;
+import codecain.BackendCode.Model.Diagram;
+import codecain.BackendCode.Model.ModelEvent;
 import codecain.BackendCode.Model.SaveManager;
 import codecain.BackendCode.Model.UMLClass;
+import codecain.GraphicalUserInterface.Controller.Layout.AutoLayout;
+import codecain.GraphicalUserInterface.Controller.Layout.ForceLayout;
+import codecain.GraphicalUserInterface.Controller.Layout.ForceLayoutAnimator;
+import codecain.GraphicalUserInterface.Controller.Layout.RoutingOptimizer;
 import codecain.GraphicalUserInterface.Controller.RelationshipLines.GridManager;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.GridUpdater;
 import codecain.GraphicalUserInterface.Controller.RelationshipLines.LineGrid;
 import codecain.GraphicalUserInterface.Model.ClassManager;
-import codecain.GraphicalUserInterface.Model.ExportImage;
+import codecain.GraphicalUserInterface.Model.Export.DiagramExporter;
 import codecain.GraphicalUserInterface.Model.FieldManager;
 import codecain.GraphicalUserInterface.Model.MethodManager;
 import codecain.GraphicalUserInterface.Model.ParameterManager;
 import codecain.GraphicalUserInterface.Model.RelationshipManager;
+import codecain.GraphicalUserInterface.View.AlertHelper;
 import codecain.GraphicalUserInterface.View.ClassNode;
-import codecain.GraphicalUserInterface.View.PositionUtils;
+import codecain.GraphicalUserInterface.View.ClassNodeVirtualizer;
+import codecain.GraphicalUserInterface.View.DiagramZoom;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
-import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyCodeCombination;
 import javafx.scene.input.KeyCombination;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
+import javafx.scene.control.CheckMenuItem;
 import javafx.scene.control.MenuButton;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextInputDialog;
@@ -50,18 +61,44 @@ public class Controller {
         // Open a FileChooser to select the file location and name
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Export UML Diagram as Image");
-        fileChooser.getExtensionFilters().add(
-            new FileChooser.ExtensionFilter("PNG Files", "*.png")
+        fileChooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("PNG Files", "*.png"),
+            new FileChooser.ExtensionFilter("SVG Files", "*.svg")
         );
 
         File file = fileChooser.showSaveDialog(nodeContainer.getScene().getWindow());
-        ExportImage.exportImage(nodeContainer, file);
+        if (file != null) {
+            exportDiagram(file);
+        }
+    }
+
+    /**
+     * Writes the diagram as PNG or SVG, depending on the file name, drawn from the model rather than
+     * from a snapshot of the scene. PNGs are drawn a strip at a time, so large diagrams export within
+     * a fixed amount of memory.
+     *
+     * @param file the file to write
+     */
+    private void exportDiagram(File file) {
+        try {
+            DiagramExporter.export(Diagram.current(), Path.of(DiagramExporter.withExtension(file.getPath())));
+            System.out.println("UML diagram exported to: " + file.getAbsolutePath());
+        } catch (IOException | IllegalArgumentException e) {
+            e.printStackTrace();
+            AlertHelper.showAlert(Alert.AlertType.ERROR, null, null, "Failed to export UML diagram: " + e.getMessage());
+        }
     }
 
 
     @FXML
     private ScrollPane scrollPane;
 
+    /**
+     * The View menu's check item that turns line bundling on and off.
+     */
+    @FXML
+    private CheckMenuItem bundleLinesItem;
+
     /**
      * The currently selected ClassNode in the GUI.
      * This is used to track which class node is being interacted with.
@@ -84,6 +121,25 @@ public class Controller {
     @FXML
     private AnchorPane nodeContainer;
 
+    /**
+     * The file the diagram was last saved to or loaded from, used by quick save.
+     */
+    private File currentFile;
+
+    /**
+     * Creates ClassNodes only for the classes near the visible part of the canvas.
+     */
+    private ClassNodeVirtualizer virtualizer;
+
+    /**
+     * Zooms the canvas in and out.
+     */
+    private DiagramZoom zoom;
+
+    /**
+     * The force-directed layout that is moving classes, or null when none is running.
+     */
+    private ForceLayoutAnimator forceLayout;
 
 
     /**
@@ -110,6 +166,13 @@ public class Controller {
         //loadGridManager needs to be called when the load button is pressed. The arguments should be the same as below
         GridManager.getInstance().setGrid(new LineGrid(50.0,6000.0,6000.0, nodeContainer),this);
 
+        virtualizer = new ClassNodeVirtualizer(nodeContainer, scrollPane, classNode -> {
+            classNode.setOnMouseClicked(event -> selectClassNode(classNode));
+            GridManager.addClassListeners(classNode);
+        });
+        zoom = new DiagramZoom(scrollPane, nodeContainer, virtualizer);
+        Diagram.current().getEvents().addListener(this::onModelChanged);
+
         //GridManager.setVisualizer();
 
         RelationshipManager.setController(this);
@@ -121,11 +184,13 @@ public class Controller {
      */
     @FXML
     public void addClassBtn() {
-        String className = showTextInputDialog("Add Class", "Enter the name of the class to add:", "Class Name:");
-        ClassNode classNode = ClassManager.addClass(className, nodeContainer);
-        if (classNode != null) {
-            classNode.setOnMouseClicked(event -> selectClassNode(classNode));
-        }
+        recordUndoState(() -> {
+            String className = showTextInputDialog("Add Class", "Enter the name of the class to add:", "Class Name:");
+            ClassNode classNode = ClassManager.addClass(className, nodeContainer);
+            if (classNode != null) {
+                classNode.setOnMouseClicked(event -> selectClassNode(classNode));
+            }
+        });
     }
     
     
@@ -136,11 +201,13 @@ public class Controller {
      */
     @FXML
     public void deleteClassBtn() {
-        String className = currentlySelectedNode != null
-                ? currentlySelectedNode.getName()
-                : showTextInputDialog("Delete Class", "Enter the name of the class to delete:", "Class Name:");
+        recordUndoState(() -> {
+            String className = currentlySelectedNode != null
+                    ? currentlySelectedNode.getName()
+                    : showTextInputDialog("Delete Class", "Enter the name of the class to delete:", "Class Name:");
 
-        ClassManager.removeClass(className, nodeContainer);
+            ClassManager.removeClass(className, nodeContainer);
+        });
     }
 
     /**
@@ -148,14 +215,142 @@ public class Controller {
      */
     @FXML
     public void renameClassBtn() {
-        String oldClassName = currentlySelectedNode != null
-                ? currentlySelectedNode.getName()
-                : showTextInputDialog("Rename Class", "Enter the name of the class to rename:", "Class Name:");
+        recordUndoState(() -> {
+            String oldClassName = currentlySelectedNode != null
+                    ? currentlySelectedNode.getName()
+                    : showTextInputDialog("Rename Class", "Enter the name of the class to rename:", "Class Name:");
+
+            String newClassName = showTextInputDialog("Rename Class", "Enter the new name for the class:",
+                    "New Class Name:");
+
+            ClassManager.renameClass(oldClassName, newClassName, nodeContainer);
+        });
+    }
+
+    /**
+     * Undoes the last change. The diagram is patched in place and only the affected class nodes
+     * and lines are updated, so the scroll position and the selection are kept.
+     */
+    @FXML
+    public void undoBtn() {
+        stopLayout();
+        syncClassNodes();
+        if (!Diagram.current().getStateManager().undo()) {
+            System.out.println("No actions to undo.");
+        }
+    }
+
+    /**
+     * Redoes the last undone change, updating the view like {@link #undoBtn()} does.
+     */
+    @FXML
+    public void redoBtn() {
+        stopLayout();
+        syncClassNodes();
+        if (!Diagram.current().getStateManager().redo()) {
+            System.out.println("No actions to redo.");
+        }
+    }
+
+    /**
+     * Records the diagram as it is now, before a change that happens later, so the change can be undone.
+     * Class nodes are synced first so the recorded state includes their latest edits.
+     */
+    private void recordUndoState() {
+        stopLayout();
+        syncClassNodes();
+        Diagram.current().getStateManager().saveState();
+    }
+
+    /**
+     * Runs an edit that asks the user for input and records the diagram as it was before, so the
+     * edit can be undone. Nothing is recorded if the edit was cancelled or its input rejected,
+     * so the next undo still undoes the last real change.
+     * Class nodes are synced first so the recorded state includes their latest edits.
+     *
+     * @param edit the edit to run
+     */
+    private void recordUndoState(Runnable edit) {
+        stopLayout();
+        syncClassNodes();
+        Diagram.current().getStateManager().recordChange(edit);
+    }
+
+    /**
+     * Arranges every class with a force-directed layout, so related classes end up close together.
+     * The classes move while the layout runs; the whole rearrangement is one undo step.
+     */
+    @FXML
+    public void forceLayoutBtn() {
+        recordUndoState();
+        forceLayout = ForceLayoutAnimator.start(Diagram.current(), ForceLayout.DEFAULT_ITERATIONS,
+                () -> forceLayout = null);
+    }
+
+    /**
+     * Nudges classes a few grid cells to open corridors for their relationship lines, as one undo step.
+     */
+    @FXML
+    public void nudgeLayoutBtn() {
+        recordUndoState(() -> {
+            Diagram diagram = Diagram.current();
+            int moved = diagram.write(() -> RoutingOptimizer.optimizeClasses(diagram.getClassMap(),
+                    diagram.getRelationshipList(), RoutingOptimizer.DEFAULT_PASSES, diagram.isLineBundling()));
+            System.out.println("Nudged " + moved + " classes to open corridors for relationship lines.");
+        });
+    }
+
+    /**
+     * Turns line bundling on or off: relationships of the same type into the same class are drawn
+     * as one shared line that branches off to each source.
+     */
+    @FXML
+    public void bundleLinesBtn() {
+        Diagram.current().setLineBundling(bundleLinesItem.isSelected());
+        GridUpdater updater = GridManager.getInstance().getUpdater();
+        if (updater != null) {
+            updater.performGridUpdate();
+        }
+    }
+
+    /**
+     * Stops a running layout, leaving the classes where they are. Any edit, undo or load does this too.
+     */
+    @FXML
+    public void stopLayoutBtn() {
+        stopLayout();
+    }
 
-        String newClassName = showTextInputDialog("Rename Class", "Enter the new name for the class:",
-                "New Class Name:");
+    private void stopLayout() {
+        if (forceLayout != null) {
+            forceLayout.stop();
+            forceLayout = null;
+        }
+    }
 
-        ClassManager.renameClass(oldClassName, newClassName, nodeContainer);
+    /**
+     * Zooms the canvas in one step.
+     */
+    @FXML
+    public void zoomInBtn() {
+        zoom.zoomIn();
+    }
+
+    /**
+     * Zooms the canvas out one step. Far enough out, classes are drawn as
+     * outlines and then as blocks instead of full class boxes.
+     */
+    @FXML
+    public void zoomOutBtn() {
+        zoom.zoomOut();
+    }
+
+    /**
+     * Returns the canvas to actual size.
+     */
+    @FXML
+    public void resetZoomBtn() {
+        zoom.reset();
     }
 
     /**
@@ -163,7 +358,7 @@ public class Controller {
      */
     @FXML
     private void addFieldBtn() {
-        FieldManager.addField(nodeContainer);
+        recordUndoState(() -> FieldManager.addField(nodeContainer));
     }
 
     /**
@@ -171,7 +366,7 @@ public class Controller {
      */
     @FXML
     private void deleteFieldBtn() {
-        FieldManager.deleteField(nodeContainer);
+        recordUndoState(() -> FieldManager.deleteField(nodeContainer));
     }
 
     /**
@@ -179,7 +374,7 @@ public class Controller {
      */
     @FXML
     private void renameFieldBtn() {
-        FieldManager.renameField(nodeContainer);
+        recordUndoState(() -> FieldManager.renameField(nodeContainer));
     }
 
     /**
@@ -187,7 +382,7 @@ public class Controller {
      */
     @FXML
     private void addMethodBtn() {
-        MethodManager.addMethod(nodeContainer);
+        recordUndoState(() -> MethodManager.addMethod(nodeContainer));
     }
 
     /**
@@ -195,7 +390,7 @@ public class Controller {
      */
     @FXML
     private void deleteMethodBtn() {
-        MethodManager.deleteMethod(nodeContainer);
+        recordUndoState(() -> MethodManager.deleteMethod(nodeContainer));
     }
 
     /**
@@ -203,7 +398,7 @@ public class Controller {
      */
     @FXML
     private void renameMethodBtn() {
-        MethodManager.renameMethod(nodeContainer);
+        recordUndoState(() -> MethodManager.renameMethod(nodeContainer));
     }
 
     /**
@@ -211,7 +406,7 @@ public class Controller {
      */
     @FXML
     private void addParameterBtn() {
-        ParameterManager.addParameter(nodeContainer);
+        recordUndoState(() -> ParameterManager.addParameter(nodeContainer));
     }
 
     /**
@@ -219,7 +414,7 @@ public class Controller {
      */
     @FXML
     private void deleteParameterBtn() {
-        ParameterManager.deleteParameter(nodeContainer);
+        recordUndoState(() -> ParameterManager.deleteParameter(nodeContainer));
     }
 
     /**
@@ -227,7 +422,7 @@ public class Controller {
      */
     @FXML
     private void changeParameterBtn() {
-        ParameterManager.changeParameter(nodeContainer);
+        recordUndoState(() -> ParameterManager.changeParameter(nodeContainer));
     }
 
     /**
@@ -235,7 +430,7 @@ public class Controller {
      */
     @FXML
     private void changeAllParametersBtn() {
-        ParameterManager.changeAllParameters(nodeContainer);
+        recordUndoState(() -> ParameterManager.changeAllParameters(nodeContainer));
     }
 
     /**
@@ -243,7 +438,7 @@ public class Controller {
      */
     @FXML
     private void addRelationshipBtn(){
-        RelationshipManager.addRelationshipBtn();
+        recordUndoState(() -> RelationshipManager.addRelationshipBtn());
     }
 
     /**
@@ -251,7 +446,7 @@ public class Controller {
      */
     @FXML
     private void removeRelationshipBtn(){
-        RelationshipManager.removeRelationshipBtn();
+        recordUndoState(() -> RelationshipManager.removeRelationshipBtn());
     }
 
     /**
@@ -261,12 +456,71 @@ public class Controller {
      */
     @FXML
     private void saveBtn() throws IOException {
-        nodeContainer.getChildren().forEach(node -> {
-            if (node instanceof ClassNode) {
-                ((ClassNode) node).syncWithUMLClassInfo();
-            }
-        });
+        syncClassNodes();
+
+        File file = showSaveDialog();
+        if (file != null) {
+            SaveManager.saveToJSON(file.getAbsolutePath());
+            currentFile = file;
+        }
+    }
+
+    /**
+     * Saves the diagram to the file it was last saved to or loaded from, asking for a file the
+     * first time. The file keeps its format: a segmented diagram is saved incrementally, so only
+     * classes that changed since the previous save are written, and a plain JSON file stays plain.
+     */
+    @FXML
+    public void quickSaveBtn() {
+        syncClassNodes();
+
+        File file = currentFile != null ? currentFile : showSaveDialog();
+        if (file == null) {
+            return;
+        }
+        try {
+            SaveManager.saveToJSON(file.getAbsolutePath());
+            currentFile = file;
+        } catch (IOException | IllegalArgumentException e) {
+            Alert alert = new Alert(Alert.AlertType.ERROR, "Could not save diagram: " + e.getMessage(), ButtonType.OK);
+            alert.showAndWait();
+        }
+    }
+
+    /**
+     * Saves the diagram in the segmented format to a file chosen by the user. Later quick saves
+     * to that file only write the classes that changed.
+     */
+    @FXML
+    private void saveAsSegmentedBtn() {
+        syncClassNodes();
 
+        File file = showSaveDialog();
+        if (file == null) {
+            return;
+        }
+        try {
+            SaveManager.saveToSegmentedJSON(file.getAbsolutePath());
+            currentFile = file;
+        } catch (IOException | IllegalArgumentException e) {
+            Alert alert = new Alert(Alert.AlertType.ERROR, "Could not save diagram: " + e.getMessage(), ButtonType.OK);
+            alert.showAndWait();
+        }
+    }
+
+    /**
+     * Copies the position and members of every class node back into its UMLClassInfo.
+     */
+    private void syncClassNodes() {
+        virtualizer.getLiveNodes().forEach(ClassNode::syncWithUMLClassInfo);
+    }
+
+    /**
+     * Asks the user where to save the diagram.
+     *
+     * @return the chosen file, or null if the dialog was cancelled
+     */
+    private File showSaveDialog() {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Save UML Diagram File");
         fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("JSON Files", "*.json"));
@@ -274,10 +528,7 @@ public class Controller {
 
         Window window = nodeContainer.getScene().getWindow();
 
-        File file = fileChooser.showSaveDialog(window);
-        if (file != null) {
-            SaveManager.saveToJSON(file.getAbsolutePath());
-        }
+        return fileChooser.showSaveDialog(window);
     }
 
 
@@ -298,6 +549,7 @@ public class Controller {
         File file = fileChooser.showOpenDialog(window);
         if (file != null) {
             SaveManager.loadFromJSON(file.getAbsolutePath());
+            currentFile = file;
             populateGUIFromClassMap();
         }
 
@@ -309,50 +561,60 @@ public class Controller {
 
     /**
      * Populates the GUI with data from the backend UML class map.
-     * Clears the existing nodes in the GUI and repopulates them based on the
-     * backend state.
+     * Clears the existing nodes in the GUI, gives classes that were never placed a
+     * position, and creates nodes for the classes in view; the rest get their nodes
+     * when the user scrolls to them.
      */
     public Pane populateGUIFromClassMap() {
-        nodeContainer.getChildren().clear();
-        UMLClass.classMap.values().forEach(classInfo -> {
-            ClassNode classNode = new ClassNode(classInfo);
-            if (classInfo.getX() == 0 && classInfo.getY() == 0) {
-                PositionUtils.calculateAndSetPosition(classNode, classInfo, nodeContainer);
-            } else {
-                classNode.setLayoutX(classInfo.getX());
-                classNode.setLayoutY(classInfo.getY());
-            }
-            classNode.setOnMouseClicked(event -> selectClassNode(classNode));
-            nodeContainer.getChildren().add(classNode);
-        });
-    
+        stopLayout();
+        if (currentlySelectedNode != null) {
+            currentlySelectedNode.deselect();
+            currentlySelectedNode = null;
+        }
+
+        Diagram diagram = Diagram.current();
+        diagram.write(() -> AutoLayout.placeUnplacedClasses(diagram.getClassMap(), diagram.getRelationshipList()));
+        virtualizer.refresh();
+
         // Trigger layout update for the container to ensure all nodes are positioned
         nodeContainer.applyCss();
         nodeContainer.layout();
-    
-        Relationship.relationshipList.forEach(relationship -> {
-            ClassNode sourceNode = findClassNode(relationship.getSource());
-            ClassNode destNode = findClassNode(relationship.getDestination());
-        });
-    
+
         System.out.println("GUI populated from class map.");
         return nodeContainer;
     }
     
 
     /**
-     * Finds and returns the ClassNode corresponding to the given class name.
+     * Passes a batch of model changes on to the class nodes and the relationship lines, on the
+     * JavaFX application thread.
+     *
+     * @param events the changes, as delivered by the diagram's event bus
+     */
+    private void onModelChanged(List<ModelEvent> events) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> onModelChanged(events));
+            return;
+        }
+        if (currentlySelectedNode != null && !virtualizer.getLiveNodes().contains(currentlySelectedNode)) {
+            currentlySelectedNode = null;
+        }
+        virtualizer.onModelChanged(events);
+        GridUpdater updater = GridManager.getInstance().getUpdater();
+        if (updater != null) {
+            updater.onModelChanged(events);
+        }
+    }
+
+    /**
+     * Finds and returns the ClassNode corresponding to the given class name,
+     * creating it if the class is scrolled out of view.
      * 
      * @param className the name of the class to search for.
-     * @return the ClassNode with the specified class name, or null if no matching node is found.
+     * @return the ClassNode with the specified class name, or null if no matching class is found.
      */
     public ClassNode findClassNode(String className) {
-        for (Node node : nodeContainer.getChildren()) {
-            if (node instanceof ClassNode && ((ClassNode) node).getName().equals(className)) {
-                return (ClassNode) node;
-            }
-        }
-        return null;
+        return ClassNodeVirtualizer.findClassNode(nodeContainer, className);
     }
     
 
@@ -0,0 +1,134 @@
+package codecain.GraphicalUserInterface.Controller.Layout;
+
+import codecain.BackendCode.Model.Relationship;
+import codecain.BackendCode.Model.UMLClassInfo;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.ClassBounds;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gives every class that has never been placed a position, for example after loading a model
+ * written by another tool.
+ * <p>
+ * A class counts as unplaced when its position is (0, 0). Unplaced classes that take part in an
+ * inheritance hierarchy with each other are laid out in layers by {@link LayeredLayout}; the rest
+ * are packed by {@link SkylinePacker}. Both go below the classes that already have a position, so
+ * those never move. The strip the classes are packed into grows with their total area, so that
+ * a large model comes out roughly as wide as it is tall instead of as one long column.
+ * </p>
+ */
+public final class AutoLayout {
+
+    /**
+     * How much wider than tall the packed area should be.
+     */
+    private static final double ASPECT_RATIO = 1.5;
+
+    private AutoLayout() {
+    }
+
+    /**
+     * Checks whether a class has never been given a position.
+     *
+     * @param box the class box
+     * @return true if it sits at (0, 0)
+     */
+    public static boolean isUnplaced(ClassBounds box) {
+        return box.getX() == 0 && box.getY() == 0;
+    }
+
+    /**
+     * Places every unplaced class among the others.
+     *
+     * @param boxes         every class box of the diagram, keyed by class name
+     * @param relationships the relationships of the diagram
+     * @return every class box, with the unplaced ones moved to their new spots, in the given order
+     */
+    public static Map<String, ClassBounds> placeUnplaced(Map<String, ClassBounds> boxes,
+                                                        Collection<Relationship> relationships) {
+        double padding = ClassBounds.LAYOUT_PADDING;
+        double top = padding;
+        double area = 0;
+        Map<String, ClassBounds> unplaced = new LinkedHashMap<>();
+        for (Map.Entry<String, ClassBounds> entry : boxes.entrySet()) {
+            ClassBounds box = entry.getValue();
+            if (isUnplaced(box)) {
+                unplaced.put(entry.getKey(), box);
+                area += (box.getWidth() + padding) * (box.getHeight() + padding);
+            } else {
+                top = Math.max(top, box.getMaxY() + padding);
+            }
+        }
+        if (unplaced.isEmpty()) {
+            return boxes;
+        }
+        double width = Math.max(ClassBounds.LAYOUT_WIDTH, Math.sqrt(area * ASPECT_RATIO));
+
+        // classes in a hierarchy with other unplaced classes are laid out in layers
+        Map<String, ClassBounds> hierarchy = new LinkedHashMap<>();
+        for (Relationship relationship : relationships) {
+            ClassBounds source = unplaced.get(relationship.getSource());
+            ClassBounds destination = unplaced.get(relationship.getDestination());
+            if (source != null && destination != null && source != destination
+                    && LayeredLayout.isHierarchy(relationship)) {
+                hierarchy.put(relationship.getSource(), source);
+                hierarchy.put(relationship.getDestination(), destination);
+            }
+        }
+        Map<String, ClassBounds> moved = new LinkedHashMap<>();
+        if (!hierarchy.isEmpty()) {
+            moved.putAll(LayeredLayout.layout(hierarchy, relationships, padding, top, width, padding));
+            for (ClassBounds box : moved.values()) {
+                top = Math.max(top, box.getMaxY() + LayeredLayout.LAYER_GAP);
+            }
+        }
+
+        List<String> rest = new ArrayList<>();
+        List<ClassBounds> restBoxes = new ArrayList<>();
+        for (Map.Entry<String, ClassBounds> entry : unplaced.entrySet()) {
+            if (!hierarchy.containsKey(entry.getKey())) {
+                rest.add(entry.getKey());
+                restBoxes.add(entry.getValue());
+            }
+        }
+        List<ClassBounds> packed = SkylinePacker.pack(restBoxes, padding, top, width, padding);
+        for (int i = 0; i < rest.size(); i++) {
+            moved.put(rest.get(i), packed.get(i));
+        }
+
+        Map<String, ClassBounds> result = new LinkedHashMap<>();
+        for (Map.Entry<String, ClassBounds> entry : boxes.entrySet()) {
+            result.put(entry.getKey(), moved.getOrDefault(entry.getKey(), entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * Places every unplaced class of a diagram and stores the new positions in the classes.
+     *
+     * @param classes       the classes of the diagram, keyed by class name
+     * @param relationships the relationships of the diagram
+     * @return how many classes were placed
+     */
+    public static int placeUnplacedClasses(Map<String, UMLClassInfo> classes, Collection<Relationship> relationships) {
+        Map<String, ClassBounds> boxes = new LinkedHashMap<>();
+        for (Map.Entry<String, UMLClassInfo> entry : classes.entrySet()) {
+            boxes.put(entry.getKey(), ClassBounds.of(entry.getValue()));
+        }
+        int count = 0;
+        for (Map.Entry<String, ClassBounds> entry : placeUnplaced(boxes, relationships).entrySet()) {
+            UMLClassInfo classInfo = classes.get(entry.getKey());
+            ClassBounds box = entry.getValue();
+            if (classInfo.getX() == 0 && classInfo.getY() == 0) {
+                classInfo.setX((int) Math.round(box.getX()));
+                classInfo.setY((int) Math.round(box.getY()));
+                count++;
+            }
+        }
+        return count;
+    }
+}
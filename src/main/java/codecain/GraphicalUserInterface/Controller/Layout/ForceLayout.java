@@ -0,0 +1,497 @@
+package codecain.GraphicalUserInterface.Controller.Layout;
+
+import codecain.BackendCode.Model.Relationship;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.ClassBounds;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lays out classes with a force-directed simulation, so that related classes end up close together.
+ * <p>
+ * Every class pushes every other class away and every relationship pulls its two classes together,
+ * Fruchterman-Reingold style; a weak pull toward the middle keeps unrelated groups from drifting
+ * apart. Each class is treated as a disc around its box, so distances are measured between box
+ * edges and large classes get as much room as small ones. Pushing is computed with a Barnes-Hut
+ * quadtree: a group of classes far enough away acts as one class at its center of mass, which
+ * makes a step O(n log n) instead of O(n²). Moves are capped by a temperature that cools every
+ * step. When the simulation ends, the boxes that still overlap are pushed apart.
+ * </p>
+ * <p>
+ * A layout is not thread safe, but it only reads the boxes and relationships it was created from,
+ * so it can run on a background thread while the diagram is shown.
+ * </p>
+ */
+public final class ForceLayout {
+
+    /**
+     * How many steps a layout runs at most.
+     */
+    public static final int DEFAULT_ITERATIONS = 300;
+
+    /**
+     * Space the forces try to keep between the edges of two related classes.
+     */
+    private static final double IDEAL_GAP = 80;
+
+    /**
+     * How far a group of classes must be, relative to its size, to be treated as one class.
+     */
+    private static final double THETA = 0.8;
+
+    /**
+     * Strength of the pull toward the middle of the diagram.
+     */
+    private static final double GRAVITY = 0.01;
+
+    /**
+     * A step that moves no class further than this ends the simulation early.
+     */
+    private static final double MIN_MOVE = 0.5;
+
+    /**
+     * Most rounds of pushing overlapping boxes apart at the end.
+     */
+    private static final int OVERLAP_ROUNDS = 200;
+
+    private final String[] names;
+    private final double[] width;
+    private final double[] height;
+    private final double[] radius;
+    private final double[] charge;
+    private final double[] x;
+    private final double[] y;
+    private final double[] forceX;
+    private final double[] forceY;
+    private final int[] edgeSource;
+    private final int[] edgeDestination;
+    private final double meanRadius;
+    private final int maxIterations;
+    private final double cooling;
+    private final QuadTree tree;
+
+    private double temperature;
+    private int iteration;
+    private boolean done;
+
+    /**
+     * Sets up a layout starting from the current positions of the classes.
+     *
+     * @param boxes         the classes to lay out, keyed by name
+     * @param relationships the relationships of the diagram; those between other classes are ignored
+     * @param maxIterations how many steps to run at most
+     */
+    public ForceLayout(Map<String, ClassBounds> boxes, Collection<Relationship> relationships, int maxIterations) {
+        if (maxIterations < 0) {
+            throw new IllegalArgumentException("Iteration count cannot be negative: " + maxIterations);
+        }
+        int n = boxes.size();
+        this.names = boxes.keySet().toArray(new String[0]);
+        this.width = new double[n];
+        this.height = new double[n];
+        this.radius = new double[n];
+        this.charge = new double[n];
+        this.x = new double[n];
+        this.y = new double[n];
+        this.forceX = new double[n];
+        this.forceY = new double[n];
+        this.maxIterations = maxIterations;
+
+        Map<String, Integer> ids = new HashMap<>();
+        double totalRadius = 0;
+        for (int i = 0; i < n; i++) {
+            ClassBounds box = boxes.get(names[i]);
+            ids.put(names[i], i);
+            width[i] = box.getWidth();
+            height[i] = box.getHeight();
+            radius[i] = Math.hypot(width[i], height[i]) / 2;
+            x[i] = box.getX() + width[i] / 2;
+            y[i] = box.getY() + height[i] / 2;
+            totalRadius += radius[i];
+        }
+        this.meanRadius = n == 0 ? 1 : totalRadius / n;
+        for (int i = 0; i < n; i++) {
+            charge[i] = radius[i] / meanRadius;
+        }
+
+        List<int[]> edges = new ArrayList<>();
+        for (Relationship relationship : relationships) {
+            Integer source = ids.get(relationship.getSource());
+            Integer destination = ids.get(relationship.getDestination());
+            if (source != null && destination != null && !source.equals(destination)) {
+                edges.add(new int[] {source, destination});
+            }
+        }
+        this.edgeSource = new int[edges.size()];
+        this.edgeDestination = new int[edges.size()];
+        for (int e = 0; e < edges.size(); e++) {
+            edgeSource[e] = edges.get(e)[0];
+            edgeDestination[e] = edges.get(e)[1];
+        }
+
+        // start hot enough to untangle the diagram and cool to under a pixel by the last step
+        this.temperature = IDEAL_GAP * 10;
+        this.cooling = maxIterations == 0 ? 0 : Math.pow(MIN_MOVE / temperature, 1.0 / maxIterations);
+        this.tree = new QuadTree(n);
+        this.done = n < 2 || maxIterations == 0;
+    }
+
+    /**
+     * Lays out classes in one go.
+     *
+     * @param boxes         the classes to lay out, keyed by name
+     * @param relationships the relationships of the diagram
+     * @param maxIterations how many steps to run at most
+     * @return the classes moved to their new spots, in the given order
+     */
+    public static Map<String, ClassBounds> layout(Map<String, ClassBounds> boxes, Collection<Relationship> relationships,
+                                                  int maxIterations) {
+        ForceLayout layout = new ForceLayout(boxes, relationships, maxIterations);
+        while (layout.step()) {
+            // run to the end
+        }
+        layout.removeOverlaps();
+        return layout.getPositions();
+    }
+
+    /**
+     * Runs one step of the simulation.
+     *
+     * @return true if more steps are needed, false once the layout has settled or run out of steps
+     */
+    public boolean step() {
+        if (done) {
+            return false;
+        }
+        int n = names.length;
+        Arrays.fill(forceX, 0);
+        Arrays.fill(forceY, 0);
+
+        tree.build(x, y, charge);
+        for (int i = 0; i < n; i++) {
+            tree.repel(this, i);
+        }
+
+        for (int e = 0; e < edgeSource.length; e++) {
+            int a = edgeSource[e];
+            int b = edgeDestination[e];
+            double dx = x[b] - x[a];
+            double dy = y[b] - y[a];
+            double distance = Math.max(Math.hypot(dx, dy), 1e-6);
+            double gap = Math.max(distance - radius[a] - radius[b], 0);
+            double pull = gap * gap / IDEAL_GAP / distance;
+            forceX[a] += dx * pull;
+            forceY[a] += dy * pull;
+            forceX[b] -= dx * pull;
+            forceY[b] -= dy * pull;
+        }
+
+        double centerX = 0;
+        double centerY = 0;
+        for (int i = 0; i < n; i++) {
+            centerX += x[i];
+            centerY += y[i];
+        }
+        centerX /= n;
+        centerY /= n;
+
+        double maxMove = 0;
+        for (int i = 0; i < n; i++) {
+            double fx = forceX[i] + GRAVITY * charge[i] * (centerX - x[i]);
+            double fy = forceY[i] + GRAVITY * charge[i] * (centerY - y[i]);
+            double length = Math.hypot(fx, fy);
+            if (length > 0) {
+                double move = Math.min(length, temperature);
+                x[i] += fx / length * move;
+                y[i] += fy / length * move;
+                maxMove = Math.max(maxMove, move);
+            }
+        }
+        temperature *= cooling;
+        iteration++;
+        done = iteration >= maxIterations || maxMove < MIN_MOVE;
+        return !done;
+    }
+
+    /**
+     * Adds the push between class i and a class or group of classes.
+     *
+     * @param i        the class being pushed
+     * @param otherX   center of the other class or group
+     * @param otherY   center of the other class or group
+     * @param strength charge of the other class, or total charge of the group
+     * @param reach    radius of the other class, or mean radius for a group
+     */
+    private void addPush(int i, double otherX, double otherY, double strength, double reach) {
+        double dx = x[i] - otherX;
+        double dy = y[i] - otherY;
+        double distance = Math.hypot(dx, dy);
+        if (distance < 1e-6) {
+            // classes on top of each other: push in a direction that differs per class
+            dx = Math.cos(i);
+            dy = Math.sin(i);
+            distance = 1;
+        }
+        double gap = Math.max(distance - radius[i] - reach, IDEAL_GAP / 10);
+        double push = IDEAL_GAP * IDEAL_GAP * charge[i] * strength / gap / distance;
+        forceX[i] += dx * push;
+        forceY[i] += dy * push;
+    }
+
+    /**
+     * Pushes apart the boxes that still overlap, along the axis where they overlap least,
+     * until every pair is at least the layout padding apart.
+     */
+    public void removeOverlaps() {
+        int n = names.length;
+        double padding = ClassBounds.LAYOUT_PADDING;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Comparator<Integer> byLeft = Comparator.comparingDouble(i -> x[i] - width[i] / 2);
+        for (int round = 0; round < OVERLAP_ROUNDS; round++) {
+            Arrays.sort(order, byLeft);
+            boolean moved = false;
+            for (int p = 0; p < n; p++) {
+                int a = order[p];
+                double right = x[a] + width[a] / 2 + padding;
+                for (int q = p + 1; q < n; q++) {
+                    int b = order[q];
+                    if (x[b] - width[b] / 2 >= right) {
+                        break;
+                    }
+                    double overlapX = (width[a] + width[b]) / 2 + padding - Math.abs(x[a] - x[b]);
+                    double overlapY = (height[a] + height[b]) / 2 + padding - Math.abs(y[a] - y[b]);
+                    if (overlapX <= 0 || overlapY <= 0) {
+                        continue;
+                    }
+                    if (overlapX < overlapY) {
+                        double shift = overlapX / 2 * (x[a] <= x[b] ? 1 : -1);
+                        x[a] -= shift;
+                        x[b] += shift;
+                    } else {
+                        double shift = overlapY / 2 * (y[a] <= y[b] ? 1 : -1);
+                        y[a] -= shift;
+                        y[b] += shift;
+                    }
+                    moved = true;
+                }
+            }
+            if (!moved) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the current positions, shifted so the diagram starts at the layout padding.
+     *
+     * @return the classes at their current spots, in the order they were given
+     */
+    public Map<String, ClassBounds> getPositions() {
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        for (int i = 0; i < names.length; i++) {
+            minX = Math.min(minX, x[i] - width[i] / 2);
+            minY = Math.min(minY, y[i] - height[i] / 2);
+        }
+        double shiftX = ClassBounds.LAYOUT_PADDING - minX;
+        double shiftY = ClassBounds.LAYOUT_PADDING - minY;
+        Map<String, ClassBounds> positions = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            positions.put(names[i], new ClassBounds(Math.round(x[i] - width[i] / 2 + shiftX),
+                    Math.round(y[i] - height[i] / 2 + shiftY), width[i], height[i]));
+        }
+        return positions;
+    }
+
+    /**
+     * Gets how many steps have run.
+     *
+     * @return the number of steps so far
+     */
+    public int getIteration() {
+        return iteration;
+    }
+
+    /**
+     * Checks whether the simulation has ended.
+     *
+     * @return true once {@link #step()} has nothing left to do
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * Barnes-Hut quadtree over the class centers, kept in flat arrays and rebuilt every step.
+     */
+    private static final class QuadTree {
+
+        /**
+         * Below this depth classes on almost the same spot share a leaf instead of splitting further.
+         */
+        private static final int MAX_DEPTH = 40;
+
+        private static final int EMPTY = -1;
+        private static final int INTERNAL = -2;
+        private static final int SHARED = -3;
+
+        private double[] minX;
+        private double[] minY;
+        private double[] size;
+        private double[] mass;
+        private double[] massX;
+        private double[] massY;
+        private int[] body;
+        private int[] children;
+        private int count;
+        private int[] stack;
+
+        QuadTree(int bodies) {
+            grow(Math.max(4, bodies * 2));
+            stack = new int[64];
+        }
+
+        void build(double[] x, double[] y, double[] charge) {
+            double left = Double.MAX_VALUE;
+            double top = Double.MAX_VALUE;
+            double right = -Double.MAX_VALUE;
+            double bottom = -Double.MAX_VALUE;
+            for (int i = 0; i < x.length; i++) {
+                left = Math.min(left, x[i]);
+                top = Math.min(top, y[i]);
+                right = Math.max(right, x[i]);
+                bottom = Math.max(bottom, y[i]);
+            }
+            count = 0;
+            newNode(left, top, Math.max(Math.max(right - left, bottom - top), 1) * 1.0001);
+            for (int i = 0; i < x.length; i++) {
+                insert(0, i, x, y, charge, 0);
+            }
+        }
+
+        private void insert(int node, int i, double[] x, double[] y, double[] charge, int depth) {
+            mass[node] += charge[i];
+            massX[node] += charge[i] * x[i];
+            massY[node] += charge[i] * y[i];
+            int current = body[node];
+            if (current == EMPTY) {
+                body[node] = i;
+                return;
+            }
+            if (current == SHARED) {
+                return;
+            }
+            if (current >= 0) {
+                if (depth >= MAX_DEPTH) {
+                    body[node] = SHARED;
+                    return;
+                }
+                body[node] = INTERNAL;
+                insert(child(node, x[current], y[current]), current, x, y, charge, depth + 1);
+            }
+            insert(child(node, x[i], y[i]), i, x, y, charge, depth + 1);
+        }
+
+        /**
+         * Gets the quadrant of a node a point falls in, creating it if needed.
+         */
+        private int child(int node, double px, double py) {
+            double half = size[node] / 2;
+            int quadrant = (px >= minX[node] + half ? 1 : 0) + (py >= minY[node] + half ? 2 : 0);
+            int slot = node * 4 + quadrant;
+            if (children[slot] == EMPTY) {
+                double left = minX[node] + (quadrant % 2 == 1 ? half : 0);
+                double top = minY[node] + (quadrant >= 2 ? half : 0);
+                int created = newNode(left, top, half);
+                children[slot] = created;
+            }
+            return children[slot];
+        }
+
+        private int newNode(double left, double top, double nodeSize) {
+            if (count == body.length) {
+                grow(body.length * 2);
+            }
+            int node = count++;
+            minX[node] = left;
+            minY[node] = top;
+            size[node] = nodeSize;
+            mass[node] = 0;
+            massX[node] = 0;
+            massY[node] = 0;
+            body[node] = EMPTY;
+            Arrays.fill(children, node * 4, node * 4 + 4, EMPTY);
+            return node;
+        }
+
+        private void grow(int capacity) {
+            minX = minX == null ? new double[capacity] : Arrays.copyOf(minX, capacity);
+            minY = minY == null ? new double[capacity] : Arrays.copyOf(minY, capacity);
+            size = size == null ? new double[capacity] : Arrays.copyOf(size, capacity);
+            mass = mass == null ? new double[capacity] : Arrays.copyOf(mass, capacity);
+            massX = massX == null ? new double[capacity] : Arrays.copyOf(massX, capacity);
+            massY = massY == null ? new double[capacity] : Arrays.copyOf(massY, capacity);
+            body = body == null ? new int[capacity] : Arrays.copyOf(body, capacity);
+            children = children == null ? new int[capacity * 4] : Arrays.copyOf(children, capacity * 4);
+        }
+
+        /**
+         * Adds to class i the push of every other class, walking down only into groups that are
+         * too close to treat as one.
+         */
+        void repel(ForceLayout layout, int i) {
+            double px = layout.x[i];
+            double py = layout.y[i];
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                int node = stack[--top];
+                int single = body[node];
+                if (single == i || mass[node] == 0) {
+                    continue;
+                }
+                if (single >= 0) {
+                    layout.addPush(i, layout.x[single], layout.y[single], layout.charge[single], layout.radius[single]);
+                    continue;
+                }
+                double nodeMass = mass[node];
+                double centerX = massX[node];
+                double centerY = massY[node];
+                if (single == SHARED && px >= minX[node] && px < minX[node] + size[node]
+                        && py >= minY[node] && py < minY[node] + size[node]) {
+                    // leave class i itself out of the leaf it shares
+                    nodeMass -= layout.charge[i];
+                    centerX -= layout.charge[i] * px;
+                    centerY -= layout.charge[i] * py;
+                    if (nodeMass <= 1e-9) {
+                        continue;
+                    }
+                }
+                centerX /= nodeMass;
+                centerY /= nodeMass;
+                double distance = Math.hypot(px - centerX, py - centerY);
+                if (single == SHARED || size[node] < THETA * distance) {
+                    layout.addPush(i, centerX, centerY, nodeMass, layout.meanRadius);
+                    continue;
+                }
+                if (top + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                for (int slot = node * 4; slot < node * 4 + 4; slot++) {
+                    if (children[slot] != EMPTY) {
+                        stack[top++] = children[slot];
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package codecain.GraphicalUserInterface.Controller.Layout;
+
+import codecain.BackendCode.Model.Diagram;
+import codecain.BackendCode.Model.UMLClassInfo;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.ClassBounds;
+import javafx.animation.AnimationTimer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs a {@link ForceLayout} on a background thread and shows its progress in the GUI.
+ * <p>
+ * The simulation works on its own copy of the class boxes. About once per frame it publishes the
+ * current positions, and an AnimationTimer on the JavaFX thread writes the latest ones into the
+ * diagram in a single write section. Every class moved in that section is reported in one batch of
+ * model events, so the class nodes in view follow the layout and the lines are rerouted once the
+ * grid's update timer fires. Positions published faster than frames are drawn are simply skipped.
+ * </p>
+ */
+public class ForceLayoutAnimator {
+
+    /**
+     * Shortest time between two published positions, about one frame at 60 frames per second.
+     */
+    private static final long FRAME_NANOS = 16_000_000;
+
+    private final Diagram diagram;
+    private final AtomicReference<Map<String, ClassBounds>> pending = new AtomicReference<>();
+    private final Runnable onFinished;
+    private final AnimationTimer timer;
+    private volatile boolean cancelled;
+    private volatile boolean finished;
+
+    private ForceLayoutAnimator(Diagram diagram, Runnable onFinished) {
+        this.diagram = diagram;
+        this.onFinished = onFinished;
+        this.timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                showLatest();
+            }
+        };
+    }
+
+    /**
+     * Starts laying out every class of a diagram. Must be called on the JavaFX application thread.
+     *
+     * @param diagram       the diagram to lay out
+     * @param maxIterations how many steps the simulation runs at most
+     * @param onFinished    runs on the JavaFX thread once the final positions are shown; not run
+     *                      if the layout is stopped
+     * @return the running layout, which can be stopped
+     */
+    public static ForceLayoutAnimator start(Diagram diagram, int maxIterations, Runnable onFinished) {
+        ForceLayout layout = diagram.readLocked(() -> {
+            Map<String, ClassBounds> boxes = new LinkedHashMap<>();
+            diagram.getClassMap().forEach((name, classInfo) -> boxes.put(name, ClassBounds.of(classInfo)));
+            return new ForceLayout(boxes, new ArrayList<>(diagram.getRelationshipList()), maxIterations);
+        });
+
+        ForceLayoutAnimator animator = new ForceLayoutAnimator(diagram, onFinished);
+        animator.timer.start();
+        Thread.ofPlatform().name("force-layout").daemon(true).start(() -> animator.run(layout));
+        return animator;
+    }
+
+    /**
+     * Stops the layout. The classes stay where the last shown frame put them.
+     */
+    public void stop() {
+        cancelled = true;
+        timer.stop();
+    }
+
+    /**
+     * Checks whether the layout is still moving classes.
+     *
+     * @return true until the final positions are shown or the layout is stopped
+     */
+    public boolean isRunning() {
+        return !cancelled && !(finished && pending.get() == null);
+    }
+
+    /**
+     * Runs the simulation on the background thread.
+     */
+    private void run(ForceLayout layout) {
+        long lastPublished = System.nanoTime();
+        while (!cancelled && layout.step()) {
+            long now = System.nanoTime();
+            if (now - lastPublished >= FRAME_NANOS) {
+                pending.set(layout.getPositions());
+                lastPublished = now;
+            }
+        }
+        if (cancelled) {
+            return;
+        }
+        layout.removeOverlaps();
+        pending.set(layout.getPositions());
+        finished = true;
+    }
+
+    /**
+     * Writes the latest published positions into the diagram, on the JavaFX thread.
+     */
+    private void showLatest() {
+        boolean last = finished;
+        Map<String, ClassBounds> positions = pending.getAndSet(null);
+        if (positions != null && !cancelled) {
+            Diagram.runWith(diagram, () -> diagram.write(() -> positions.forEach((name, box) -> {
+                UMLClassInfo classInfo = diagram.getClassMap().get(name);
+                if (classInfo != null) {
+                    classInfo.setX((int) box.getX());
+                    classInfo.setY((int) box.getY());
+                }
+            })));
+        }
+        if (last && pending.get() == null) {
+            timer.stop();
+            if (!cancelled && onFinished != null) {
+                onFinished.run();
+            }
+        }
+    }
+}
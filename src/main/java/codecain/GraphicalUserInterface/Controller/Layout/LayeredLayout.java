@@ -0,0 +1,273 @@
+package codecain.GraphicalUserInterface.Controller.Layout;
+
+import codecain.BackendCode.Model.Relationship;
+import codecain.BackendCode.Model.RelationshipType;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.ClassBounds;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lays out inheritance hierarchies in layers, Sugiyama style: superclasses above their subclasses.
+ * <p>
+ * Generalization and realization relationships point from the subclass to the superclass. The
+ * classes are split into layers by the longest path from a root, cycles being broken first. Each
+ * layer is then ordered by the barycenter heuristic, a few sweeps down and up, so that classes sit
+ * near the classes they are connected to and lines cross less. Finally the layers are stacked, each
+ * centered, and a layer wider than the allowed width wraps into several rows. Long edges get no
+ * dummy nodes; the router draws them around the boxes in between.
+ * </p>
+ */
+public final class LayeredLayout {
+
+    /**
+     * Vertical space between layers, which leaves room for the lines between them.
+     */
+    public static final double LAYER_GAP = 80;
+
+    /**
+     * How many pairs of down and up ordering sweeps are run.
+     */
+    private static final int SWEEPS = 4;
+
+    private LayeredLayout() {
+    }
+
+    /**
+     * Checks whether a relationship is part of an inheritance hierarchy.
+     *
+     * @param relationship the relationship
+     * @return true for generalizations and realizations
+     */
+    public static boolean isHierarchy(Relationship relationship) {
+        return relationship.getType() == RelationshipType.GENERALIZATION
+                || relationship.getType() == RelationshipType.REALIZATION;
+    }
+
+    /**
+     * Lays out classes in layers.
+     *
+     * @param boxes         the classes to lay out, keyed by name; only their sizes are used
+     * @param relationships the relationships of the diagram; only hierarchy relationships between
+     *                      the given classes are used
+     * @param left          the left edge of the area to use
+     * @param top           the top edge of the area to use
+     * @param maxWidth      the width at which a layer wraps into another row
+     * @param padding       the horizontal space kept between boxes
+     * @return the classes moved to their spots
+     */
+    public static Map<String, ClassBounds> layout(Map<String, ClassBounds> boxes, Collection<Relationship> relationships,
+                                                  double left, double top, double maxWidth, double padding) {
+        List<String> names = new ArrayList<>(boxes.keySet());
+        Map<String, Integer> ids = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            ids.put(names.get(i), i);
+        }
+        int n = names.size();
+        List<Set<Integer>> parents = new ArrayList<>();
+        List<Set<Integer>> children = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            parents.add(new LinkedHashSet<>());
+            children.add(new LinkedHashSet<>());
+        }
+        for (Relationship relationship : relationships) {
+            Integer child = ids.get(relationship.getSource());
+            Integer parent = ids.get(relationship.getDestination());
+            if (child != null && parent != null && !child.equals(parent) && isHierarchy(relationship)) {
+                parents.get(child).add(parent);
+                children.get(parent).add(child);
+            }
+        }
+        breakCycles(parents, children);
+
+        int[] layer = assignLayers(parents, children);
+        List<List<Integer>> layers = new ArrayList<>();
+        for (int v : discoveryOrder(parents, children)) {
+            while (layers.size() <= layer[v]) {
+                layers.add(new ArrayList<>());
+            }
+            layers.get(layer[v]).add(v);
+        }
+        orderLayers(layers, parents, children, n);
+
+        Map<String, ClassBounds> result = new LinkedHashMap<>();
+        double y = top;
+        for (List<Integer> row : layers) {
+            int start = 0;
+            while (start < row.size()) {
+                // take as many classes as fit in one row
+                int end = start;
+                double rowWidth = 0;
+                double rowHeight = 0;
+                while (end < row.size()) {
+                    ClassBounds box = boxes.get(names.get(row.get(end)));
+                    double next = rowWidth + (end > start ? padding : 0) + box.getWidth();
+                    if (end > start && next > maxWidth) {
+                        break;
+                    }
+                    rowWidth = next;
+                    rowHeight = Math.max(rowHeight, box.getHeight());
+                    end++;
+                }
+                double x = left + Math.max(0, (maxWidth - rowWidth) / 2);
+                for (int i = start; i < end; i++) {
+                    String name = names.get(row.get(i));
+                    ClassBounds box = boxes.get(name);
+                    result.put(name, new ClassBounds(x, y, box.getWidth(), box.getHeight()));
+                    x += box.getWidth() + padding;
+                }
+                y += rowHeight + LAYER_GAP;
+                start = end;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes the edges that close a cycle, found as back edges of a depth-first search.
+     */
+    private static void breakCycles(List<Set<Integer>> parents, List<Set<Integer>> children) {
+        int n = parents.size();
+        byte[] state = new byte[n]; // 0 unvisited, 1 on the stack, 2 done
+        for (int root = 0; root < n; root++) {
+            if (state[root] != 0) {
+                continue;
+            }
+            // each frame is a class, the children it had when it was entered, and how many were visited
+            Deque<Object[]> stack = new ArrayDeque<>();
+            stack.push(new Object[] {root, children.get(root).toArray(new Integer[0]), new int[1]});
+            state[root] = 1;
+            while (!stack.isEmpty()) {
+                Object[] frame = stack.peek();
+                int v = (Integer) frame[0];
+                Integer[] next = (Integer[]) frame[1];
+                int[] visited = (int[]) frame[2];
+                if (visited[0] < next.length) {
+                    int child = next[visited[0]++];
+                    if (state[child] == 1) {
+                        children.get(v).remove(child);
+                        parents.get(child).remove(v);
+                    } else if (state[child] == 0) {
+                        state[child] = 1;
+                        stack.push(new Object[] {child, children.get(child).toArray(new Integer[0]), new int[1]});
+                    }
+                } else {
+                    state[v] = 2;
+                    stack.pop();
+                }
+            }
+        }
+    }
+
+    /**
+     * Puts every class one layer below its lowest superclass, in topological order.
+     */
+    private static int[] assignLayers(List<Set<Integer>> parents, List<Set<Integer>> children) {
+        int n = parents.size();
+        int[] layer = new int[n];
+        int[] waiting = new int[n];
+        Deque<Integer> ready = new ArrayDeque<>();
+        for (int v = 0; v < n; v++) {
+            waiting[v] = parents.get(v).size();
+            if (waiting[v] == 0) {
+                ready.add(v);
+            }
+        }
+        while (!ready.isEmpty()) {
+            int v = ready.poll();
+            for (int child : children.get(v)) {
+                layer[child] = Math.max(layer[child], layer[v] + 1);
+                if (--waiting[child] == 0) {
+                    ready.add(child);
+                }
+            }
+        }
+        return layer;
+    }
+
+    /**
+     * Lists the classes depth first from the roots, so each subtree starts out together.
+     */
+    private static List<Integer> discoveryOrder(List<Set<Integer>> parents, List<Set<Integer>> children) {
+        int n = parents.size();
+        boolean[] seen = new boolean[n];
+        List<Integer> order = new ArrayList<>(n);
+        for (int root = 0; root < n; root++) {
+            if (!parents.get(root).isEmpty() || seen[root]) {
+                continue;
+            }
+            Deque<Integer> stack = new ArrayDeque<>();
+            stack.push(root);
+            seen[root] = true;
+            while (!stack.isEmpty()) {
+                int v = stack.pop();
+                order.add(v);
+                List<Integer> next = new ArrayList<>(children.get(v));
+                for (int i = next.size() - 1; i >= 0; i--) {
+                    if (!seen[next.get(i)]) {
+                        seen[next.get(i)] = true;
+                        stack.push(next.get(i));
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Reorders each layer by the average position of its neighbours in the layer above (down sweeps)
+     * or below (up sweeps). Classes without neighbours there keep their position.
+     */
+    private static void orderLayers(List<List<Integer>> layers, List<Set<Integer>> parents,
+                                    List<Set<Integer>> children, int n) {
+        double[] position = new double[n];
+        for (List<Integer> row : layers) {
+            for (int i = 0; i < row.size(); i++) {
+                position[row.get(i)] = i;
+            }
+        }
+        for (int sweep = 0; sweep < SWEEPS; sweep++) {
+            for (int l = 1; l < layers.size(); l++) {
+                sortByBarycenter(layers.get(l), parents, position);
+            }
+            for (int l = layers.size() - 2; l >= 0; l--) {
+                sortByBarycenter(layers.get(l), children, position);
+            }
+        }
+    }
+
+    private static void sortByBarycenter(List<Integer> row, List<Set<Integer>> neighbours, double[] position) {
+        double[] key = new double[row.size()];
+        Integer[] sorted = new Integer[row.size()];
+        for (int i = 0; i < row.size(); i++) {
+            int v = row.get(i);
+            Set<Integer> adjacent = neighbours.get(v);
+            if (adjacent.isEmpty()) {
+                key[i] = position[v];
+            } else {
+                double sum = 0;
+                for (int u : adjacent) {
+                    sum += position[u];
+                }
+                key[i] = sum / adjacent.size();
+            }
+            sorted[i] = i;
+        }
+        Arrays.sort(sorted, (a, b) -> Double.compare(key[a], key[b]));
+        List<Integer> previous = new ArrayList<>(row);
+        for (int i = 0; i < sorted.length; i++) {
+            int v = previous.get(sorted[i]);
+            row.set(i, v);
+            position[v] = i;
+        }
+    }
+}
@@ -0,0 +1,775 @@
+package codecain.GraphicalUserInterface.Controller.Layout;
+
+import codecain.BackendCode.Model.Relationship;
+import codecain.BackendCode.Model.UMLClassInfo;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.ClassBounds;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.GridCell;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.GridPath;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.LineGrid;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.RelationshipRouter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.LongConsumer;
+
+/**
+ * Nudges classes a few grid cells at a time to open corridors for relationship lines.
+ * <p>
+ * When a line has to cross other classes or other lines, the router either takes a long detour or
+ * finds no route at all, and then starts over with a different order. This pass looks for classes
+ * that are in the way and moves them, or the classes they connect, so that lines get shorter and
+ * straighter. Each relationship is modelled by the route the router would take with nothing in
+ * the way: an L of two straight runs on the routing grid from one box to the other. The cost of a
+ * layout is the length of those runs plus a penalty for every cell of a run that passes under
+ * another class and for every pair of runs that cross.
+ * </p>
+ * <p>
+ * Runs and boxes are kept in bucket indexes, so scoring a spot only looks at the relationships of
+ * the moved class and the runs near its old and new spot, instead of evaluating the whole layout.
+ * The most promising spots are then checked on the routing grid: the lines of the moved class, and
+ * the lines it now lies on, are routed again while every other line stays where it is. A move is
+ * only made if fewer lines fail, the routed lines get shorter, or they stay the same and the
+ * model improves. Moves that bring a class closer than the layout padding to another are never made.
+ * </p>
+ * <p>
+ * A class with a line that could not be routed and no free spot nearby gets a corridor instead:
+ * every class beyond one of its sides moves one grid cell further away, which opens a free row or
+ * column along that side without making any classes overlap.
+ * </p>
+ */
+public final class RoutingOptimizer {
+
+    /**
+     * How many passes over the classes are made at most.
+     */
+    public static final int DEFAULT_PASSES = 10;
+
+    private static final double CELL = RelationshipRouter.CELL_WIDTH;
+
+    /**
+     * Cost of a run passing one cell under a class, compared to one cell of line length.
+     */
+    private static final double BLOCKED_WEIGHT = 20;
+
+    /**
+     * Cost of two runs crossing, compared to one cell of line length.
+     */
+    private static final double CROSSING_WEIGHT = 10;
+
+    /**
+     * The distances, in grid cells, a class is tried to be moved by in each direction.
+     */
+    private static final int[] STEPS = {1, 2, 4, 8};
+
+    /**
+     * How many of the best scoring spots of a class are checked on the routing grid.
+     */
+    private static final int ROUTED_TRIES = 4;
+
+    /**
+     * How near a class, in grid cells, a line that could not be routed must end to be tried
+     * again when the class moves.
+     */
+    private static final int FAILED_REACH = 2;
+
+    /**
+     * How many corridors are tried per pass. Each one routes every line across it again.
+     */
+    private static final int CORRIDOR_TRIES = 8;
+
+    /**
+     * How close to a class a run counts as passing under it. A line needs a free grid cell, so a run
+     * along the edge of a class or through a gap narrower than a cell is blocked too.
+     */
+    private static final double CLEARANCE = CELL / 2;
+
+    /**
+     * Size of an index bucket, four grid cells across.
+     */
+    private static final double BUCKET = CELL * 4;
+
+    private final String[] names;
+    private final double[] x;
+    private final double[] y;
+    private final double[] w;
+    private final double[] h;
+    private final int[] source;
+    private final int[] destination;
+    private final int[][] incident;
+    private final Relationship[] relation;
+    private final BucketIndex boxes = new BucketIndex();
+    private final BucketIndex runs = new BucketIndex();
+    private final RelationshipRouter router;
+    private final Map<Relationship, GridPath> paths;
+
+    /**
+     * how far right and down a class may reach, leaving room on the grid for lines around it
+     */
+    private final double limit;
+
+    private RoutingOptimizer(Map<String, ClassBounds> classes, Collection<Relationship> relationships,
+                             boolean bundling) {
+        int n = classes.size();
+        names = classes.keySet().toArray(new String[0]);
+        x = new double[n];
+        y = new double[n];
+        w = new double[n];
+        h = new double[n];
+        Map<String, Integer> ids = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            ClassBounds box = classes.get(names[i]);
+            ids.put(names[i], i);
+            x[i] = box.getX();
+            y[i] = box.getY();
+            w[i] = box.getWidth();
+            h[i] = box.getHeight();
+        }
+
+        List<int[]> edges = new ArrayList<>();
+        List<Relationship> routed = new ArrayList<>();
+        int[] degree = new int[n];
+        for (Relationship relationship : relationships) {
+            Integer from = ids.get(relationship.getSource());
+            Integer to = ids.get(relationship.getDestination());
+            if (from != null && to != null && !from.equals(to)) {
+                edges.add(new int[] {from, to});
+                routed.add(relationship);
+                degree[from]++;
+                degree[to]++;
+            }
+        }
+        relation = routed.toArray(new Relationship[0]);
+        source = new int[edges.size()];
+        destination = new int[edges.size()];
+        incident = new int[n][];
+        for (int i = 0; i < n; i++) {
+            incident[i] = new int[degree[i]];
+        }
+        Arrays.fill(degree, 0);
+        for (int e = 0; e < edges.size(); e++) {
+            source[e] = edges.get(e)[0];
+            destination[e] = edges.get(e)[1];
+            incident[source[e]][degree[source[e]]++] = e;
+            incident[destination[e]][degree[destination[e]]++] = e;
+        }
+
+        for (int i = 0; i < n; i++) {
+            boxes.add(i, x[i], y[i], x[i] + w[i], y[i] + h[i]);
+        }
+        for (int e = 0; e < source.length; e++) {
+            indexRuns(e, true);
+        }
+
+        router = RelationshipRouter.sizedFor(classes).setBundling(bundling);
+        paths = new HashMap<>(router.route(classes, routed));
+        limit = Math.min(router.getGrid().getScreenWidth(), router.getGrid().getScreenHeight()) - 2 * CELL;
+    }
+
+    /**
+     * Nudges classes to open corridors for their relationship lines, routed without bundling.
+     *
+     * @param classes       the class boxes, keyed by class name
+     * @param relationships the relationships of the diagram
+     * @param passes        how many passes over the classes to make at most
+     * @return every class box, moved or not, in the given order
+     */
+    public static Map<String, ClassBounds> optimize(Map<String, ClassBounds> classes,
+                                                    Collection<Relationship> relationships, int passes) {
+        return optimize(classes, relationships, passes, false);
+    }
+
+    /**
+     * Nudges classes to open corridors for their relationship lines. The lines are routed the way
+     * they are drawn, so with bundling on a corridor is only opened where a shared line needs one.
+     *
+     * @param classes       the class boxes, keyed by class name
+     * @param relationships the relationships of the diagram
+     * @param passes        how many passes over the classes to make at most
+     * @param bundling      whether relationships of the same type into the same class share a line
+     * @return every class box, moved or not, in the given order
+     */
+    public static Map<String, ClassBounds> optimize(Map<String, ClassBounds> classes,
+                                                    Collection<Relationship> relationships, int passes,
+                                                    boolean bundling) {
+        if (passes < 0) {
+            throw new IllegalArgumentException("Pass count cannot be negative: " + passes);
+        }
+        RoutingOptimizer optimizer = new RoutingOptimizer(classes, relationships, bundling);
+        for (int pass = 0; pass < passes; pass++) {
+            if (!optimizer.improve()) {
+                break;
+            }
+        }
+        return optimizer.getPositions();
+    }
+
+    /**
+     * Nudges the classes of a diagram and stores their new positions.
+     *
+     * @param classes       the classes of the diagram, keyed by class name
+     * @param relationships the relationships of the diagram
+     * @param passes        how many passes over the classes to make at most
+     * @param bundling      whether the diagram draws relationships of the same type into the same class as one line
+     * @return how many classes moved
+     */
+    public static int optimizeClasses(Map<String, UMLClassInfo> classes, Collection<Relationship> relationships,
+                                      int passes, boolean bundling) {
+        Map<String, ClassBounds> boxes = new LinkedHashMap<>();
+        classes.forEach((name, classInfo) -> boxes.put(name, ClassBounds.of(classInfo)));
+        int moved = 0;
+        for (Map.Entry<String, ClassBounds> entry : optimize(boxes, relationships, passes, bundling).entrySet()) {
+            UMLClassInfo classInfo = classes.get(entry.getKey());
+            int newX = (int) entry.getValue().getX();
+            int newY = (int) entry.getValue().getY();
+            if (classInfo.getX() != newX || classInfo.getY() != newY) {
+                classInfo.setX(newX);
+                classInfo.setY(newY);
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Makes one pass over the classes that are in the way of a line, have a line in the way or
+     * have a line that could not be routed, worst first. Each is moved to the best of its nearby
+     * spots that routes better.
+     *
+     * @return true if any class moved
+     */
+    private boolean improve() {
+        boolean[] nearFailed = nearFailedLines();
+        List<double[]> candidates = new ArrayList<>();
+        for (int c = 0; c < names.length; c++) {
+            double badness = localCost(c) + (nearFailed[c] ? BLOCKED_WEIGHT : 0);
+            for (int e : incident[c]) {
+                badness -= length(e);
+            }
+            if (badness > 1e-9) {
+                candidates.add(new double[] {c, badness});
+            }
+        }
+        candidates.sort((a, b) -> Double.compare(b[1], a[1]));
+
+        boolean moved = false;
+        int corridors = 0;
+        for (double[] candidate : candidates) {
+            int c = (int) candidate[0];
+            double current = localCost(c);
+            List<double[]> scored = new ArrayList<>();
+            for (double[] spot : candidateSpots(c)) {
+                double nx = spot[0];
+                double ny = spot[1];
+                if (nx < 0 || ny < 0 || (nx == 0 && ny == 0) || crowds(c, nx, ny)) {
+                    continue;
+                }
+                double delta = costAt(c, nx, ny) - current;
+                // a line that could not be routed is worth trying to free even if the model sees no gain
+                if (delta < -1e-9 || nearFailed[c]) {
+                    scored.add(new double[] {nx, ny, delta});
+                }
+            }
+            scored.sort((a, b) -> Double.compare(a[2], b[2]));
+            boolean placed = false;
+            for (int i = 0; i < Math.min(ROUTED_TRIES, scored.size()) && !placed; i++) {
+                double[] spot = scored.get(i);
+                if (routesBetterAt(c, spot[0], spot[1], spot[2])) {
+                    moveTo(c, spot[0], spot[1]);
+                    placed = true;
+                }
+            }
+            // a class boxed in too tightly to move on its own gets a corridor opened next to it
+            for (int side = 0; side < 4 && !placed && nearFailed[c] && corridors < CORRIDOR_TRIES; side++) {
+                placed = openCorridor(c, side);
+                corridors++;
+            }
+            moved |= placed;
+        }
+        return moved;
+    }
+
+    /**
+     * Tries to open a corridor one grid cell wide along a side of class c, by moving every class
+     * beyond that side one cell further away. Classes keep their order, so none can start to
+     * overlap. Lines between two moved classes move with them; lines from a moved class to one
+     * that stays, and lines that could not be routed near c, are routed again. The corridor is
+     * kept if fewer lines fail, or as many fail and the lines get shorter.
+     *
+     * @param c    the boxed in class
+     * @param side 0 to 3 for right of, left of, below and above the class
+     * @return true if the corridor was opened
+     */
+    private boolean openCorridor(int c, int side) {
+        boolean horizontal = side < 2;
+        double edge = switch (side) {
+            case 0 -> x[c] + w[c];
+            case 1 -> x[c];
+            case 2 -> y[c] + h[c];
+            default -> y[c];
+        };
+        boolean[] shifted = new boolean[names.length];
+        int count = 0;
+        for (int i = 0; i < names.length; i++) {
+            if ((horizontal ? x[i] : y[i]) >= edge) {
+                if ((horizontal ? x[i] + w[i] : y[i] + h[i]) + CELL > limit) {
+                    return false;
+                }
+                shifted[i] = true;
+                count++;
+            }
+        }
+        if (count == 0) {
+            return false;
+        }
+        double dx = horizontal ? CELL : 0;
+        double dy = horizontal ? 0 : CELL;
+
+        LineGrid grid = router.getGrid();
+        Map<Relationship, GridPath> kept = new HashMap<>();
+        List<Relationship> rerouted = new ArrayList<>();
+        double reach = FAILED_REACH * CELL;
+        for (int e = 0; e < relation.length; e++) {
+            GridPath path = paths.get(relation[e]);
+            boolean nearC = failed(e) && (near(source[e], c, reach) || near(destination[e], c, reach));
+            if (shifted[source[e]] != shifted[destination[e]] || nearC) {
+                rerouted.add(relation[e]);
+            } else if (shifted[source[e]]) {
+                GridPath moved = translate(grid, path, horizontal ? 0 : 1, horizontal ? 1 : 0);
+                if (moved == null) {
+                    rerouted.add(relation[e]);
+                } else {
+                    kept.put(relation[e], moved);
+                }
+            } else {
+                kept.put(relation[e], path);
+            }
+        }
+
+        Map<String, ClassBounds> positions = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            positions.put(names[i], new ClassBounds(x[i] + (shifted[i] ? dx : 0), y[i] + (shifted[i] ? dy : 0),
+                    w[i], h[i]));
+        }
+        Map<Relationship, GridPath> result = router.reroute(positions, kept, rerouted);
+        int[] before = quality(result.keySet(), paths);
+        int[] after = quality(result.keySet(), result);
+        if (after[0] > before[0] || (after[0] == before[0] && after[1] >= before[1])) {
+            return false;
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (shifted[i]) {
+                moveTo(i, x[i] + dx, y[i] + dy);
+            }
+        }
+        paths.clear();
+        paths.putAll(kept);
+        paths.putAll(result);
+        return true;
+    }
+
+    /**
+     * Moves a path by whole cells, or returns null if part of it would leave the grid.
+     */
+    private static GridPath translate(LineGrid grid, GridPath path, int rows, int cols) {
+        List<GridCell> cells = new ArrayList<>();
+        for (GridCell cell : path.getCells()) {
+            GridCell moved = grid.getCell(cell.getRow() + rows, cell.getCol() + cols);
+            if (moved == null) {
+                return null;
+            }
+            cells.add(moved);
+        }
+        return new GridPath(cells);
+    }
+
+    /**
+     * Counts the failed lines among some relationships and adds up the length of the others.
+     */
+    private static int[] quality(Collection<Relationship> relationships, Map<Relationship, GridPath> routes) {
+        int failed = 0;
+        int length = 0;
+        for (Relationship relationship : relationships) {
+            GridPath path = routes.get(relationship);
+            if (path == null || path.size() == 0) {
+                failed++;
+            } else {
+                length += path.size();
+            }
+        }
+        return new int[] {failed, length};
+    }
+
+    private boolean near(int a, int b, double reach) {
+        return x[a] < x[b] + w[b] + reach && x[a] + w[a] > x[b] - reach
+                && y[a] < y[b] + h[b] + reach && y[a] + h[a] > y[b] - reach;
+    }
+
+    /**
+     * Marks the classes a line that could not be routed ends at, and the classes close enough to
+     * those to be boxing them in.
+     */
+    private boolean[] nearFailedLines() {
+        boolean[] near = new boolean[names.length];
+        double reach = FAILED_REACH * CELL;
+        for (int e = 0; e < relation.length; e++) {
+            if (!failed(e)) {
+                continue;
+            }
+            for (int end : new int[] {source[e], destination[e]}) {
+                boxes.sum(x[end] - reach, y[end] - reach, x[end] + w[end] + reach, y[end] + h[end] + reach, other -> {
+                    near[other] = true;
+                    return 0;
+                });
+            }
+        }
+        return near;
+    }
+
+    private boolean failed(int e) {
+        GridPath path = paths.get(relation[e]);
+        return path == null || path.size() == 0;
+    }
+
+    /**
+     * Checks on the routing grid whether class c routes better at a spot. The lines of c, the lines
+     * near c that could not be routed and the lines c would lie on are routed again; the move is
+     * better if fewer of them fail, if they get shorter, or if they stay the same and the model
+     * improves. If it is, the new lines are kept.
+     */
+    private boolean routesBetterAt(int c, double nx, double ny, double modelDelta) {
+        List<Relationship> rerouted = new ArrayList<>();
+        for (int e : incident[c]) {
+            rerouted.add(relation[e]);
+        }
+        double reach = FAILED_REACH * CELL;
+        boxes.sum(Math.min(x[c], nx) - reach, Math.min(y[c], ny) - reach,
+                Math.max(x[c], nx) + w[c] + reach, Math.max(y[c], ny) + h[c] + reach, other -> {
+            for (int e : incident[other]) {
+                if (failed(e) && !rerouted.contains(relation[e])) {
+                    rerouted.add(relation[e]);
+                }
+            }
+            return 0;
+        });
+
+        double oldX = x[c];
+        double oldY = y[c];
+        x[c] = nx;
+        y[c] = ny;
+        Map<String, ClassBounds> moved = getPositions();
+        x[c] = oldX;
+        y[c] = oldY;
+        Map<Relationship, GridPath> result = router.reroute(moved, paths, rerouted);
+
+        int[] before = quality(result.keySet(), paths);
+        int[] after = quality(result.keySet(), result);
+        boolean better = after[0] < before[0]
+                || (after[0] == before[0] && (after[1] < before[1]
+                || (after[1] == before[1] && modelDelta < -1e-9)));
+        if (better) {
+            paths.putAll(result);
+        }
+        return better;
+    }
+
+    /**
+     * Gets the spots class c is tried at: a few grid cells away in each direction, and just clear
+     * of each run of another relationship that passes under it.
+     */
+    private List<double[]> candidateSpots(int c) {
+        List<double[]> spots = new ArrayList<>();
+        for (int step : STEPS) {
+            spots.add(new double[] {x[c] + step * CELL, y[c]});
+            spots.add(new double[] {x[c] - step * CELL, y[c]});
+            spots.add(new double[] {x[c], y[c] + step * CELL});
+            spots.add(new double[] {x[c], y[c] - step * CELL});
+        }
+        runs.sum(x[c] - CLEARANCE, y[c] - CLEARANCE, x[c] + w[c] + CLEARANCE, y[c] + h[c] + CLEARANCE, run -> {
+            int f = run / 2;
+            double[] other = runOf(f, run % 2);
+            if (source[f] == c || destination[f] == c || overlap(other[0], other[1], other[2], other[3], c) == 0) {
+                return 0;
+            }
+            if (other[1] == other[3]) {
+                spots.add(new double[] {x[c], other[1] + CLEARANCE});
+                spots.add(new double[] {x[c], other[1] - CLEARANCE - h[c]});
+            } else {
+                spots.add(new double[] {other[0] + CLEARANCE, y[c]});
+                spots.add(new double[] {other[0] - CLEARANCE - w[c], y[c]});
+            }
+            return 0;
+        });
+        return spots;
+    }
+
+    /**
+     * Gets the cost that depends on where class c is, with c moved to a spot.
+     */
+    private double costAt(int c, double nx, double ny) {
+        double oldX = x[c];
+        double oldY = y[c];
+        x[c] = nx;
+        y[c] = ny;
+        double cost = localCost(c);
+        x[c] = oldX;
+        y[c] = oldY;
+        return cost;
+    }
+
+    /**
+     * Gets the cost that depends on where class c is: the length, blocked cells and crossings of
+     * its own relationships, and the cells of other relationships' runs that pass under it.
+     * The indexes may still hold c's old spot; runs of c's relationships are skipped when read
+     * from them, so that does not matter.
+     */
+    private double localCost(int c) {
+        double cost = 0;
+        double[] segments = new double[8];
+        for (int e : incident[c]) {
+            runsOf(e, segments);
+            cost += length(e);
+            for (int k = 0; k < 2; k++) {
+                double x1 = segments[k * 4];
+                double y1 = segments[k * 4 + 1];
+                double x2 = segments[k * 4 + 2];
+                double y2 = segments[k * 4 + 3];
+                int edge = e;
+                cost += BLOCKED_WEIGHT / CELL * boxes.sum(x1 - CLEARANCE, y1 - CLEARANCE,
+                        x2 + CLEARANCE, y2 + CLEARANCE, other -> other == source[edge]
+                        || other == destination[edge] ? 0 : overlap(x1, y1, x2, y2, other));
+                cost += CROSSING_WEIGHT * runs.sum(x1, y1, x2, y2, run -> {
+                    int f = run / 2;
+                    if (sharesClass(edge, f)) {
+                        return 0;
+                    }
+                    double[] other = runOf(f, run % 2);
+                    return crosses(x1, y1, x2, y2, other[0], other[1], other[2], other[3]) ? 1 : 0;
+                });
+            }
+        }
+        cost += BLOCKED_WEIGHT / CELL * runs.sum(x[c] - CLEARANCE, y[c] - CLEARANCE,
+                x[c] + w[c] + CLEARANCE, y[c] + h[c] + CLEARANCE, run -> {
+            int f = run / 2;
+            if (source[f] == c || destination[f] == c) {
+                return 0;
+            }
+            double[] other = runOf(f, run % 2);
+            return overlap(other[0], other[1], other[2], other[3], c);
+        });
+        return cost;
+    }
+
+    /**
+     * Checks whether moving class c to a spot would make it overlap another class, bring it within
+     * the layout padding of a class it is not already that close to, or take it off the grid.
+     */
+    private boolean crowds(int c, double nx, double ny) {
+        if (nx < 0 || ny < 0 || nx + w[c] > limit || ny + h[c] > limit) {
+            return true;
+        }
+        double padding = ClassBounds.LAYOUT_PADDING;
+        return boxes.sum(nx - padding, ny - padding, nx + w[c] + padding, ny + h[c] + padding, other -> {
+            if (other == c || !intersects(nx - padding, ny - padding, nx + w[c] + padding, ny + h[c] + padding, other)) {
+                return 0;
+            }
+            if (intersects(nx, ny, nx + w[c], ny + h[c], other)) {
+                return 1;
+            }
+            return intersects(x[c] - padding, y[c] - padding, x[c] + w[c] + padding, y[c] + h[c] + padding, other) ? 0 : 1;
+        }) > 0;
+    }
+
+    private void moveTo(int c, double nx, double ny) {
+        boxes.remove(c, x[c], y[c], x[c] + w[c], y[c] + h[c]);
+        for (int e : incident[c]) {
+            indexRuns(e, false);
+        }
+        x[c] = nx;
+        y[c] = ny;
+        boxes.add(c, x[c], y[c], x[c] + w[c], y[c] + h[c]);
+        for (int e : incident[c]) {
+            indexRuns(e, true);
+        }
+    }
+
+    private void indexRuns(int e, boolean add) {
+        for (int k = 0; k < 2; k++) {
+            double[] run = runOf(e, k);
+            if (add) {
+                runs.add(e * 2 + k, run[0], run[1], run[2], run[3]);
+            } else {
+                runs.remove(e * 2 + k, run[0], run[1], run[2], run[3]);
+            }
+        }
+    }
+
+    /**
+     * Gets the straight-line distance a line would need between the edges of its two boxes, in cells.
+     */
+    private double length(int e) {
+        int a = source[e];
+        int b = destination[e];
+        double gapX = Math.abs(x[a] + w[a] / 2 - x[b] - w[b] / 2) - (w[a] + w[b]) / 2;
+        double gapY = Math.abs(y[a] + h[a] / 2 - y[b] - h[b] / 2) - (h[a] + h[b]) / 2;
+        return (Math.max(gapX, 0) + Math.max(gapY, 0)) / CELL;
+    }
+
+    /**
+     * Writes the two runs of a relationship's route into an array: from the source's center along the
+     * longer axis to the corner, then to the destination's center.
+     */
+    private void runsOf(int e, double[] into) {
+        int a = source[e];
+        int b = destination[e];
+        double ax = x[a] + w[a] / 2;
+        double ay = y[a] + h[a] / 2;
+        double bx = x[b] + w[b] / 2;
+        double by = y[b] + h[b] / 2;
+        boolean horizontalFirst = Math.abs(bx - ax) >= Math.abs(by - ay);
+        double cornerX = horizontalFirst ? bx : ax;
+        double cornerY = horizontalFirst ? ay : by;
+        into[0] = ax;
+        into[1] = ay;
+        into[2] = cornerX;
+        into[3] = cornerY;
+        into[4] = cornerX;
+        into[5] = cornerY;
+        into[6] = bx;
+        into[7] = by;
+    }
+
+    private double[] runOf(int e, int k) {
+        double[] segments = new double[8];
+        runsOf(e, segments);
+        return Arrays.copyOfRange(segments, k * 4, k * 4 + 4);
+    }
+
+    private boolean sharesClass(int e, int f) {
+        return e == f || source[e] == source[f] || source[e] == destination[f]
+                || destination[e] == source[f] || destination[e] == destination[f];
+    }
+
+    /**
+     * Gets how far an axis-aligned run passes within {@link #CLEARANCE} of a box.
+     */
+    private double overlap(double x1, double y1, double x2, double y2, int box) {
+        double left = Math.min(x1, x2);
+        double right = Math.max(x1, x2);
+        double top = Math.min(y1, y2);
+        double bottom = Math.max(y1, y2);
+        double boxLeft = x[box] - CLEARANCE;
+        double boxTop = y[box] - CLEARANCE;
+        double boxRight = x[box] + w[box] + CLEARANCE;
+        double boxBottom = y[box] + h[box] + CLEARANCE;
+        if (top == bottom) {
+            if (top <= boxTop || top >= boxBottom) {
+                return 0;
+            }
+            return Math.max(0, Math.min(right, boxRight) - Math.max(left, boxLeft));
+        }
+        if (left <= boxLeft || left >= boxRight) {
+            return 0;
+        }
+        return Math.max(0, Math.min(bottom, boxBottom) - Math.max(top, boxTop));
+    }
+
+    private boolean intersects(double minX, double minY, double maxX, double maxY, int box) {
+        return minX < x[box] + w[box] && maxX > x[box] && minY < y[box] + h[box] && maxY > y[box];
+    }
+
+    /**
+     * Checks whether a horizontal and a vertical run cross each other away from their ends.
+     */
+    private static boolean crosses(double ax1, double ay1, double ax2, double ay2,
+                                   double bx1, double by1, double bx2, double by2) {
+        boolean aHorizontal = ay1 == ay2 && ax1 != ax2;
+        boolean bHorizontal = by1 == by2 && bx1 != bx2;
+        boolean aVertical = ax1 == ax2 && ay1 != ay2;
+        boolean bVertical = bx1 == bx2 && by1 != by2;
+        if (aHorizontal && bVertical) {
+            return between(bx1, ax1, ax2) && between(ay1, by1, by2);
+        }
+        if (aVertical && bHorizontal) {
+            return between(ax1, bx1, bx2) && between(by1, ay1, ay2);
+        }
+        return false;
+    }
+
+    private static boolean between(double value, double a, double b) {
+        return value > Math.min(a, b) && value < Math.max(a, b);
+    }
+
+    private Map<String, ClassBounds> getPositions() {
+        Map<String, ClassBounds> positions = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            positions.put(names[i], new ClassBounds(x[i], y[i], w[i], h[i]));
+        }
+        return positions;
+    }
+
+    /**
+     * Ids of boxes or runs, kept in square buckets by the area they cover.
+     */
+    private static final class BucketIndex {
+
+        private final Map<Long, List<Integer>> buckets = new HashMap<>();
+        private int[] seen = new int[16];
+        private int stamp;
+
+        void add(int id, double minX, double minY, double maxX, double maxY) {
+            forEachBucket(minX, minY, maxX, maxY, key -> buckets.computeIfAbsent(key, k -> new ArrayList<>()).add(id));
+            if (id >= seen.length) {
+                seen = Arrays.copyOf(seen, Math.max(id + 1, seen.length * 2));
+            }
+        }
+
+        void remove(int id, double minX, double minY, double maxX, double maxY) {
+            forEachBucket(minX, minY, maxX, maxY, key -> {
+                List<Integer> bucket = buckets.get(key);
+                if (bucket != null) {
+                    bucket.remove(Integer.valueOf(id));
+                }
+            });
+        }
+
+        /**
+         * Adds up a value over every id in the buckets an area touches, each id once.
+         */
+        double sum(double minX, double minY, double maxX, double maxY, IntToDoubleFunction value) {
+            stamp++;
+            double[] total = {0};
+            forEachBucket(minX, minY, maxX, maxY, key -> {
+                List<Integer> bucket = buckets.get(key);
+                if (bucket == null) {
+                    return;
+                }
+                for (int id : bucket) {
+                    if (seen[id] != stamp) {
+                        seen[id] = stamp;
+                        total[0] += value.applyAsDouble(id);
+                    }
+                }
+            });
+            return total[0];
+        }
+
+        private static void forEachBucket(double minX, double minY, double maxX, double maxY,
+                                          LongConsumer action) {
+            long left = (long) Math.floor(Math.min(minX, maxX) / BUCKET);
+            long right = (long) Math.floor(Math.max(minX, maxX) / BUCKET);
+            long top = (long) Math.floor(Math.min(minY, maxY) / BUCKET);
+            long bottom = (long) Math.floor(Math.max(minY, maxY) / BUCKET);
+            for (long row = top; row <= bottom; row++) {
+                for (long col = left; col <= right; col++) {
+                    action.accept((row << 32) ^ (col & 0xffffffffL));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package codecain.GraphicalUserInterface.Controller.Layout;
+
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.ClassBounds;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Packs class boxes into a strip of fixed width with a skyline allocator.
+ * <p>
+ * The skyline is the outline of the boxes placed so far, seen from below: a few horizontal segments.
+ * Each box goes where it sits lowest on the skyline, leftmost on ties, and the skyline is raised
+ * under it. Boxes are placed tallest first so rows line up. The number of segments is bounded by
+ * how many of the narrowest boxes fit side by side, so packing n boxes costs the sort,
+ * O(n log n), plus a small constant per box.
+ * </p>
+ */
+public final class SkylinePacker {
+
+    private SkylinePacker() {
+    }
+
+    /**
+     * Packs boxes into a strip.
+     *
+     * @param boxes   the boxes to place; only their sizes are used
+     * @param left    the left edge of the strip
+     * @param top     the top edge of the strip
+     * @param width   the width of the strip; a box wider than this gets a row of its own
+     * @param padding the space kept between boxes
+     * @return the boxes moved to their spots, in the same order as given
+     */
+    public static List<ClassBounds> pack(List<ClassBounds> boxes, double left, double top,
+                                         double width, double padding) {
+        Integer[] order = new Integer[boxes.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> -boxes.get(i).getHeight())
+                .thenComparingDouble(i -> -boxes.get(i).getWidth()));
+
+        // segments of the skyline, left to right: x, y and width of each
+        List<double[]> skyline = new ArrayList<>();
+        skyline.add(new double[] {left, top, width});
+        ClassBounds[] placed = new ClassBounds[boxes.size()];
+        for (int index : order) {
+            ClassBounds box = boxes.get(index);
+            double w = Math.min(box.getWidth() + padding, width);
+            double h = box.getHeight() + padding;
+
+            int best = -1;
+            double bestY = Double.MAX_VALUE;
+            for (int i = 0; i < skyline.size(); i++) {
+                double x = skyline.get(i)[0];
+                if (x + w > left + width + 1e-9) {
+                    break;
+                }
+                double y = restingHeight(skyline, i, x + w);
+                if (y < bestY) {
+                    bestY = y;
+                    best = i;
+                }
+            }
+            double x = skyline.get(best)[0];
+            placed[index] = new ClassBounds(x, bestY, box.getWidth(), box.getHeight());
+            raise(skyline, x, x + w, bestY + h);
+        }
+        return List.of(placed);
+    }
+
+    /**
+     * Gets the height a box starting at segment i and ending at maxX rests at: the lowest point
+     * below all the segments it covers.
+     */
+    private static double restingHeight(List<double[]> skyline, int i, double maxX) {
+        double y = skyline.get(i)[1];
+        for (int j = i + 1; j < skyline.size() && skyline.get(j)[0] < maxX - 1e-9; j++) {
+            y = Math.max(y, skyline.get(j)[1]);
+        }
+        return y;
+    }
+
+    /**
+     * Replaces the skyline between minX and maxX with one segment at the given height,
+     * then merges neighbours of equal height.
+     */
+    private static void raise(List<double[]> skyline, double minX, double maxX, double y) {
+        List<double[]> result = new ArrayList<>(skyline.size() + 2);
+        boolean inserted = false;
+        for (double[] segment : skyline) {
+            double start = segment[0];
+            double end = segment[0] + segment[2];
+            if (end <= minX + 1e-9 || start >= maxX - 1e-9) {
+                if (!inserted && start >= maxX - 1e-9) {
+                    result.add(new double[] {minX, y, maxX - minX});
+                    inserted = true;
+                }
+                result.add(segment);
+                continue;
+            }
+            if (start < minX) {
+                result.add(new double[] {start, segment[1], minX - start});
+            }
+            if (!inserted) {
+                result.add(new double[] {minX, y, maxX - minX});
+                inserted = true;
+            }
+            if (end > maxX) {
+                result.add(new double[] {maxX, segment[1], end - maxX});
+            }
+        }
+        if (!inserted) {
+            result.add(new double[] {minX, y, maxX - minX});
+        }
+        skyline.clear();
+        for (double[] segment : result) {
+            double[] last = skyline.isEmpty() ? null : skyline.get(skyline.size() - 1);
+            if (last != null && last[1] == segment[1]) {
+                last[2] += segment[2];
+            } else {
+                skyline.add(segment);
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package codecain.GraphicalUserInterface.Controller.RelationshipLines;
+
+import codecain.BackendCode.Model.UMLClassInfo;
+import codecain.BackendCode.Model.UMLFieldInfo;
+import codecain.BackendCode.Model.UMLMethodInfo;
+import codecain.GraphicalUserInterface.View.TextMetricsCache;
+
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.util.Collection;
+
+/**
+ * The rectangle a class box occupies on the canvas.
+ * In the GUI this comes from the laid-out ClassNode; for exports it is computed straight from the
+ * model with the same sizing rules as ClassNode, so no JavaFX scene is needed.
+ */
+public final class ClassBounds {
+
+    /**
+     * Smallest width of a class box, as in ClassNode.
+     */
+    public static final double MIN_WIDTH = 200;
+
+    /**
+     * Smallest height of a class box, as in ClassNode.
+     */
+    public static final double MIN_HEIGHT = 300;
+
+    /**
+     * Smallest height of the field list and of the method list.
+     */
+    public static final double MIN_LIST_HEIGHT = 150;
+
+    /**
+     * Height of one field or method row.
+     */
+    public static final double ROW_HEIGHT = 25;
+
+    /**
+     * Height of the class name label, including its padding.
+     */
+    public static final double NAME_HEIGHT = 27;
+
+    /**
+     * Extra width added to the widest field or method.
+     */
+    public static final double TEXT_PADDING = 50;
+
+    /**
+     * The font field and method rows are measured with, matching the JavaFX default font.
+     */
+    public static final Font ROW_FONT = new Font(Font.SANS_SERIF, Font.PLAIN, 13);
+
+    /**
+     * Width of the rows single new classes are added in by {@link #placeAmong}, and the narrowest
+     * strip classes are laid out in automatically.
+     */
+    public static final double LAYOUT_WIDTH = 800;
+
+    /**
+     * Space kept between classes that are placed automatically.
+     */
+    public static final double LAYOUT_PADDING = 20;
+
+    private static final FontRenderContext FONT_CONTEXT = new FontRenderContext(null, true, true);
+
+    private static final TextMetricsCache ROW_WIDTHS = TextMetricsCache.forFont(ROW_FONT,
+            text -> ROW_FONT.getStringBounds(text, FONT_CONTEXT).getWidth());
+
+    private final double x;
+    private final double y;
+    private final double width;
+    private final double height;
+
+    /**
+     * Creates bounds from a position and size.
+     *
+     * @param x      left edge
+     * @param y      top edge
+     * @param width  width
+     * @param height height
+     */
+    public ClassBounds(double x, double y, double width, double height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Computes the bounds a class box would have in the GUI, from the class's position and members.
+     *
+     * @param classInfo the class to measure
+     * @return the bounds of its box
+     */
+    public static ClassBounds of(UMLClassInfo classInfo) {
+        double widest = 0;
+        for (UMLFieldInfo field : classInfo.getFields()) {
+            widest = Math.max(widest, textWidth(field.toString()));
+        }
+        for (UMLMethodInfo method : classInfo.getMethods()) {
+            widest = Math.max(widest, textWidth(method.toString()));
+        }
+        double width = Math.max(widest + TEXT_PADDING, MIN_WIDTH);
+        double height = Math.max(NAME_HEIGHT + listHeight(classInfo.getFields().size())
+                + listHeight(classInfo.getMethods().size()), MIN_HEIGHT);
+        return new ClassBounds(classInfo.getX(), classInfo.getY(), width, height);
+    }
+
+    /**
+     * Finds a free spot for a single new class: left to right in rows {@link #LAYOUT_WIDTH} wide,
+     * skipping spots that overlap a placed class.
+     * This scans every placed class for every spot tried, so it is only meant for one class at a time;
+     * whole models are laid out by {@code AutoLayout}.
+     *
+     * @param box    the class box to place; only its size is used
+     * @param placed the classes already on the canvas
+     * @return the box moved to the free spot
+     */
+    public static ClassBounds placeAmong(ClassBounds box, Collection<ClassBounds> placed) {
+        double x = 0;
+        double y = 0;
+        boolean positionFound = false;
+        while (!positionFound) {
+            positionFound = true;
+            for (ClassBounds other : placed) {
+                if (Math.abs(x - other.getX()) < box.getWidth() + LAYOUT_PADDING
+                        && Math.abs(y - other.getY()) < box.getHeight() + LAYOUT_PADDING) {
+                    positionFound = false;
+                    x += box.getWidth() + LAYOUT_PADDING;
+                    if (x + box.getWidth() > LAYOUT_WIDTH) {
+                        x = 0;
+                        y += box.getHeight() + LAYOUT_PADDING;
+                    }
+                    break;
+                }
+            }
+        }
+        return new ClassBounds(x, y, box.getWidth(), box.getHeight());
+    }
+
+    /**
+     * Checks whether these bounds overlap a rectangle.
+     *
+     * @param minX   left edge of the rectangle
+     * @param minY   top edge of the rectangle
+     * @param width  width of the rectangle
+     * @param height height of the rectangle
+     * @return true if the two overlap
+     */
+    public boolean intersects(double minX, double minY, double width, double height) {
+        return x < minX + width && minX < getMaxX() && y < minY + height && minY < getMaxY();
+    }
+
+    /**
+     * Gets the height of a field or method list with the given number of rows.
+     *
+     * @param rows the number of rows
+     * @return the list height
+     */
+    public static double listHeight(int rows) {
+        return Math.max(rows * ROW_HEIGHT, MIN_LIST_HEIGHT);
+    }
+
+    /**
+     * Measures the width of a field or method row. Live ClassNodes measure their rows with this
+     * too, so a box has the same size whether or not it has a node.
+     *
+     * @param text the row text
+     * @return its width in pixels
+     */
+    public static double textWidth(String text) {
+        return ROW_WIDTHS.width(text);
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getWidth() {
+        return width;
+    }
+
+    public double getHeight() {
+        return height;
+    }
+
+    public double getMaxX() {
+        return x + width;
+    }
+
+    public double getMaxY() {
+        return y + height;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ClassBounds other)) {
+            return false;
+        }
+        return x == other.x && y == other.y && width == other.width && height == other.height;
+    }
+
+    @Override
+    public int hashCode() {
+        return Double.hashCode(x) * 31 * 31 * 31 + Double.hashCode(y) * 31 * 31
+                + Double.hashCode(width) * 31 + Double.hashCode(height);
+    }
+
+    @Override
+    public String toString() {
+        return "ClassBounds[x=" + x + ", y=" + y + ", width=" + width + ", height=" + height + "]";
+    }
+}
@@ -1,8 +1,28 @@
 package codecain.GraphicalUserInterface.Controller.RelationshipLines;
 
 public class GridCell{
+
+    /**
+     * bit set in {@link #getLines()} when a line runs through the cell from left to right
+     */
+    public static final int HORIZONTAL = 1;
+
+    /**
+     * bit set in {@link #getLines()} when a line runs through the cell from top to bottom
+     */
+    public static final int VERTICAL = 2;
+
     boolean occupied;
+
+    /**
+     * the cost of routing a line through the cell, 1.0 in open space
+     */
     double cost;
+
+    /**
+     * the directions of the lines already routed through the cell
+     */
+    int lines;
     int row;
     int col;
 
@@ -37,6 +57,14 @@ public class GridCell{
         this.cost = cost;
     }
 
+    /**
+     * gets the directions of the lines already routed through this cell
+     * @return a combination of {@link #HORIZONTAL} and {@link #VERTICAL}, or 0 if no line passes
+     */
+    public int getLines() {
+        return lines;
+    }
+
     public int getRow() {
         return row;
     }
@@ -1,5 +1,6 @@
 package codecain.GraphicalUserInterface.Controller.RelationshipLines;
 
+import codecain.BackendCode.Model.Diagram;
 import codecain.GraphicalUserInterface.Controller.Controller;
 import codecain.GraphicalUserInterface.View.ClassNode;
 import codecain.GraphicalUserInterface.View.GridVisualizer;
@@ -7,17 +8,25 @@ import codecain.GraphicalUserInterface.View.LineDrawer;
 import javafx.scene.Node;
 import javafx.scene.layout.Pane;
 
+import java.util.Map;
+import java.util.WeakHashMap;
+
 /**
- * singleton class that sets a grid which can be accessed across the entire program.
- * Hopefully this isn't too confusing to use.
+ * class that sets a grid which can be accessed across the entire program.
+ * There is one GridManager per {@link Diagram}; the static methods use the one belonging to
+ * {@link Diagram#current()}, so each diagram has its own grid and relationship paths.
  * First, set the grid when first started, and go from there
  *
  * I think the grid should be controlled from here, not sure though
  */
 public class GridManager {
 
-    private static boolean visualizerSet = false;
-    private static GridManager instance;
+    /**
+     * the grid manager of each diagram. Weak keys let closed diagrams be garbage collected.
+     */
+    private static final Map<Diagram, GridManager> instances = new WeakHashMap<>();
+
+    private boolean visualizerSet = false;
 
     private LineGrid grid;
     private GridVisualizer visualizer;
@@ -29,22 +38,29 @@ public class GridManager {
 
     private GridManager() {}
     /**
-     * returns only instance allowed of the grid manager
+     * returns the grid manager of the current diagram, creating it if needed
      * @return instance
      */
     public static GridManager getInstance() {
-        if (instance == null) {
-            synchronized (GridManager.class) {
-                if (instance == null) {
-                    instance = new GridManager();
-                }
-            }
+        synchronized (instances) {
+            return instances.computeIfAbsent(Diagram.current(), diagram -> new GridManager());
+        }
+    }
+
+    /**
+     * replaces the grid manager of the current diagram with an empty one
+     * @return the new grid manager
+     */
+    private static GridManager replaceInstance() {
+        GridManager manager = new GridManager();
+        synchronized (instances) {
+            instances.put(Diagram.current(), manager);
         }
-        return instance;
+        return manager;
     }
 
     public static void clearGridManager(){
-        instance = new GridManager();
+        replaceInstance();
     }
 
     /**
@@ -59,7 +75,7 @@ public class GridManager {
         this.grid = grid;
         this.lineDrawer = new LineDrawer(grid);
         this.pathNavigator = new PathNavigator(this.grid);
-        this.holder = new RelationshipPathHolder(controller);
+        this.holder = new RelationshipPathHolder();
         this.updater = new GridUpdater(this.grid,holder, this.lineDrawer);
 
         return grid;
@@ -105,12 +121,13 @@ public class GridManager {
      * @param classNode the ClassNode to add listeners to
      */
     public static void addClassListeners(ClassNode classNode) {
+        GridManager instance = getInstance();
         instance.checkGrid();
         instance.updater.addClassListeners(classNode);
     }
 
     public static void loadGridManager(LineGrid grid, Controller controller, Pane container){
-        instance = new GridManager();
+        GridManager instance = replaceInstance();
         instance.setGrid(grid,controller);
         for ( Node n :container.getChildren()){
             if (n instanceof ClassNode){
@@ -125,11 +142,12 @@ public class GridManager {
      * sets the visualizer
      */
     public static void setVisualizer(){
+        GridManager instance = getInstance();
         instance.checkGrid();
-        if (!visualizerSet) {
+        if (!instance.visualizerSet) {
             instance.visualizer = new GridVisualizer(instance.grid, instance.grid.getNodeContainer());
             instance.updater.setVisualizer(instance.visualizer);
-            visualizerSet = true;
+            instance.visualizerSet = true;
         }
         else return;
     }
@@ -139,7 +157,7 @@ public class GridManager {
      * @return the grid visualizer
      */
     public static GridVisualizer getVisualizer(){
-        return instance.visualizer;
+        return getInstance().visualizer;
     }
 
 //    /**
@@ -155,7 +173,8 @@ public class GridManager {
      * @return line drawer from the instance
      */
     public static LineDrawer getLineDrawer(){
-        if (instance != null){
+        GridManager instance = getInstance();
+        if (instance.lineDrawer != null){
             return instance.lineDrawer;
         }
         else{
@@ -164,7 +183,7 @@ public class GridManager {
     }
 
     public static void updateRelationshipPaths(){
-        instance.getUpdater().performGridUpdate();
+        getInstance().getUpdater().performGridUpdate();
     }
 
 
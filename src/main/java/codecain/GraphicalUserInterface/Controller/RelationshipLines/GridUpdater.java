@@ -3,13 +3,20 @@ package codecain.GraphicalUserInterface.Controller.RelationshipLines;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import codecain.BackendCode.Model.Diagram;
+import codecain.BackendCode.Model.ModelEvent;
 import codecain.BackendCode.Model.Relationship;
+import codecain.BackendCode.Model.UMLClass;
+import codecain.BackendCode.Model.UMLClassInfo;
 import codecain.GraphicalUserInterface.View.ClassNode;
 import codecain.GraphicalUserInterface.View.GridVisualizer;
 import codecain.GraphicalUserInterface.View.LineDrawer;
 import javafx.animation.AnimationTimer;
+import javafx.beans.InvalidationListener;
 import javafx.geometry.Point2D;
 import javafx.scene.Node;
 import javafx.scene.layout.Pane;
@@ -64,6 +71,11 @@ public class GridUpdater {
 
     private HashMap<ClassNode, ArrayList<GridCell>> coveredCells;
 
+    /**
+     * routes the relationship lines around the class boxes on the grid
+     */
+    private final RelationshipRouter router;
+
     /**
      * animation timer to keep track of the last grid updates
      * runs for 100 milliseconds
@@ -93,6 +105,7 @@ public class GridUpdater {
         this.pathHolder = pathHolder;
         this.lineDrawer = lineDrawer;
         this.arrowPoints = new HashSet<>();
+        this.router = new RelationshipRouter(grid);
     }
 
     public void setVisualizer(GridVisualizer visualizer){
@@ -102,22 +115,38 @@ public class GridUpdater {
     /**
      * Adds listeners to a ClassNode node for position and size changes.
      * When any changes occur, the grid is updated accordingly.
+     * Changes to a node that is not on the canvas, such as a spare node being
+     * reused for another class, are ignored.
+     * One invalidation listener is shared by the four properties, so a drag that
+     * moves a node in x and y only asks for the already scheduled update once
+     * and the new values are never computed just to be thrown away.
      * @param classNode the ClassNode to add listeners to
      */
     public void addClassListeners(ClassNode classNode) {
         if (classNode == null) return;
-        classNode.layoutXProperty().addListener((observable, oldValue, newValue) -> {
-            scheduleGridUpdate();
-        });
-        classNode.layoutYProperty().addListener((observable, oldValue, newValue) -> {
-            scheduleGridUpdate();
-        });
-        classNode.prefWidthProperty().addListener((observable, oldValue, newValue) -> {
+        InvalidationListener listener = observable -> scheduleGridUpdate(classNode);
+        classNode.layoutXProperty().addListener(listener);
+        classNode.layoutYProperty().addListener(listener);
+        classNode.prefWidthProperty().addListener(listener);
+        classNode.prefHeightProperty().addListener(listener);
+    }
+
+    /**
+     * Schedules a grid update for a batch of model changes. Every kind of change can move a line:
+     * classes and relationships come and go, and boxes move or change size with their members.
+     * The update is coalesced with any already scheduled.
+     * @param events the changes, as delivered by the diagram's event bus
+     */
+    public void onModelChanged(List<ModelEvent> events) {
+        if (!events.isEmpty()) {
             scheduleGridUpdate();
-        });
-        classNode.prefHeightProperty().addListener((observable, oldValue, newValue) -> {
+        }
+    }
+
+    private void scheduleGridUpdate(ClassNode classNode) {
+        if (classNode.getParent() != null) {
             scheduleGridUpdate();
-        });
+        }
     }
 
 
@@ -135,43 +164,6 @@ public class GridUpdater {
     }
 
 
-    /**
-     * Helper method to update a single ClassNode's occupied cells.
-     * @param classNode the ClassNode representing the current classNode
-     */
-    private void updateOccupiedClassBoxCells(ClassNode classNode) {
-        int numRows = grid.getNumRows();
-        int numCols = grid.getNumCols();
-        double nodeWidth = classNode.getWidth();
-        double nodeHeight = classNode.getHeight();
-        double nodeX = classNode.getLayoutX();
-        double nodeY = classNode.getLayoutY();
-        int rowStart = grid.getRow(nodeY) +1;
-        int rowEnd = grid.getRow(nodeY + nodeHeight) + 1;
-        int colStart = grid.getCol(nodeX) +1;
-        int colEnd = grid.getCol(nodeX + nodeWidth) + 1;
-
-        if (this.coveredCells.containsKey(classNode)) {
-            coveredCells.remove(classNode);
-        }
-        ArrayList<GridCell> newCoveredCells = new ArrayList<>();
-        for (int row = rowStart; row < rowEnd; row++) {
-            for (int col = colStart; col < colEnd; col++) {
-                if (row >= 0 && row < numRows && col >= 0 && col < numCols) {
-                    GridCell cell = grid.getCell(row, col);
-                    cell.occupied = true;
-                    newCoveredCells.add(cell);
-                }
-            }
-        }
-        if (newCoveredCells.size() > Math.abs((rowStart - rowEnd) * (colStart - colEnd))) {
-            throw new IllegalStateException("error updating covered cells list");
-        }
-
-        getCoveredCells().put(classNode, newCoveredCells);
-    }
-
-
     public HashMap<ClassNode, ArrayList<GridCell>> getCoveredCells(){
         return this.coveredCells;
     }
@@ -186,11 +178,12 @@ public class GridUpdater {
         if (showText) System.out.println("Updating grid...");
         grid.clearGrid();
         //updateGridBoxes();
-        Relationship.removeInvalidRelationships();
-
 
-
-        lineDrawer.redrawLines(updateRelationshipPaths(0));
+        // routing prunes invalid relationships and reorders the list, so it runs as one write
+        Diagram.current().write(() -> {
+            Relationship.removeInvalidRelationships();
+            lineDrawer.redrawLines(updateRelationshipPaths());
+        });
 
         if (visualizer != null){
             visualizer.updateGridVisualizer((HashSet<Point2D>) arrowPoints);
@@ -200,77 +193,59 @@ public class GridUpdater {
     }
 
 
-    /**
-     * sifts through all elements of the container and looks for the ones that are VBoxes,
-     * then updates the grid with which ones are occupied
-     */
-    private void updateGridBoxes(){
-        //grid.generateGrid();
-        for (Node node : nodeContainer.getChildren()) {
-            if (node instanceof ClassNode) {
-                System.out.println("class at " +node.getLayoutX() + " , " + + node.getLayoutY());
-                updateOccupiedClassBoxCells((ClassNode) node);
-            }
-        }
-        //updatePaths();
-    }
-
     /**
      * helper method for PerformGridUpdate
-     * recalculates paths on update
+     * recalculates paths on update by routing around the current bounds of every class.
+     * Classes with a ClassNode use the node's measured bounds, the ones scrolled
+     * out of view are measured from the model.
      * @return list of paths
      */
-    private RelationshipPathHolder updateRelationshipPaths(int zero){
-
-        //this recursively calls the function again if the path fails, shifting the order of the relationship list
-
-
+    private RelationshipPathHolder updateRelationshipPaths(){
         pathHolder.clearHolder();
-        grid.clearGrid();
         arrowPoints.clear();
-        updateGridBoxes();
 
-        for (Relationship r : Relationship.relationshipList){
-            if (r.getSource() == null || r.getDestination() == null){
-                throw new NullPointerException("Invalid relationship");
+        HashMap<String, ClassBounds> bounds = new HashMap<>();
+        for (UMLClassInfo classInfo : UMLClass.getClassMap().values()) {
+            bounds.put(classInfo.getClassName(), ClassBounds.of(classInfo));
+        }
+        HashMap<String, ClassNode> classNodes = new HashMap<>();
+        for (Node node : nodeContainer.getChildren()) {
+            if (node instanceof ClassNode classNode && bounds.containsKey(classNode.getName())) {
+                classNodes.put(classNode.getName(), classNode);
+                if (classNode.getWidth() > 0) {
+                    bounds.put(classNode.getName(), classNode.getBounds());
+                }
             }
-            GridPath newPath = createPathFromRelationship(r);
-            occupyPathCells(newPath);
-            pathHolder.addRelationshipPath(r, newPath);
+        }
 
-            if (newPath.size() == 0 && zero < Relationship.relationshipList.size()){
-                moveToFront(Relationship.relationshipList, r);
-                return updateRelationshipPaths(zero+1);
-            }
+        ArrayList<Relationship> relationships = Relationship.getRelationshipList();
+        router.setBundling(Diagram.current().isLineBundling());
+        Map<Relationship, GridPath> paths = router.route(bounds, relationships);
+        for (Map.Entry<Relationship, GridPath> entry : paths.entrySet()) {
+            Relationship r = entry.getKey();
+            pathHolder.addRelationshipHolder(r, bounds.get(r.getSource()), bounds.get(r.getDestination()));
+            pathHolder.addRelationshipPath(entry.getKey(), entry.getValue());
         }
-        //genArrowGoalPoints();
-        return pathHolder;
-    }
 
-    public <T> void moveToFront(ArrayList<T> list, T element) {
-        if (list == null || element == null) return;
-        int index = list.indexOf(element);
-        if (index != -1) {
-            list.remove(index);
-            list.add(0, element);
+        // keep the order that routed successfully, so the next update starts from it
+        ArrayList<Relationship> routedOrder = new ArrayList<>(paths.keySet());
+        for (Relationship r : relationships) {
+            if (!paths.containsKey(r)) {
+                routedOrder.add(r);
+            }
+        }
+        if (!routedOrder.equals(relationships)) {
+            relationships.clear();
+            relationships.addAll(routedOrder);
         }
-    }
 
-    /**
-     * Helper method - creates a path from an existing relationship
-     * @param relationship
-     * @return null if no path is found, otherwise returns a path
-     */
-    private GridPath createPathFromRelationship(Relationship relationship){
-        Relationship.removeInvalidRelationships();
-        pathHolder.addRelationshipHolder(relationship);
-        if (!Relationship.relationshipExists(relationship.getSource(),relationship.getDestination())){
-            throw new IllegalStateException("relationship doesn't exist");
+        coveredCells.clear();
+        for (Map.Entry<String, ClassNode> entry : classNodes.entrySet()) {
+            coveredCells.put(entry.getValue(), router.getCoveredCells(entry.getKey()));
         }
-        return navigatePath((ClassNode) pathHolder.getSourceClassNode(relationship), (ClassNode) pathHolder.getDestinationClassNode(relationship));
+        return pathHolder;
     }
 
-
     /**
      * occupies all cells under the specified path
      * @param path the path to occupy
@@ -283,42 +258,4 @@ public class GridUpdater {
     }
 
 
-    /**
-     * Navigates the grid from one node to the next.
-     * @param start starting node
-     * @param goal goal node
-     * @return null if no path found, otherwise returns a path
-     */
-    private GridPath navigatePath(ClassNode start, ClassNode goal) {
-        PathNavigator navigator = new PathNavigator(grid);
-        GridPath p = navigator.findPathFromCells(coveredCells.get(start), coveredCells.get(goal),
-                findCenter(start), findCenter(goal));
-        if (p.size() == 0) {
-            System.out.println("Empty path between " + start + " and " + goal);
-            return p;
-        }
-        return p;
-    }
-
-    /**
-     * Finds the center cell of a ClassNode.
-     * @param classNode the ClassNode
-     * @return the central GridCell
-     */
-    private GridCell findCenter(ClassNode classNode) {
-        double nodeWidth = classNode.getWidth();
-        double nodeHeight = classNode.getHeight();
-        double nodeX = classNode.getLayoutX();
-        double nodeY = classNode.getLayoutY();
-        int rowStart = grid.getRow(nodeY) + 1;
-        int rowEnd = grid.getRow(nodeY + nodeHeight) + 1;
-        int colStart = grid.getCol(nodeX) + 1;
-        int colEnd = grid.getCol(nodeX + nodeWidth) + 1;
-        int col = colStart + Math.abs((int) ((colStart - colEnd) / 2));
-        int row = rowStart + Math.abs((int) ((rowStart - rowEnd) / 2));
-        System.out.println("Center found at: col:" + col + ", row: " + row);
-        return grid.getCell(row, col);
-    }
-
-
 }
@@ -104,12 +104,14 @@ public class LineGrid {
     }
 
     /**
-     * clears the grid
+     * clears the grid, removing every class box, line and extra cost
      */
     public void clearGrid(){
         for (int row = 0; row < numRows; row++){
             for (int col = 0; col < numCols; col++){
                 gridCells[row][col].occupied = false;
+                gridCells[row][col].cost = 1.0;
+                gridCells[row][col].lines = 0;
             }
         }
     }
@@ -0,0 +1,114 @@
+package codecain.GraphicalUserInterface.Controller.RelationshipLines;
+
+/**
+ * Computes where relationship markers (arrowheads and diamonds) go at the destination end of a
+ * routed line. Shared by the GUI's LineDrawer and the headless exporters so both draw identical markers.
+ * <p>
+ * Segments are arrays {@code {startX, startY, endX, endY}}; polygons are flat arrays of x, y pairs.
+ * </p>
+ */
+public final class MarkerGeometry {
+
+    /**
+     * Length of an arrowhead from tip to base.
+     */
+    public static final double ARROW_LENGTH = 15;
+
+    /**
+     * Half the width of a diamond.
+     */
+    public static final double DIAMOND_WIDTH = 10;
+
+    /**
+     * Distance from the center of a diamond to its tips along the line.
+     */
+    public static final double DIAMOND_LENGTH = 15;
+
+    private MarkerGeometry() {
+    }
+
+    /**
+     * Finds the last segment of a line, ending where it meets the edge of the destination box.
+     * The end point is moved outward from the box by {@code offset}, which is 0 for arrowheads
+     * and the diamond length for diamonds, so that the marker sits just outside the box.
+     *
+     * @param path      the routed path
+     * @param goal      the bounds of the destination class box
+     * @param cellWidth the width of a grid cell
+     * @param offset    how far to move the end point away from the box edge
+     * @return the segment, or all zeros if the path is empty
+     */
+    public static double[] goalSegment(GridPath path, ClassBounds goal, double cellWidth, double offset) {
+        if (path.getCells().isEmpty()) {
+            return new double[4];
+        }
+        GridCell last = path.getCells().getLast();
+        GridCell beforeLast = path.getCells().get(path.size() - 2);
+
+        double colX1 = last.getCol() * cellWidth;
+        double colX2 = beforeLast.getCol() * cellWidth;
+        double rowY1 = last.getRow() * cellWidth;
+        double rowY2 = beforeLast.getRow() * cellWidth;
+        double x = 10.0;
+        double y = 10.0;
+
+        if (last.getCol() == beforeLast.getCol()) {
+            x = colX1;
+            y = isInBetween(rowY1, rowY2, goal.getY()) ? goal.getY() - offset : goal.getMaxY() + offset;
+        } else if (last.getRow() == beforeLast.getRow()) {
+            y = rowY2;
+            x = isInBetween(colX1, colX2, goal.getMaxX()) ? goal.getMaxX() + offset : goal.getX() - offset;
+        }
+        return new double[] {colX2, rowY2, x, y};
+    }
+
+    /**
+     * Computes the triangle of an arrowhead pointing at the end of a segment.
+     *
+     * @param segment the segment the arrow points along
+     * @return the three corners of the arrowhead
+     */
+    public static double[] arrowhead(double[] segment) {
+        double endX = segment[2];
+        double endY = segment[3];
+        double angle = Math.atan2(endY - segment[1], endX - segment[0]) - Math.PI;
+
+        return new double[] {
+                endX, endY,
+                endX + ARROW_LENGTH * Math.cos(angle - Math.PI / 6), endY + ARROW_LENGTH * Math.sin(angle - Math.PI / 6),
+                endX + ARROW_LENGTH * Math.cos(angle + Math.PI / 6), endY + ARROW_LENGTH * Math.sin(angle + Math.PI / 6)
+        };
+    }
+
+    /**
+     * Computes the four corners of a diamond centered on the end of a segment.
+     *
+     * @param segment the segment the diamond is aligned with
+     * @return the tip, left, base and right corners of the diamond
+     */
+    public static double[] diamond(double[] segment) {
+        double midX = segment[2];
+        double midY = segment[3];
+        double dx = midX - segment[0];
+        double dy = midY - segment[1];
+        double length = Math.sqrt(dx * dx + dy * dy);
+        double unitX = dx / length;
+        double unitY = dy / length;
+        double perpX = -unitY;
+        double perpY = unitX;
+
+        return new double[] {
+                midX + unitX * DIAMOND_LENGTH, midY + unitY * DIAMOND_LENGTH,
+                midX + perpX * DIAMOND_WIDTH, midY + perpY * DIAMOND_WIDTH,
+                midX - unitX * DIAMOND_LENGTH, midY - unitY * DIAMOND_LENGTH,
+                midX - perpX * DIAMOND_WIDTH, midY - perpY * DIAMOND_WIDTH
+        };
+    }
+
+    private static boolean isInBetween(double v1, double v2, double c) {
+        if (v1 < v2) {
+            return c >= v1 && c <= v2;
+        }
+        return c >= v2 && c <= v1;
+    }
+}
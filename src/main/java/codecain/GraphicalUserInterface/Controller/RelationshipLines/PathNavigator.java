@@ -3,261 +3,252 @@ package codecain.GraphicalUserInterface.Controller.RelationshipLines;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
 import java.util.Set;
 
 /**
  * generates a path around occupied nodes
+ * <p>
+ * The search is an A* over pairs of a cell and the direction the line entered it in, so a corner
+ * can be charged for when it is made instead of being guessed at in the heuristic. Entering a cell
+ * costs the cell's {@link GridCell#getCost() cost}, a corner costs {@link #BEND_COST} more and
+ * crossing a line that is already routed costs {@link #CROSSING_COST} more. Running along another
+ * line or turning where one passes costs {@link #SHARING_COST}, so lines only overlap where no
+ * other way is left, instead of failing. Only class boxes block a line.
+ * The heuristic is the distance to the nearest goal cell plus one corner when one is unavoidable;
+ * it never overestimates, so the first path found is the cheapest. The search stays within a
+ * margin around the start and goal cells, so a line that cannot be routed fails quickly.
+ * </p>
  */
 public class PathNavigator {
 
     /**
-     * the grid to navigate
+     * the cost of a corner, compared to one cell of line
      */
-    private final LineGrid grid;
+    public static final double BEND_COST = 3.0;
 
     /**
-     * keeps track of where each node came from
+     * the cost of crossing a line that is already routed, compared to one cell of line
      */
-    private HashMap<GridCell, GridCell> cameFrom;
-
-    public PathNavigator(LineGrid grid) {
-        this.grid = grid;
-        this.cameFrom = new HashMap<>();
-    }
-
-
+    public static final double CROSSING_COST = 6.0;
 
     /**
-     * calculates a path from start cell to goal cell
-     * @param start the cell to start from
-     * @param goal the cell to reach
-     * @return list of ordered grid cells to traverse the path
+     * the cost of running along a line that is already routed, or turning where one passes, for
+     * each cell; high enough that lines only share cells where no other way is left
      */
-    private GridPath findPath(GridCell start, GridCell goal) {
-        // fScore is the total estimated cost, gScore is the actual cost from start to current (number of steps from start to current)
-        HashMap<GridCell, Integer> gScore = new HashMap<>();
-        HashMap<GridCell, Integer> fScore = new HashMap<>();
-        cameFrom = new HashMap<>(); // To reconstruct the path
-
-        GridPriorityQueue open = new GridPriorityQueue();
-        Set<GridCell> closedList = new HashSet<>();
-
-        // Initialize start node
-        gScore.put(start, 0); // Cost from start to start is 0
-        fScore.put(start, calculateHeuristic(start, goal)); // f = g + h for start node
-        open.push(start, fScore.get(start));
-
-        while (!open.isEmpty()) {
-            // Step 1: Get the node with the lowest f score
-            GridCell current = open.pop();
-            //System.out.println("node added at " + current.getCol() + ", " + current.getRow());
+    public static final double SHARING_COST = 20.0;
 
+    /**
+     * the steps a line can take, as row and column offsets: down, up, right, left
+     */
+    private static final int[][] STEPS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
 
-            // Step 2: If the current node is the goal, reconstruct the path
-            if (current == goal || grid.getNeighbors(current).contains(goal)) {
-                GridPath g = new GridPath(reconstructPath(current));
-                g.setEndPoints(start,goal);
-                System.out.println(g.toString());
-                //grid.addPath(g);
-                return g;
-            }
+    /**
+     * how many cells a line may stray outside the box around its start and goal cells, at least
+     */
+    private static final int SEARCH_MARGIN = 10;
 
+    /**
+     * the direction of a start cell, which the line has not left yet
+     */
+    private static final int NO_DIRECTION = 4;
 
-            // Step 3: Move the current node to the closed list
-            closedList.add(current);
+    /**
+     * the grid to navigate
+     */
+    private final LineGrid grid;
 
-            // Step 4: Process each neighbor
-            for (GridCell neighbor : grid.getWalkableNeighbors(current)) {
-                if (closedList.contains(neighbor)) {
-                    continue; // Skip if already processed
-                }
+    /**
+     * the cheapest known cost of each state, valid where {@link #visited} holds the current search
+     */
+    private double[] gScore = new double[0];
 
-                // Step 5: Calculate the tentative g score for the neighbor
-                int tentativeG = gScore.get(current) + 1; // Assuming uniform cost (1 step)
+    /**
+     * the state each state was reached from, or -1 for a start state
+     */
+    private int[] cameFrom = new int[0];
 
-                // If the neighbor isn't in the open list or we found a better path to it
-                if (!gScore.containsKey(neighbor) || tentativeG < gScore.get(neighbor)) {
-                    // Update the gScore, fScore, and cameFrom
-                    gScore.put(neighbor, tentativeG);
-                    fScore.put(neighbor, tentativeG + calculateHeuristic(neighbor, goal));
-                    cameFrom.put(neighbor, current);
+    /**
+     * the search that last reached each state; a negative number once it was expanded
+     */
+    private int[] visited = new int[0];
 
-                    // If the neighbor isn't in the open list, add it
-                    if (!open.contains(neighbor)) {
-                        open.push(neighbor, fScore.get(neighbor));
-                    }
-                }
-            }
-        }
-        //System.out.println("no path found");
+    /**
+     * the number of the current search, so the arrays are reused without being cleared
+     */
+    private int search = 0;
 
-        // Return an empty path if no path was found
-        return new GridPath();
+    /**
+     * a cell and the direction the line entered it in, with the cost of getting there
+     */
+    private record Step(int state, double g, double f) {
     }
 
-
     /**
-     * finds a path from one node to the other
-     * @param coveredCellsStart
-     * @param coveredCellsGoal
-     * @param startCenter
-     * @param goalCenter
-     * @return
+     * creates a navigator for a grid. A navigator can be reused for many searches on the same grid,
+     * which saves allocating its tables each time
+     * @param grid the grid to navigate
      */
-    public GridPath findPathFromCells(ArrayList<GridCell> coveredCellsStart,
-                                      ArrayList<GridCell> coveredCellsGoal, GridCell startCenter, GridCell goalCenter){
-        boolean printStuff = true;
-        GridPriorityQueue availableStartCells;
-        GridPriorityQueue availableGoalCells;
+    public PathNavigator(LineGrid grid) {
+        this.grid = grid;
+    }
 
-        //add all start cells to a priority queue ordered by their cost
-        availableStartCells = loadAvailableStartingCells(coveredCellsStart,goalCenter);
+    /**
+     * finds the cheapest path from any of the start cells to any of the goal cells.
+     * The path begins with the start cell it leaves from and ends with the goal cell it reaches.
+     * @param coveredCellsStart the cells the line may start in, such as the cells covered by a ClassNode
+     * @param coveredCellsGoal the cells the line may end in
+     * @return list of ordered grid cells to traverse the path, or an empty path if there is none
+     */
+    public GridPath findPathFromCells(List<GridCell> coveredCellsStart, List<GridCell> coveredCellsGoal) {
+        Set<GridCell> goals = new HashSet<>(coveredCellsGoal);
+        if (goals.isEmpty()) {
+            return new GridPath();
+        }
+        int[] goalBox = {Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        for (GridCell goal : goals) {
+            goalBox[0] = Math.min(goalBox[0], goal.getRow());
+            goalBox[1] = Math.max(goalBox[1], goal.getRow());
+            goalBox[2] = Math.min(goalBox[2], goal.getCol());
+            goalBox[3] = Math.max(goalBox[3], goal.getCol());
+        }
+        // a line that strays far from both ends is too roundabout to draw, so a failing search
+        // gives up near them instead of flooding the whole grid
+        int[] area = goalBox.clone();
+        for (GridCell start : coveredCellsStart) {
+            area[0] = Math.min(area[0], start.getRow());
+            area[1] = Math.max(area[1], start.getRow());
+            area[2] = Math.min(area[2], start.getCol());
+            area[3] = Math.max(area[3], start.getCol());
+        }
+        int margin = Math.max(SEARCH_MARGIN, Math.max(area[1] - area[0], area[3] - area[2]) / 2);
+        area[0] -= margin;
+        area[1] += margin;
+        area[2] -= margin;
+        area[3] += margin;
+
+        int states = grid.getNumRows() * grid.getNumCols() * 5;
+        if (visited.length != states) {
+            gScore = new double[states];
+            cameFrom = new int[states];
+            visited = new int[states];
+            search = 0;
+        }
+        search++;
+        // cheapest first; among equals the one furthest along, which is most likely to finish
+        PriorityQueue<Step> open = new PriorityQueue<>(
+                Comparator.comparingDouble(Step::f).thenComparing(Comparator.comparingDouble(Step::g).reversed()));
+
+        for (GridCell start : coveredCellsStart) {
+            int state = stateOf(start, NO_DIRECTION);
+            if (visited[state] != search) {
+                visited[state] = search;
+                gScore[state] = 0;
+                cameFrom[state] = -1;
+                open.add(new Step(state, 0, heuristic(start, NO_DIRECTION, goalBox)));
+            }
+        }
 
-        //findPath until one works
-        GridPath path = null;
-        GridPath bestPath = null;
-        int bestPathSize = 1000;
+        while (!open.isEmpty()) {
+            Step step = open.poll();
+            if (visited[step.state()] == -search || step.g() > gScore[step.state()]) {
+                continue; // a cheaper way here was already expanded
+            }
+            visited[step.state()] = -search;
+            GridCell current = cellOf(step.state());
+            int direction = step.state() % 5;
+            if (direction != NO_DIRECTION && goals.contains(current)) {
+                return new GridPath(reconstructPath(step.state()));
+            }
 
-        while (!availableStartCells.isEmpty()) {
-            //checks every start cell and end cell
-            GridCell start = availableStartCells.pop();
-            availableGoalCells = loadAvailableGoalCells(coveredCellsGoal,start);
-            while(!availableGoalCells.isEmpty()){
-                path = findPath(start, availableGoalCells.pop());
-                if (path != null) {
-                    return path;
+            for (int next = 0; next < STEPS.length; next++) {
+                if (direction != NO_DIRECTION && next == (direction ^ 1)) {
+                    continue; // no turning back
+                }
+                GridCell neighbor = grid.getCell(current.getRow() + STEPS[next][0], current.getCol() + STEPS[next][1]);
+                boolean bend = direction != NO_DIRECTION && next != direction;
+                double cost;
+                if (neighbor == null || neighbor.getRow() < area[0] || neighbor.getRow() > area[1]
+                        || neighbor.getCol() < area[2] || neighbor.getCol() > area[3]) {
+                    continue;
+                } else if (goals.contains(neighbor)) {
+                    cost = 1.0;
+                } else if (neighbor.isOccupied()) {
+                    continue;
+                } else {
+                    cost = neighbor.getCost() + lineCost(neighbor, next);
+                }
+                if (bend) {
+                    cost += BEND_COST + (current.getLines() != 0 ? SHARING_COST : 0);
+                }
+                double g = step.g() + cost;
+                int state = stateOf(neighbor, next);
+                if (visited[state] == -search) {
+                    continue;
+                }
+                if (visited[state] != search || g < gScore[state]) {
+                    visited[state] = search;
+                    gScore[state] = g;
+                    cameFrom[state] = step.state();
+                    open.add(new Step(state, g, g + heuristic(neighbor, next, goalBox)));
                 }
             }
         }
 
         //returns empty path if no path was found
-
         return new GridPath();
     }
 
     /**
-     * helper method for findPathFromCells
-     * finds all available starting cells and adds them to a GridPriorityQueue based on their
-     * heuristic cost (estimated distance)
-     * @param coveredCellsStart arralylist with all the cells covered by the ClassNode
-     * @param goalCenter the center cell of the destination node
-     * @return priority queue of all available grid cells
+     * gets the extra cost of stepping into a cell for the lines already routed through it
      */
-    private GridPriorityQueue loadAvailableStartingCells(ArrayList<GridCell> coveredCellsStart, GridCell goalCenter){
-        boolean printStuff = true;
-
-        GridPriorityQueue availableStartCells = new GridPriorityQueue();
-
-        for ( GridCell cell: coveredCellsStart){
-            if (!grid.getWalkableNeighbors(cell).isEmpty()){
-                availableStartCells.push(cell, calculateHeuristic(cell,goalCenter));
-                if (printStuff == true) System.out.println("available start cell found: " + cell.toString());
-            }
+    private static double lineCost(GridCell cell, int next) {
+        int axis = next < 2 ? GridCell.VERTICAL : GridCell.HORIZONTAL;
+        if ((cell.getLines() & axis) != 0) {
+            return SHARING_COST;
         }
-
-        //if (printStuff) System.out.println(availableStartCells.toString());
-
-        return availableStartCells;
+        return cell.getLines() != 0 ? CROSSING_COST : 0;
     }
 
     /**
-     * helper method for findPathFromCells
-     * finds all available starting cells and adds them to a GridPriorityQueue based on their
-     * heuristic cost (estimated distance)
-     * @param coveredCellsGoal arralylist with all the cells covered by the ClassNode
-     * @param startingCell the center cell of the destination node
-     * @return priority queue of all available grid cells
+     * estimates the cost from a cell to the nearest goal cell without ever overestimating it:
+     * one per cell of distance to the box around the goal cells, plus a corner when the line has
+     * to change its direction to get there.
      */
-    private GridPriorityQueue loadAvailableGoalCells(ArrayList<GridCell> coveredCellsGoal, GridCell startingCell){
-        boolean printStuff = true;
-
-        GridPriorityQueue availableStartCells = new GridPriorityQueue();
-
-        for ( GridCell cell: coveredCellsGoal){
-            if (!grid.getWalkableNeighbors(cell).isEmpty()){
-                availableStartCells.push(cell, calculateHeuristic(cell,startingCell));
-                //if (printStuff == true) System.out.println("available start cell found: " + cell.toString());
-            }
-        }
-
-        //if (printStuff) System.out.println(availableStartCells.toString());
+    private static double heuristic(GridCell cell, int direction, int[] goalBox) {
+        int rows = Math.max(0, Math.max(goalBox[0] - cell.getRow(), cell.getRow() - goalBox[1]));
+        int cols = Math.max(0, Math.max(goalBox[2] - cell.getCol(), cell.getCol() - goalBox[3]));
+        boolean vertical = direction < 2;
+        boolean horizontal = direction == 2 || direction == 3;
+        boolean bend = (rows > 0 && cols > 0) || (rows > 0 && horizontal) || (cols > 0 && vertical);
+        return rows + cols + (bend ? BEND_COST : 0);
+    }
 
-        return availableStartCells;
+    private int stateOf(GridCell cell, int direction) {
+        return (cell.getRow() * grid.getNumCols() + cell.getCol()) * 5 + direction;
     }
 
+    private GridCell cellOf(int state) {
+        int index = state / 5;
+        return grid.getCell(index / grid.getNumCols(), index % grid.getNumCols());
+    }
 
     /**
-     * reconstructs the path from the goal cell
-     * @param goal the goal of the path to reconstruct from
-     * @return a new path reconstructed from the cameFrom HashMap
+     * reconstructs the path from the state the goal was reached in
+     * @param goal the state the goal was reached in
+     * @return the cells from the start cell to the goal cell
      */
-    private ArrayList<GridCell> reconstructPath(GridCell goal) {
+    private ArrayList<GridCell> reconstructPath(int goal) {
         ArrayList<GridCell> path = new ArrayList<>();
-        GridCell node = goal;
-
-        while (cameFrom.containsKey(node)) {
-            path.add(node);
-            node = cameFrom.get(node);
+        for (int state = goal; state != -1; state = cameFrom[state]) {
+            path.add(cellOf(state));
         }
 
         Collections.reverse(path); // Reverse to get the path from start to goal
         return path;
     }
 
-
-    /**
-     * Calculates the Heuristic between two cells
-     * this returns the distance between the two cells
-     * @param current current node
-     * @param goal the end goal
-     * @return the distance between current and goal
-     */
-    private int calculateHeuristic(GridCell current, GridCell goal) {
-        int dx = Math.abs(current.getCol() - goal.getCol());
-        int dy = Math.abs(current.getRow() - goal.getRow());
-        int heuristic = dx + dy; // Manhattan distance
-
-        // Add a penalty for direction changes
-        if (cameFrom.containsKey(current)) {
-            GridCell previous = cameFrom.get(current);
-            int currentDirection = calculateDirection(previous, current);
-            int goalDirection = calculateDirection(current, goal);
-            if (currentDirection != goalDirection) {
-                if (currentDirection >= 4 && currentDirection <= 7) {
-                    heuristic += 20; // Higher penalty for diagonal direction changes
-                } else {
-                    heuristic += 10; // Lower penalty for non-diagonal direction changes
-                }
-            }
-        }
-
-        return heuristic;
-    }
-
-     /**
-     * Calculates the direction between two cells.
-     * 
-     * @param from the starting cell
-     * @param to the destination cell
-     * @return an integer representing the direction:
-     *         0 - Down, 1 - Up, 2 - Right, 3 - Left,
-     *         4 - Down-Right, 5 - Up-Right, 6 - Down-Left, 7 - Up-Left,
-     *         -1 - Same cell
-     */
-    private int calculateDirection(GridCell from, GridCell to) {
-        int dx = to.getCol() - from.getCol();
-        int dy = to.getRow() - from.getRow();
-        if (dx == 0 && dy > 0) return 0; // Down
-        if (dx == 0 && dy < 0) return 1; // Up
-        if (dx > 0 && dy == 0) return 2; // Right
-        if (dx < 0 && dy == 0) return 3; // Left
-        if (dx > 0 && dy > 0) return 4; // Down-Right
-        if (dx > 0 && dy < 0) return 5; // Up-Right
-        if (dx < 0 && dy > 0) return 6; // Down-Left
-        if (dx < 0 && dy < 0) return 7; // Up-Left
-        return -1; // Same cell
-    }
-
 }
@@ -0,0 +1,68 @@
+package codecain.GraphicalUserInterface.Controller.RelationshipLines;
+
+import java.util.List;
+
+/**
+ * Reduces a routed path to the points where it changes direction.
+ * <p>
+ * A {@link GridPath} has one cell per grid step, so a long straight run of a line is many points on
+ * one straight segment. Drawing only the ends and corners looks the same and gives the GUI, the
+ * exporters and anything that hit-tests lines far fewer vertices to handle.
+ * </p>
+ */
+public final class PathSimplifier {
+
+    private PathSimplifier() {
+    }
+
+    /**
+     * Gets the first point, every corner and the last point of a path.
+     *
+     * @param path      the routed path
+     * @param cellWidth the width of a grid cell
+     * @return x, y pairs in container coordinates; empty if the path has no cells
+     */
+    public static double[] cornerPoints(GridPath path, double cellWidth) {
+        List<GridCell> cells = path.getCells();
+        int count = cells.size();
+        if (count == 0) {
+            return new double[0];
+        }
+        // count first, so the array is allocated once at its final size
+        int corners = 0;
+        for (int i = 1; i < count - 1; i++) {
+            if (isCorner(cells.get(i - 1), cells.get(i), cells.get(i + 1))) {
+                corners++;
+            }
+        }
+        double[] points = new double[(Math.min(count, 2) + corners) * 2];
+        int p = put(points, 0, cells.getFirst(), cellWidth);
+        for (int i = 1; i < count - 1; i++) {
+            if (isCorner(cells.get(i - 1), cells.get(i), cells.get(i + 1))) {
+                p = put(points, p, cells.get(i), cellWidth);
+            }
+        }
+        if (count > 1) {
+            put(points, p, cells.getLast(), cellWidth);
+        }
+        return points;
+    }
+
+    /**
+     * Checks whether a path turns at a cell, that is, whether the step into it and the step out of
+     * it go in different directions.
+     */
+    private static boolean isCorner(GridCell before, GridCell cell, GridCell after) {
+        int rowIn = Integer.signum(cell.getRow() - before.getRow());
+        int colIn = Integer.signum(cell.getCol() - before.getCol());
+        int rowOut = Integer.signum(after.getRow() - cell.getRow());
+        int colOut = Integer.signum(after.getCol() - cell.getCol());
+        return rowIn != rowOut || colIn != colOut;
+    }
+
+    private static int put(double[] points, int index, GridCell cell, double cellWidth) {
+        points[index] = cell.getCol() * cellWidth;
+        points[index + 1] = cell.getRow() * cellWidth;
+        return index + 2;
+    }
+}
@@ -5,36 +5,34 @@ import java.util.ArrayList;
 import java.util.HashMap;
 
 import codecain.BackendCode.Model.Relationship;
-import codecain.GraphicalUserInterface.Controller.Controller;
-import codecain.GraphicalUserInterface.View.ClassNode;
 
 /**
  * this is a class to take relationships and turn them into paths.
- * Also maps relatioinships to the classNodes from the GUI
+ * Also maps relatioinships to the bounds of their class boxes.
  * This class is useful for linking the paths to the relationships that they
  * represent, and also for linking the relationships to the
- * ClassNodes from the GUI. Allows mediation between the
- * grid paths and the ClassNodes
+ * boxes they connect. The bounds are kept rather than the ClassNodes,
+ * since a class scrolled out of view has no ClassNode.
  */
 public class RelationshipPathHolder {
 
     /**
-     * Helper class to hold the source and destination nodes of the relationship line.
+     * Helper class to hold the source and destination boxes of the relationship line.
      */
     private static class RelBoxHolder {
-        ClassNode source;
-        ClassNode destination;
+        ClassBounds source;
+        ClassBounds destination;
 
-        RelBoxHolder(ClassNode source, ClassNode destination) {
+        RelBoxHolder(ClassBounds source, ClassBounds destination) {
             this.source = source;
             this.destination = destination;
         }
 
-        ClassNode getSource() {
+        ClassBounds getSource() {
             return this.source;
         }
 
-        ClassNode getDestination() {
+        ClassBounds getDestination() {
             return this.destination;
         }
     }
@@ -45,28 +43,26 @@ public class RelationshipPathHolder {
      */
     private final HashMap<Relationship, RelBoxHolder> classBoxHolder;
     private final HashMap<Relationship, GridPath> paths;
-    private final Controller controller;
 
-    public RelationshipPathHolder(Controller controller){
+    public RelationshipPathHolder(){
         this.classBoxHolder = new HashMap<>();
         this.paths = new HashMap<>();
-        this.controller = controller;
     }
 
-    public ClassNode getSourceClassNode(Relationship r) {
-        ClassNode src = this.classBoxHolder.get(r).getSource();
+    public ClassBounds getSourceBounds(Relationship r) {
+        ClassBounds src = this.classBoxHolder.get(r).getSource();
         if (src == null){
 
-            throw new IllegalStateException("No such ClassNode exists for the source");
+            throw new IllegalStateException("No bounds exist for the source");
         }
         return src;
     }
 
-    public ClassNode getDestinationClassNode(Relationship r) {
-        ClassNode dest = this.classBoxHolder.get(r).getDestination();
+    public ClassBounds getDestinationBounds(Relationship r) {
+        ClassBounds dest = this.classBoxHolder.get(r).getDestination();
         if (dest == null){
 
-            throw new IllegalStateException("No such ClassNode exists for the destination");
+            throw new IllegalStateException("No bounds exist for the destination");
         }
         return dest;
     }
@@ -82,9 +78,13 @@ public class RelationshipPathHolder {
 
     }
 
-    public void addRelationshipHolder(Relationship relationship) {
-        ClassNode sourceBox = controller.findClassNode(relationship.getSource());
-        ClassNode destBox = controller.findClassNode(relationship.getDestination());
+    /**
+     * records the boxes a relationship's line was routed between
+     * @param relationship the relationship
+     * @param sourceBox the bounds of the source class
+     * @param destBox the bounds of the destination class
+     */
+    public void addRelationshipHolder(Relationship relationship, ClassBounds sourceBox, ClassBounds destBox) {
         RelBoxHolder h = new RelBoxHolder(sourceBox, destBox);
         classBoxHolder.put(relationship, h);
     }
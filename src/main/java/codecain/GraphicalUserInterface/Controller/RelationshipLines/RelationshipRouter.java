@@ -0,0 +1,366 @@
+package codecain.GraphicalUserInterface.Controller.RelationshipLines;
+
+import codecain.BackendCode.Model.Relationship;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Routes relationship lines around class boxes on a {@link LineGrid}.
+ * The router only needs the bounds of each class, so the GUI and the headless exporters share
+ * the same routing: the GUI passes the bounds of its ClassNodes, exporters pass bounds computed
+ * from the model with {@link ClassBounds#of}.
+ * <p>
+ * Relationships are routed one after another with a weighted search (see {@link PathNavigator}).
+ * Class boxes block their cells, and the cells around a box cost more, so lines keep clear of
+ * boxes where they can. Each routed line records its direction in the cells it uses, so later
+ * lines pay to cross it and pay much more to run along it. If a relationship cannot be routed,
+ * it is moved to the front of the order and routing starts over, at most once per relationship;
+ * if it fails again, or was first already, it is left without a line.
+ * </p>
+ * <p>
+ * With bundling on, relationships of the same type into the same class share one line, the way
+ * UML tools draw inheritance trees. The first of them is routed as the trunk; each of the others
+ * is routed only as a branch to the nearest cell of the lines already in its bundle and follows
+ * them from there. A hub with dozens of subclasses then takes a few cells next to its box instead
+ * of one line per subclass, and the branches are short searches.
+ * </p>
+ */
+public class RelationshipRouter {
+
+    /**
+     * Width of a grid cell in the GUI and in exports.
+     */
+    public static final double CELL_WIDTH = 50.0;
+
+    /**
+     * Free space kept around the diagram when a grid is sized to fit it.
+     */
+    private static final double GRID_MARGIN = 500.0;
+
+    /**
+     * Cost of a cell next to a class box, compared to 1.0 for a cell in open space.
+     */
+    private static final double NEAR_BOX_COST = 2.0;
+
+    /**
+     * Whether relationships of the same type into the same class share one line.
+     */
+    private boolean bundling = false;
+
+    private final LineGrid grid;
+
+    /**
+     * Searches for every route; its tables are kept between searches.
+     */
+    private final PathNavigator navigator;
+
+    /**
+     * The cells covered by each class box during the last routing, keyed by class name.
+     */
+    private final Map<String, ArrayList<GridCell>> coveredCells = new HashMap<>();
+
+    /**
+     * Creates a router that works on the given grid.
+     *
+     * @param grid the grid to route on
+     */
+    public RelationshipRouter(LineGrid grid) {
+        this.grid = grid;
+        this.navigator = new PathNavigator(grid);
+    }
+
+    /**
+     * Creates a router with its own grid, large enough for the given class boxes.
+     *
+     * @param classes the class boxes that will be routed around
+     * @return a router with a private grid
+     */
+    public static RelationshipRouter sizedFor(Map<String, ClassBounds> classes) {
+        double extent = 0;
+        for (ClassBounds bounds : classes.values()) {
+            extent = Math.max(extent, Math.max(bounds.getMaxX(), bounds.getMaxY()));
+        }
+        return new RelationshipRouter(new LineGrid(CELL_WIDTH, extent + GRID_MARGIN, extent + GRID_MARGIN, null));
+    }
+
+    /**
+     * Turns bundling of relationships of the same type into the same class on or off for the
+     * routings this router does from now on.
+     *
+     * @param enabled true to route such relationships as one shared line
+     * @return this router
+     */
+    public RelationshipRouter setBundling(boolean enabled) {
+        bundling = enabled;
+        return this;
+    }
+
+    /**
+     * Checks whether relationships of the same type into the same class share one line.
+     *
+     * @return true if bundling is on
+     */
+    public boolean isBundling() {
+        return bundling;
+    }
+
+    /**
+     * Gets the grid this router works on.
+     *
+     * @return the grid
+     */
+    public LineGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Routes every relationship whose classes both have bounds.
+     * The grid is cleared first; afterwards it holds the class boxes and the routed lines.
+     *
+     * @param classes       the class boxes, keyed by class name
+     * @param relationships the relationships to route
+     * @return the path of each routed relationship, in the order they were finally routed;
+     *         a path is empty if no route was found
+     */
+    public Map<Relationship, GridPath> route(Map<String, ClassBounds> classes, List<Relationship> relationships) {
+        List<Relationship> order = new ArrayList<>();
+        for (Relationship relationship : relationships) {
+            if (classes.containsKey(relationship.getSource()) && classes.containsKey(relationship.getDestination())) {
+                order.add(relationship);
+            }
+        }
+
+        Map<Relationship, GridPath> paths = new LinkedHashMap<>();
+        Map<String, List<GridPath>> bundles = new HashMap<>();
+        Set<Relationship> movedToFront = new HashSet<>();
+        while (true) {
+            paths.clear();
+            bundles.clear();
+            grid.clearGrid();
+            occupyClassCells(classes);
+
+            Relationship failed = null;
+            for (Relationship relationship : order) {
+                GridPath path = routeOne(relationship, bundles);
+                occupyPathCells(path);
+                paths.put(relationship, path);
+                // a line that fails even with the lines before it routed later, or that cannot
+                // leave a box walled in by other boxes, has no route to find
+                if (path.size() == 0 && paths.size() > 1 && !isWalledIn(relationship)
+                        && movedToFront.add(relationship)) {
+                    failed = relationship;
+                    break;
+                }
+            }
+            if (failed == null) {
+                return paths;
+            }
+            order.remove(failed);
+            order.add(0, failed);
+        }
+    }
+
+    /**
+     * Routes some relationships again after classes moved, leaving every other line where it is,
+     * so that a small change to the layout costs a few searches instead of a full routing.
+     * The grid is rebuilt from the class boxes and the kept lines first. A kept line that now runs
+     * under a class box is routed again as well.
+     *
+     * @param classes  the class boxes, keyed by class name, at their current spots
+     * @param kept     the lines that stay where they are
+     * @param rerouted the relationships to route again, in order
+     * @return the new path of every relationship routed again, in the order they were routed;
+     *         a path is empty if no route was found
+     */
+    public Map<Relationship, GridPath> reroute(Map<String, ClassBounds> classes, Map<Relationship, GridPath> kept,
+                                               List<Relationship> rerouted) {
+        grid.clearGrid();
+        occupyClassCells(classes);
+        List<Relationship> order = new ArrayList<>(rerouted);
+        for (Map.Entry<Relationship, GridPath> entry : kept.entrySet()) {
+            if (order.contains(entry.getKey())) {
+                continue;
+            }
+            boolean blocked = false;
+            List<GridCell> cells = entry.getValue().getCells();
+            // the first and last cells lie in the source and destination boxes
+            for (int i = 1; i < cells.size() - 1; i++) {
+                if (cells.get(i).isOccupied()) {
+                    blocked = true;
+                    break;
+                }
+            }
+            if (blocked) {
+                order.add(entry.getKey());
+            }
+        }
+        Map<String, List<GridPath>> bundles = new HashMap<>();
+        for (Map.Entry<Relationship, GridPath> entry : kept.entrySet()) {
+            if (!order.contains(entry.getKey())) {
+                occupyPathCells(entry.getValue());
+                addToBundle(bundles, entry.getKey(), entry.getValue());
+            }
+        }
+
+        Map<Relationship, GridPath> paths = new LinkedHashMap<>();
+        for (Relationship relationship : order) {
+            if (classes.containsKey(relationship.getSource()) && classes.containsKey(relationship.getDestination())) {
+                GridPath path = routeOne(relationship, bundles);
+                occupyPathCells(path);
+                paths.put(relationship, path);
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Gets the grid cells covered by a class box during the last routing.
+     *
+     * @param className the class name
+     * @return the covered cells, or null if the class was not part of the last routing
+     */
+    public ArrayList<GridCell> getCoveredCells(String className) {
+        return coveredCells.get(className);
+    }
+
+    /**
+     * Routes one relationship. With bundling on it joins the lines already routed in its bundle
+     * if it can, and the routed line is added to the bundle.
+     */
+    private GridPath routeOne(Relationship relationship, Map<String, List<GridPath>> bundles) {
+        if (isWalledIn(relationship)) {
+            return new GridPath();
+        }
+        GridPath path = null;
+        List<GridPath> bundle = bundling ? bundles.get(bundleKey(relationship)) : null;
+        if (bundle != null) {
+            path = joinBundle(relationship, bundle);
+        }
+        if (path == null) {
+            path = navigator.findPathFromCells(
+                    coveredCells.get(relationship.getSource()), coveredCells.get(relationship.getDestination()));
+        }
+        addToBundle(bundles, relationship, path);
+        return path;
+    }
+
+    /**
+     * Routes a branch from the source box to the nearest cell of a bundle's lines outside any class
+     * box, and follows the line it reaches from there to the shared destination.
+     *
+     * @return the whole line, or null if no branch could be routed
+     */
+    private GridPath joinBundle(Relationship relationship, List<GridPath> bundle) {
+        Map<GridCell, GridPath> owners = new HashMap<>();
+        ArrayList<GridCell> joints = new ArrayList<>();
+        for (GridPath member : bundle) {
+            List<GridCell> cells = member.getCells();
+            // the first and last cells lie in the source and destination boxes
+            for (int i = 1; i < cells.size() - 1; i++) {
+                if (owners.putIfAbsent(cells.get(i), member) == null) {
+                    joints.add(cells.get(i));
+                }
+            }
+        }
+        if (joints.isEmpty()) {
+            return null;
+        }
+        GridPath branch = navigator.findPathFromCells(coveredCells.get(relationship.getSource()), joints);
+        if (branch.size() == 0) {
+            return null;
+        }
+        GridCell joint = branch.getGoal();
+        List<GridCell> trunk = owners.get(joint).getCells();
+        ArrayList<GridCell> cells = new ArrayList<>(branch.getCells().subList(0, branch.size() - 1));
+        cells.addAll(trunk.subList(trunk.indexOf(joint), trunk.size()));
+        return new GridPath(cells);
+    }
+
+    /**
+     * Checks whether either class of a relationship is walled in: no free cell lies next to its box,
+     * because other boxes are closer to it than a grid cell on every side.
+     */
+    private boolean isWalledIn(Relationship relationship) {
+        return !hasExit(coveredCells.get(relationship.getSource()))
+                || !hasExit(coveredCells.get(relationship.getDestination()));
+    }
+
+    private boolean hasExit(List<GridCell> box) {
+        for (GridCell cell : box) {
+            for (GridCell neighbor : grid.getNeighbors(cell)) {
+                if (!neighbor.isOccupied()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void addToBundle(Map<String, List<GridPath>> bundles, Relationship relationship, GridPath path) {
+        if (bundling && path.size() > 0) {
+            bundles.computeIfAbsent(bundleKey(relationship), key -> new ArrayList<>()).add(path);
+        }
+    }
+
+    private static String bundleKey(Relationship relationship) {
+        return relationship.getType() + " " + relationship.getDestination();
+    }
+
+    /**
+     * Marks the cells under every class box as occupied and records them, and makes the free
+     * cells around each box cost more.
+     */
+    private void occupyClassCells(Map<String, ClassBounds> classes) {
+        coveredCells.clear();
+        for (Map.Entry<String, ClassBounds> entry : classes.entrySet()) {
+            ClassBounds bounds = entry.getValue();
+            int rowStart = grid.getRow(bounds.getY()) + 1;
+            int rowEnd = grid.getRow(bounds.getMaxY()) + 1;
+            int colStart = grid.getCol(bounds.getX()) + 1;
+            int colEnd = grid.getCol(bounds.getMaxX()) + 1;
+
+            ArrayList<GridCell> cells = new ArrayList<>();
+            for (int row = rowStart; row < rowEnd; row++) {
+                for (int col = colStart; col < colEnd; col++) {
+                    GridCell cell = grid.getCell(row, col);
+                    if (cell != null) {
+                        cell.occupied = true;
+                        cells.add(cell);
+                    }
+                }
+            }
+            coveredCells.put(entry.getKey(), cells);
+        }
+        for (ClassBounds bounds : classes.values()) {
+            for (int row = grid.getRow(bounds.getY()); row <= grid.getRow(bounds.getMaxY()) + 1; row++) {
+                for (int col = grid.getCol(bounds.getX()); col <= grid.getCol(bounds.getMaxX()) + 1; col++) {
+                    GridCell cell = grid.getCell(row, col);
+                    if (cell != null && !cell.occupied) {
+                        cell.cost = NEAR_BOX_COST;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a routed line in the cells between its end boxes, with the directions it runs
+     * through each of them.
+     */
+    private void occupyPathCells(GridPath path) {
+        List<GridCell> cells = path.getCells();
+        for (int i = 1; i < cells.size() - 1; i++) {
+            cells.get(i).lines |= axisOf(cells.get(i - 1), cells.get(i)) | axisOf(cells.get(i), cells.get(i + 1));
+        }
+    }
+
+    private static int axisOf(GridCell from, GridCell to) {
+        return from.getRow() == to.getRow() ? GridCell.HORIZONTAL : GridCell.VERTICAL;
+    }
+}
@@ -2,13 +2,17 @@ package codecain.GraphicalUserInterface.Model;
 
 import codecain.BackendCode.Model.UMLClass;
 import codecain.BackendCode.Model.UMLClassInfo;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.ClassBounds;
 import codecain.GraphicalUserInterface.Controller.RelationshipLines.GridManager;
 import codecain.GraphicalUserInterface.View.ClassNode;
-import codecain.GraphicalUserInterface.View.PositionUtils;
+import codecain.GraphicalUserInterface.View.ClassNodeVirtualizer;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.layout.Pane;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * The {@code ClassManager} class provides utility methods for managing UML class nodes
  * in the UML editor. It includes functionality for adding, removing, and renaming classes,
@@ -33,27 +37,39 @@ public class ClassManager {
             return null;
         }
         UMLClass.addClass(className);
-        ClassNode classNode = new ClassNode(UMLClass.getClassInfo(className));
         UMLClassInfo classInfo = UMLClass.getClassInfo(className);
-
-        // Position nodes (e.g., center as a placeholder; adjust as needed)
-        double centerX = (nodeContainer.getWidth() - classNode.getPrefWidth()) / 2;
-        double centerY = (nodeContainer.getHeight() - classNode.getPrefHeight()) / 2;
-        classNode.setLayoutX(centerX);
-        classNode.setLayoutY(centerY);
-        PositionUtils.calculateAndSetPosition(classNode, classInfo, nodeContainer);
-
-        PositionUtils.calculateAndSetPosition(classNode, classInfo, nodeContainer);
-
-        // Add the new ClassNode to the node container
-        nodeContainer.getChildren().add(classNode);
-
-        GridManager.addClassListeners(classNode);
+        placeNewClass(classInfo);
+
+        // the virtualizer builds the node; without one, add it to the container here
+        ClassNode classNode = ClassNodeVirtualizer.findClassNode(nodeContainer, className);
+        if (classNode == null) {
+            classNode = new ClassNode(classInfo);
+            nodeContainer.getChildren().add(classNode);
+            GridManager.addClassListeners(classNode);
+        }
         GridManager.updateRelationshipPaths();
 
         return classNode;
     }
 
+    /**
+     * Gives a new class the first free spot among all classes of the diagram,
+     * including those scrolled out of view that have no ClassNode.
+     *
+     * @param classInfo the class to place
+     */
+    public static void placeNewClass(UMLClassInfo classInfo) {
+        List<ClassBounds> placed = new ArrayList<>();
+        for (UMLClassInfo other : UMLClass.getClassMap().values()) {
+            if (other != classInfo) {
+                placed.add(ClassBounds.of(other));
+            }
+        }
+        ClassBounds spot = ClassBounds.placeAmong(ClassBounds.of(classInfo), placed);
+        classInfo.setX((int) spot.getX());
+        classInfo.setY((int) spot.getY());
+    }
+
     /**
      * Removes a class from the UML diagram.
      *
@@ -76,6 +92,7 @@ public class ClassManager {
 
         nodeContainer.getChildren()
                 .removeIf(node -> node instanceof ClassNode && ((ClassNode) node).getName().equals(className));
+        ClassNodeVirtualizer.refresh(nodeContainer);
     }
 
     /**
@@ -0,0 +1,266 @@
+package codecain.GraphicalUserInterface.Model.Export;
+
+import codecain.BackendCode.Model.Diagram;
+import codecain.BackendCode.Model.SaveManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Exports many diagram files at once, for example every diagram in a repository for documentation.
+ * <p>
+ * Each file is loaded into its own {@link Diagram}, never into the current one, and exported on a
+ * fixed-size pool of worker threads. Loading, routing and drawing a diagram only touch that
+ * diagram's own objects, so the work spreads over as many cores as the pool has threads.
+ * </p>
+ */
+public class BatchExporter {
+
+    /**
+     * The outcome of exporting one file.
+     *
+     * @param input  the diagram file that was read
+     * @param output the image file that was written, or would have been
+     * @param millis how long loading and exporting took, in milliseconds
+     * @param error  why the export failed, or null if it succeeded
+     */
+    public record Result(Path input, Path output, long millis, String error) {
+
+        /**
+         * @return true if the export succeeded
+         */
+        public boolean succeeded() {
+            return error == null;
+        }
+    }
+
+    /**
+     * The outcome of a whole batch.
+     *
+     * @param results     the result for each file, in the order the files were given
+     * @param threads     the number of worker threads used
+     * @param totalMillis how long the whole batch took, in milliseconds
+     */
+    public record Report(List<Result> results, int threads, long totalMillis) {
+
+        /**
+         * @return how many files failed to export
+         */
+        public long failures() {
+            return results.stream().filter(result -> !result.succeeded()).count();
+        }
+
+        /**
+         * Formats the report as a table with the time taken for each file and a summary line.
+         *
+         * @return the formatted report
+         */
+        public String format() {
+            StringBuilder report = new StringBuilder();
+            long busyMillis = 0;
+            for (Result result : results) {
+                busyMillis += result.millis();
+                report.append(String.format(Locale.ROOT, "%8d ms  %s -> %s%n", result.millis(), result.input(),
+                        result.succeeded() ? result.output() : "FAILED: " + result.error()));
+            }
+            report.append(String.format(Locale.ROOT,
+                    "Exported %d of %d diagrams in %d ms on %d threads (%d ms of work, %.1fx parallel speedup).",
+                    results.size() - failures(), results.size(), totalMillis, threads, busyMillis,
+                    totalMillis == 0 ? 1.0 : (double) busyMillis / totalMillis));
+            return report.toString();
+        }
+    }
+
+    private final Path outputDirectory;
+    private final String format;
+    private final double scale;
+    private final int threads;
+
+    /**
+     * Creates a batch exporter.
+     *
+     * @param outputDirectory where to write the images
+     * @param format          "png" or "svg"
+     * @param scale           the number of pixels per diagram unit in PNGs
+     * @param threads         the number of worker threads
+     * @throws IllegalArgumentException if the format is not supported or the thread count is not positive
+     */
+    public BatchExporter(Path outputDirectory, String format, double scale, int threads) {
+        String lower = format.toLowerCase(Locale.ROOT);
+        if (!lower.equals("png") && !lower.equals("svg")) {
+            throw new IllegalArgumentException("Unsupported export format: " + format + ". Use png or svg.");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.outputDirectory = outputDirectory;
+        this.format = lower;
+        this.scale = scale;
+        this.threads = threads;
+    }
+
+    /**
+     * Creates a batch exporter that uses one worker thread per available processor.
+     *
+     * @param outputDirectory where to write the images
+     * @param format          "png" or "svg"
+     * @param scale           the number of pixels per diagram unit in PNGs
+     */
+    public BatchExporter(Path outputDirectory, String format, double scale) {
+        this(outputDirectory, format, scale, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Finds the diagram files named by a directory or a glob pattern.
+     * A directory stands for every .json file in it and its subdirectories; a pattern such as
+     * {@code docs/**}{@code /*.json} is matched against paths under its first directory without wildcards.
+     *
+     * @param directoryOrGlob a directory or a glob pattern
+     * @return the matching files, sorted by path
+     * @throws IOException if a directory cannot be read
+     */
+    public static List<Path> findDiagrams(String directoryOrGlob) throws IOException {
+        Path base;
+        PathMatcher matcher;
+        int wildcard = indexOfWildcard(directoryOrGlob);
+        if (wildcard < 0) {
+            base = Path.of(directoryOrGlob);
+            if (Files.isRegularFile(base)) {
+                return List.of(base);
+            }
+            matcher = path -> path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json");
+        } else {
+            int lastSeparator = Math.max(directoryOrGlob.lastIndexOf('/', wildcard),
+                    directoryOrGlob.lastIndexOf(File.separatorChar, wildcard));
+            base = Path.of(lastSeparator < 0 ? "." : directoryOrGlob.substring(0, lastSeparator + 1));
+            PathMatcher glob = FileSystems.getDefault().getPathMatcher("glob:" + directoryOrGlob);
+            boolean relativeToCurrent = lastSeparator < 0;
+            matcher = path -> glob.matches(relativeToCurrent ? base.relativize(path) : path);
+        }
+        if (!Files.isDirectory(base)) {
+            throw new IOException("No such directory: " + base);
+        }
+        try (Stream<Path> paths = Files.walk(base)) {
+            return paths.filter(Files::isRegularFile).filter(matcher::matches)
+                    .filter(path -> !isSegment(path)).sorted().toList();
+        }
+    }
+
+    /**
+     * Loads and exports every file on the worker pool and waits until all are done.
+     * A file that fails does not stop the others; its error is recorded in the report.
+     *
+     * @param inputs the diagram files to export
+     * @return the per-file results and overall timing
+     */
+    public Report exportAll(List<Path> inputs) {
+        long start = System.nanoTime();
+        Path commonBase = commonParent(inputs);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Result>> futures = new ArrayList<>();
+            for (Path input : inputs) {
+                Path output = outputFor(commonBase, input);
+                futures.add(pool.submit(() -> exportOne(input, output)));
+            }
+            List<Result> results = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(await(futures.get(i), inputs.get(i)));
+            }
+            return new Report(results, threads, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Result exportOne(Path input, Path output) {
+        long start = System.nanoTime();
+        try {
+            Diagram diagram = SaveManager.readDiagram(input.toString());
+            if (output.getParent() != null) {
+                Files.createDirectories(output.getParent());
+            }
+            if (format.equals("png")) {
+                DiagramExporter.exportPng(diagram, output, scale);
+            } else {
+                DiagramExporter.exportSvg(diagram, output);
+            }
+            return new Result(input, output, (System.nanoTime() - start) / 1_000_000, null);
+        } catch (Exception e) {
+            String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            return new Result(input, output, (System.nanoTime() - start) / 1_000_000, message);
+        }
+    }
+
+    private static Result await(Future<Result> future, Path input) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Result(input, null, 0, "interrupted");
+        } catch (ExecutionException e) {
+            return new Result(input, null, 0, String.valueOf(e.getCause()));
+        }
+    }
+
+    /**
+     * Places the image for an input under the output directory, keeping the input's path relative
+     * to the other inputs so that files with the same name in different directories do not collide.
+     */
+    private Path outputFor(Path commonBase, Path input) {
+        Path relative = commonBase == null ? input.getFileName() : commonBase.relativize(input.toAbsolutePath().normalize());
+        String name = relative.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String imageName = (dot > 0 ? name.substring(0, dot) : name) + "." + format;
+        Path parent = relative.getParent();
+        return outputDirectory.resolve(parent == null ? Path.of(imageName) : parent.resolve(imageName));
+    }
+
+    private static Path commonParent(List<Path> inputs) {
+        Path common = null;
+        for (Path input : inputs) {
+            Path parent = input.toAbsolutePath().normalize().getParent();
+            if (parent == null) {
+                return null;
+            }
+            if (common == null) {
+                common = parent;
+            }
+            while (common != null && !parent.startsWith(common)) {
+                common = common.getParent();
+            }
+        }
+        return common;
+    }
+
+    /**
+     * Checks whether a file is one of the segments of a segmented diagram, which are loaded
+     * through their manifest rather than on their own.
+     */
+    private static boolean isSegment(Path path) {
+        Path parent = path.getParent();
+        return parent != null && parent.getFileName() != null
+                && parent.getFileName().toString().endsWith(".segments");
+    }
+
+    private static int indexOfWildcard(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            if ("*?[{".indexOf(pattern.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
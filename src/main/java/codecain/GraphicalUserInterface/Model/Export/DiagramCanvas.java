@@ -0,0 +1,56 @@
+package codecain.GraphicalUserInterface.Model.Export;
+
+import java.awt.Color;
+import java.awt.Font;
+
+/**
+ * A drawing target for {@link DiagramRenderer}.
+ * The renderer describes a diagram as a small set of shapes in diagram coordinates, so the same
+ * rendering code can produce raster images, vector files or anything else that implements this interface.
+ */
+public interface DiagramCanvas {
+
+    /**
+     * Draws a rectangle.
+     *
+     * @param x           left edge
+     * @param y           top edge
+     * @param width       width
+     * @param height      height
+     * @param fill        fill color, or null for no fill
+     * @param stroke      outline color, or null for no outline
+     * @param strokeWidth outline width
+     */
+    void rect(double x, double y, double width, double height, Color fill, Color stroke, double strokeWidth);
+
+    /**
+     * Draws a single line of text.
+     *
+     * @param text  the text
+     * @param x     left edge of the text
+     * @param y     baseline of the text
+     * @param font  the font
+     * @param color the text color
+     */
+    void text(String text, double x, double y, Font font, Color color);
+
+    /**
+     * Draws an open line through a series of points.
+     *
+     * @param points      x, y pairs
+     * @param stroke      line color
+     * @param strokeWidth line width
+     * @param dashed      whether the line is dashed
+     */
+    void polyline(double[] points, Color stroke, double strokeWidth, boolean dashed);
+
+    /**
+     * Draws a closed shape through a series of points.
+     *
+     * @param points      x, y pairs
+     * @param fill        fill color, or null for no fill
+     * @param stroke      outline color, or null for no outline
+     * @param strokeWidth outline width
+     */
+    void polygon(double[] points, Color fill, Color stroke, double strokeWidth);
+}
@@ -0,0 +1,170 @@
+package codecain.GraphicalUserInterface.Model.Export;
+
+import codecain.BackendCode.Model.Diagram;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Exports diagrams to PNG and SVG files without JavaFX.
+ * Each call lays out its own copy of the diagram, so different diagrams can be exported in parallel.
+ */
+public class DiagramExporter {
+
+    /**
+     * The format used when a file name has no known extension.
+     */
+    public static final String DEFAULT_EXTENSION = ".png";
+
+    /**
+     * Memory used for pixels while exporting a PNG, unless another budget is given.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 32L * 1024 * 1024;
+
+    /**
+     * Largest PNG width or height the exporter will produce.
+     */
+    public static final int MAX_PNG_SIZE = 1 << 20;
+
+    /**
+     * Exports a diagram to a file, choosing the format from the file's extension.
+     *
+     * @param diagram the diagram to export
+     * @param file    the file to write
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if the file's extension is not a supported format
+     */
+    public static void export(Diagram diagram, Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".png")) {
+            exportPng(diagram, file);
+        } else if (name.endsWith(".svg")) {
+            exportSvg(diagram, file);
+        } else {
+            throw new IllegalArgumentException("Unsupported export format: " + file.getFileName());
+        }
+    }
+
+    /**
+     * Adds the default extension to a file path that does not name a supported format.
+     *
+     * @param filePath the file path given by the user
+     * @return the file path with a supported extension
+     */
+    public static String withExtension(String filePath) {
+        String lower = filePath.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".png") || lower.endsWith(".svg")) {
+            return filePath;
+        }
+        return filePath + DEFAULT_EXTENSION;
+    }
+
+    /**
+     * Exports a diagram as a PNG image at its natural size.
+     *
+     * @param diagram the diagram to export
+     * @param file    the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void exportPng(Diagram diagram, Path file) throws IOException {
+        exportPng(diagram, file, 1.0, DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * Exports a diagram as a PNG image, scaled by the given factor (2 or 4 for print, for example).
+     *
+     * @param diagram the diagram to export
+     * @param file    the file to write
+     * @param scale   the number of pixels per diagram unit
+     * @throws IOException if the file cannot be written
+     */
+    public static void exportPng(Diagram diagram, Path file, double scale) throws IOException {
+        exportPng(diagram, file, scale, DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * Exports a diagram as a PNG image, drawing it one horizontal strip at a time.
+     * Each strip is drawn, compressed and written before the next one is drawn into the same buffer,
+     * so the memory used for pixels stays under the budget however large the image is.
+     *
+     * @param diagram      the diagram to export
+     * @param file         the file to write
+     * @param scale        the number of pixels per diagram unit
+     * @param memoryBudget the most memory to use for pixels, in bytes; at least one row is always drawn
+     * @throws IOException if the file cannot be written
+     */
+    public static void exportPng(Diagram diagram, Path file, double scale, long memoryBudget) throws IOException {
+        if (!(scale > 0) || Double.isInfinite(scale)) {
+            throw new IllegalArgumentException("Scale must be a positive number: " + scale);
+        }
+        DiagramRenderer renderer = new DiagramRenderer(diagram);
+        Rectangle2D bounds = renderer.getBounds();
+        long width = (long) Math.ceil(bounds.getWidth() * scale);
+        long height = (long) Math.ceil(bounds.getHeight() * scale);
+        if (width > MAX_PNG_SIZE || height > MAX_PNG_SIZE) {
+            throw new IllegalArgumentException("Image would be " + width + "x" + height + " pixels, more than "
+                    + MAX_PNG_SIZE + " in one direction. Use a smaller scale.");
+        }
+
+        int stripHeight = (int) Math.max(1, Math.min(height, memoryBudget / (width * Integer.BYTES)));
+        BufferedImage strip = new BufferedImage((int) width, stripHeight, BufferedImage.TYPE_INT_RGB);
+        try (PngStreamWriter png = new PngStreamWriter(Files.newOutputStream(file), (int) width, (int) height)) {
+            for (int top = 0; top < height; top += stripHeight) {
+                int rows = (int) Math.min(stripHeight, height - top);
+                Graphics2D graphics = strip.createGraphics();
+                try {
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, strip.getWidth(), strip.getHeight());
+                    graphics.translate(0, -top);
+                    graphics.scale(scale, scale);
+                    graphics.translate(-bounds.getX(), -bounds.getY());
+                    Rectangle2D region = new Rectangle2D.Double(bounds.getX(), bounds.getY() + top / scale,
+                            bounds.getWidth(), rows / scale);
+                    renderer.render(new Graphics2DCanvas(graphics), region);
+                } finally {
+                    graphics.dispose();
+                }
+                png.writeRows(strip, rows);
+            }
+        }
+    }
+
+    /**
+     * Exports a diagram as an SVG file.
+     *
+     * @param diagram the diagram to export
+     * @param file    the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void exportSvg(Diagram diagram, Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            exportSvg(diagram, writer);
+        }
+    }
+
+    /**
+     * Writes a diagram as SVG to a writer. Shapes are written as they are drawn, so no image of the
+     * diagram is ever held in memory. The writer is flushed but not closed.
+     *
+     * @param diagram the diagram to export
+     * @param writer  the writer to write SVG to
+     * @throws IOException if writing fails
+     */
+    public static void exportSvg(Diagram diagram, Writer writer) throws IOException {
+        DiagramRenderer renderer = new DiagramRenderer(diagram);
+        try (SvgCanvas canvas = new SvgCanvas(writer, renderer.getBounds())) {
+            renderer.render(canvas);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
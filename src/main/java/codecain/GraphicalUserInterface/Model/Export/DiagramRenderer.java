@@ -0,0 +1,266 @@
+package codecain.GraphicalUserInterface.Model.Export;
+
+import codecain.BackendCode.Model.Diagram;
+import codecain.BackendCode.Model.Relationship;
+import codecain.BackendCode.Model.RelationshipType;
+import codecain.BackendCode.Model.UMLClassInfo;
+import codecain.BackendCode.Model.UMLFieldInfo;
+import codecain.BackendCode.Model.UMLMethodInfo;
+import codecain.GraphicalUserInterface.Controller.Layout.AutoLayout;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.ClassBounds;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.GridCell;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.GridPath;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.MarkerGeometry;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.PathSimplifier;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.RelationshipRouter;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lays out and draws a diagram straight from the model, without building a JavaFX scene.
+ * Class boxes are sized with the same rules as ClassNode and relationship lines are routed with the
+ * same {@link RelationshipRouter} as the GUI, so exports look like the editor.
+ * <p>
+ * A renderer works on a snapshot of the diagram taken when it is created, so the diagram can keep
+ * changing while an export runs, and renderers for different diagrams can run on different threads.
+ * </p>
+ */
+public class DiagramRenderer {
+
+    /**
+     * Empty space around the drawing.
+     */
+    public static final double MARGIN = 20;
+
+    private static final Font NAME_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 14);
+    private static final FontRenderContext FONT_CONTEXT = new FontRenderContext(null, true, true);
+    private static final Color LIST_BORDER = new Color(0xB5B5B5);
+    private static final double BOX_BORDER = 4;
+    private static final double LINE_WIDTH = 3;
+    private static final double TEXT_INSET = 8;
+    private static final double ROW_BASELINE = 17;
+
+    private final Map<String, UMLClassInfo> classes;
+    private final Map<String, ClassBounds> bounds = new LinkedHashMap<>();
+    private final List<Relationship> relationships;
+    private final Map<Relationship, GridPath> paths;
+    private final double cellWidth;
+
+    /**
+     * The area each routed line and its marker can paint, used to skip lines outside a region.
+     */
+    private final Map<Relationship, Rectangle2D> pathAreas = new LinkedHashMap<>();
+
+    /**
+     * Lays out the given diagram: measures every class box and routes every relationship.
+     *
+     * @param diagram the diagram to draw
+     */
+    public DiagramRenderer(Diagram diagram) {
+        Diagram snapshot = diagram.snapshot();
+        this.classes = new LinkedHashMap<>(snapshot.getClassMap());
+        this.relationships = new ArrayList<>(snapshot.getRelationshipList());
+        Map<String, ClassBounds> measured = new LinkedHashMap<>();
+        for (Map.Entry<String, UMLClassInfo> entry : classes.entrySet()) {
+            measured.put(entry.getKey(), ClassBounds.of(entry.getValue()));
+        }
+        bounds.putAll(AutoLayout.placeUnplaced(measured, relationships));
+        RelationshipRouter router = RelationshipRouter.sizedFor(bounds).setBundling(snapshot.isLineBundling());
+        this.paths = router.route(bounds, relationships);
+        this.cellWidth = router.getGrid().getCellWidth();
+        for (Map.Entry<Relationship, GridPath> entry : paths.entrySet()) {
+            pathAreas.put(entry.getKey(), areaOf(entry.getValue()));
+        }
+    }
+
+    /**
+     * Gets the area the drawing covers, including {@link #MARGIN} on every side.
+     *
+     * @return the drawing's bounds in diagram coordinates
+     */
+    public Rectangle2D getBounds() {
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (ClassBounds box : bounds.values()) {
+            minX = Math.min(minX, box.getX());
+            minY = Math.min(minY, box.getY());
+            maxX = Math.max(maxX, box.getMaxX());
+            maxY = Math.max(maxY, box.getMaxY());
+        }
+        for (Rectangle2D area : pathAreas.values()) {
+            if (area == null) {
+                continue;
+            }
+            minX = Math.min(minX, area.getMinX());
+            minY = Math.min(minY, area.getMinY());
+            maxX = Math.max(maxX, area.getMaxX());
+            maxY = Math.max(maxY, area.getMaxY());
+        }
+        if (minX > maxX) {
+            return new Rectangle2D.Double(0, 0, 2 * MARGIN, 2 * MARGIN);
+        }
+        return new Rectangle2D.Double(minX - MARGIN, minY - MARGIN,
+                maxX - minX + 2 * MARGIN, maxY - minY + 2 * MARGIN);
+    }
+
+    /**
+     * Gets the number of classes in the drawing.
+     *
+     * @return the class count
+     */
+    public int getClassCount() {
+        return classes.size();
+    }
+
+    /**
+     * Draws the diagram onto a canvas, in diagram coordinates.
+     * Lines are drawn first, then class boxes, then relationship markers, as in the GUI.
+     *
+     * @param canvas the canvas to draw on
+     */
+    public void render(DiagramCanvas canvas) {
+        render(canvas, null);
+    }
+
+    /**
+     * Draws the parts of the diagram that reach into a region, in diagram coordinates.
+     * Used to draw large images a piece at a time without visiting every shape for every piece.
+     *
+     * @param canvas the canvas to draw on
+     * @param region the region to draw, or null to draw everything
+     */
+    public void render(DiagramCanvas canvas, Rectangle2D region) {
+        // markers sit between the last cell of a line and the class box, up to a cell past the line's cells
+        Rectangle2D lineRegion = region == null ? null : new Rectangle2D.Double(region.getX() - cellWidth,
+                region.getY() - cellWidth, region.getWidth() + 2 * cellWidth, region.getHeight() + 2 * cellWidth);
+        for (Map.Entry<Relationship, GridPath> entry : paths.entrySet()) {
+            if (isVisible(pathAreas.get(entry.getKey()), lineRegion)) {
+                drawLine(canvas, entry.getKey(), entry.getValue());
+            }
+        }
+        for (Map.Entry<String, UMLClassInfo> entry : classes.entrySet()) {
+            ClassBounds box = bounds.get(entry.getKey());
+            double border = BOX_BORDER / 2;
+            if (region == null || region.intersects(box.getX() - border, box.getY() - border,
+                    box.getWidth() + BOX_BORDER, box.getHeight() + BOX_BORDER)) {
+                drawClass(canvas, entry.getValue(), box);
+            }
+        }
+        for (Map.Entry<Relationship, GridPath> entry : paths.entrySet()) {
+            if (isVisible(pathAreas.get(entry.getKey()), lineRegion)) {
+                drawMarker(canvas, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private static boolean isVisible(Rectangle2D area, Rectangle2D region) {
+        return region == null || area == null || region.intersects(area);
+    }
+
+    /**
+     * Finds the area a routed line can paint, including its stroke and the marker at its end.
+     */
+    private Rectangle2D areaOf(GridPath path) {
+        if (path.size() == 0) {
+            return null;
+        }
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (GridCell cell : path.getCells()) {
+            minX = Math.min(minX, cell.getCol() * cellWidth);
+            minY = Math.min(minY, cell.getRow() * cellWidth);
+            maxX = Math.max(maxX, cell.getCol() * cellWidth);
+            maxY = Math.max(maxY, cell.getRow() * cellWidth);
+        }
+        double reach = MarkerGeometry.DIAMOND_LENGTH * 2;
+        return new Rectangle2D.Double(minX - reach, minY - reach, maxX - minX + 2 * reach, maxY - minY + 2 * reach);
+    }
+
+    private void drawClass(DiagramCanvas canvas, UMLClassInfo classInfo, ClassBounds box) {
+        canvas.rect(box.getX(), box.getY(), box.getWidth(), box.getHeight(), Color.WHITE, Color.BLACK, BOX_BORDER);
+
+        String name = classInfo.getClassName();
+        double nameWidth = NAME_FONT.getStringBounds(name, FONT_CONTEXT).getWidth();
+        canvas.text(name, box.getX() + (box.getWidth() - nameWidth) / 2, box.getY() + ClassBounds.NAME_HEIGHT - 8,
+                NAME_FONT, Color.BLACK);
+
+        double top = box.getY() + ClassBounds.NAME_HEIGHT;
+        List<String> fieldRows = new ArrayList<>();
+        for (UMLFieldInfo field : classInfo.getFields()) {
+            fieldRows.add(field.toString());
+        }
+        top = drawList(canvas, box, top, fieldRows);
+
+        List<String> methodRows = new ArrayList<>();
+        for (UMLMethodInfo method : classInfo.getMethods()) {
+            methodRows.add(method.toString());
+        }
+        drawList(canvas, box, top, methodRows);
+    }
+
+    /**
+     * Draws a field or method list like a ListView and returns where the next list starts.
+     */
+    private double drawList(DiagramCanvas canvas, ClassBounds box, double top, List<String> rows) {
+        double height = ClassBounds.listHeight(rows.size());
+        double inset = BOX_BORDER / 2;
+        canvas.rect(box.getX() + inset, top, box.getWidth() - 2 * inset, height, null, LIST_BORDER, 1);
+        for (int i = 0; i < rows.size(); i++) {
+            canvas.text(rows.get(i), box.getX() + TEXT_INSET, top + i * ClassBounds.ROW_HEIGHT + ROW_BASELINE,
+                    ClassBounds.ROW_FONT, Color.BLACK);
+        }
+        return top + height;
+    }
+
+    private void drawLine(DiagramCanvas canvas, Relationship relationship, GridPath path) {
+        if (path.size() == 0) {
+            return;
+        }
+        double[] points = PathSimplifier.cornerPoints(path, cellWidth);
+        RelationshipType type = relationship.getType();
+        canvas.polyline(points, colorOf(type), LINE_WIDTH, type == RelationshipType.REALIZATION);
+    }
+
+    private void drawMarker(DiagramCanvas canvas, Relationship relationship, GridPath path) {
+        if (path.size() == 0) {
+            return;
+        }
+        ClassBounds goal = bounds.get(relationship.getDestination());
+        RelationshipType type = relationship.getType();
+        Color color = colorOf(type);
+        switch (type) {
+            case GENERALIZATION, REALIZATION -> canvas.polygon(
+                    MarkerGeometry.arrowhead(MarkerGeometry.goalSegment(path, goal, cellWidth, 0)), color, null, 0);
+            case AGGREGATION -> canvas.polygon(MarkerGeometry.diamond(
+                    MarkerGeometry.goalSegment(path, goal, cellWidth, MarkerGeometry.DIAMOND_LENGTH)),
+                    Color.WHITE, color, LINE_WIDTH);
+            case COMPOSITION -> canvas.polygon(MarkerGeometry.diamond(
+                    MarkerGeometry.goalSegment(path, goal, cellWidth, MarkerGeometry.DIAMOND_LENGTH)),
+                    color, null, 0);
+            default -> throw new IllegalArgumentException("Unsupported relationship type: " + type);
+        }
+    }
+
+    /**
+     * Gets the line color the GUI uses for a relationship type.
+     */
+    private static Color colorOf(RelationshipType type) {
+        return switch (type) {
+            case GENERALIZATION -> Color.BLUE;
+            case AGGREGATION -> Color.ORANGE;
+            case COMPOSITION -> new Color(0x800080);
+            case REALIZATION -> Color.RED;
+        };
+    }
+}
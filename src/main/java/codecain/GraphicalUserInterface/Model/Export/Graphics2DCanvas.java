@@ -0,0 +1,89 @@
+package codecain.GraphicalUserInterface.Model.Export;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Draws a diagram with Java2D, for example into a {@link java.awt.image.BufferedImage}.
+ * Java2D works without a display and without JavaFX, and each image can be drawn on its own thread.
+ */
+public class Graphics2DCanvas implements DiagramCanvas {
+
+    private static final float[] DASH = {10f, 10f};
+
+    private final Graphics2D graphics;
+
+    /**
+     * Creates a canvas that draws with the given graphics context.
+     * The context's transform decides where diagram coordinates end up.
+     *
+     * @param graphics the graphics context to draw with
+     */
+    public Graphics2DCanvas(Graphics2D graphics) {
+        this.graphics = graphics;
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        graphics.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+    }
+
+    @Override
+    public void rect(double x, double y, double width, double height, Color fill, Color stroke, double strokeWidth) {
+        Rectangle2D.Double shape = new Rectangle2D.Double(x, y, width, height);
+        if (fill != null) {
+            graphics.setColor(fill);
+            graphics.fill(shape);
+        }
+        if (stroke != null) {
+            graphics.setColor(stroke);
+            graphics.setStroke(new BasicStroke((float) strokeWidth));
+            graphics.draw(shape);
+        }
+    }
+
+    @Override
+    public void text(String text, double x, double y, Font font, Color color) {
+        graphics.setFont(font);
+        graphics.setColor(color);
+        graphics.drawString(text, (float) x, (float) y);
+    }
+
+    @Override
+    public void polyline(double[] points, Color stroke, double strokeWidth, boolean dashed) {
+        graphics.setColor(stroke);
+        graphics.setStroke(dashed
+                ? new BasicStroke((float) strokeWidth, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10f, DASH, 0f)
+                : new BasicStroke((float) strokeWidth));
+        graphics.draw(toPath(points, false));
+    }
+
+    @Override
+    public void polygon(double[] points, Color fill, Color stroke, double strokeWidth) {
+        Path2D.Double shape = toPath(points, true);
+        if (fill != null) {
+            graphics.setColor(fill);
+            graphics.fill(shape);
+        }
+        if (stroke != null) {
+            graphics.setColor(stroke);
+            graphics.setStroke(new BasicStroke((float) strokeWidth));
+            graphics.draw(shape);
+        }
+    }
+
+    private static Path2D.Double toPath(double[] points, boolean closed) {
+        Path2D.Double path = new Path2D.Double();
+        path.moveTo(points[0], points[1]);
+        for (int i = 2; i + 1 < points.length; i += 2) {
+            path.lineTo(points[i], points[i + 1]);
+        }
+        if (closed) {
+            path.closePath();
+        }
+        return path;
+    }
+}
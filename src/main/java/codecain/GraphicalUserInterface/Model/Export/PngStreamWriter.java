@@ -0,0 +1,179 @@
+package codecain.GraphicalUserInterface.Model.Export;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Encodes a PNG image row by row, so an image never has to be held in memory as a whole.
+ * Rows are compressed as they arrive and written out in IDAT chunks of {@link #CHUNK_SIZE} bytes.
+ * <p>
+ * The image is written as 8-bit RGB without transparency, with the PNG "Sub" filter on every row,
+ * which suits diagrams made of large flat areas. Exactly {@code height} rows must be written before
+ * the writer is closed.
+ * </p>
+ */
+public class PngStreamWriter implements Closeable {
+
+    /**
+     * Largest amount of compressed data written in one IDAT chunk.
+     */
+    public static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int BYTES_PER_PIXEL = 3;
+    private static final byte FILTER_SUB = 1;
+
+    private final DataOutputStream out;
+    private final int width;
+    private final int height;
+    private final byte[] row;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private final DeflaterOutputStream compressed;
+    private int rowsWritten;
+    private boolean closed;
+
+    /**
+     * Starts a PNG image and writes its header.
+     *
+     * @param out    the stream to write the image to; it is closed when this writer is closed
+     * @param width  the image width in pixels
+     * @param height the image height in pixels
+     * @throws IOException if the header cannot be written
+     */
+    public PngStreamWriter(OutputStream out, int width, int height) throws IOException {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Image size must be positive: " + width + "x" + height);
+        }
+        this.out = new DataOutputStream(out);
+        this.width = width;
+        this.height = height;
+        this.row = new byte[1 + width * BYTES_PER_PIXEL];
+        this.compressed = new DeflaterOutputStream(new ChunkOutputStream(), deflater, CHUNK_SIZE);
+
+        this.out.write(SIGNATURE);
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream headerData = new DataOutputStream(header);
+        headerData.writeInt(width);
+        headerData.writeInt(height);
+        headerData.writeByte(8);  // bit depth
+        headerData.writeByte(2);  // color type: RGB
+        headerData.writeByte(0);  // compression: deflate
+        headerData.writeByte(0);  // filter method: adaptive
+        headerData.writeByte(0);  // no interlacing
+        writeChunk("IHDR", header.toByteArray(), 0, header.size());
+    }
+
+    /**
+     * Writes the next rows of the image from the top of a strip.
+     *
+     * @param strip an image of type {@link BufferedImage#TYPE_INT_RGB} exactly as wide as the PNG
+     * @param rows  how many rows to take from the top of the strip
+     * @throws IOException if the rows cannot be written
+     */
+    public void writeRows(BufferedImage strip, int rows) throws IOException {
+        if (strip.getType() != BufferedImage.TYPE_INT_RGB || strip.getWidth() != width) {
+            throw new IllegalArgumentException("Strip must be a TYPE_INT_RGB image " + width + " pixels wide");
+        }
+        if (rows > strip.getHeight() || rowsWritten + rows > height) {
+            throw new IllegalArgumentException("Too many rows: " + (rowsWritten + rows) + " of " + height);
+        }
+        int[] pixels = ((DataBufferInt) strip.getRaster().getDataBuffer()).getData();
+        for (int y = 0; y < rows; y++) {
+            encodeRow(pixels, y * width);
+            compressed.write(row);
+        }
+        rowsWritten += rows;
+    }
+
+    /**
+     * Gets how many rows have been written so far.
+     *
+     * @return the number of rows written
+     */
+    public int getRowsWritten() {
+        return rowsWritten;
+    }
+
+    /**
+     * Finishes the image and closes the underlying stream.
+     *
+     * @throws IOException           if the image cannot be finished
+     * @throws IllegalStateException if fewer rows than the image height were written
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (rowsWritten != height) {
+                throw new IllegalStateException("Only " + rowsWritten + " of " + height + " rows were written");
+            }
+            compressed.finish();
+            writeChunk("IEND", new byte[0], 0, 0);
+            out.flush();
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+
+    /**
+     * Converts one row of pixels to filtered RGB bytes, each byte stored as its difference from the
+     * same color of the pixel to its left.
+     */
+    private void encodeRow(int[] pixels, int offset) {
+        row[0] = FILTER_SUB;
+        int left = 0;
+        int i = 1;
+        for (int x = 0; x < width; x++) {
+            int pixel = pixels[offset + x];
+            row[i++] = (byte) ((pixel >> 16) - (left >> 16));
+            row[i++] = (byte) ((pixel >> 8) - (left >> 8));
+            row[i++] = (byte) (pixel - left);
+            left = pixel;
+        }
+    }
+
+    private void writeChunk(String type, byte[] data, int offset, int length) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        crc.update(typeBytes);
+        crc.update(data, offset, length);
+        out.writeInt(length);
+        out.write(typeBytes);
+        out.write(data, offset, length);
+        out.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Receives compressed data and writes it as IDAT chunks.
+     */
+    private class ChunkOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int length) throws IOException {
+            while (length > 0) {
+                int size = Math.min(length, CHUNK_SIZE);
+                writeChunk("IDAT", data, offset, size);
+                offset += size;
+                length -= size;
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package codecain.GraphicalUserInterface.Model.Export;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.geom.Rectangle2D;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Writes a diagram as SVG, one element per shape, straight to a {@link Writer}.
+ * Nothing is kept in memory besides the writer's own buffer, so memory use does not depend on the
+ * size of the drawing and the file size only grows with the number of classes and relationships.
+ * <p>
+ * The SVG header is written when the canvas is created and the closing tag when it is closed;
+ * closing the canvas does not close the writer.
+ * </p>
+ */
+public class SvgCanvas implements DiagramCanvas, Closeable {
+
+    private final Writer writer;
+    private boolean closed;
+
+    /**
+     * Creates a canvas and writes the SVG header for a drawing covering the given area.
+     *
+     * @param writer the writer to write SVG to
+     * @param bounds the area of the diagram to show, in diagram coordinates
+     * @throws IOException if the header cannot be written
+     */
+    public SvgCanvas(Writer writer, Rectangle2D bounds) throws IOException {
+        this.writer = writer;
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        writer.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + number(bounds.getWidth())
+                + "\" height=\"" + number(bounds.getHeight()) + "\" viewBox=\""
+                + number(bounds.getX()) + " " + number(bounds.getY()) + " "
+                + number(bounds.getWidth()) + " " + number(bounds.getHeight()) + "\">\n");
+        writer.write("<rect x=\"" + number(bounds.getX()) + "\" y=\"" + number(bounds.getY())
+                + "\" width=\"100%\" height=\"100%\" fill=\"#ffffff\"/>\n");
+    }
+
+    @Override
+    public void rect(double x, double y, double width, double height, Color fill, Color stroke, double strokeWidth) {
+        write("<rect x=\"" + number(x) + "\" y=\"" + number(y) + "\" width=\"" + number(width)
+                + "\" height=\"" + number(height) + "\"" + paint(fill, stroke, strokeWidth) + "/>\n");
+    }
+
+    @Override
+    public void text(String text, double x, double y, Font font, Color color) {
+        write("<text x=\"" + number(x) + "\" y=\"" + number(y) + "\" font-family=\"" + fontFamily(font)
+                + "\" font-size=\"" + font.getSize() + "\"" + (font.isBold() ? " font-weight=\"bold\"" : "")
+                + " fill=\"" + hex(color) + "\" xml:space=\"preserve\">" + escape(text) + "</text>\n");
+    }
+
+    @Override
+    public void polyline(double[] points, Color stroke, double strokeWidth, boolean dashed) {
+        write("<polyline points=\"" + points(points) + "\"" + paint(null, stroke, strokeWidth)
+                + (dashed ? " stroke-dasharray=\"10 10\"" : "") + "/>\n");
+    }
+
+    @Override
+    public void polygon(double[] points, Color fill, Color stroke, double strokeWidth) {
+        write("<polygon points=\"" + points(points) + "\"" + paint(fill, stroke, strokeWidth) + "/>\n");
+    }
+
+    /**
+     * Writes the closing tag and flushes the writer. Does nothing if already closed.
+     *
+     * @throws IOException if the writer fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            writer.write("</svg>\n");
+            writer.flush();
+        }
+    }
+
+    private void write(String element) {
+        try {
+            writer.write(element);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String paint(Color fill, Color stroke, double strokeWidth) {
+        String paint = " fill=\"" + (fill == null ? "none" : hex(fill)) + "\"";
+        if (stroke != null) {
+            paint += " stroke=\"" + hex(stroke) + "\" stroke-width=\"" + number(strokeWidth) + "\"";
+        }
+        return paint;
+    }
+
+    private static String points(double[] points) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i + 1 < points.length; i += 2) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(number(points[i])).append(',').append(number(points[i + 1]));
+        }
+        return builder.toString();
+    }
+
+    private static String fontFamily(Font font) {
+        String name = font.getName();
+        return Font.SANS_SERIF.equals(name) || Font.DIALOG.equals(name) ? "sans-serif" : escape(name);
+    }
+
+    private static String hex(Color color) {
+        return String.format("#%02x%02x%02x", color.getRed(), color.getGreen(), color.getBlue());
+    }
+
+    /**
+     * Formats a coordinate with at most two decimals and without a trailing ".0".
+     */
+    private static String number(double value) {
+        if (value == Math.rint(value)) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    private static String escape(String text) {
+        StringBuilder builder = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            switch (c) {
+                case '<' -> builder.append("&lt;");
+                case '>' -> builder.append("&gt;");
+                case '&' -> builder.append("&amp;");
+                case '"' -> builder.append("&quot;");
+                default -> builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -8,8 +8,8 @@ import codecain.BackendCode.Model.UMLFieldInfo;
 import codecain.BackendCode.Model.UMLFields;
 import codecain.GraphicalUserInterface.View.AlertHelper;
 import codecain.GraphicalUserInterface.View.ClassNode;
+import codecain.GraphicalUserInterface.View.ClassNodeVirtualizer;
 import codecain.GraphicalUserInterface.View.DialogUtils;
-import javafx.scene.Node;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.Dialog;
@@ -76,15 +76,10 @@ public class FieldManager {
 			UMLFields fieldManager = new UMLFields();
 			fieldManager.addField(className, fieldType, fieldName);
 
-			for (Node node : nodeContainer.getChildren()) {
-				if (node instanceof ClassNode) {
-					ClassNode classNode = (ClassNode) node;
-					if (classNode.getName().equals(className)) {
-						UMLFieldInfo newField = new UMLFieldInfo(fieldType, fieldName);
-						classNode.addField(newField);
-						break;
-					}
-				}
+			ClassNode classNode = ClassNodeVirtualizer.findClassNode(nodeContainer, className);
+			if (classNode != null) {
+				UMLFieldInfo newField = new UMLFieldInfo(fieldType, fieldName);
+				classNode.addField(newField);
 			}
 		}
 	}
@@ -116,13 +111,7 @@ public class FieldManager {
 				AlertHelper.showAlert(Alert.AlertType.ERROR, "Error", "All fields are required", "Field not deleted.");
 				return;
 			}
-			ClassNode targetClassNode = null;
-			for (Node classNode : nodeContainer.getChildren()) {
-				if (classNode instanceof ClassNode && ((ClassNode) classNode).getName().equals(className)) {
-					targetClassNode = (ClassNode) classNode;
-					break;
-				}
-			}
+			ClassNode targetClassNode = ClassNodeVirtualizer.findClassNode(nodeContainer, className);
 			if (targetClassNode == null) {
 				AlertHelper.showAlert(Alert.AlertType.ERROR, "Error", "Class Not Found",
 						"Class '" + className + "' does not exist.");
@@ -175,13 +164,7 @@ public class FieldManager {
 			}
 
 			// Find the target class node
-			ClassNode targetClassNode = null;
-			for (Node classNode : nodeContainer.getChildren()) {
-				if (classNode instanceof ClassNode && ((ClassNode) classNode).getName().equals(className)) {
-					targetClassNode = (ClassNode) classNode;
-					break;
-				}
-			}
+			ClassNode targetClassNode = ClassNodeVirtualizer.findClassNode(nodeContainer, className);
 
 			if (targetClassNode == null) {
 				AlertHelper.showAlert(Alert.AlertType.ERROR, "Error", "Class Not Found",
@@ -11,8 +11,8 @@ import codecain.BackendCode.Model.UMLMethods;
 import codecain.BackendCode.Model.UMLParameterInfo;
 import codecain.GraphicalUserInterface.View.AlertHelper;
 import codecain.GraphicalUserInterface.View.ClassNode;
+import codecain.GraphicalUserInterface.View.ClassNodeVirtualizer;
 import codecain.GraphicalUserInterface.View.DialogUtils;
-import javafx.scene.Node;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.ButtonType;
@@ -62,17 +62,12 @@ public class MethodManager {
 			}
 
 			methodManager.addMethod(className, methodName, parameters);
-			for (Node node : nodeContainer.getChildren()) {
-				if (node instanceof ClassNode) {
-					ClassNode classNode = (ClassNode) node;
-					if (classNode.getName().equals(className)) {
-						UMLMethodInfo newMethod = new UMLMethodInfo(methodName, parameters);
-						classNode.addMethod(newMethod); // Add method to the UI component
-						AlertHelper.showAlert(AlertType.INFORMATION, "Success", "Method Added",
-								"Method '" + methodName + "' added to class '" + className + "'.");
-						break;
-					}
-				}
+			ClassNode classNode = ClassNodeVirtualizer.findClassNode(nodeContainer, className);
+			if (classNode != null) {
+				UMLMethodInfo newMethod = new UMLMethodInfo(methodName, parameters);
+				classNode.addMethod(newMethod); // Add method to the UI component
+				AlertHelper.showAlert(AlertType.INFORMATION, "Success", "Method Added",
+						"Method '" + methodName + "' added to class '" + className + "'.");
 			}
 		}
 	}
@@ -99,13 +94,7 @@ public class MethodManager {
 				return;
 			}
 
-			ClassNode targetClassNode = null;
-			for (Node classNode : nodeContainer.getChildren()) {
-				if (classNode instanceof ClassNode && ((ClassNode) classNode).getName().equals(className)) {
-					targetClassNode = (ClassNode) classNode;
-					break;
-				}
-			}
+			ClassNode targetClassNode = ClassNodeVirtualizer.findClassNode(nodeContainer, className);
 			if (targetClassNode == null) {
 				AlertHelper.showAlert(Alert.AlertType.ERROR, "Error", "Class Not Found",
 						"Class '" + className + "' does not exist.");
@@ -148,13 +137,7 @@ public class MethodManager {
 				return;
 			}
 
-			ClassNode targetClassNode = null;
-			for (Node classNode : nodeContainer.getChildren()) {
-				if (classNode instanceof ClassNode && ((ClassNode) classNode).getName().equals(className)) {
-					targetClassNode = (ClassNode) classNode;
-					break;
-				}
-			}
+			ClassNode targetClassNode = ClassNodeVirtualizer.findClassNode(nodeContainer, className);
 
 			if (targetClassNode == null) {
 				AlertHelper.showAlert(Alert.AlertType.ERROR, "Error", "Class Not Found",
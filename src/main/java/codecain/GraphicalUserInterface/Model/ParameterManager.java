@@ -11,7 +11,7 @@ import codecain.BackendCode.Model.UMLMethods;
 import codecain.BackendCode.Model.UMLParameterInfo;
 import codecain.GraphicalUserInterface.View.AlertHelper;
 import codecain.GraphicalUserInterface.View.ClassNode;
-import javafx.scene.Node;
+import codecain.GraphicalUserInterface.View.ClassNodeVirtualizer;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.ButtonType;
@@ -113,17 +113,12 @@ public class ParameterManager {
 			methodManager.addParameter(className, methodName, parameterType, parameterName);
 
 			// Update the UI
-			for (Node node : nodeContainer.getChildren()) {
-				if (node instanceof ClassNode) {
-					ClassNode classNode = (ClassNode) node;
-					if (classNode.getName().equals(className)) {
-						classNode.updateMethod(methodInfo); // Update the specific method in the UI
-						AlertHelper.showAlert(Alert.AlertType.INFORMATION, "Success", "Parameter Added",
-								"Parameter '" + parameterName + "' added to method '" + methodName + "' in class '"
-										+ className + "'.");
-						break;
-					}
-				}
+			ClassNode classNode = ClassNodeVirtualizer.findClassNode(nodeContainer, className);
+			if (classNode != null) {
+				classNode.updateMethod(methodInfo); // Update the specific method in the UI
+				AlertHelper.showAlert(Alert.AlertType.INFORMATION, "Success", "Parameter Added",
+						"Parameter '" + parameterName + "' added to method '" + methodName + "' in class '"
+								+ className + "'.");
 			}
 		}
 	}
@@ -195,17 +190,13 @@ public class ParameterManager {
 			methodManager.removeParameter(className, methodName, parameterName);
 
 			// Update the GUI
-			for (Node node : nodeContainer.getChildren()) {
-				if (node instanceof ClassNode) {
-					ClassNode classNode = (ClassNode) node;
-					if (classNode.getName().equals(className)) {
-						classNode.updateMethod(methodInfo); // Update the method in the GUI
-						AlertHelper.showAlert(Alert.AlertType.INFORMATION, "Success", "Parameter Deleted",
-								"Parameter '" + parameterName + "' deleted from method '" + methodName + "' in class '"
-										+ className + "'.");
-						return;
-					}
-				}
+			ClassNode classNode = ClassNodeVirtualizer.findClassNode(nodeContainer, className);
+			if (classNode != null) {
+				classNode.updateMethod(methodInfo); // Update the method in the GUI
+				AlertHelper.showAlert(Alert.AlertType.INFORMATION, "Success", "Parameter Deleted",
+						"Parameter '" + parameterName + "' deleted from method '" + methodName + "' in class '"
+								+ className + "'.");
+				return;
 			}
 
 			AlertHelper.showAlert(Alert.AlertType.ERROR, "Error", "GUI Update Failed",
@@ -283,18 +274,14 @@ public class ParameterManager {
 					newParameterName); // TODO: Bug when input is invalid
 
 			// Update the UI
-			for (Node node : nodeContainer.getChildren()) {
-				if (node instanceof ClassNode) {
-					ClassNode classNode = (ClassNode) node;
-					if (classNode.getName().equals(className)) {
-						classNode.updateMethod(methodInfo); // Update the specific method in the UI
-						AlertHelper.showAlert(Alert.AlertType.INFORMATION, "Success", "Parameter Changed",
-								"Parameter '" + oldParameterName + "' updated to '" + newParameterName + "' with type '"
-										+ newParameterType +
-										"' in method '" + methodName + "' of class '" + className + "'.");
-						return;
-					}
-				}
+			ClassNode classNode = ClassNodeVirtualizer.findClassNode(nodeContainer, className);
+			if (classNode != null) {
+				classNode.updateMethod(methodInfo); // Update the specific method in the UI
+				AlertHelper.showAlert(Alert.AlertType.INFORMATION, "Success", "Parameter Changed",
+						"Parameter '" + oldParameterName + "' updated to '" + newParameterName + "' with type '"
+								+ newParameterType +
+								"' in method '" + methodName + "' of class '" + className + "'.");
+				return;
 			}
 
 			AlertHelper.showAlert(Alert.AlertType.ERROR, "Error", "GUI Update Failed",
@@ -369,19 +356,14 @@ public class ParameterManager {
 			UMLMethods methodManager = new UMLMethods();
 			methodManager.changeAllParameters(className, methodName, newParameters);
 
-			for (Node node : nodeContainer.getChildren()) {
-				if (node instanceof ClassNode) {
-					ClassNode classNode = (ClassNode) node;
-					if (classNode.getName().equals(className)) {
-						methodInfo.getParameters().clear();
-						methodInfo.getParameters().addAll(newParameters);
-						classNode.updateMethod(methodInfo); // Update the specific method in the UI
-						AlertHelper.showAlert(AlertType.INFORMATION, "Success", "Parameters Changed",
-								"All parameters replaced for method '" + methodName + "' in class '" + className
-										+ "'.");
-						break;
-					}
-				}
+			ClassNode classNode = ClassNodeVirtualizer.findClassNode(nodeContainer, className);
+			if (classNode != null) {
+				methodInfo.getParameters().clear();
+				methodInfo.getParameters().addAll(newParameters);
+				classNode.updateMethod(methodInfo); // Update the specific method in the UI
+				AlertHelper.showAlert(AlertType.INFORMATION, "Success", "Parameters Changed",
+						"All parameters replaced for method '" + methodName + "' in class '" + className
+								+ "'.");
 			}
 		}
 	}
@@ -9,7 +9,6 @@ import codecain.BackendCode.Model.RelationshipType;
 import codecain.BackendCode.Model.UMLClass;
 import codecain.GraphicalUserInterface.Controller.Controller;
 import codecain.GraphicalUserInterface.Controller.RelationshipLines.GridManager;
-import codecain.GraphicalUserInterface.View.ClassNode;
 import javafx.scene.control.ChoiceDialog;
 import javafx.scene.control.TextInputDialog;
 
@@ -53,7 +52,7 @@ public class RelationshipManager {
             return;
         }
         String source = sourceResult.get();
-        if (!UMLClass.classMap.containsKey(source)){
+        if (!UMLClass.getClassMap().containsKey(source)){
             showErrorDialog("Source class does not exist");
             return;
         }
@@ -69,7 +68,7 @@ public class RelationshipManager {
             return;
         }
         String destination = destinationResult.get();
-        if (!UMLClass.classMap.containsKey(destination)){
+        if (!UMLClass.getClassMap().containsKey(destination)){
             showErrorDialog("Destination class does not exist");
             return;
         }
@@ -91,8 +90,6 @@ public class RelationshipManager {
     if (Relationship.addRelationship(source, destination, type)) {
         System.out.println("Relationship added successfully.");
 
-        ClassNode sourceNode = controller.findClassNode(source);
-        ClassNode destNode = controller.findClassNode(destination);
         GridManager.getInstance();
         GridManager.updateRelationshipPaths();
 
@@ -120,7 +117,7 @@ public class RelationshipManager {
             return;
         }
         String source = sourceResult.get();
-        if (!UMLClass.classMap.containsKey(source)){
+        if (!UMLClass.getClassMap().containsKey(source)){
             showErrorDialog("Source class does not exist");
             return;
         }
@@ -136,7 +133,7 @@ public class RelationshipManager {
             return;
         }
         String destination = destinationResult.get();
-        if (!UMLClass.classMap.containsKey(destination)){
+        if (!UMLClass.getClassMap().containsKey(destination)){
             showErrorDialog("Destination class does not exist");
             return;
         }
@@ -19,6 +19,12 @@ public class ShortcutManager {
 	private static final KeyCode DELETE_CLASS_KEY = KeyCode.DELETE;
 	private static final KeyCode DELETE_CLASS_KEY_ALT = KeyCode.BACK_SPACE;
 	private static final KeyCode RENAME_CLASS_KEY = KeyCode.R;
+	private static final KeyCode QUICK_SAVE_KEY = KeyCode.S;
+	private static final KeyCode ZOOM_IN_KEY = KeyCode.EQUALS;
+	private static final KeyCode ZOOM_OUT_KEY = KeyCode.MINUS;
+	private static final KeyCode RESET_ZOOM_KEY = KeyCode.DIGIT0;
+	private static final KeyCode UNDO_KEY = KeyCode.Z;
+	private static final KeyCode REDO_KEY = KeyCode.Y;
 
 	public ShortcutManager(Scene scene, Controller controller) {
 		this.scene = scene;
@@ -32,6 +38,18 @@ public class ShortcutManager {
 		// Add shortcut for rename a class
 		addShortcut(getPlatformSpecificShortcut(RENAME_CLASS_KEY), controller::renameClassBtn);
 
+		// Add shortcut for saving to the current file
+		addShortcut(getPlatformSpecificShortcut(QUICK_SAVE_KEY), controller::quickSaveBtn);
+
+		// Add shortcuts for zooming the canvas
+		addShortcut(getPlatformSpecificShortcut(ZOOM_IN_KEY), controller::zoomInBtn);
+		addShortcut(getPlatformSpecificShortcut(ZOOM_OUT_KEY), controller::zoomOutBtn);
+		addShortcut(getPlatformSpecificShortcut(RESET_ZOOM_KEY), controller::resetZoomBtn);
+
+		// Add shortcuts for undo and redo
+		addShortcut(getPlatformSpecificShortcut(UNDO_KEY), controller::undoBtn);
+		addShortcut(getPlatformSpecificShortcut(REDO_KEY), controller::redoBtn);
+
 		// Initialize delete shortcut
 		initializeDeleteShortcut();
 
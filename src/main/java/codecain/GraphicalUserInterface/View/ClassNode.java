@@ -1,7 +1,11 @@
 package codecain.GraphicalUserInterface.View;
 
 import codecain.BackendCode.Model.*;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.ClassBounds;
+import javafx.collections.ListChangeListener;
+import javafx.geometry.Point2D;
 import javafx.geometry.Pos;
+import javafx.scene.Parent;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.TextFieldListCell;
 import javafx.scene.effect.DropShadow;
@@ -13,7 +17,7 @@ import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 
 import java.util.ArrayList;
-import javafx.scene.text.Text;
+import java.util.List;
 
 /**
  * Represents a visual node in the UML editor for a single UML class.
@@ -43,6 +47,23 @@ public class ClassNode extends VBox {
 
     private static final double MIN_LIST_VIEW_HEIGHT = 150;
 
+    /**
+     * Writes the node's position and members back to the class, and remembers which of them changed.
+     */
+    private final ClassNodeSync sync = new ClassNodeSync();
+
+    /**
+     * Whether the drag in progress has been recorded for undo.
+     */
+    private boolean dragRecorded = false;
+
+    /**
+     * The widest of this node's fields and methods, kept up to date as members are added and removed.
+     * Rows are measured like {@link ClassBounds#of} measures classes that have no node, so a box
+     * keeps its size when it is scrolled out of view and back.
+     */
+    private final MaxWidthTracker<Object> memberWidths = new MaxWidthTracker<>(item -> ClassBounds.textWidth(item.toString()));
+
     /**
      * Constructs a ClassNode instance for a specific UML class.
      *
@@ -68,14 +89,6 @@ public class ClassNode extends VBox {
         this.setPrefSize(MIN_WIDTH, MIN_HEIGHT);
         this.getChildren().addAll(this.classNameLabel, this.fields, this.methods);
 
-        // Adjust width dynamically based on the longest field or method
-        fields.getItems().addListener((javafx.collections.ListChangeListener<UMLFieldInfo>) change -> updateWidth());
-        methods.getItems().addListener((javafx.collections.ListChangeListener<UMLMethodInfo>) change -> updateWidth());
-
-        // Adjust height dynamically based on the total number of fields and methods
-        fields.getItems().addListener((javafx.collections.ListChangeListener<UMLFieldInfo>) change -> updateHeight());
-        methods.getItems().addListener((javafx.collections.ListChangeListener<UMLMethodInfo>) change -> updateHeight());
-
         // Configure the shadow effect
         shadowEffect.setRadius(10);
         shadowEffect.setOffsetX(5);
@@ -91,6 +104,7 @@ public class ClassNode extends VBox {
         // Draggable
         this.setOnMousePressed(this::onMousePressed);
         this.setOnMouseDragged(this::onMouseDragged);
+        this.setOnMouseReleased(this::onMouseReleased);
         this.classNameLabel.setOnMouseClicked(this::onLabelDoubleClick);
 
         this.configureKeyboardShortcuts();
@@ -106,11 +120,12 @@ public class ClassNode extends VBox {
         classInfo.getFields().forEach(field -> fields.getItems().add(field));
         classInfo.getMethods().forEach(method -> methods.getItems().add(method));
 
-        // Set listeners to update width and height dynamically
-        fields.getItems().addListener((javafx.collections.ListChangeListener<UMLFieldInfo>) change -> updateHeight());
-        fields.getItems().addListener((javafx.collections.ListChangeListener<UMLFieldInfo>) change -> updateWidth());
-        methods.getItems().addListener((javafx.collections.ListChangeListener<UMLMethodInfo>) change -> updateHeight());
-        methods.getItems().addListener((javafx.collections.ListChangeListener<UMLMethodInfo>) change -> updateWidth());
+        memberWidths.update(List.of(), fields.getItems());
+        memberWidths.update(List.of(), methods.getItems());
+
+        // Set listeners to update width and height dynamically; only the added and removed members are measured
+        fields.getItems().addListener((ListChangeListener<UMLFieldInfo>) this::onMembersChanged);
+        methods.getItems().addListener((ListChangeListener<UMLMethodInfo>) this::onMembersChanged);
 
         // Trigger height and width updates explicitly after loading data
         javafx.application.Platform.runLater(() -> {
@@ -197,17 +212,99 @@ public class ClassNode extends VBox {
 
     /**
      * Synchronizes the node's position, fields, and methods with the underlying
-     * {@link UMLClassInfo}.
+     * {@link UMLClassInfo}. The fields and methods are only compared and copied
+     * if they were changed since the last sync.
      */
     public void syncWithUMLClassInfo() {
-        classInfo.getFields().clear();
-        fields.getItems().forEach(fieldInfo -> classInfo.getFields().add(fieldInfo));
+        sync.sync(classInfo, this.getLayoutX(), this.getLayoutY(), fields.getItems(), methods.getItems());
+    }
 
-        classInfo.getMethods().clear();
-        methods.getItems().forEach(methodInfo -> classInfo.getMethods().add(methodInfo));
+    /**
+     * Synchronizes only the node's position with the underlying {@link UMLClassInfo}.
+     * This does not depend on the number of fields and methods, so it is cheap enough
+     * to run while the node is dragged.
+     */
+    public void syncPositionWithUMLClassInfo() {
+        sync.syncPosition(classInfo, this.getLayoutX(), this.getLayoutY());
+    }
 
-        classInfo.setX((int) this.getLayoutX());
-        classInfo.setY((int) this.getLayoutY());
+    /**
+     * Schedules a position sync for the next pass of the JavaFX event loop, so the many
+     * mouse events of one frame take the diagram's write lock once.
+     */
+    private void schedulePositionSync() {
+        if (sync.schedulePosition()) {
+            javafx.application.Platform.runLater(() -> {
+                if (sync.isPositionScheduled()) {
+                    syncPositionWithUMLClassInfo();
+                }
+            });
+        }
+    }
+
+    /**
+     * Updates the node from its {@link UMLClassInfo} after the class was changed elsewhere, for
+     * example through the command line or by a layout. Only what differs is touched, so a change
+     * the node made itself costs a comparison and nothing more. A position that is waiting to be
+     * synced from a drag is left alone.
+     */
+    public void reloadFromModel() {
+        if (!classNameLabel.getText().equals(classInfo.getClassName())) {
+            classNameLabel.setText(classInfo.getClassName());
+        }
+        if (!fields.getItems().equals(classInfo.getFields())) {
+            fields.getItems().setAll(classInfo.getFields());
+        }
+        if (!methods.getItems().equals(classInfo.getMethods())) {
+            methods.getItems().setAll(classInfo.getMethods());
+        }
+        sync.markMembersSynced();
+        if (!sync.isPositionScheduled()) {
+            if ((int) this.getLayoutX() != classInfo.getX()) {
+                this.setLayoutX(classInfo.getX());
+            }
+            if ((int) this.getLayoutY() != classInfo.getY()) {
+                this.setLayoutY(classInfo.getY());
+            }
+        }
+    }
+
+    /**
+     * Reuses this node for another class, so that a node scrolled out of view can show a class
+     * scrolled into view without building a new node. The node must not be in a container.
+     *
+     * @param classInfo The {@link UMLClassInfo} to show from now on.
+     */
+    public void bind(UMLClassInfo classInfo) {
+        this.classInfo = classInfo;
+        if (isSelected) {
+            deselect();
+        }
+        cancelClassNameEdit();
+        classNameLabel.setText(classInfo.getClassName());
+        fields.getItems().setAll(classInfo.getFields());
+        methods.getItems().setAll(classInfo.getMethods());
+        sync.reset(); // the lists were just copied from the class
+        this.setLayoutX(classInfo.getX());
+        this.setLayoutY(classInfo.getY());
+    }
+
+    /**
+     * Gets the class this node shows.
+     *
+     * @return the node's {@link UMLClassInfo}
+     */
+    public UMLClassInfo getClassInfo() {
+        return classInfo;
+    }
+
+    /**
+     * Gets the rectangle this node currently occupies in its container.
+     *
+     * @return the node's bounds
+     */
+    public ClassBounds getBounds() {
+        return new ClassBounds(getLayoutX(), getLayoutY(), getWidth(), getHeight());
     }
 
     /**
@@ -268,8 +365,18 @@ public class ClassNode extends VBox {
      * @param event The {@link MouseEvent} that triggered this action.
      */
     private void onMousePressed(MouseEvent event) {
-        mouseXOffset = event.getSceneX() - this.getLayoutX();
-        mouseYOffset = event.getSceneY() - this.getLayoutY();
+        Point2D pointer = pointerInParent(event);
+        mouseXOffset = pointer.getX() - this.getLayoutX();
+        mouseYOffset = pointer.getY() - this.getLayoutY();
+        dragRecorded = false;
+    }
+
+    /**
+     * Converts the mouse position to the coordinates of the parent container, so that dragging
+     * follows the pointer at any zoom level and scroll position.
+     */
+    private Point2D pointerInParent(MouseEvent event) {
+        return this.getParent().sceneToLocal(event.getSceneX(), event.getSceneY());
     }
 
     /**
@@ -279,8 +386,14 @@ public class ClassNode extends VBox {
      * @param event The {@link MouseEvent} that triggered this action.
      */
     private void onMouseDragged(MouseEvent event) {
-        double newX = event.getSceneX() - mouseXOffset;
-        double newY = event.getSceneY() - mouseYOffset;
+        if (!dragRecorded) {
+            // record where the class was, so the whole drag is undone in one step
+            dragRecorded = true;
+            Diagram.current().getStateManager().saveState();
+        }
+        Point2D pointer = pointerInParent(event);
+        double newX = pointer.getX() - mouseXOffset;
+        double newY = pointer.getY() - mouseYOffset;
 
         // Get pane's width and height from the parent (nodeContainer should be the
         // parent)
@@ -302,7 +415,18 @@ public class ClassNode extends VBox {
             ensureVisibleInScrollPane(scrollPane);
         }
 
-        syncWithUMLClassInfo();
+        schedulePositionSync();
+    }
+
+    /**
+     * Writes the final position of a drag to the {@link UMLClassInfo} right away.
+     *
+     * @param event The {@link MouseEvent} that triggered this action.
+     */
+    private void onMouseReleased(MouseEvent event) {
+        if (sync.isPositionScheduled()) {
+            syncPositionWithUMLClassInfo();
+        }
     }
 
     /**
@@ -312,11 +436,12 @@ public class ClassNode extends VBox {
      * @param scrollPane The {@link ScrollPane} containing the parent pane.
      */
     private void ensureVisibleInScrollPane(ScrollPane scrollPane) {
-        // Get the bounds of the ClassNode relative to the ScrollPane's content
-        double nodeMinX = this.getLayoutX();
-        double nodeMaxX = nodeMinX + this.getPrefWidth();
-        double nodeMinY = this.getLayoutY();
-        double nodeMaxY = nodeMinY + this.getPrefHeight();
+        // Get the bounds of the ClassNode relative to the ScrollPane's content, which is zoomed
+        double zoom = this.getParent().getLocalToParentTransform().getMxx();
+        double nodeMinX = this.getLayoutX() * zoom;
+        double nodeMaxX = nodeMinX + this.getPrefWidth() * zoom;
+        double nodeMinY = this.getLayoutY() * zoom;
+        double nodeMaxY = nodeMinY + this.getPrefHeight() * zoom;
 
         // Get the visible viewport dimensions
         double viewportWidth = scrollPane.getViewportBounds().getWidth();
@@ -358,11 +483,12 @@ public class ClassNode extends VBox {
      *         {@code null}.
      */
     private ScrollPane findScrollPane(Pane pane) {
-        while (pane != null) {
-            if (pane.getParent() instanceof ScrollPane) {
-                return (ScrollPane) pane.getParent();
+        Parent node = pane;
+        while (node != null) {
+            if (node.getParent() instanceof ScrollPane) {
+                return (ScrollPane) node.getParent();
             }
-            pane = (Pane) pane.getParent();
+            node = node.getParent();
         }
 
         return null;
@@ -554,9 +680,9 @@ public class ClassNode extends VBox {
      * accommodate
      * the longest text in the {@code fields} and {@code methods} {@link ListView}.
      * <p>
-     * The method calculates the maximum text width of items in both {@code fields}
-     * and {@code methods} by measuring their rendered width using the {@link Text}
-     * class.
+     * The maximum text width of the items in both {@code fields} and {@code methods}
+     * is kept by a {@link MaxWidthTracker}, which only measures the items that were
+     * added or removed, with the {@link TextMetricsCache} that {@link ClassBounds} sizes boxes with.
      * It then adjusts the preferred width of the {@code ClassNode} to be the
      * greater
      * of the calculated maximum width plus padding or a predefined minimum width.
@@ -567,28 +693,41 @@ public class ClassNode extends VBox {
      * </p>
      */
     private void updateWidth() {
-        // Calculate the widest text in fields
-        double maxFieldWidth = fields.getItems().stream()
-                .map(field -> new Text(field.toString()).getLayoutBounds().getWidth())
-                .max(Double::compare)
-                .orElse(0.0); // Default to 0 if no fields are present
-
-        // Calculate the widest text in methods
-        double maxMethodWidth = methods.getItems().stream()
-                .map(method -> new Text(method.toString()).getLayoutBounds().getWidth())
-                .max(Double::compare)
-                .orElse(0.0); // Default to 0 if no methods are present
-
-        // Determine the maximum width needed based on the longer text
-        double maxContentWidth = Math.max(maxFieldWidth, maxMethodWidth) + 50; // Add padding
+        // Determine the maximum width needed based on the longest text
+        double maxContentWidth = memberWidths.getMaxWidth() + ClassBounds.TEXT_PADDING; // Add padding
 
         // Ensure the width is at least MIN_WIDTH
         double finalWidth = Math.max(maxContentWidth, MIN_WIDTH);
 
         // Set the new preferred width for the ClassNode
         this.setPrefWidth(finalWidth);
+    }
 
-        System.out.println("Updated width to: " + finalWidth);
+    /**
+     * Measures the fields or methods that were added to or removed from a list and resizes the node.
+     *
+     * @param change the change to the {@code fields} or {@code methods} items
+     */
+    private void onMembersChanged(ListChangeListener.Change<?> change) {
+        sync.markMembersChanged();
+        while (change.next()) {
+            if (change.wasRemoved() || change.wasAdded()) {
+                memberWidths.update(change.getRemoved(), change.getAddedSubList());
+            }
+        }
+        updateWidth();
+        updateHeight();
+    }
+
+    /**
+     * Measures a field or method again after its text was changed in place, and resizes the node.
+     *
+     * @param member the field or method that was edited
+     */
+    private void remeasure(Object member) {
+        sync.markMembersChanged();
+        memberWidths.add(member);
+        updateWidth();
     }
 
     /**
@@ -618,10 +757,6 @@ public class ClassNode extends VBox {
         // Ensure the ClassNode height is at least the minimum height
         double finalHeight = Math.max(totalHeight, MIN_HEIGHT);
         this.setPrefHeight(finalHeight);
-
-        System.out.println("Updated ClassNode height: " + finalHeight);
-        System.out.println("Updated fields ListView height: " + calculatedFieldHeight);
-        System.out.println("Updated methods ListView height: " + calculatedMethodHeight);
     }
 
     /**
@@ -655,6 +790,7 @@ public class ClassNode extends VBox {
         // Update the method name in GUI
         methodToRename.setMethodName(newMethodName);
         methods.refresh(); // Refresh the ListView
+        remeasure(methodToRename);
 
         return true; // Renamed successfully
     }
@@ -754,9 +890,11 @@ public class ClassNode extends VBox {
         dialog.showAndWait().ifPresent(input -> {
             String[] parts = input.split(" ");
             if (parts.length == 2) {
+                Diagram.current().getStateManager().saveState();
                 field.setFieldType(parts[0]);
                 field.setFieldName(parts[1]);
                 fields.refresh();
+                remeasure(field);
                 syncWithUMLClassInfo();
             } else {
                 alert("Error", "Invalid field format. Use: type name");
@@ -774,8 +912,10 @@ public class ClassNode extends VBox {
         dialog.setContentText("Method:");
 
         dialog.showAndWait().ifPresent(input -> {
+            Diagram.current().getStateManager().saveState();
             method.setMethodName(input);
             methods.refresh();
+            remeasure(method);
             syncWithUMLClassInfo();
         });
     }
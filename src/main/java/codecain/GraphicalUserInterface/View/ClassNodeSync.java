@@ -0,0 +1,131 @@
+package codecain.GraphicalUserInterface.View;
+
+import codecain.BackendCode.Model.Diagram;
+import codecain.BackendCode.Model.UMLClassInfo;
+import codecain.BackendCode.Model.UMLFieldInfo;
+import codecain.BackendCode.Model.UMLMethodInfo;
+
+import java.util.List;
+
+/**
+ * Writes the position and members shown by a {@link ClassNode} back to its {@link UMLClassInfo}.
+ * <p>
+ * It remembers whether the members were edited since they were last synced, so syncing a node
+ * that was only dragged writes its position and leaves the members alone, and whether a drag
+ * has a position waiting to be synced.
+ * </p>
+ */
+public class ClassNodeSync {
+
+    /**
+     * Whether fields or methods were added, removed or edited since they were last synced to the class.
+     */
+    private boolean membersChanged = false;
+
+    /**
+     * Whether a drag has moved the node and its position is waiting to be synced to the class.
+     */
+    private boolean positionSyncScheduled = false;
+
+    /**
+     * Records that fields or methods were added, removed or edited on the node.
+     */
+    public void markMembersChanged() {
+        membersChanged = true;
+    }
+
+    /**
+     * Records that the node's members were just copied from the class, so they match it.
+     */
+    public void markMembersSynced() {
+        membersChanged = false;
+    }
+
+    /**
+     * Checks whether the members were edited since they were last synced.
+     *
+     * @return true if the members have to be written to the class
+     */
+    public boolean isMembersChanged() {
+        return membersChanged;
+    }
+
+    /**
+     * Records that a drag moved the node and a position sync is scheduled.
+     *
+     * @return true if no sync was scheduled yet, so the caller has to schedule one
+     */
+    public boolean schedulePosition() {
+        if (positionSyncScheduled) {
+            return false;
+        }
+        positionSyncScheduled = true;
+        return true;
+    }
+
+    /**
+     * Checks whether a drag has a position waiting to be synced.
+     *
+     * @return true if a position sync is scheduled
+     */
+    public boolean isPositionScheduled() {
+        return positionSyncScheduled;
+    }
+
+    /**
+     * Forgets any edits and scheduled syncs, for a node that is bound to another class.
+     */
+    public void reset() {
+        membersChanged = false;
+        positionSyncScheduled = false;
+    }
+
+    /**
+     * Writes the position to the class. This does not depend on the number of fields and
+     * methods, so it is cheap enough to run while the node is dragged.
+     *
+     * @param classInfo the class the node shows
+     * @param x         the node's x-coordinate
+     * @param y         the node's y-coordinate
+     */
+    public void syncPosition(UMLClassInfo classInfo, double x, double y) {
+        positionSyncScheduled = false;
+        Diagram.current().write(() -> writePosition(classInfo, x, y));
+    }
+
+    /**
+     * Writes the position to the class, and the fields and methods too if they were edited
+     * since the last sync.
+     *
+     * @param classInfo the class the node shows
+     * @param x         the node's x-coordinate
+     * @param y         the node's y-coordinate
+     * @param fields    the fields shown by the node
+     * @param methods   the methods shown by the node
+     */
+    public void sync(UMLClassInfo classInfo, double x, double y,
+                     List<UMLFieldInfo> fields, List<UMLMethodInfo> methods) {
+        Diagram.current().write(() -> {
+            if (membersChanged) {
+                membersChanged = false;
+                // Only replace the backend lists when they differ, so an unchanged class stays clean for incremental saves
+                if (!classInfo.getFields().equals(fields)) {
+                    classInfo.getFields().clear();
+                    fields.forEach(fieldInfo -> classInfo.getFields().add(fieldInfo));
+                }
+
+                if (!classInfo.getMethods().equals(methods)) {
+                    classInfo.getMethods().clear();
+                    methods.forEach(methodInfo -> classInfo.getMethods().add(methodInfo));
+                }
+            }
+
+            writePosition(classInfo, x, y);
+        });
+    }
+
+    private static void writePosition(UMLClassInfo classInfo, double x, double y) {
+        classInfo.setX((int) x);
+        classInfo.setY((int) y);
+    }
+}
@@ -0,0 +1,356 @@
+package codecain.GraphicalUserInterface.View;
+
+import codecain.BackendCode.Model.ModelEvent;
+import codecain.BackendCode.Model.UMLClass;
+import codecain.BackendCode.Model.UMLClassInfo;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.ClassBounds;
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.Pane;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps ClassNodes only for the classes that are in or near the visible part of the canvas.
+ * <p>
+ * A ClassNode is a full set of controls (label, text field, two list views, listeners), so building
+ * one for every class of a large model is slow and uses a lot of memory. Instead, classes within
+ * {@link #MARGIN} pixels of the ScrollPane's viewport get a live node and the others have none; their
+ * positions and members stay in the model, and relationship lines are still routed around them.
+ * When the user scrolls, nodes that leave the area are synced back to the model and reused for
+ * classes that enter it.
+ * </p>
+ * <p>
+ * Code that needs the node of a class, even one out of view, asks {@link #findClassNode(Pane, String)},
+ * which creates the node on demand.
+ * </p>
+ * <p>
+ * When the diagram is zoomed out below {@link LevelOfDetail#FULL_MIN_ZOOM}, no ClassNodes are kept
+ * at all; the boxes are drawn on a {@link ClassOverviewLayer} instead.
+ * </p>
+ */
+public class ClassNodeVirtualizer {
+
+    /**
+     * How far outside the viewport classes still get a node, so that scrolling a little does not
+     * immediately build new nodes.
+     */
+    public static final double MARGIN = 400;
+
+    /**
+     * Size assumed for the viewport before the ScrollPane has been laid out.
+     */
+    private static final Rectangle2D DEFAULT_VIEWPORT = new Rectangle2D(0, 0, 1000, 800);
+
+    /**
+     * Most nodes kept aside for reuse.
+     */
+    private static final int MAX_SPARE_NODES = 64;
+
+    /**
+     * The virtualizer of each node container, so that the managers, which only know the container,
+     * can find nodes.
+     */
+    private static final Map<Pane, ClassNodeVirtualizer> instances = new WeakHashMap<>();
+
+    private final Pane nodeContainer;
+    private final ScrollPane scrollPane;
+    private final Consumer<ClassNode> onCreate;
+    private final Map<UMLClassInfo, ClassNode> liveNodes = new IdentityHashMap<>();
+    private final Deque<ClassNode> spareNodes = new ArrayDeque<>();
+    private final ClassOverviewLayer overview;
+    private double zoom = 1;
+    private boolean refreshScheduled = false;
+
+    /**
+     * Creates a virtualizer for a node container inside a ScrollPane and refreshes it whenever the
+     * user scrolls or resizes the window.
+     *
+     * @param nodeContainer the pane the ClassNodes are placed in
+     * @param scrollPane    the ScrollPane showing the container, or null to show every class
+     * @param onCreate      called once for every new ClassNode, to add event handlers and listeners
+     */
+    public ClassNodeVirtualizer(Pane nodeContainer, ScrollPane scrollPane, Consumer<ClassNode> onCreate) {
+        this.nodeContainer = nodeContainer;
+        this.scrollPane = scrollPane;
+        this.onCreate = onCreate;
+        this.overview = new ClassOverviewLayer(nodeContainer);
+        synchronized (instances) {
+            instances.put(nodeContainer, this);
+        }
+        if (scrollPane != null) {
+            scrollPane.hvalueProperty().addListener((observable, oldValue, newValue) -> scheduleRefresh());
+            scrollPane.vvalueProperty().addListener((observable, oldValue, newValue) -> scheduleRefresh());
+            scrollPane.viewportBoundsProperty().addListener((observable, oldValue, newValue) -> scheduleRefresh());
+        }
+    }
+
+    /**
+     * Finds the node of a class in a container, creating it if the class is out of view.
+     *
+     * @param nodeContainer the container holding the class nodes
+     * @param className     the name of the class
+     * @return the class's node, or null if there is no such class
+     */
+    public static ClassNode findClassNode(Pane nodeContainer, String className) {
+        ClassNodeVirtualizer virtualizer;
+        synchronized (instances) {
+            virtualizer = instances.get(nodeContainer);
+        }
+        if (virtualizer != null) {
+            return virtualizer.materialize(className);
+        }
+        for (Node node : nodeContainer.getChildren()) {
+            if (node instanceof ClassNode classNode && classNode.getName().equals(className)) {
+                return classNode;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Refreshes the virtualizer of a container, if it has one, for example after a class was
+     * added or deleted.
+     *
+     * @param nodeContainer the container holding the class nodes
+     */
+    public static void refresh(Pane nodeContainer) {
+        ClassNodeVirtualizer virtualizer;
+        synchronized (instances) {
+            virtualizer = instances.get(nodeContainer);
+        }
+        if (virtualizer != null) {
+            virtualizer.refresh();
+        }
+    }
+
+    /**
+     * Gets the node of a class, creating it if the class is out of view.
+     * A node created this way is removed again by the next refresh if it is still out of view.
+     *
+     * @param className the name of the class
+     * @return the class's node, or null if there is no such class
+     */
+    public ClassNode materialize(String className) {
+        UMLClassInfo classInfo = UMLClass.getClassInfo(className);
+        if (classInfo == null) {
+            return null;
+        }
+        ClassNode node = liveNodes.get(classInfo);
+        return node != null ? node : show(classInfo);
+    }
+
+    /**
+     * Sets the zoom level the container is shown at, which decides both the visible area and
+     * whether classes get nodes or are drawn on the overview layer.
+     *
+     * @param zoom the zoom level, where 1 is actual size
+     */
+    public void setZoom(double zoom) {
+        if (zoom <= 0) {
+            throw new IllegalArgumentException("Zoom must be positive: " + zoom);
+        }
+        this.zoom = zoom;
+        scheduleRefresh();
+    }
+
+    /**
+     * Gets the level of detail classes are currently shown with.
+     *
+     * @return the level of detail for the current zoom
+     */
+    public LevelOfDetail getLevelOfDetail() {
+        return LevelOfDetail.forZoom(zoom);
+    }
+
+    /**
+     * Makes sure exactly the classes in or near the viewport have nodes.
+     * Nodes of classes that moved away or were deleted are synced to the model and set aside for
+     * reuse; the selected node is kept so the selection is not lost, unless its class was deleted.
+     */
+    public void refresh() {
+        refreshScheduled = false;
+        Rectangle2D area = visibleArea();
+        LevelOfDetail detail = getLevelOfDetail();
+        Set<UMLClassInfo> wanted = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (detail == LevelOfDetail.FULL) {
+            for (UMLClassInfo classInfo : UMLClass.getClassMap().values()) {
+                if (isInArea(classInfo, area)) {
+                    wanted.add(classInfo);
+                }
+            }
+        }
+
+        List<UMLClassInfo> leaving = new ArrayList<>();
+        for (Map.Entry<UMLClassInfo, ClassNode> entry : liveNodes.entrySet()) {
+            boolean keepSelected = entry.getValue().isSelected() && isInModel(entry.getKey());
+            if (!wanted.contains(entry.getKey()) && !keepSelected) {
+                leaving.add(entry.getKey());
+            }
+        }
+        for (UMLClassInfo classInfo : leaving) {
+            hide(classInfo);
+        }
+        for (UMLClassInfo classInfo : wanted) {
+            if (!liveNodes.containsKey(classInfo)) {
+                show(classInfo);
+            }
+        }
+
+        if (scrollPane != null) {
+            RelationshipLineLayer.forContainer(nodeContainer).setViewport(viewportArea(), zoom);
+        }
+        if (detail == LevelOfDetail.FULL || area == null) {
+            overview.hide();
+        } else {
+            List<UMLClassInfo> drawn = new ArrayList<>();
+            for (UMLClassInfo classInfo : UMLClass.getClassMap().values()) {
+                if (!liveNodes.containsKey(classInfo)) {
+                    drawn.add(classInfo);
+                }
+            }
+            overview.draw(drawn, area, zoom, detail);
+        }
+    }
+
+    /**
+     * Brings the nodes up to date with a batch of model changes. Nodes of changed classes reload
+     * what differs; classes that were added, removed, replaced or moved make the virtualizer check
+     * which classes need nodes at the next refresh. Nothing else is rebuilt.
+     *
+     * @param events the changes, as delivered by the diagram's event bus
+     */
+    public void onModelChanged(List<ModelEvent> events) {
+        boolean refreshNeeded = false;
+        for (ModelEvent event : events) {
+            switch (event.getKind()) {
+                case MEMBERS_CHANGED, POSITION_CHANGED, CLASS_RENAMED -> {
+                    UMLClassInfo classInfo = UMLClass.getClassInfo(event.getClassName());
+                    ClassNode node = classInfo == null ? null : liveNodes.get(classInfo);
+                    if (node != null) {
+                        node.reloadFromModel();
+                    }
+                    // the overview layer draws member counts, and moved classes may enter or leave the view
+                    refreshNeeded |= event.getKind() != ModelEvent.Kind.MEMBERS_CHANGED
+                            || getLevelOfDetail() != LevelOfDetail.FULL;
+                }
+                case CLASS_ADDED, CLASS_REMOVED, CLASS_REPLACED -> refreshNeeded = true;
+                default -> {
+                    // relationship lines are handled by the grid
+                }
+            }
+        }
+        if (refreshNeeded) {
+            scheduleRefresh();
+        }
+    }
+
+    /**
+     * Removes every node, for example before a different diagram is shown.
+     */
+    public void clear() {
+        nodeContainer.getChildren().removeAll(liveNodes.values());
+        liveNodes.clear();
+    }
+
+    /**
+     * Gets the nodes that currently exist.
+     *
+     * @return the live class nodes
+     */
+    public List<ClassNode> getLiveNodes() {
+        return new ArrayList<>(liveNodes.values());
+    }
+
+    private void scheduleRefresh() {
+        if (!refreshScheduled) {
+            refreshScheduled = true;
+            Platform.runLater(this::refresh);
+        }
+    }
+
+    private ClassNode show(UMLClassInfo classInfo) {
+        ClassNode node = spareNodes.poll();
+        if (node == null) {
+            node = new ClassNode(classInfo);
+            onCreate.accept(node);
+        } else {
+            node.bind(classInfo);
+        }
+        liveNodes.put(classInfo, node);
+        nodeContainer.getChildren().add(node);
+        return node;
+    }
+
+    private void hide(UMLClassInfo classInfo) {
+        ClassNode node = liveNodes.remove(classInfo);
+        if (isInModel(classInfo)) {
+            node.syncWithUMLClassInfo();
+        }
+        nodeContainer.getChildren().remove(node);
+        if (spareNodes.size() < MAX_SPARE_NODES) {
+            spareNodes.push(node);
+        }
+    }
+
+    private static boolean isInModel(UMLClassInfo classInfo) {
+        return UMLClass.getClassInfo(classInfo.getClassName()) == classInfo;
+    }
+
+    /**
+     * Gets the part of the container shown by the ScrollPane, grown by {@link #MARGIN} on every side,
+     * or null if every class should be shown.
+     */
+    private Rectangle2D visibleArea() {
+        if (scrollPane == null) {
+            return null;
+        }
+        Rectangle2D visible = viewportArea();
+        return new Rectangle2D(visible.getMinX() - MARGIN, visible.getMinY() - MARGIN,
+                visible.getWidth() + 2 * MARGIN, visible.getHeight() + 2 * MARGIN);
+    }
+
+    /**
+     * Gets the part of the container shown by the ScrollPane. The viewport is measured in zoomed
+     * pixels, so it is divided by the zoom to get container coordinates.
+     */
+    private Rectangle2D viewportArea() {
+        Bounds viewport = scrollPane.getViewportBounds();
+        return viewport.getWidth() > 0 && viewport.getHeight() > 0
+                // the viewport bounds are offset by minus the scroll position
+                ? new Rectangle2D(-viewport.getMinX() / zoom, -viewport.getMinY() / zoom,
+                        viewport.getWidth() / zoom, viewport.getHeight() / zoom)
+                : DEFAULT_VIEWPORT;
+    }
+
+    /**
+     * Checks whether a class's box reaches into an area. Most classes are decided from their position
+     * alone; only boxes that start above or left of the area are measured.
+     */
+    private static boolean isInArea(UMLClassInfo classInfo, Rectangle2D area) {
+        if (area == null) {
+            return true;
+        }
+        double x = classInfo.getX();
+        double y = classInfo.getY();
+        if (x >= area.getMaxX() || y >= area.getMaxY()) {
+            return false;
+        }
+        if (x + ClassBounds.MIN_WIDTH > area.getMinX() && y + ClassBounds.MIN_HEIGHT > area.getMinY()) {
+            return true;
+        }
+        return ClassBounds.of(classInfo).intersects(area.getMinX(), area.getMinY(), area.getWidth(), area.getHeight());
+    }
+}
@@ -0,0 +1,139 @@
+package codecain.GraphicalUserInterface.View;
+
+import codecain.BackendCode.Model.UMLClassInfo;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.ClassBounds;
+import javafx.geometry.Rectangle2D;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+import javafx.scene.transform.Scale;
+
+import java.util.Collection;
+
+/**
+ * Draws class boxes on a single canvas when the diagram is zoomed out too far for ClassNodes to be useful.
+ * <p>
+ * The canvas covers only the visible part of the node container and has one pixel per screen pixel:
+ * it is placed in the container at the visible area and scaled by the inverse of the zoom, so a zoomed
+ * out diagram of thousands of classes costs one bitmap the size of the window instead of thousands of
+ * nodes.
+ * </p>
+ */
+public class ClassOverviewLayer {
+
+    private static final Color BOX_FILL = Color.WHITE;
+    private static final Color BOX_BORDER = Color.BLACK;
+    private static final Color BLOCK_FILL = Color.web("#607d8b");
+    private static final Font NAME_FONT = Font.font("System", FontWeight.BOLD, 12);
+    private static final Font COUNT_FONT = Font.font("System", 11);
+
+    /**
+     * Boxes narrower or shorter than this many pixels are drawn without text.
+     */
+    private static final double MIN_TEXT_SIZE = 30;
+
+    private final Pane nodeContainer;
+    private final Canvas canvas = new Canvas();
+    private final Scale unzoom = new Scale(1, 1, 0, 0);
+
+    /**
+     * Creates an overview layer for a node container. The canvas is added to the container the first
+     * time something is drawn.
+     *
+     * @param nodeContainer the pane the class nodes are placed in
+     */
+    public ClassOverviewLayer(Pane nodeContainer) {
+        this.nodeContainer = nodeContainer;
+        canvas.setMouseTransparent(true);
+        canvas.setManaged(false);
+        canvas.getTransforms().add(unzoom);
+    }
+
+    /**
+     * Draws the boxes of the given classes over an area of the container.
+     *
+     * @param classes the classes to draw; classes outside the area are skipped
+     * @param area    the part of the container to cover, in container coordinates
+     * @param zoom    the current zoom level
+     * @param detail  {@link LevelOfDetail#OUTLINE} or {@link LevelOfDetail#BLOCK}
+     */
+    public void draw(Collection<UMLClassInfo> classes, Rectangle2D area, double zoom, LevelOfDetail detail) {
+        if (canvas.getParent() != nodeContainer) {
+            nodeContainer.getChildren().add(canvas);
+        }
+        canvas.setVisible(true);
+        canvas.setLayoutX(area.getMinX());
+        canvas.setLayoutY(area.getMinY());
+        canvas.setWidth(Math.ceil(area.getWidth() * zoom));
+        canvas.setHeight(Math.ceil(area.getHeight() * zoom));
+        unzoom.setX(1 / zoom);
+        unzoom.setY(1 / zoom);
+
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.TOP);
+        for (UMLClassInfo classInfo : classes) {
+            ClassBounds bounds = ClassBounds.of(classInfo);
+            if (!bounds.intersects(area.getMinX(), area.getMinY(), area.getWidth(), area.getHeight())) {
+                continue;
+            }
+            double x = (bounds.getX() - area.getMinX()) * zoom;
+            double y = (bounds.getY() - area.getMinY()) * zoom;
+            double width = bounds.getWidth() * zoom;
+            double height = bounds.getHeight() * zoom;
+            if (detail == LevelOfDetail.BLOCK) {
+                gc.setFill(BLOCK_FILL);
+                gc.fillRect(x, y, width, height);
+            } else {
+                drawOutline(gc, classInfo, x, y, width, height);
+            }
+        }
+    }
+
+    /**
+     * Hides the canvas, for example when the user zooms back in to full ClassNodes.
+     */
+    public void hide() {
+        canvas.setVisible(false);
+    }
+
+    /**
+     * Checks whether the canvas is currently shown.
+     *
+     * @return true if class boxes are drawn on the canvas
+     */
+    public boolean isShowing() {
+        return canvas.isVisible() && canvas.getParent() == nodeContainer;
+    }
+
+    private static void drawOutline(GraphicsContext gc, UMLClassInfo classInfo,
+                                    double x, double y, double width, double height) {
+        gc.setFill(BOX_FILL);
+        gc.fillRect(x, y, width, height);
+        gc.setStroke(BOX_BORDER);
+        gc.setLineWidth(1);
+        gc.strokeRect(x + 0.5, y + 0.5, width - 1, height - 1);
+        if (width < MIN_TEXT_SIZE || height < MIN_TEXT_SIZE) {
+            return;
+        }
+
+        double centerX = x + width / 2;
+        double maxTextWidth = width - 6;
+        gc.setFill(BOX_BORDER);
+        gc.setFont(NAME_FONT);
+        gc.fillText(classInfo.getClassName(), centerX, y + 4, maxTextWidth);
+        gc.setFont(COUNT_FONT);
+        gc.fillText(count(classInfo.getFields().size(), "field"), centerX, y + 20, maxTextWidth);
+        gc.fillText(count(classInfo.getMethods().size(), "method"), centerX, y + 34, maxTextWidth);
+    }
+
+    private static String count(int count, String noun) {
+        return count + " " + noun + (count == 1 ? "" : "s");
+    }
+}
@@ -0,0 +1,144 @@
+package codecain.GraphicalUserInterface.View;
+
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.input.ZoomEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.transform.Scale;
+
+/**
+ * Zooms the node container in and out.
+ * <p>
+ * The container is scaled with a transform; it must sit in a Group inside the ScrollPane so that
+ * the scroll range follows the scaled size. Ctrl + mouse wheel and pinch gestures zoom around the
+ * pointer, keeping the point under it in place. Every change is passed on to the
+ * {@link ClassNodeVirtualizer}, which picks the {@link LevelOfDetail} classes are drawn with.
+ * </p>
+ */
+public class DiagramZoom {
+
+    /**
+     * Smallest zoom level, at which a 6000 pixel canvas fits in 300 pixels.
+     */
+    public static final double MIN_ZOOM = 0.05;
+
+    /**
+     * Largest zoom level.
+     */
+    public static final double MAX_ZOOM = 2.0;
+
+    /**
+     * Factor one zoom step or mouse wheel notch changes the zoom by.
+     */
+    public static final double STEP = 1.25;
+
+    private final ScrollPane scrollPane;
+    private final Pane nodeContainer;
+    private final ClassNodeVirtualizer virtualizer;
+    private final Scale scale = new Scale(1, 1, 0, 0);
+
+    /**
+     * Sets up zooming for a node container and installs the mouse wheel and gesture handlers.
+     *
+     * @param scrollPane    the ScrollPane showing the container
+     * @param nodeContainer the pane the class nodes are placed in
+     * @param virtualizer   the virtualizer to tell about zoom changes
+     */
+    public DiagramZoom(ScrollPane scrollPane, Pane nodeContainer, ClassNodeVirtualizer virtualizer) {
+        this.scrollPane = scrollPane;
+        this.nodeContainer = nodeContainer;
+        this.virtualizer = virtualizer;
+        nodeContainer.getTransforms().add(scale);
+
+        scrollPane.addEventFilter(ScrollEvent.SCROLL, event -> {
+            if ((event.isControlDown() || event.isShortcutDown()) && event.getDeltaY() != 0) {
+                zoomAt(event.getDeltaY() > 0 ? STEP : 1 / STEP, event.getSceneX(), event.getSceneY());
+                event.consume();
+            }
+        });
+        scrollPane.addEventFilter(ZoomEvent.ZOOM, event -> {
+            zoomAt(event.getZoomFactor(), event.getSceneX(), event.getSceneY());
+            event.consume();
+        });
+    }
+
+    /**
+     * Gets the current zoom level.
+     *
+     * @return the zoom level, where 1 is actual size
+     */
+    public double getZoom() {
+        return scale.getX();
+    }
+
+    /**
+     * Zooms in one step around the middle of the view.
+     */
+    public void zoomIn() {
+        zoomAtCenter(STEP);
+    }
+
+    /**
+     * Zooms out one step around the middle of the view.
+     */
+    public void zoomOut() {
+        zoomAtCenter(1 / STEP);
+    }
+
+    /**
+     * Goes back to actual size, keeping the middle of the view in place.
+     */
+    public void reset() {
+        zoomAtCenter(1 / getZoom());
+    }
+
+    private void zoomAtCenter(double factor) {
+        Bounds viewport = scrollPane.getViewportBounds();
+        Point2D center = scrollPane.localToScene(scrollPane.getWidth() / 2, scrollPane.getHeight() / 2);
+        if (viewport.getWidth() <= 0 || center == null) {
+            setZoom(getZoom() * factor);
+            return;
+        }
+        zoomAt(factor, center.getX(), center.getY());
+    }
+
+    /**
+     * Multiplies the zoom by a factor and scrolls so that the container point under a scene position
+     * stays under it.
+     */
+    private void zoomAt(double factor, double sceneX, double sceneY) {
+        double oldZoom = getZoom();
+        double newZoom = clamp(oldZoom * factor, MIN_ZOOM, MAX_ZOOM);
+        if (newZoom == oldZoom) {
+            return;
+        }
+        Bounds viewport = scrollPane.getViewportBounds();
+        Point2D pivot = nodeContainer.sceneToLocal(sceneX, sceneY);
+        // where the pivot is inside the viewport, in screen pixels; the viewport's minimum is minus the scroll offset
+        double pointerX = pivot.getX() * oldZoom + viewport.getMinX();
+        double pointerY = pivot.getY() * oldZoom + viewport.getMinY();
+
+        setZoom(newZoom);
+
+        double contentWidth = nodeContainer.getWidth() * newZoom;
+        double contentHeight = nodeContainer.getHeight() * newZoom;
+        if (contentWidth > viewport.getWidth()) {
+            scrollPane.setHvalue(clamp((pivot.getX() * newZoom - pointerX) / (contentWidth - viewport.getWidth()), 0, 1));
+        }
+        if (contentHeight > viewport.getHeight()) {
+            scrollPane.setVvalue(clamp((pivot.getY() * newZoom - pointerY) / (contentHeight - viewport.getHeight()), 0, 1));
+        }
+    }
+
+    private void setZoom(double zoom) {
+        scale.setX(zoom);
+        scale.setY(zoom);
+        virtualizer.setZoom(zoom);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -65,7 +65,7 @@ public class GridVisualizer {
                 currentCell = grid.getCell(row, col);
                 double x = grid.getXcoord(col);
                 double y = grid.getYcoord(row);
-                if (currentCell.isOccupied()){
+                if (currentCell.isOccupied() || currentCell.getLines() != 0){
                     dots.add(drawDot(x,y));
                 }
                 else if (showSmallDots){
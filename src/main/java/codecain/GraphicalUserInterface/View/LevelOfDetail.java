@@ -0,0 +1,47 @@
+package codecain.GraphicalUserInterface.View;
+
+/**
+ * How much of each class box is drawn at a zoom level.
+ * Zoomed out, the fields and methods are too small to read, so building their list views is wasted
+ * work; the boxes are drawn more simply the further the user zooms out.
+ */
+public enum LevelOfDetail {
+
+    /**
+     * Full ClassNodes with their fields and methods, which can be edited.
+     */
+    FULL,
+
+    /**
+     * A box per class with its name and how many fields and methods it has, drawn on a canvas.
+     */
+    OUTLINE,
+
+    /**
+     * A filled rectangle per class, drawn on a canvas.
+     */
+    BLOCK;
+
+    /**
+     * Smallest zoom at which full ClassNodes are shown.
+     */
+    public static final double FULL_MIN_ZOOM = 0.5;
+
+    /**
+     * Smallest zoom at which class names are drawn.
+     */
+    public static final double OUTLINE_MIN_ZOOM = 0.2;
+
+    /**
+     * Gets the level of detail to draw class boxes with at a zoom level.
+     *
+     * @param zoom the zoom level, where 1 is actual size
+     * @return the level of detail for that zoom
+     */
+    public static LevelOfDetail forZoom(double zoom) {
+        if (zoom >= FULL_MIN_ZOOM) {
+            return FULL;
+        }
+        return zoom >= OUTLINE_MIN_ZOOM ? OUTLINE : BLOCK;
+    }
+}
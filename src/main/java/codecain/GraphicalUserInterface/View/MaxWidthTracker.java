@@ -0,0 +1,94 @@
+package codecain.GraphicalUserInterface.View;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Keeps track of the widest of a changing set of items, such as the fields and methods of a class box.
+ * <p>
+ * Adding or removing an item costs a logarithmic update instead of measuring every item again.
+ * Each item's width is recorded when it is added and used again when it is removed, so an item that
+ * was changed in place before its removal is still taken out correctly.
+ * </p>
+ *
+ * @param <T> the type of the items
+ */
+public class MaxWidthTracker<T> {
+
+    private final ToDoubleFunction<T> measure;
+    private final Map<T, Double> widthOf = new IdentityHashMap<>();
+    private final TreeMap<Double, Integer> counts = new TreeMap<>();
+
+    /**
+     * Creates an empty tracker.
+     *
+     * @param measure gets the width of an item
+     */
+    public MaxWidthTracker(ToDoubleFunction<T> measure) {
+        this.measure = measure;
+    }
+
+    /**
+     * Adds an item. Adding an item that is already tracked measures it again.
+     *
+     * @param item the item to add
+     */
+    public void add(T item) {
+        remove(item);
+        double width = measure.applyAsDouble(item);
+        widthOf.put(item, width);
+        counts.merge(width, 1, Integer::sum);
+    }
+
+    /**
+     * Removes an item, if it is tracked.
+     *
+     * @param item the item to remove
+     */
+    public void remove(T item) {
+        Double width = widthOf.remove(item);
+        if (width != null) {
+            counts.computeIfPresent(width, (key, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    /**
+     * Applies a change to a list: removes the items that left it and adds the ones that joined it.
+     *
+     * @param removed the items removed from the list
+     * @param added   the items added to the list
+     */
+    public void update(List<? extends T> removed, List<? extends T> added) {
+        removed.forEach(this::remove);
+        added.forEach(this::add);
+    }
+
+    /**
+     * Removes every item.
+     */
+    public void clear() {
+        widthOf.clear();
+        counts.clear();
+    }
+
+    /**
+     * Gets the width of the widest item.
+     *
+     * @return the largest width, or 0 if there are no items
+     */
+    public double getMaxWidth() {
+        return counts.isEmpty() ? 0 : counts.lastKey();
+    }
+
+    /**
+     * Gets how many items are tracked.
+     *
+     * @return the number of items
+     */
+    public int size() {
+        return widthOf.size();
+    }
+}
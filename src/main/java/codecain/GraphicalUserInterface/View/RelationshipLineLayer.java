@@ -0,0 +1,365 @@
+package codecain.GraphicalUserInterface.View;
+
+import codecain.BackendCode.Model.Relationship;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.StrokeLineJoin;
+import javafx.scene.transform.Scale;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * Draws the relationship lines and their markers of a node container on one canvas beneath the ClassNodes.
+ * <p>
+ * Keeping lines out of the scene graph means a grid update no longer removes and re-adds a Polyline and
+ * a Polygon per relationship, each of which made JavaFX redo CSS and layout over the container's children.
+ * When the lines change, only the area covered by the lines that actually moved is cleared and repainted.
+ * </p>
+ * <p>
+ * Like {@link ClassOverviewLayer}, the canvas covers the visible part of the container plus a margin,
+ * at one pixel per screen pixel. Scrolling within the margin costs nothing; scrolling past it or
+ * zooming moves the canvas and repaints it.
+ * </p>
+ */
+public class RelationshipLineLayer {
+
+    /**
+     * How far past the visible area the canvas reaches, in container coordinates.
+     */
+    public static final double MARGIN = 400;
+
+    /**
+     * Area covered before the virtualizer has reported the viewport.
+     */
+    private static final Rectangle2D DEFAULT_VIEWPORT = new Rectangle2D(0, 0, 1000, 800);
+
+    /**
+     * Most changed areas repainted one by one; with more, the whole canvas is repainted at once.
+     */
+    private static final int MAX_DIRTY_REGIONS = 32;
+
+    private static final double LINE_WIDTH = 3;
+    private static final double DASH_LENGTH = 10;
+
+    /**
+     * The layer of each node container, shared by the LineDrawer that fills it and the virtualizer
+     * that reports what is visible.
+     */
+    private static final Map<Pane, RelationshipLineLayer> layers = new WeakHashMap<>();
+
+    /**
+     * How one relationship is drawn: its line and the marker at its destination.
+     */
+    public static final class LineShape {
+        private final double[] points;
+        private final Color color;
+        private final boolean dashed;
+        private final double[] marker;
+        private final Color markerFill;
+        private final Color markerStroke;
+        private final Rectangle2D area;
+
+        /**
+         * Creates a line shape.
+         *
+         * @param points       x, y pairs of the line, in container coordinates
+         * @param color        the line color
+         * @param dashed       whether the line is dashed
+         * @param marker       x, y pairs of the marker polygon
+         * @param markerFill   the marker fill color, or null for none
+         * @param markerStroke the marker outline color, or null for none
+         */
+        public LineShape(double[] points, Color color, boolean dashed, double[] marker,
+                         Color markerFill, Color markerStroke) {
+            this.points = points;
+            this.color = color;
+            this.dashed = dashed;
+            this.marker = marker;
+            this.markerFill = markerFill;
+            this.markerStroke = markerStroke;
+            this.area = areaOf(points, marker);
+        }
+
+        /**
+         * Gets the area this shape paints, including the width of its strokes.
+         *
+         * @return the painted area, in container coordinates
+         */
+        public Rectangle2D getArea() {
+            return area;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof LineShape other)) {
+                return false;
+            }
+            return dashed == other.dashed && Arrays.equals(points, other.points) && Arrays.equals(marker, other.marker)
+                    && color.equals(other.color) && Objects.equals(markerFill, other.markerFill)
+                    && Objects.equals(markerStroke, other.markerStroke);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(points) + Arrays.hashCode(marker);
+        }
+
+        private static Rectangle2D areaOf(double[] points, double[] marker) {
+            double minX = Double.MAX_VALUE;
+            double minY = Double.MAX_VALUE;
+            double maxX = -Double.MAX_VALUE;
+            double maxY = -Double.MAX_VALUE;
+            for (double[] coordinates : new double[][] {points, marker}) {
+                for (int i = 0; i + 1 < coordinates.length; i += 2) {
+                    minX = Math.min(minX, coordinates[i]);
+                    minY = Math.min(minY, coordinates[i + 1]);
+                    maxX = Math.max(maxX, coordinates[i]);
+                    maxY = Math.max(maxY, coordinates[i + 1]);
+                }
+            }
+            if (minX > maxX) {
+                return Rectangle2D.EMPTY;
+            }
+            // strokes reach half their width past the points, and joins a little further
+            double reach = LINE_WIDTH * 2;
+            return new Rectangle2D(minX - reach, minY - reach, maxX - minX + 2 * reach, maxY - minY + 2 * reach);
+        }
+    }
+
+    private final Pane nodeContainer;
+    private Canvas canvas;
+    private Scale unzoom;
+    private Map<Relationship, LineShape> shapes = new HashMap<>();
+    private Rectangle2D visible = DEFAULT_VIEWPORT;
+    private Rectangle2D area;
+    private double zoom = 1;
+
+    private RelationshipLineLayer(Pane nodeContainer) {
+        this.nodeContainer = nodeContainer;
+    }
+
+    /**
+     * Gets the line layer of a node container, creating it the first time.
+     *
+     * @param nodeContainer the pane the class nodes are placed in
+     * @return the container's line layer
+     */
+    public static RelationshipLineLayer forContainer(Pane nodeContainer) {
+        synchronized (layers) {
+            return layers.computeIfAbsent(nodeContainer, RelationshipLineLayer::new);
+        }
+    }
+
+    /**
+     * Replaces the lines and repaints the area of the lines that were added, removed or changed.
+     *
+     * @param newShapes the shape of every relationship that has a routed line
+     */
+    public void setLines(Map<Relationship, LineShape> newShapes) {
+        List<Rectangle2D> dirty = new ArrayList<>();
+        for (Map.Entry<Relationship, LineShape> entry : shapes.entrySet()) {
+            LineShape replacement = newShapes.get(entry.getKey());
+            if (!entry.getValue().equals(replacement)) {
+                dirty.add(entry.getValue().getArea());
+                if (replacement != null) {
+                    dirty.add(replacement.getArea());
+                }
+            }
+        }
+        for (Map.Entry<Relationship, LineShape> entry : newShapes.entrySet()) {
+            if (!shapes.containsKey(entry.getKey())) {
+                dirty.add(entry.getValue().getArea());
+            }
+        }
+        shapes = new HashMap<>(newShapes);
+        repaintAll(dirty);
+    }
+
+    /**
+     * Replaces the lines of some relationships and removes others, leaving the rest as they are,
+     * and repaints the areas the affected lines covered before and after.
+     *
+     * @param changed the new shape of every relationship whose line was added or changed
+     * @param removed the relationships whose lines are gone
+     */
+    public void update(Map<Relationship, LineShape> changed, Collection<Relationship> removed) {
+        List<Rectangle2D> dirty = new ArrayList<>();
+        for (Relationship relationship : removed) {
+            LineShape old = shapes.remove(relationship);
+            if (old != null) {
+                dirty.add(old.getArea());
+            }
+        }
+        for (Map.Entry<Relationship, LineShape> entry : changed.entrySet()) {
+            LineShape old = shapes.put(entry.getKey(), entry.getValue());
+            if (old != null) {
+                dirty.add(old.getArea());
+            }
+            dirty.add(entry.getValue().getArea());
+        }
+        repaintAll(dirty);
+    }
+
+    /**
+     * Gets the shape of a relationship's line as it is painted.
+     *
+     * @param relationship the relationship
+     * @return the shape of its line, or null if it has none
+     */
+    public LineShape getShape(Relationship relationship) {
+        return shapes.get(relationship);
+    }
+
+    /**
+     * Tells the layer which part of the container is visible. The canvas only moves, and is only
+     * repainted, when the visible part leaves the area it covers or the zoom changes.
+     *
+     * @param visible the visible part of the container, in container coordinates
+     * @param zoom    the zoom level the container is shown at
+     */
+    public void setViewport(Rectangle2D visible, double zoom) {
+        boolean zoomChanged = zoom != this.zoom;
+        this.visible = visible;
+        this.zoom = zoom;
+        if (canvas == null) {
+            return;
+        }
+        if (zoomChanged || area == null || !contains(area, visible)) {
+            area = null;
+            ensureCanvas();
+            repaint(area);
+        }
+    }
+
+    /**
+     * Places the canvas over the visible area and puts it at the back of the container.
+     *
+     * @return true if the canvas was moved or resized and has to be repainted completely
+     */
+    private boolean ensureCanvas() {
+        if (canvas == null) {
+            canvas = new Canvas();
+            canvas.setMouseTransparent(true);
+            canvas.setManaged(false);
+            unzoom = new Scale(1, 1, 0, 0);
+            canvas.getTransforms().add(unzoom);
+        }
+        boolean moved = false;
+        if (canvas.getParent() != nodeContainer) {
+            // the container may have been cleared, for example when a diagram is loaded
+            nodeContainer.getChildren().add(0, canvas);
+            moved = true;
+        }
+        if (area == null) {
+            area = new Rectangle2D(visible.getMinX() - MARGIN, visible.getMinY() - MARGIN,
+                    visible.getWidth() + 2 * MARGIN, visible.getHeight() + 2 * MARGIN);
+            canvas.setLayoutX(area.getMinX());
+            canvas.setLayoutY(area.getMinY());
+            canvas.setWidth(Math.ceil(area.getWidth() * zoom));
+            canvas.setHeight(Math.ceil(area.getHeight() * zoom));
+            unzoom.setX(1 / zoom);
+            unzoom.setY(1 / zoom);
+            moved = true;
+        }
+        return moved;
+    }
+
+    /**
+     * Repaints changed areas, or the whole canvas if it moved or too many areas changed.
+     */
+    private void repaintAll(List<Rectangle2D> dirty) {
+        if (ensureCanvas() || dirty.size() > MAX_DIRTY_REGIONS) {
+            repaint(area);
+        } else {
+            for (Rectangle2D region : dirty) {
+                repaint(region);
+            }
+        }
+    }
+
+    /**
+     * Clears part of the canvas and redraws the lines that reach into it.
+     *
+     * @param region the part to repaint, in container coordinates
+     */
+    private void repaint(Rectangle2D region) {
+        if (region == Rectangle2D.EMPTY || !region.intersects(area)) {
+            return;
+        }
+        // grow by a pixel so antialiased edges at the border are repainted too
+        double pixel = 1 / zoom;
+        region = new Rectangle2D(region.getMinX() - pixel, region.getMinY() - pixel,
+                region.getWidth() + 2 * pixel, region.getHeight() + 2 * pixel);
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.save();
+        gc.setTransform(zoom, 0, 0, zoom, -area.getMinX() * zoom, -area.getMinY() * zoom);
+        gc.beginPath();
+        gc.rect(region.getMinX(), region.getMinY(), region.getWidth(), region.getHeight());
+        gc.clip();
+        gc.clearRect(region.getMinX(), region.getMinY(), region.getWidth(), region.getHeight());
+        gc.setLineJoin(StrokeLineJoin.MITER);
+        for (LineShape shape : shapes.values()) {
+            if (shape.getArea().intersects(region)) {
+                draw(gc, shape);
+            }
+        }
+        gc.restore();
+    }
+
+    private static void draw(GraphicsContext gc, LineShape shape) {
+        double[] points = shape.points;
+        gc.setStroke(shape.color);
+        gc.setLineWidth(LINE_WIDTH);
+        gc.setLineDashes(shape.dashed ? new double[] {DASH_LENGTH, DASH_LENGTH} : null);
+        gc.beginPath();
+        for (int i = 0; i + 1 < points.length; i += 2) {
+            if (i == 0) {
+                gc.moveTo(points[i], points[i + 1]);
+            } else {
+                gc.lineTo(points[i], points[i + 1]);
+            }
+        }
+        gc.stroke();
+
+        double[] marker = shape.marker;
+        if (marker.length == 0) {
+            return;
+        }
+        gc.setLineDashes(null);
+        gc.beginPath();
+        for (int i = 0; i + 1 < marker.length; i += 2) {
+            if (i == 0) {
+                gc.moveTo(marker[i], marker[i + 1]);
+            } else {
+                gc.lineTo(marker[i], marker[i + 1]);
+            }
+        }
+        gc.closePath();
+        if (shape.markerFill != null) {
+            gc.setFill(shape.markerFill);
+            gc.fill();
+        }
+        if (shape.markerStroke != null) {
+            gc.setStroke(shape.markerStroke);
+            gc.stroke();
+        }
+    }
+
+    private static boolean contains(Rectangle2D outer, Rectangle2D inner) {
+        return inner.getMinX() >= outer.getMinX() && inner.getMinY() >= outer.getMinY()
+                && inner.getMaxX() <= outer.getMaxX() && inner.getMaxY() <= outer.getMaxY();
+    }
+}
@@ -0,0 +1,69 @@
+package codecain.GraphicalUserInterface.View;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Remembers how wide strings are in a font, so each distinct field or method text is measured once.
+ * <p>
+ * Measuring text means laying out glyphs, which is slow next to a map lookup; class boxes are sized
+ * from the width of their widest member and are resized, routed and exported over and over with the
+ * same texts. There is one cache per font, shared by every caller; the caches are thread safe so
+ * parallel exports can use them. A cache that grows past {@link #MAX_ENTRIES} is emptied and refilled.
+ * </p>
+ */
+public final class TextMetricsCache {
+
+    /**
+     * Most widths kept per font before the cache is emptied.
+     */
+    public static final int MAX_ENTRIES = 20_000;
+
+    private static final Map<Object, TextMetricsCache> caches = new ConcurrentHashMap<>();
+
+    private final ToDoubleFunction<String> measure;
+    private final Map<String, Double> widths = new ConcurrentHashMap<>();
+
+    private TextMetricsCache(ToDoubleFunction<String> measure) {
+        this.measure = measure;
+    }
+
+    /**
+     * Gets the cache for a font, creating it the first time.
+     *
+     * @param font    the font, which must have a meaningful equals, such as a java.awt.Font or a JavaFX Font
+     * @param measure measures the width of a string in that font; only used on a cache miss
+     * @return the font's cache
+     */
+    public static TextMetricsCache forFont(Object font, ToDoubleFunction<String> measure) {
+        return caches.computeIfAbsent(font, key -> new TextMetricsCache(measure));
+    }
+
+    /**
+     * Gets the width of a string, measuring it only if it has not been seen before.
+     *
+     * @param text the string
+     * @return its width in pixels
+     */
+    public double width(String text) {
+        Double width = widths.get(text);
+        if (width == null) {
+            if (widths.size() >= MAX_ENTRIES) {
+                widths.clear();
+            }
+            width = measure.applyAsDouble(text);
+            widths.put(text, width);
+        }
+        return width;
+    }
+
+    /**
+     * Gets how many widths are cached.
+     *
+     * @return the number of cached strings
+     */
+    public int size() {
+        return widths.size();
+    }
+}
@@ -1,9 +1,30 @@
 package codecain;
 
+import codecain.CommandLineInterface.Controller.CommandServer;
+import codecain.CommandLineInterface.View.TerminalCLI;
 import codecain.GraphicalUserInterface.View.MenuGUI;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 public class Main {
-    public static void main(String[] args) {
+    /**
+     * Starts the main menu, the terminal CLI when the first argument is {@code --cli}, or the
+     * command server when it is {@code --server}.
+     * The remaining arguments are passed on to {@link TerminalCLI} or {@link CommandServer}.
+     *
+     * @param args command-line arguments
+     * @throws IOException if the command server cannot be started
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--cli")) {
+            TerminalCLI.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--server")) {
+            CommandServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         MenuGUI.main(args);
     }
 }
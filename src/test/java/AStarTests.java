@@ -1,15 +1,20 @@
 import codecain.GraphicalUserInterface.Controller.Controller;
 import codecain.GraphicalUserInterface.Controller.RelationshipLines.GridCell;
 import codecain.GraphicalUserInterface.Controller.RelationshipLines.GridManager;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.GridPath;
 import codecain.GraphicalUserInterface.Controller.RelationshipLines.LineGrid;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.PathNavigator;
 import javafx.scene.layout.Pane;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class AStarTests {
@@ -79,6 +84,53 @@ public class AStarTests {
     }
 
 
+    /**
+     * a line between two cells in one row runs straight, without corners
+     */
+    @Test
+    void straightPathTest(){
+        LineGrid grid = new LineGrid(50.0, 1000.0, 1000.0, null);
+        GridPath path = new PathNavigator(grid).findPathFromCells(List.of(grid.getCell(5, 2)), List.of(grid.getCell(5, 12)));
+        assertEquals(11, path.size(), "path should be the 9 cells between plus both ends");
+        for (GridCell cell : path.getCells()){
+            assertEquals(5, cell.getRow(), "path left the row at " + cell);
+        }
+    }
+
+    /**
+     * a line takes a short detour around expensive cells rather than through them
+     */
+    @Test
+    void expensiveCellsAvoidedTest(){
+        LineGrid grid = new LineGrid(50.0, 1000.0, 1000.0, null);
+        for (int row = 3; row <= 7; row++){
+            grid.getCell(row, 7).setCost(100.0);
+        }
+        GridPath path = new PathNavigator(grid).findPathFromCells(List.of(grid.getCell(5, 2)), List.of(grid.getCell(5, 12)));
+        assertFalse(path.getCells().isEmpty(), "no path found");
+        for (GridCell cell : path.getCells()){
+            assertNotEquals(100.0, cell.getCost(), "path went through an expensive cell at " + cell);
+        }
+    }
+
+    /**
+     * a line passes through the one gap in a wall, and finds no path once the gap is closed
+     */
+    @Test
+    void wallWithGapTest(){
+        LineGrid grid = new LineGrid(50.0, 1000.0, 1000.0, null);
+        for (int row = 0; row < grid.getNumRows(); row++){
+            grid.getCell(row, 7).setOccupied(row != 15);
+        }
+        PathNavigator navigator = new PathNavigator(grid);
+        GridPath path = navigator.findPathFromCells(List.of(grid.getCell(14, 2)), List.of(grid.getCell(14, 12)));
+        assertTrue(path.getCells().contains(grid.getCell(15, 7)), "path did not use the gap");
+
+        grid.getCell(15, 7).setOccupied(true);
+        path = navigator.findPathFromCells(List.of(grid.getCell(14, 2)), List.of(grid.getCell(14, 12)));
+        assertEquals(0, path.size(), "path found through a closed wall");
+    }
+
 //    @Test
 //    void occupyPath1Test(){
 //        GridPath testPath = getTestPath1();
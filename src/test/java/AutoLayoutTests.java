@@ -0,0 +1,136 @@
+import codecain.BackendCode.Model.Diagram;
+import codecain.BackendCode.Model.Relationship;
+import codecain.BackendCode.Model.RelationshipType;
+import codecain.BackendCode.Model.UMLClassInfo;
+import codecain.GraphicalUserInterface.Controller.Layout.AutoLayout;
+import codecain.GraphicalUserInterface.Controller.Layout.SkylinePacker;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.ClassBounds;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link AutoLayout} and the packers it uses, which give classes without a position one.
+ */
+public class AutoLayoutTests {
+
+    /**
+     * Verifies that packed boxes never overlap and stay inside the strip.
+     */
+    @Test
+    void testPackedBoxesDoNotOverlap() {
+        List<ClassBounds> boxes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            boxes.add(new ClassBounds(0, 0, 200 + (i * 37) % 160, 300 + (i * 53) % 220));
+        }
+        List<ClassBounds> packed = SkylinePacker.pack(boxes, 20, 20, 1500, 20);
+        assertEquals(boxes.size(), packed.size());
+        for (int i = 0; i < packed.size(); i++) {
+            ClassBounds box = packed.get(i);
+            assertEquals(boxes.get(i).getWidth(), box.getWidth());
+            assertTrue(box.getX() >= 20 && box.getMaxX() <= 1520, "box leaves the strip: " + box);
+            assertTrue(box.getY() >= 20);
+        }
+        assertNoOverlaps(packed);
+    }
+
+    /**
+     * Verifies that a thousand classes are laid out without overlaps well within a second,
+     * where placing them one by one scanned every placed class for every spot.
+     */
+    @Test
+    void testThousandClassesLayOutQuickly() {
+        Map<String, ClassBounds> boxes = new LinkedHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            boxes.put("Class" + i, new ClassBounds(0, 0, 200 + (i * 31) % 120, 300 + (i * 17) % 150));
+        }
+        Diagram diagram = new Diagram();
+        List<Relationship> relationships = new ArrayList<>();
+        Diagram.runWith(diagram, () -> {
+            for (int i = 1; i < 300; i++) {
+                relationships.add(new Relationship("Class" + i, "Class" + (i - 1) / 3, RelationshipType.GENERALIZATION));
+            }
+        });
+
+        long start = System.nanoTime();
+        Map<String, ClassBounds> placed = AutoLayout.placeUnplaced(boxes, relationships);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(1000, placed.size());
+        assertTrue(millis < 1000, "layout took " + millis + " ms");
+        for (ClassBounds box : placed.values()) {
+            assertFalse(AutoLayout.isUnplaced(box));
+        }
+        assertNoOverlaps(new ArrayList<>(placed.values()));
+    }
+
+    /**
+     * Verifies that classes that already have a position keep it and new ones go below them.
+     */
+    @Test
+    void testPlacedClassesDoNotMove() {
+        Map<String, ClassBounds> boxes = new LinkedHashMap<>();
+        ClassBounds existing = new ClassBounds(300, 400, 200, 300);
+        boxes.put("Existing", existing);
+        boxes.put("New", new ClassBounds(0, 0, 200, 300));
+        Map<String, ClassBounds> placed = AutoLayout.placeUnplaced(boxes, List.of());
+        assertSame(existing, placed.get("Existing"));
+        assertTrue(placed.get("New").getY() >= existing.getMaxY());
+    }
+
+    /**
+     * Verifies that a superclass is placed above its subclasses, and that a cycle of
+     * generalizations does not stop the layout.
+     */
+    @Test
+    void testHierarchyIsLayered() {
+        Map<String, ClassBounds> boxes = new LinkedHashMap<>();
+        for (String name : List.of("Dog", "Cat", "Animal", "A", "B")) {
+            boxes.put(name, new ClassBounds(0, 0, 200, 300));
+        }
+        Diagram diagram = new Diagram();
+        List<Relationship> relationships = new ArrayList<>();
+        Diagram.runWith(diagram, () -> {
+            relationships.add(new Relationship("Dog", "Animal", RelationshipType.GENERALIZATION));
+            relationships.add(new Relationship("Cat", "Animal", RelationshipType.REALIZATION));
+            relationships.add(new Relationship("A", "B", RelationshipType.GENERALIZATION));
+            relationships.add(new Relationship("B", "A", RelationshipType.GENERALIZATION));
+        });
+        Map<String, ClassBounds> placed = AutoLayout.placeUnplaced(boxes, relationships);
+        assertTrue(placed.get("Animal").getMaxY() < placed.get("Dog").getY());
+        assertTrue(placed.get("Animal").getMaxY() < placed.get("Cat").getY());
+        assertNotEquals(placed.get("A").getY(), placed.get("B").getY());
+        assertNoOverlaps(new ArrayList<>(placed.values()));
+    }
+
+    /**
+     * Verifies that the new positions are stored in the classes, away from the origin.
+     */
+    @Test
+    void testPositionsAreStoredInClasses() {
+        Map<String, UMLClassInfo> classes = new LinkedHashMap<>();
+        classes.put("First", new UMLClassInfo("First"));
+        classes.put("Second", new UMLClassInfo("Second"));
+        assertEquals(2, AutoLayout.placeUnplacedClasses(classes, List.of()));
+        for (UMLClassInfo classInfo : classes.values()) {
+            assertFalse(classInfo.getX() == 0 && classInfo.getY() == 0);
+        }
+        assertEquals(0, AutoLayout.placeUnplacedClasses(classes, List.of()));
+    }
+
+    private static void assertNoOverlaps(List<ClassBounds> boxes) {
+        for (int i = 0; i < boxes.size(); i++) {
+            ClassBounds a = boxes.get(i);
+            for (int j = i + 1; j < boxes.size(); j++) {
+                ClassBounds b = boxes.get(j);
+                assertFalse(a.intersects(b.getX(), b.getY(), b.getWidth(), b.getHeight()),
+                        "boxes overlap: " + a + " and " + b);
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+import codecain.BackendCode.Model.Diagram;
+import codecain.BackendCode.Model.ModelEvent;
+import codecain.BackendCode.Model.Relationship;
+import codecain.BackendCode.Model.RelationshipType;
+import codecain.BackendCode.Model.SaveManager;
+import codecain.BackendCode.Model.UMLClass;
+import codecain.GraphicalUserInterface.Model.Export.BatchExporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link BatchExporter}, which exports many diagram files in parallel.
+ */
+public class BatchExporterTests {
+
+    private Path inputDirectory;
+    private Path outputDirectory;
+
+    /**
+     * Writes a few diagram files, one of them in a subdirectory and one of them broken.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        inputDirectory = Files.createTempDirectory("diagrams");
+        outputDirectory = Files.createTempDirectory("images");
+        Files.createDirectories(inputDirectory.resolve("nested"));
+        writeDiagram(inputDirectory.resolve("zoo.json"), "Animal", "Dog");
+        writeDiagram(inputDirectory.resolve("shop.json"), "Order", "Item");
+        writeDiagram(inputDirectory.resolve("nested").resolve("zoo.json"), "Keeper", "Cage");
+        Files.writeString(inputDirectory.resolve("broken.json"), "{ not json");
+        Files.writeString(inputDirectory.resolve("notes.txt"), "not a diagram");
+    }
+
+    /**
+     * Removes the temporary files.
+     */
+    @AfterEach
+    void tearDown() throws IOException {
+        delete(inputDirectory);
+        delete(outputDirectory);
+    }
+
+    private static void writeDiagram(Path file, String first, String second) throws IOException {
+        Diagram diagram = new Diagram();
+        Diagram.runWith(diagram, () -> {
+            UMLClass.addClass(first);
+            UMLClass.addClass(second);
+            Relationship.addRelationship(second, first, RelationshipType.GENERALIZATION);
+        });
+        SaveManager.saveToJSON(file.toString(), diagram.getClassMap(), diagram.getRelationshipList());
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Verifies that a directory stands for every .json file under it and a glob only for its matches.
+     */
+    @Test
+    void testFindDiagrams() throws IOException {
+        assertEquals(4, BatchExporter.findDiagrams(inputDirectory.toString()).size());
+        List<Path> topLevel = BatchExporter.findDiagrams(inputDirectory + "/*.json");
+        assertEquals(3, topLevel.size());
+        assertFalse(topLevel.contains(inputDirectory.resolve("nested").resolve("zoo.json")));
+    }
+
+    /**
+     * Verifies that every good file is exported, files with the same name do not collide, a broken
+     * file is reported without stopping the rest, and the current diagram is left alone.
+     */
+    @Test
+    void testExportAll() throws IOException {
+        Diagram current = Diagram.current();
+        int classesBefore = current.getClassMap().size();
+
+        BatchExporter exporter = new BatchExporter(outputDirectory, "svg", 1.0, 2);
+        BatchExporter.Report report = exporter.exportAll(BatchExporter.findDiagrams(inputDirectory.toString()));
+
+        assertEquals(4, report.results().size());
+        assertEquals(1, report.failures());
+        assertTrue(Files.exists(outputDirectory.resolve("zoo.svg")));
+        assertTrue(Files.exists(outputDirectory.resolve("shop.svg")));
+        assertTrue(Files.exists(outputDirectory.resolve("nested").resolve("zoo.svg")));
+        assertTrue(Files.readString(outputDirectory.resolve("nested").resolve("zoo.svg")).contains(">Keeper</text>"));
+        assertTrue(report.format().contains("Exported 3 of 4 diagrams"));
+        assertSame(current, Diagram.current());
+        assertEquals(classesBefore, current.getClassMap().size());
+    }
+
+    /**
+     * Verifies that the workers build their diagrams without waiting for the default diagram,
+     * even while another thread is writing to it and someone listens to its changes.
+     */
+    @Test
+    void testExportDoesNotWaitForTheDefaultDiagram() throws Exception {
+        Diagram current = Diagram.current();
+        Consumer<List<ModelEvent>> listener = events -> { };
+        current.getEvents().addListener(listener);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread writer = new Thread(() -> current.write(() -> {
+            locked.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        writer.start();
+        try {
+            assertTrue(locked.await(5, TimeUnit.SECONDS));
+            BatchExporter exporter = new BatchExporter(outputDirectory, "svg", 1.0, 2);
+            BatchExporter.Report report = assertTimeoutPreemptively(Duration.ofSeconds(20),
+                    () -> exporter.exportAll(BatchExporter.findDiagrams(inputDirectory.toString())));
+            assertEquals(1, report.failures());
+        } finally {
+            release.countDown();
+            writer.join();
+            current.getEvents().removeListener(listener);
+        }
+    }
+
+    /**
+     * Verifies that unsupported formats are rejected up front.
+     */
+    @Test
+    void testRejectsUnknownFormat() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchExporter(outputDirectory, "gif", 1.0));
+    }
+}
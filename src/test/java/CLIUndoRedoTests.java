@@ -3,6 +3,7 @@ import codecain.BackendCode.UndoRedo.StateManager;
 import codecain.BackendCode.Model.Relationship;
 import codecain.BackendCode.Model.UMLClassInfo;
 import codecain.CommandLineInterface.Model.CommandManager;
+import codecain.CommandLineInterface.View.TextAreaOutput;
 import javafx.scene.control.TextArea;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -79,7 +80,7 @@ class CommandManagerTest {
     @BeforeEach
     void setUp() {
         commandOutput = new TextArea();
-        commandManager = new CommandManager(commandOutput);
+        commandManager = new CommandManager(new TextAreaOutput(commandOutput));
     }
 
 
@@ -0,0 +1,60 @@
+import codecain.BackendCode.Model.UMLClassInfo;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.ClassBounds;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link ClassBounds}, which measures and places class boxes without JavaFX.
+ */
+public class ClassBoundsTests {
+
+    /**
+     * Verifies that a class with no members gets the smallest box at its position:
+     * the name label over two empty lists.
+     */
+    @Test
+    void testEmptyClassHasMinimumSize() {
+        UMLClassInfo classInfo = new UMLClassInfo("Empty");
+        classInfo.setX(40);
+        classInfo.setY(60);
+        ClassBounds bounds = ClassBounds.of(classInfo);
+        assertEquals(40, bounds.getX());
+        assertEquals(60, bounds.getY());
+        assertEquals(ClassBounds.MIN_WIDTH, bounds.getWidth());
+        assertEquals(ClassBounds.NAME_HEIGHT + 2 * ClassBounds.MIN_LIST_HEIGHT, bounds.getHeight());
+    }
+
+    /**
+     * Verifies that new classes fill a row left to right and then start the next row.
+     */
+    @Test
+    void testPlaceAmongFillsRows() {
+        ClassBounds box = new ClassBounds(0, 0, ClassBounds.MIN_WIDTH, ClassBounds.MIN_HEIGHT);
+        List<ClassBounds> placed = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            placed.add(ClassBounds.placeAmong(box, placed));
+        }
+        assertEquals(0, placed.get(0).getX());
+        assertEquals(220, placed.get(1).getX());
+        assertEquals(440, placed.get(2).getX());
+        assertEquals(0, placed.get(3).getX());
+        assertEquals(320, placed.get(3).getY());
+    }
+
+    /**
+     * Verifies that boxes touching a rectangle's edge do not count as overlapping it.
+     */
+    @Test
+    void testIntersects() {
+        ClassBounds bounds = new ClassBounds(100, 100, 200, 300);
+        assertTrue(bounds.intersects(0, 0, 150, 150));
+        assertTrue(bounds.intersects(250, 350, 1000, 1000));
+        assertFalse(bounds.intersects(0, 0, 100, 1000));
+        assertFalse(bounds.intersects(300, 0, 100, 1000));
+        assertFalse(bounds.intersects(0, 400, 1000, 100));
+    }
+}
@@ -0,0 +1,116 @@
+import codecain.BackendCode.Model.*;
+import codecain.GraphicalUserInterface.View.ClassNodeSync;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link ClassNodeSync}, which writes a class node's position and members back to
+ * the class, covering that syncing a drag leaves the members alone.
+ */
+public class ClassNodeSyncTests {
+
+    private Diagram diagram;
+    private UMLClassInfo dog;
+    private ClassNodeSync sync;
+    private List<UMLFieldInfo> nodeFields;
+    private List<UMLMethodInfo> nodeMethods;
+    private List<ModelEvent> events;
+
+    /**
+     * Starts each test with a class that has a field and a method, the lists a node would show for
+     * it, and a listener that records every event reported after that.
+     */
+    @BeforeEach
+    void setUp() {
+        diagram = new Diagram();
+        Diagram.runWith(diagram, () -> {
+            UMLClass.addClass("Dog");
+            dog = UMLClass.getClassInfo("Dog");
+            dog.getFields().add(new UMLFieldInfo("String", "name"));
+            dog.getMethods().add(new UMLMethodInfo("bark", new ArrayList<>()));
+        });
+        sync = new ClassNodeSync();
+        nodeFields = new ArrayList<>(dog.getFields());
+        nodeMethods = new ArrayList<>(dog.getMethods());
+        events = new ArrayList<>();
+        diagram.getEvents().addListener(events::addAll);
+    }
+
+    /**
+     * Verifies that the position syncs of a drag write only the position and report only moves.
+     */
+    @Test
+    void testDragSyncsOnlyThePosition() {
+        Diagram.runWith(diagram, () -> {
+            for (int x = 10; x <= 50; x += 10) {
+                assertTrue(sync.schedulePosition());
+                assertFalse(sync.schedulePosition(), "a scheduled sync should not be scheduled again");
+                sync.syncPosition(dog, x, x * 2);
+                assertFalse(sync.isPositionScheduled());
+            }
+        });
+
+        assertEquals(50, dog.getX());
+        assertEquals(100, dog.getY());
+        assertFalse(sync.isMembersChanged());
+        assertFalse(events.isEmpty());
+        for (ModelEvent event : events) {
+            assertEquals(ModelEvent.Kind.POSITION_CHANGED, event.getKind(), "unexpected event " + event);
+        }
+    }
+
+    /**
+     * Verifies that a full sync after a drag does not touch members that were not edited, even
+     * when the node's lists are different objects from the class's.
+     */
+    @Test
+    void testFullSyncAfterDragLeavesMembersAlone() {
+        List<UMLFieldInfo> fields = dog.getFields();
+        UMLFieldInfo field = fields.get(0);
+        nodeFields.clear(); // a stale list, which must not be copied since nothing was edited
+
+        Diagram.runWith(diagram, () -> sync.sync(dog, 70, 30, nodeFields, nodeMethods));
+
+        assertSame(fields, dog.getFields());
+        assertEquals(List.of(field), dog.getFields());
+        assertEquals(List.of(ModelEvent.forClass(ModelEvent.Kind.POSITION_CHANGED, "Dog")), events);
+    }
+
+    /**
+     * Verifies that members edited on the node are written by the next full sync, once.
+     */
+    @Test
+    void testEditedMembersAreWritten() {
+        nodeFields.add(new UMLFieldInfo("int", "age"));
+        sync.markMembersChanged();
+
+        Diagram.runWith(diagram, () -> sync.sync(dog, 0, 0, nodeFields, nodeMethods));
+
+        assertEquals(nodeFields, dog.getFields());
+        assertFalse(sync.isMembersChanged());
+        assertTrue(events.contains(ModelEvent.forClass(ModelEvent.Kind.MEMBERS_CHANGED, "Dog")));
+
+        events.clear();
+        Diagram.runWith(diagram, () -> sync.sync(dog, 0, 0, nodeFields, nodeMethods));
+        assertTrue(events.isEmpty(), "an unchanged class should report nothing: " + events);
+    }
+
+    /**
+     * Verifies that resetting forgets a pending edit and a scheduled position.
+     */
+    @Test
+    void testResetForgetsPendingChanges() {
+        sync.markMembersChanged();
+        sync.schedulePosition();
+
+        sync.reset();
+
+        assertFalse(sync.isMembersChanged());
+        assertFalse(sync.isPositionScheduled());
+    }
+}
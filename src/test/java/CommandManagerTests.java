@@ -0,0 +1,197 @@
+import codecain.BackendCode.Model.Diagram;
+import codecain.BackendCode.Model.UMLClass;
+import codecain.CommandLineInterface.Model.CommandManager;
+import codecain.CommandLineInterface.View.TerminalOutput;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.ClassBounds;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link CommandManager} running without JavaFX, writing to a {@link TerminalOutput}.
+ */
+public class CommandManagerTests {
+
+    private Diagram originalDefault;
+    private ByteArrayOutputStream buffer;
+    private TerminalOutput output;
+    private CommandManager commandManager;
+
+    /**
+     * Starts each test with an empty diagram and a command manager writing to a buffer.
+     */
+    @BeforeEach
+    void setUp() {
+        originalDefault = Diagram.current();
+        Diagram.setDefault(new Diagram());
+        buffer = new ByteArrayOutputStream();
+        output = new TerminalOutput(new PrintStream(buffer, true));
+        commandManager = new CommandManager(output);
+    }
+
+    /**
+     * Restores the default diagram used by the other test suites.
+     */
+    @AfterEach
+    void tearDown() {
+        Diagram.setDefault(originalDefault);
+    }
+
+    /**
+     * Verifies that commands run and report through the output sink.
+     */
+    @Test
+    void testCommandWritesToOutput() {
+        commandManager.parseAndExecute("add class Dog");
+
+        assertTrue(UMLClass.exists("Dog"));
+        assertTrue(buffer.toString().contains("Class 'Dog' added."));
+    }
+
+    /**
+     * Verifies that a prompt is answered by the next line handed to the output.
+     */
+    @Test
+    void testPromptIsAnsweredByNextLine() {
+        commandManager.parseAndExecute("add class Dog");
+        commandManager.parseAndExecute("add method Dog bark");
+        commandManager.parseAndExecute("add method Dog bark int x");
+        commandManager.parseAndExecute("add parameter Dog bark int y");
+
+        assertTrue(buffer.toString().contains("Enter the number:"));
+        assertTrue(output.answerPrompt("2"));
+        assertFalse(output.answerPrompt("2"), "The prompt should only take one answer.");
+        assertEquals(2, UMLClass.getClassInfo("Dog").getMethods().get(1).getParameters().size());
+    }
+
+    /**
+     * Verifies that a batch runs every command, skips comments and is undone in one step.
+     */
+    @Test
+    void testBatchIsOneUndoStep() {
+        commandManager.parseAndExecute("add class Existing");
+        List<String> script = new ArrayList<>();
+        script.add("# generated classes");
+        for (int i = 0; i < 200; i++) {
+            script.add("add class Class" + i);
+        }
+        script.add("");
+        script.add("undo");
+
+        String result = commandManager.executeBatch(script);
+
+        assertEquals(201, UMLClass.getClassMap().size());
+        assertTrue(result.contains("'undo' cannot be used inside a batch."));
+        assertTrue(result.contains("Batch complete: 201 commands run."));
+        assertTrue(buffer.toString().endsWith(result), "The batch output should be appended once at the end.");
+
+        commandManager.parseAndExecute("undo");
+        assertEquals(1, UMLClass.getClassMap().size(), "One undo should revert the whole batch.");
+    }
+
+    /**
+     * Verifies that the layout command moves related classes and is undone in one step.
+     */
+    @Test
+    void testForceLayoutCommand() {
+        commandManager.parseAndExecute("add class Dog");
+        commandManager.parseAndExecute("add class Cat");
+        commandManager.parseAndExecute("add relationship Dog Cat Aggregation");
+        UMLClass.getClassInfo("Dog").setX(100);
+        UMLClass.getClassInfo("Cat").setX(3000);
+
+        commandManager.parseAndExecute("layout force 100");
+
+        assertTrue(buffer.toString().contains("Arranged 2 classes"));
+        int gap = Math.abs(UMLClass.getClassInfo("Cat").getX() - UMLClass.getClassInfo("Dog").getX());
+        assertTrue(gap < 2900, "classes were not pulled together: " + gap);
+
+        commandManager.parseAndExecute("undo");
+        assertEquals(3000, UMLClass.getClassInfo("Cat").getX());
+    }
+
+    /**
+     * Verifies that the layout command only counts the classes it actually moved.
+     */
+    @Test
+    void testForceLayoutCountsMovedClasses() {
+        commandManager.parseAndExecute("add class Dog");
+        commandManager.parseAndExecute("add class Cat");
+        // a layout is placed at the padding from the top left, so put the classes there already
+        int padding = (int) ClassBounds.LAYOUT_PADDING;
+        UMLClass.getClassInfo("Dog").setX(padding);
+        UMLClass.getClassInfo("Dog").setY(padding);
+        UMLClass.getClassInfo("Cat").setX(padding + 1000);
+        UMLClass.getClassInfo("Cat").setY(padding);
+
+        commandManager.parseAndExecute("layout force 0");
+
+        assertTrue(buffer.toString().contains("Arranged 0 classes"), buffer.toString());
+        assertEquals(padding + 1000, UMLClass.getClassInfo("Cat").getX());
+    }
+
+    /**
+     * Verifies that 'layout nudge' moves a class out from between two related classes, as one undo step.
+     */
+    @Test
+    void testNudgeLayoutCommand() {
+        commandManager.parseAndExecute("add class Dog");
+        commandManager.parseAndExecute("add class Wall");
+        commandManager.parseAndExecute("add class Cat");
+        commandManager.parseAndExecute("add relationship Dog Cat Aggregation");
+        UMLClass.getClassInfo("Dog").setX(100);
+        UMLClass.getClassInfo("Wall").setX(310);
+        UMLClass.getClassInfo("Cat").setX(520);
+        for (String name : new String[] {"Dog", "Wall", "Cat"}) {
+            UMLClass.getClassInfo(name).setY(100);
+        }
+
+        commandManager.parseAndExecute("layout nudge");
+
+        assertTrue(buffer.toString().contains("Nudged"));
+        assertFalse(buffer.toString().contains("Nudged 0 classes"));
+
+        commandManager.parseAndExecute("undo");
+        assertEquals(310, UMLClass.getClassInfo("Wall").getX());
+    }
+
+    /**
+     * Verifies that 'layout bundle' turns line bundling on and off and rejects other settings.
+     */
+    @Test
+    void testBundleLinesCommand() {
+        commandManager.parseAndExecute("layout bundle on");
+        assertTrue(Diagram.current().isLineBundling());
+        commandManager.parseAndExecute("layout bundle maybe");
+        assertTrue(buffer.toString().contains("Invalid setting 'maybe'"));
+        assertTrue(Diagram.current().isLineBundling());
+        commandManager.parseAndExecute("layout bundle off");
+        assertFalse(Diagram.current().isLineBundling());
+    }
+
+    /**
+     * Verifies that 'layout bundle' only changes the diagram it runs against.
+     */
+    @Test
+    void testBundleLinesIsPerDiagram() {
+        Diagram first = new Diagram();
+        Diagram second = new Diagram();
+
+        Diagram.runWith(first, () -> commandManager.parseAndExecute("layout bundle on"));
+
+        assertTrue(first.isLineBundling());
+        assertFalse(second.isLineBundling(), "Another diagram should keep its own setting.");
+        assertFalse(Diagram.current().isLineBundling(), "The default diagram should keep its own setting.");
+        Diagram.runWith(second, () -> commandManager.parseAndExecute("layout bundle on"));
+        Diagram.runWith(first, () -> commandManager.parseAndExecute("layout bundle off"));
+        assertFalse(first.isLineBundling());
+        assertTrue(second.isLineBundling());
+    }
+}
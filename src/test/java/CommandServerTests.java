@@ -0,0 +1,130 @@
+import codecain.BackendCode.Model.Workspace;
+import codecain.CommandLineInterface.Controller.CommandServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link CommandServer}, driving it over loopback TCP.
+ */
+public class CommandServerTests {
+
+    private Workspace workspace;
+    private CommandServer server;
+
+    /**
+     * Starts a server on a free port with an empty workspace.
+     *
+     * @throws IOException if the server cannot be started
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        workspace = new Workspace();
+        server = CommandServer.startTcp(workspace, 0);
+    }
+
+    /**
+     * Stops the server.
+     *
+     * @throws IOException if the server cannot be closed
+     */
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    /**
+     * A minimal client that sends one command and reads its response.
+     */
+    private class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final PrintWriter out;
+
+        Client() throws IOException {
+            socket = new Socket();
+            socket.connect(server.getAddress());
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+        }
+
+        String send(String command) throws IOException {
+            out.println(command);
+            StringBuilder response = new StringBuilder();
+            String line;
+            while ((line = in.readLine()) != null && !line.equals(CommandServer.END_OF_RESPONSE)) {
+                response.append(line).append('\n');
+            }
+            return response.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    /**
+     * Verifies that commands run on the connection's diagram and that 'use' switches diagrams.
+     *
+     * @throws IOException if the connection fails
+     */
+    @Test
+    void testCommandsAndUse() throws IOException {
+        try (Client client = new Client()) {
+            assertTrue(client.send("add class Dog").contains("Class 'Dog' added."));
+            assertTrue(client.send("use other").contains("Using diagram 'other'."));
+            client.send("add class Cat");
+            assertEquals("default\nother\n", client.send("diagrams"));
+        }
+        assertTrue(workspace.get("default").getClassMap().containsKey("Dog"));
+        assertFalse(workspace.get("default").getClassMap().containsKey("Cat"));
+        assertTrue(workspace.get("other").getClassMap().containsKey("Cat"));
+    }
+
+    /**
+     * Verifies that many clients can change the same diagram at once without losing changes.
+     *
+     * @throws Exception if a client fails
+     */
+    @Test
+    void testConcurrentClientsOnOneDiagram() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> clients = new ArrayList<>();
+            for (int c = 0; c < 8; c++) {
+                int clientId = c;
+                clients.add(executor.submit(() -> {
+                    try (Client client = new Client()) {
+                        client.send("use shared");
+                        for (int i = 0; i < 50; i++) {
+                            client.send("add class C" + clientId + "_" + i);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> client : clients) {
+                client.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(400, workspace.get("shared").getClassMap().size());
+    }
+}
@@ -0,0 +1,213 @@
+import codecain.BackendCode.Model.Diagram;
+import codecain.BackendCode.Model.Relationship;
+import codecain.BackendCode.Model.RelationshipType;
+import codecain.BackendCode.Model.UMLClass;
+import codecain.BackendCode.Model.UMLFieldInfo;
+import codecain.GraphicalUserInterface.Model.Export.DiagramExporter;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link DiagramExporter}, which renders diagrams to PNG and SVG without JavaFX.
+ */
+public class DiagramExporterTests {
+
+    /**
+     * Builds a diagram with two classes side by side and a relationship between them.
+     */
+    private static Diagram twoClassDiagram(RelationshipType type) {
+        Diagram diagram = new Diagram();
+        Diagram.runWith(diagram, () -> {
+            UMLClass.addClass("Dog");
+            UMLClass.addClass("Animal");
+            UMLClass.getClassInfo("Animal").setX(600);
+            Relationship.addRelationship("Dog", "Animal", type);
+        });
+        return diagram;
+    }
+
+    /**
+     * Verifies that a PNG is written and covers both class boxes.
+     */
+    @Test
+    void testExportPng() throws IOException {
+        Path file = Files.createTempFile("diagram", ".png");
+        try {
+            DiagramExporter.export(twoClassDiagram(RelationshipType.GENERALIZATION), file);
+
+            BufferedImage image = ImageIO.read(file.toFile());
+            assertNotNull(image);
+            assertTrue(image.getWidth() >= 800, "image should span both classes");
+            assertTrue(image.getHeight() >= 300, "image should be at least one class tall");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Verifies that drawing a PNG in many thin strips gives the same pixels as drawing it at once.
+     */
+    @Test
+    void testStripsMatchSingleImage() throws IOException {
+        Diagram diagram = twoClassDiagram(RelationshipType.AGGREGATION);
+        Path whole = Files.createTempFile("whole", ".png");
+        Path strips = Files.createTempFile("strips", ".png");
+        try {
+            DiagramExporter.exportPng(diagram, whole, 1.0, Long.MAX_VALUE);
+            DiagramExporter.exportPng(diagram, strips, 1.0, 1);
+
+            BufferedImage expected = ImageIO.read(whole.toFile());
+            BufferedImage actual = ImageIO.read(strips.toFile());
+            assertEquals(expected.getWidth(), actual.getWidth());
+            assertEquals(expected.getHeight(), actual.getHeight());
+            for (int y = 0; y < expected.getHeight(); y++) {
+                for (int x = 0; x < expected.getWidth(); x++) {
+                    assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "pixel " + x + "," + y);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(whole);
+            Files.deleteIfExists(strips);
+        }
+    }
+
+    /**
+     * Verifies that a scaled export of a very wide diagram succeeds within a small pixel budget.
+     */
+    @Test
+    void testWideScaledExport() throws IOException {
+        Diagram diagram = new Diagram();
+        Diagram.runWith(diagram, () -> {
+            for (int i = 0; i < 20; i++) {
+                UMLClass.addClass("Class" + i);
+                UMLClass.getClassInfo("Class" + i).setX(i * 260);
+                UMLClass.getClassInfo("Class" + i).setY(1);
+            }
+        });
+        Path file = Files.createTempFile("wide", ".png");
+        try {
+            DiagramExporter.exportPng(diagram, file, 4.0, 4L * 1024 * 1024);
+
+            ImageReader reader = ImageIO.getImageReadersByFormatName("png").next();
+            try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+                reader.setInput(input);
+                assertTrue(reader.getWidth(0) > 20000, "width was " + reader.getWidth(0));
+                assertTrue(reader.getHeight(0) > 1200, "height was " + reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Verifies that a crowded diagram, where some lines cannot be routed, still exports.
+     */
+    @Test
+    void testExportWithUnroutableLines() throws IOException {
+        Diagram diagram = new Diagram();
+        Diagram.runWith(diagram, () -> {
+            for (int i = 1; i <= 12; i++) {
+                UMLClass.addClass("C" + i);
+            }
+            for (int i = 2; i <= 12; i++) {
+                Relationship.addRelationship("C" + i, "C" + (i - 1), RelationshipType.GENERALIZATION);
+            }
+        });
+        StringWriter writer = new StringWriter();
+
+        DiagramExporter.exportSvg(diagram, writer);
+
+        assertTrue(writer.toString().contains(">C12</text>"));
+    }
+
+    /**
+     * Verifies that the SVG holds one element per class, line and marker, and that text is escaped.
+     */
+    @Test
+    void testExportSvg() throws IOException {
+        Diagram diagram = twoClassDiagram(RelationshipType.COMPOSITION);
+        Diagram.runWith(diagram, () -> UMLClass.getClassInfo("Dog").getFields().add(new UMLFieldInfo("Map<K,V>", "owners")));
+        StringWriter writer = new StringWriter();
+
+        DiagramExporter.exportSvg(diagram, writer);
+
+        String svg = writer.toString();
+        assertTrue(svg.startsWith("<?xml"));
+        assertTrue(svg.trim().endsWith("</svg>"));
+        assertTrue(svg.contains(">Dog</text>"));
+        assertTrue(svg.contains(">Map&lt;K,V&gt; owners</text>"));
+        assertEquals(1, count(svg, "<polyline"), "one relationship line");
+        assertEquals(1, count(svg, "<polygon"), "one composition diamond");
+    }
+
+    private static int count(String text, String part) {
+        int count = 0;
+        for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Verifies that the default extension is added only when needed and unknown formats are rejected.
+     */
+    @Test
+    void testExtensions() {
+        assertEquals("out.png", DiagramExporter.withExtension("out"));
+        assertEquals("out.PNG", DiagramExporter.withExtension("out.PNG"));
+        assertEquals("out.svg", DiagramExporter.withExtension("out.svg"));
+        assertThrows(IllegalArgumentException.class,
+                () -> DiagramExporter.export(new Diagram(), Path.of("out.bmp")));
+        assertThrows(IllegalArgumentException.class,
+                () -> DiagramExporter.exportPng(new Diagram(), Path.of("out.png"), 0));
+    }
+
+    /**
+     * Verifies that several diagrams can be exported at the same time.
+     */
+    @Test
+    void testParallelExports() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Path> files = new ArrayList<>();
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (RelationshipType type : RelationshipType.values()) {
+                Path file = Files.createTempFile("diagram-" + type, ".png");
+                files.add(file);
+                Diagram diagram = twoClassDiagram(type);
+                results.add(pool.submit(() -> {
+                    DiagramExporter.export(diagram, file);
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+            for (Path file : files) {
+                assertNotNull(ImageIO.read(file.toFile()));
+            }
+        } finally {
+            pool.shutdown();
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
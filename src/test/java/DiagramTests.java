@@ -0,0 +1,231 @@
+import codecain.BackendCode.Model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link Diagram} and {@link Workspace}, covering isolation between diagrams
+ * and the delegation of the static model APIs to the current diagram.
+ */
+public class DiagramTests {
+
+    private Diagram originalDefault;
+
+    /**
+     * Starts each test with an empty default diagram.
+     */
+    @BeforeEach
+    void setUp() {
+        originalDefault = Diagram.current();
+        Diagram.setDefault(new Diagram());
+    }
+
+    /**
+     * Restores the default diagram used by the other test suites.
+     */
+    @AfterEach
+    void tearDown() {
+        Diagram.setDefault(originalDefault);
+    }
+
+    /**
+     * Verifies that classes added while a diagram is bound only appear in that diagram.
+     */
+    @Test
+    void testBoundDiagramIsIsolated() {
+        Diagram other = new Diagram();
+        UMLClass.addClass("Dog");
+
+        Diagram.runWith(other, () -> {
+            assertFalse(UMLClass.exists("Dog"), "Bound diagram should not see the default diagram's classes");
+            UMLClass.addClass("Cat");
+            UMLClass.addClass("Bird");
+            Relationship.addRelationship("Cat", "Bird", RelationshipType.AGGREGATION);
+        });
+
+        assertTrue(UMLClass.exists("Dog"));
+        assertFalse(UMLClass.exists("Cat"), "Default diagram should not see the bound diagram's classes");
+        assertEquals(0, Relationship.getRelationshipList().size());
+        assertEquals(2, other.getClassMap().size());
+        assertEquals(1, other.getRelationshipList().size());
+    }
+
+    /**
+     * Verifies that nested bindings restore the outer diagram when they finish.
+     */
+    @Test
+    void testNestedBindingRestoresPrevious() {
+        Diagram outer = new Diagram();
+        Diagram inner = new Diagram();
+
+        Diagram.runWith(outer, () -> {
+            Diagram.runWith(inner, () -> assertSame(inner, Diagram.current()));
+            assertSame(outer, Diagram.current());
+        });
+        assertNotSame(outer, Diagram.current());
+    }
+
+    /**
+     * Verifies that each diagram keeps its own undo history.
+     */
+    @Test
+    void testUndoHistoryIsPerDiagram() {
+        Diagram first = new Diagram();
+        Diagram second = new Diagram();
+
+        Diagram.runWith(first, () -> {
+            first.getStateManager().saveState();
+            UMLClass.addClass("Dog");
+        });
+        Diagram.runWith(second, () -> UMLClass.addClass("Cat"));
+
+        assertFalse(second.getStateManager().undo(), "Second diagram has no history");
+        assertTrue(first.getStateManager().undo());
+        assertTrue(first.getClassMap().isEmpty(), "Undo should only affect the first diagram");
+        assertTrue(second.getClassMap().containsKey("Cat"));
+    }
+
+    /**
+     * Verifies that many diagrams can be built at the same time on different threads.
+     *
+     * @throws Exception if a worker fails
+     */
+    @Test
+    void testConcurrentDiagrams() throws Exception {
+        Workspace workspace = new Workspace();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int d = 0; d < 8; d++) {
+                Diagram diagram = workspace.open("diagram" + d);
+                int classCount = 10 + d;
+                results.add(executor.submit(() -> Diagram.callWith(diagram, () -> {
+                    for (int i = 0; i < classCount; i++) {
+                        UMLClass.addClass("Class" + i);
+                    }
+                    return UMLClass.getClassMap().size();
+                })));
+            }
+            for (int d = 0; d < 8; d++) {
+                assertEquals(10 + d, (int) results.get(d).get());
+                assertEquals(10 + d, workspace.get("diagram" + d).getClassMap().size());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(8, workspace.names().size());
+        assertTrue(UMLClass.getClassMap().isEmpty(), "Workers should not touch the default diagram");
+    }
+
+    /**
+     * Verifies the workspace registry operations.
+     */
+    @Test
+    void testWorkspaceOpenAndClose() {
+        Workspace workspace = new Workspace();
+        Diagram diagram = workspace.open("model");
+
+        assertSame(diagram, workspace.open("model"), "Opening an existing name should return the same diagram");
+        assertTrue(workspace.close("model"));
+        assertNull(workspace.get("model"));
+        assertThrows(IllegalArgumentException.class, () -> workspace.open(" "));
+    }
+
+    /**
+     * Verifies that replacing the class map of the current diagram is visible through the static API.
+     */
+    @Test
+    void testSetClassMapDelegatesToCurrentDiagram() {
+        HashMap<String, UMLClassInfo> classes = new HashMap<>();
+        classes.put("Dog", new UMLClassInfo("Dog"));
+        UMLClass.setClassMap(classes);
+
+        assertSame(classes, Diagram.current().getClassMap());
+        assertTrue(UMLClass.exists("Dog"));
+    }
+
+    /**
+     * Verifies that readers on other threads never fail while a writer keeps adding classes.
+     *
+     * @throws Exception if a worker fails
+     */
+    @Test
+    void testReadersDuringWrites() throws Exception {
+        Diagram diagram = Diagram.current();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?> writer = executor.submit(() -> Diagram.runWith(diagram, () -> {
+                for (int i = 0; i < 500; i++) {
+                    UMLClass.addClass("Class" + i);
+                    new UMLFields().addField("Class" + i, "int", "id");
+                }
+            }));
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                readers.add(executor.submit(() -> Diagram.runWith(diagram, () -> {
+                    while (!writer.isDone()) {
+                        UMLClass.listAllClassesInfo();
+                        UMLClass.exists("Class0");
+                    }
+                })));
+            }
+            writer.get();
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        assertEquals(500, diagram.getClassMap().size());
+    }
+
+    /**
+     * Verifies that a snapshot is unaffected by later changes to the diagram and vice versa.
+     */
+    @Test
+    void testSnapshotIsIndependent() {
+        UMLClass.addClass("Dog");
+        UMLClass.addClass("Cat");
+        new UMLFields().addField("Dog", "String", "name");
+        Relationship.addRelationship("Dog", "Cat", RelationshipType.AGGREGATION);
+
+        Diagram copy = Diagram.current().snapshot();
+        UMLClass.renameClass("Dog", "Wolf");
+        new UMLFields().addField("Cat", "int", "lives");
+        Diagram.runWith(copy, () -> UMLClass.removeClass("Cat"));
+
+        assertTrue(copy.getClassMap().containsKey("Dog"));
+        assertFalse(copy.getClassMap().containsKey("Wolf"));
+        assertEquals(1, copy.getClassMap().get("Dog").getFields().size());
+        assertTrue(UMLClass.exists("Cat"), "Changing the snapshot should not change the original");
+        assertEquals(1, Relationship.getRelationshipList().size());
+    }
+
+    /**
+     * Verifies that writes nest on the same thread but cannot start inside a read.
+     */
+    @Test
+    void testWriteInsideReadIsRejected() {
+        Diagram diagram = Diagram.current();
+        diagram.write(() -> diagram.write(() -> UMLClass.addClass("Dog")));
+        assertTrue(UMLClass.exists("Dog"));
+
+        assertThrows(IllegalStateException.class,
+                () -> diagram.readLocked(() -> diagram.write(() -> {
+                    UMLClass.addClass("Cat");
+                    return null;
+                })));
+        assertFalse(UMLClass.exists("Cat"));
+    }
+}
@@ -0,0 +1,139 @@
+import codecain.BackendCode.Model.Diagram;
+import codecain.BackendCode.Model.Relationship;
+import codecain.BackendCode.Model.RelationshipType;
+import codecain.GraphicalUserInterface.Controller.Layout.ForceLayout;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.ClassBounds;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link ForceLayout}, the Barnes-Hut force-directed layout.
+ */
+public class ForceLayoutTests {
+
+    /**
+     * Verifies that the boxes keep their sizes, start at the layout padding and end up apart,
+     * even when they all start on the same spot.
+     */
+    @Test
+    void testLayoutKeepsSizesAndRemovesOverlaps() {
+        Map<String, ClassBounds> boxes = new LinkedHashMap<>();
+        for (int i = 0; i < 200; i++) {
+            boxes.put("Class" + i, new ClassBounds(100, 100, 200 + (i * 37) % 160, 300 + (i * 53) % 220));
+        }
+        List<Relationship> relationships = relationships(i -> i % 5 == 0 ? -1 : i - 1, 200);
+        Map<String, ClassBounds> placed = ForceLayout.layout(boxes, relationships, ForceLayout.DEFAULT_ITERATIONS);
+
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        for (Map.Entry<String, ClassBounds> entry : placed.entrySet()) {
+            assertEquals(boxes.get(entry.getKey()).getWidth(), entry.getValue().getWidth());
+            assertEquals(boxes.get(entry.getKey()).getHeight(), entry.getValue().getHeight());
+            minX = Math.min(minX, entry.getValue().getX());
+            minY = Math.min(minY, entry.getValue().getY());
+        }
+        assertEquals(ClassBounds.LAYOUT_PADDING, minX);
+        assertEquals(ClassBounds.LAYOUT_PADDING, minY);
+
+        List<ClassBounds> list = new ArrayList<>(placed.values());
+        for (int i = 0; i < list.size(); i++) {
+            for (int j = i + 1; j < list.size(); j++) {
+                ClassBounds a = list.get(i);
+                ClassBounds b = list.get(j);
+                assertFalse(a.intersects(b.getX(), b.getY(), b.getWidth(), b.getHeight()),
+                        "boxes overlap: " + a + " and " + b);
+            }
+        }
+    }
+
+    /**
+     * Verifies that related classes end up closer together than unrelated ones: two chains
+     * started interleaved in one row are pulled into two groups.
+     */
+    @Test
+    void testRelatedClassesEndUpClose() {
+        Map<String, ClassBounds> boxes = new LinkedHashMap<>();
+        for (int i = 0; i < 20; i++) {
+            boxes.put("Class" + i, new ClassBounds(i * 220, 0, 200, 300));
+        }
+        // even classes form one chain, odd classes the other
+        List<Relationship> relationships = relationships(i -> i < 2 ? -1 : i - 2, 20);
+        Map<String, ClassBounds> placed = ForceLayout.layout(boxes, relationships, ForceLayout.DEFAULT_ITERATIONS);
+
+        double related = 0;
+        double unrelated = 0;
+        int relatedPairs = 0;
+        int unrelatedPairs = 0;
+        for (int i = 0; i < 20; i++) {
+            for (int j = i + 1; j < 20; j++) {
+                double distance = distance(placed.get("Class" + i), placed.get("Class" + j));
+                if ((i - j) % 2 == 0) {
+                    related += distance;
+                    relatedPairs++;
+                } else {
+                    unrelated += distance;
+                    unrelatedPairs++;
+                }
+            }
+        }
+        assertTrue(related / relatedPairs < unrelated / unrelatedPairs,
+                "related classes are not closer: " + related / relatedPairs + " vs " + unrelated / unrelatedPairs);
+    }
+
+    /**
+     * Verifies that a step over thousands of classes is fast enough to show the layout moving.
+     */
+    @Test
+    void testStepsScaleToThousandsOfClasses() {
+        int count = 3000;
+        Map<String, ClassBounds> boxes = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            boxes.put("Class" + i, new ClassBounds((i % 60) * 250, (i / 60) * 350, 200, 300));
+        }
+        List<Relationship> relationships = relationships(i -> i == 0 ? -1 : (i - 1) / 4, count);
+        ForceLayout layout = new ForceLayout(boxes, relationships, 20);
+
+        long start = System.nanoTime();
+        while (layout.step()) {
+            // run the steps
+        }
+        long millisPerStep = (System.nanoTime() - start) / 1_000_000 / layout.getIteration();
+        assertTrue(layout.isDone());
+        assertTrue(millisPerStep < 200, "a step took " + millisPerStep + " ms");
+    }
+
+    /**
+     * Verifies that a negative iteration count is rejected.
+     */
+    @Test
+    void testNegativeIterationsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ForceLayout(Map.of(), List.of(), -1));
+    }
+
+    /**
+     * Creates relationships from each class to a parent, in a diagram of their own.
+     */
+    private static List<Relationship> relationships(java.util.function.IntUnaryOperator parent, int count) {
+        List<Relationship> relationships = new ArrayList<>();
+        Diagram.runWith(new Diagram(), () -> {
+            for (int i = 0; i < count; i++) {
+                int p = parent.applyAsInt(i);
+                if (p >= 0) {
+                    relationships.add(new Relationship("Class" + i, "Class" + p, RelationshipType.AGGREGATION));
+                }
+            }
+        });
+        return relationships;
+    }
+
+    private static double distance(ClassBounds a, ClassBounds b) {
+        return Math.hypot(a.getX() + a.getWidth() / 2 - b.getX() - b.getWidth() / 2,
+                a.getY() + a.getHeight() / 2 - b.getY() - b.getHeight() / 2);
+    }
+}
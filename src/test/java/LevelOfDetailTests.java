@@ -0,0 +1,43 @@
+import codecain.GraphicalUserInterface.View.LevelOfDetail;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link LevelOfDetail}, which picks how much of a class box is drawn at a zoom level.
+ */
+public class LevelOfDetailTests {
+
+    /**
+     * Verifies that zoom levels from the full detail threshold up draw the whole box.
+     */
+    @Test
+    void testFullAtAndAboveThreshold() {
+        assertEquals(LevelOfDetail.FULL, LevelOfDetail.forZoom(LevelOfDetail.FULL_MIN_ZOOM));
+        assertEquals(LevelOfDetail.FULL, LevelOfDetail.forZoom(Math.nextUp(LevelOfDetail.FULL_MIN_ZOOM)));
+        assertEquals(LevelOfDetail.FULL, LevelOfDetail.forZoom(1.0));
+        assertEquals(LevelOfDetail.FULL, LevelOfDetail.forZoom(4.0));
+    }
+
+    /**
+     * Verifies that zoom levels between the two thresholds draw an outline, including the lower
+     * threshold itself.
+     */
+    @Test
+    void testOutlineBetweenThresholds() {
+        assertEquals(LevelOfDetail.OUTLINE, LevelOfDetail.forZoom(Math.nextDown(LevelOfDetail.FULL_MIN_ZOOM)));
+        assertEquals(LevelOfDetail.OUTLINE, LevelOfDetail.forZoom(0.3));
+        assertEquals(LevelOfDetail.OUTLINE, LevelOfDetail.forZoom(LevelOfDetail.OUTLINE_MIN_ZOOM));
+        assertEquals(LevelOfDetail.OUTLINE, LevelOfDetail.forZoom(Math.nextUp(LevelOfDetail.OUTLINE_MIN_ZOOM)));
+    }
+
+    /**
+     * Verifies that zoom levels below the outline threshold draw a plain block.
+     */
+    @Test
+    void testBlockBelowOutlineThreshold() {
+        assertEquals(LevelOfDetail.BLOCK, LevelOfDetail.forZoom(Math.nextDown(LevelOfDetail.OUTLINE_MIN_ZOOM)));
+        assertEquals(LevelOfDetail.BLOCK, LevelOfDetail.forZoom(0.1));
+        assertEquals(LevelOfDetail.BLOCK, LevelOfDetail.forZoom(0));
+    }
+}
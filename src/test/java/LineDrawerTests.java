@@ -0,0 +1,144 @@
+import codecain.BackendCode.Model.Diagram;
+import codecain.BackendCode.Model.Relationship;
+import codecain.BackendCode.Model.RelationshipType;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.ClassBounds;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.GridCell;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.GridPath;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.LineGrid;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.RelationshipPathHolder;
+import codecain.GraphicalUserInterface.View.LineDrawer;
+import codecain.GraphicalUserInterface.View.RelationshipLineLayer;
+import javafx.scene.layout.Pane;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link LineDrawer}: a redraw only rebuilds the lines whose path, type or
+ * destination box changed.
+ */
+public class LineDrawerTests {
+
+    private Diagram diagram;
+    private LineDrawer drawer;
+    private RelationshipLineLayer layer;
+    private RelationshipPathHolder holder;
+    private Relationship first;
+    private Relationship second;
+
+    @BeforeEach
+    void setUp() {
+        Pane container = new Pane();
+        drawer = new LineDrawer(new LineGrid(10, 400, 400, container));
+        layer = RelationshipLineLayer.forContainer(container);
+        holder = new RelationshipPathHolder();
+        diagram = new Diagram();
+        Diagram.runWith(diagram, () -> {
+            first = new Relationship("A", "B", RelationshipType.AGGREGATION);
+            second = new Relationship("C", "D", RelationshipType.GENERALIZATION);
+        });
+        holder.addRelationshipPath(first, path(new int[][] {{1, 1}, {1, 2}, {1, 3}}));
+        holder.addRelationshipHolder(first, new ClassBounds(0, 0, 10, 10), new ClassBounds(40, 0, 10, 10));
+        holder.addRelationshipPath(second, path(new int[][] {{5, 1}, {6, 1}, {7, 1}}));
+        holder.addRelationshipHolder(second, new ClassBounds(0, 40, 10, 10), new ClassBounds(0, 80, 10, 10));
+        redraw();
+    }
+
+    /**
+     * Verifies that a redraw with nothing changed keeps every line as it was.
+     */
+    @Test
+    void testUnchangedLinesAreKept() {
+        RelationshipLineLayer.LineShape firstShape = layer.getShape(first);
+        RelationshipLineLayer.LineShape secondShape = layer.getShape(second);
+        assertNotNull(firstShape);
+        assertNotNull(secondShape);
+
+        // an equal path made of new cells is still the same line
+        holder.addRelationshipPath(first, path(new int[][] {{1, 1}, {1, 2}, {1, 3}}));
+        redraw();
+
+        assertSame(firstShape, layer.getShape(first));
+        assertSame(secondShape, layer.getShape(second));
+    }
+
+    /**
+     * Verifies that only the line whose cells changed is rebuilt.
+     */
+    @Test
+    void testChangedCellsRebuildOnlyThatLine() {
+        RelationshipLineLayer.LineShape firstShape = layer.getShape(first);
+        RelationshipLineLayer.LineShape secondShape = layer.getShape(second);
+
+        holder.addRelationshipPath(first, path(new int[][] {{1, 1}, {2, 1}, {2, 2}, {2, 3}}));
+        redraw();
+
+        assertNotSame(firstShape, layer.getShape(first));
+        assertSame(secondShape, layer.getShape(second));
+    }
+
+    /**
+     * Verifies that a line is rebuilt when its relationship type changes, even on the same path.
+     */
+    @Test
+    void testChangedTypeRebuildsLine() {
+        RelationshipLineLayer.LineShape firstShape = layer.getShape(first);
+        RelationshipLineLayer.LineShape secondShape = layer.getShape(second);
+
+        first.setType(RelationshipType.COMPOSITION);
+        redraw();
+
+        assertNotSame(firstShape, layer.getShape(first));
+        assertNotEquals(firstShape, layer.getShape(first));
+        assertSame(secondShape, layer.getShape(second));
+    }
+
+    /**
+     * Verifies that a line is rebuilt when its destination box changes, even on the same path,
+     * since the marker is placed against that box.
+     */
+    @Test
+    void testChangedDestinationBoundsRebuildLine() {
+        RelationshipLineLayer.LineShape firstShape = layer.getShape(first);
+        RelationshipLineLayer.LineShape secondShape = layer.getShape(second);
+
+        holder.addRelationshipHolder(first, new ClassBounds(0, 0, 10, 10), new ClassBounds(40, 0, 20, 10));
+        redraw();
+
+        assertNotSame(firstShape, layer.getShape(first));
+        assertSame(secondShape, layer.getShape(second));
+    }
+
+    /**
+     * Verifies that the line of a deleted relationship is taken off the layer and the others stay.
+     */
+    @Test
+    void testRemovedRelationshipLosesItsLine() {
+        RelationshipLineLayer.LineShape secondShape = layer.getShape(second);
+
+        Diagram.runWith(diagram, () -> Relationship.removeRelationship("A", "B"));
+        redraw();
+
+        assertNull(layer.getShape(first));
+        assertSame(secondShape, layer.getShape(second));
+    }
+
+    private void redraw() {
+        Diagram.runWith(diagram, () -> drawer.redrawLines(holder));
+    }
+
+    /**
+     * Builds a path through the specified row and column pairs.
+     */
+    private static GridPath path(int[][] cells) {
+        List<GridCell> list = new ArrayList<>();
+        for (int[] cell : cells) {
+            list.add(new GridCell(false, 1, cell[0], cell[1]));
+        }
+        return new GridPath(list);
+    }
+}
@@ -0,0 +1,144 @@
+import codecain.BackendCode.Model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link ModelEventBus}, covering which changes are reported and how they are batched.
+ */
+public class ModelEventBusTests {
+
+    private Diagram diagram;
+    private List<List<ModelEvent>> batches;
+
+    /**
+     * Starts each test with an empty diagram and a listener that records every batch.
+     */
+    @BeforeEach
+    void setUp() {
+        diagram = new Diagram();
+        batches = new ArrayList<>();
+        diagram.getEvents().addListener(batches::add);
+    }
+
+    private List<ModelEvent> allEvents() {
+        List<ModelEvent> events = new ArrayList<>();
+        batches.forEach(events::addAll);
+        return events;
+    }
+
+    /**
+     * Verifies that adding, renaming and removing a class each report one event.
+     */
+    @Test
+    void testClassEvents() {
+        Diagram.runWith(diagram, () -> {
+            UMLClass.addClass("Dog");
+            UMLClass.renameClass("Dog", "Cat");
+            UMLClass.removeClass("Cat");
+        });
+        assertEquals(List.of(
+                ModelEvent.forClass(ModelEvent.Kind.CLASS_ADDED, "Dog"),
+                ModelEvent.renamed("Dog", "Cat"),
+                ModelEvent.forClass(ModelEvent.Kind.CLASS_REMOVED, "Cat")), allEvents());
+        assertEquals(3, batches.size());
+    }
+
+    /**
+     * Verifies that the events of one write are delivered together, after the write, without repeats.
+     */
+    @Test
+    void testWriteIsOneBatch() {
+        Diagram.runWith(diagram, () -> {
+            UMLClass.addClass("Dog");
+            batches.clear();
+            diagram.write(() -> {
+                UMLClassInfo dog = UMLClass.getClassInfo("Dog");
+                for (int x = 1; x <= 10; x++) {
+                    dog.setX(x);
+                }
+                dog.getFields().add(new UMLFieldInfo("String", "name"));
+                assertTrue(batches.isEmpty(), "Events should wait for the write to finish");
+            });
+        });
+        assertEquals(1, batches.size());
+        assertEquals(List.of(
+                ModelEvent.forClass(ModelEvent.Kind.POSITION_CHANGED, "Dog"),
+                ModelEvent.forClass(ModelEvent.Kind.MEMBERS_CHANGED, "Dog")), batches.get(0));
+    }
+
+    /**
+     * Verifies that removing a class also reports the relationships removed with it.
+     */
+    @Test
+    void testRelationshipEvents() {
+        Diagram.runWith(diagram, () -> {
+            UMLClass.addClass("Dog");
+            UMLClass.addClass("Cat");
+            Relationship.addRelationship("Dog", "Cat", RelationshipType.AGGREGATION);
+            Relationship relationship = Relationship.getRelationshipList().get(0);
+            relationship.setType(RelationshipType.COMPOSITION);
+            batches.clear();
+
+            UMLClass.removeClass("Dog");
+            assertEquals(List.of(
+                    ModelEvent.forRelationship(ModelEvent.Kind.RELATIONSHIP_REMOVED, relationship),
+                    ModelEvent.forClass(ModelEvent.Kind.CLASS_REMOVED, "Dog")), allEvents());
+        });
+    }
+
+    /**
+     * Verifies that replacing the class map, as undo and loading do, reports only the difference.
+     */
+    @Test
+    void testReplacingClassMapReportsDifference() {
+        Diagram.runWith(diagram, () -> {
+            UMLClass.addClass("Kept");
+            UMLClass.addClass("Replaced");
+            UMLClass.addClass("Removed");
+        });
+        batches.clear();
+
+        Map<String, UMLClassInfo> classes = new HashMap<>();
+        classes.put("Kept", diagram.getClassMap().get("Kept"));
+        classes.put("Replaced", new UMLClassInfo("Replaced"));
+        classes.put("Added", new UMLClassInfo("Added"));
+        diagram.setClassMap(classes);
+
+        List<ModelEvent> events = allEvents();
+        assertEquals(3, events.size());
+        assertTrue(events.contains(ModelEvent.forClass(ModelEvent.Kind.CLASS_REPLACED, "Replaced")));
+        assertTrue(events.contains(ModelEvent.forClass(ModelEvent.Kind.CLASS_REMOVED, "Removed")));
+        assertTrue(events.contains(ModelEvent.forClass(ModelEvent.Kind.CLASS_ADDED, "Added")));
+    }
+
+    /**
+     * Verifies that classes outside the diagram, such as ones being loaded, report nothing,
+     * and that removed listeners hear nothing more.
+     */
+    @Test
+    void testQuietCases() {
+        Diagram.runWith(diagram, () -> {
+            UMLClassInfo loose = new UMLClassInfo("Loose");
+            loose.setX(5);
+            loose.getFields().add(new UMLFieldInfo("String", "name"));
+        });
+        assertTrue(batches.isEmpty());
+
+        List<List<ModelEvent>> other = new ArrayList<>();
+        Consumer<List<ModelEvent>> listener = other::add;
+        diagram.getEvents().addListener(listener);
+        diagram.getEvents().removeListener(listener);
+        Diagram.runWith(diagram, () -> UMLClass.addClass("Dog"));
+        assertEquals(1, batches.size());
+        assertTrue(other.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> ModelEvent.forClass(ModelEvent.Kind.RELATIONSHIP_ADDED, "Dog"));
+    }
+}
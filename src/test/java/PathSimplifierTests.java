@@ -0,0 +1,64 @@
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.GridCell;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.GridPath;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.PathSimplifier;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link PathSimplifier}, which reduces routed paths to their corners.
+ */
+public class PathSimplifierTests {
+
+    /**
+     * Builds a path through the given row, column pairs.
+     */
+    private static GridPath path(int... rowCols) {
+        GridPath path = new GridPath();
+        for (int i = 0; i < rowCols.length; i += 2) {
+            path.addCell(new GridCell(false, 0, rowCols[i], rowCols[i + 1]));
+        }
+        return path;
+    }
+
+    /**
+     * Verifies that a straight run keeps only its two ends.
+     */
+    @Test
+    void testStraightRun() {
+        GridPath straight = new GridPath();
+        for (int col = 0; col < 100; col++) {
+            straight.addCell(new GridCell(false, 0, 3, col));
+        }
+        assertArrayEquals(new double[] {0, 150, 4950, 150}, PathSimplifier.cornerPoints(straight, 50), 1e-9);
+    }
+
+    /**
+     * Verifies that every turn is kept, including a turn right after the start and right before the end.
+     */
+    @Test
+    void testCorners() {
+        GridPath turns = path(0, 0, 0, 1, 0, 2, 1, 2, 2, 2, 2, 3, 3, 3);
+        assertArrayEquals(new double[] {0, 0, 2, 0, 2, 2, 3, 2, 3, 3},
+                PathSimplifier.cornerPoints(turns, 1), 1e-9);
+    }
+
+    /**
+     * Verifies that diagonal runs are collapsed like straight ones.
+     */
+    @Test
+    void testDiagonalRun() {
+        GridPath diagonal = path(0, 0, 1, 1, 2, 2, 2, 3);
+        assertArrayEquals(new double[] {0, 0, 2, 2, 3, 2}, PathSimplifier.cornerPoints(diagonal, 1), 1e-9);
+    }
+
+    /**
+     * Verifies that paths with fewer than three cells are returned as they are.
+     */
+    @Test
+    void testShortPaths() {
+        assertEquals(0, PathSimplifier.cornerPoints(new GridPath(), 50).length);
+        assertArrayEquals(new double[] {50, 100}, PathSimplifier.cornerPoints(path(2, 1), 50), 1e-9);
+        assertArrayEquals(new double[] {0, 0, 50, 0}, PathSimplifier.cornerPoints(path(0, 0, 0, 1), 50), 1e-9);
+    }
+}
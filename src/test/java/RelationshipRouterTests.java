@@ -0,0 +1,146 @@
+import codecain.BackendCode.Model.Diagram;
+import codecain.BackendCode.Model.Relationship;
+import codecain.BackendCode.Model.RelationshipType;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.ClassBounds;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.GridCell;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.GridPath;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.RelationshipRouter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link RelationshipRouter}: lines crossing each other, and bundling of
+ * relationships into a shared line.
+ */
+public class RelationshipRouterTests {
+
+    /**
+     * Verifies that a line crosses another one that is in its way instead of failing, and crosses
+     * it only once rather than running along it.
+     */
+    @Test
+    void testLinesCrossInsteadOfFailing() {
+        Map<String, ClassBounds> boxes = new LinkedHashMap<>();
+        boxes.put("Left", new ClassBounds(100, 600, 200, 200));
+        boxes.put("Right", new ClassBounds(1100, 600, 200, 200));
+        boxes.put("Top", new ClassBounds(600, 100, 200, 200));
+        boxes.put("Bottom", new ClassBounds(600, 1100, 200, 200));
+        List<Relationship> relationships = new ArrayList<>();
+        Diagram.runWith(new Diagram(), () -> {
+            relationships.add(new Relationship("Left", "Right", RelationshipType.AGGREGATION));
+            relationships.add(new Relationship("Top", "Bottom", RelationshipType.AGGREGATION));
+        });
+        Map<Relationship, GridPath> paths = RelationshipRouter.sizedFor(boxes).route(boxes, relationships);
+
+        assertEquals(0, failures(paths));
+        Set<GridCell> shared = new HashSet<>(paths.get(relationships.get(0)).getCells());
+        shared.retainAll(paths.get(relationships.get(1)).getCells());
+        assertEquals(1, shared.size(), "lines should cross in one cell: " + shared);
+    }
+
+    /**
+     * Verifies that the lines from many subclasses to a hub all reach it through a shared trunk,
+     * using far fewer cells than separate lines.
+     */
+    @Test
+    void testBundlingRoutesEverySubclassOfAHub() {
+        Map<String, ClassBounds> boxes = hub(30);
+        List<Relationship> relationships = subclasses(30, RelationshipType.GENERALIZATION);
+        int separateCells = usedCells(RelationshipRouter.sizedFor(boxes).route(boxes, relationships));
+
+        Map<Relationship, GridPath> paths = RelationshipRouter.sizedFor(boxes).setBundling(true).route(boxes, relationships);
+        assertEquals(0, failures(paths));
+        Set<GridCell> goals = new HashSet<>();
+        for (GridPath path : paths.values()) {
+            goals.add(path.getGoal());
+        }
+        assertEquals(1, goals.size(), "bundled lines should end in the same cell");
+        assertTrue(usedCells(paths) < separateCells / 2,
+                "bundled lines use " + usedCells(paths) + " cells, separate ones " + separateCells);
+    }
+
+    /**
+     * Verifies that a bundled line is connected: every cell is next to the one before it.
+     */
+    @Test
+    void testBundledLinesAreConnected() {
+        Map<String, ClassBounds> boxes = hub(8);
+        for (GridPath path : RelationshipRouter.sizedFor(boxes).setBundling(true).route(boxes, subclasses(8, RelationshipType.GENERALIZATION)).values()) {
+            List<GridCell> cells = path.getCells();
+            for (int i = 1; i < cells.size(); i++) {
+                int step = Math.abs(cells.get(i).getRow() - cells.get(i - 1).getRow())
+                        + Math.abs(cells.get(i).getCol() - cells.get(i - 1).getCol());
+                assertEquals(1, step, "gap in bundled line between " + cells.get(i - 1) + " and " + cells.get(i));
+            }
+        }
+    }
+
+    /**
+     * Verifies that relationships of different types into the same class are not bundled together.
+     */
+    @Test
+    void testDifferentTypesAreNotBundled() {
+        Map<String, ClassBounds> boxes = hub(2);
+        List<Relationship> relationships = new ArrayList<>();
+        Diagram.runWith(new Diagram(), () -> {
+            relationships.add(new Relationship("Sub0", "Base", RelationshipType.GENERALIZATION));
+            relationships.add(new Relationship("Sub1", "Base", RelationshipType.COMPOSITION));
+        });
+        Map<Relationship, GridPath> paths = RelationshipRouter.sizedFor(boxes).setBundling(true).route(boxes, relationships);
+
+        Set<GridCell> shared = new HashSet<>(paths.get(relationships.get(0)).getCells());
+        shared.retainAll(paths.get(relationships.get(1)).getCells());
+        assertTrue(shared.isEmpty(), "lines of different types share cells: " + shared);
+    }
+
+    /**
+     * Places a base class above rows of subclasses.
+     */
+    private static Map<String, ClassBounds> hub(int count) {
+        Map<String, ClassBounds> boxes = new LinkedHashMap<>();
+        boxes.put("Base", new ClassBounds(100 + (count / 2) * 250, 100, 200, 200));
+        for (int i = 0; i < count; i++) {
+            boxes.put("Sub" + i, new ClassBounds(100 + i * 250, 600 + (i % 3) * 350, 200, 300));
+        }
+        return boxes;
+    }
+
+    /**
+     * Creates a relationship from each subclass to the base class, in a diagram of their own.
+     */
+    private static List<Relationship> subclasses(int count, RelationshipType type) {
+        List<Relationship> relationships = new ArrayList<>();
+        Diagram.runWith(new Diagram(), () -> {
+            for (int i = 0; i < count; i++) {
+                relationships.add(new Relationship("Sub" + i, "Base", type));
+            }
+        });
+        return relationships;
+    }
+
+    private static int usedCells(Map<Relationship, GridPath> paths) {
+        Set<GridCell> cells = new HashSet<>();
+        for (GridPath path : paths.values()) {
+            cells.addAll(path.getCells());
+        }
+        return cells.size();
+    }
+
+    private static int failures(Map<Relationship, GridPath> paths) {
+        int failed = 0;
+        for (GridPath path : paths.values()) {
+            if (path.size() == 0) {
+                failed++;
+            }
+        }
+        return failed;
+    }
+}
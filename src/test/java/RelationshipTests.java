@@ -33,8 +33,8 @@ public class RelationshipTests {
          */
         @BeforeEach
         public void setUp() {
-            Relationship.relationshipList = new ArrayList<>();
-            UMLClass.classMap.clear();
+            Relationship.setRelationshipList(new ArrayList<>());
+            UMLClass.getClassMap().clear();
         }
 
         /**
@@ -42,8 +42,8 @@ public class RelationshipTests {
          */
         @AfterEach
         public void tearDown() {
-            Relationship.relationshipList.clear();
-            UMLClass.classMap.clear();
+            Relationship.getRelationshipList().clear();
+            UMLClass.getClassMap().clear();
         }
 
         /**
@@ -52,13 +52,13 @@ public class RelationshipTests {
          */
         @Test
         public void testAddRelationship() {
-            UMLClass.classMap.put("DOG", new UMLClassInfo("DOG"));
-            UMLClass.classMap.put("BIRD", new UMLClassInfo("BIRD"));
+            UMLClass.getClassMap().put("DOG", new UMLClassInfo("DOG"));
+            UMLClass.getClassMap().put("BIRD", new UMLClassInfo("BIRD"));
 
             boolean result = Relationship.addRelationship("DOG", "BIRD", RelationshipType.GENERALIZATION);
             assertTrue(result);
             assertTrue(Relationship.relationshipExists("DOG", "BIRD"));
-            assertEquals(1, Relationship.relationshipList.size());
+            assertEquals(1, Relationship.getRelationshipList().size());
         }
 
         /**
@@ -67,8 +67,8 @@ public class RelationshipTests {
          */
         @Test
         public void testAddExisitingRelationship() {
-            UMLClass.classMap.put("DOG", new UMLClassInfo("DOG"));
-            UMLClass.classMap.put("BIRD", new UMLClassInfo("BIRD"));
+            UMLClass.getClassMap().put("DOG", new UMLClassInfo("DOG"));
+            UMLClass.getClassMap().put("BIRD", new UMLClassInfo("BIRD"));
             Relationship.addRelationship("DOG", "BIRD", RelationshipType.GENERALIZATION);
 
             boolean result = Relationship.addRelationship("DOG", "BIRD", RelationshipType.GENERALIZATION);
@@ -81,14 +81,14 @@ public class RelationshipTests {
          */
         @Test
         public void testRemoveRelationship() {
-            UMLClass.classMap.put("DOG", new UMLClassInfo("DOG"));
-            UMLClass.classMap.put("BIRD", new UMLClassInfo("BIRD"));
+            UMLClass.getClassMap().put("DOG", new UMLClassInfo("DOG"));
+            UMLClass.getClassMap().put("BIRD", new UMLClassInfo("BIRD"));
             Relationship.addRelationship("DOG", "BIRD", RelationshipType.GENERALIZATION);
 
             boolean result = Relationship.removeRelationship("DOG", "BIRD");
             assertTrue(result);
             assertFalse(Relationship.relationshipExists("DOG", "BIRD"));
-            assertEquals(0, Relationship.relationshipList.size());
+            assertEquals(0, Relationship.getRelationshipList().size());
         }
 
         /**
@@ -97,8 +97,8 @@ public class RelationshipTests {
          */
         @Test
         public void testRemoveNonExistingRelationship() {
-            UMLClass.classMap.put("DOG", new UMLClassInfo("DOG"));
-            UMLClass.classMap.put("BIRD", new UMLClassInfo("BIRD"));
+            UMLClass.getClassMap().put("DOG", new UMLClassInfo("DOG"));
+            UMLClass.getClassMap().put("BIRD", new UMLClassInfo("BIRD"));
 
             boolean result = Relationship.removeRelationship("DOG", "BIRD");
             assertFalse(result);
@@ -110,9 +110,9 @@ public class RelationshipTests {
          */
         @Test
         public void testRemoveAttachedRelationship() {
-            UMLClass.classMap.put("DOG", new UMLClassInfo("DOG"));
-            UMLClass.classMap.put("BIRD", new UMLClassInfo("BIRD"));
-            UMLClass.classMap.put("CAT", new UMLClassInfo("CAT"));
+            UMLClass.getClassMap().put("DOG", new UMLClassInfo("DOG"));
+            UMLClass.getClassMap().put("BIRD", new UMLClassInfo("BIRD"));
+            UMLClass.getClassMap().put("CAT", new UMLClassInfo("CAT"));
 
             Relationship.addRelationship("DOG", "BIRD", RelationshipType.GENERALIZATION);
             Relationship.addRelationship("DOG", "CAT", RelationshipType.GENERALIZATION);
@@ -120,7 +120,7 @@ public class RelationshipTests {
 
             assertFalse(Relationship.relationshipExists("DOG", "BIRD"));
             assertFalse(Relationship.relationshipExists("DOG", "CAT"));
-            assertEquals(0, Relationship.relationshipList.size());
+            assertEquals(0, Relationship.getRelationshipList().size());
         }
 
         /**
@@ -129,7 +129,7 @@ public class RelationshipTests {
          */
         @Test
         public void testInvalidClassesForAddingRelationship() {
-            UMLClass.classMap.put("DOG", new UMLClassInfo("DOG"));
+            UMLClass.getClassMap().put("DOG", new UMLClassInfo("DOG"));
 
             assertFalse(Relationship.addRelationship("DOG", "BIRD", RelationshipType.GENERALIZATION));
             assertFalse(Relationship.addRelationship("DOG", "CAT", RelationshipType.GENERALIZATION));
@@ -141,9 +141,9 @@ public class RelationshipTests {
          */
         @Test
         public void testListToString() {
-            UMLClass.classMap.put("DOG", new UMLClassInfo("DOG"));
-            UMLClass.classMap.put("BIRD", new UMLClassInfo("BIRD"));
-            UMLClass.classMap.put("CAT", new UMLClassInfo("CAT"));
+            UMLClass.getClassMap().put("DOG", new UMLClassInfo("DOG"));
+            UMLClass.getClassMap().put("BIRD", new UMLClassInfo("BIRD"));
+            UMLClass.getClassMap().put("CAT", new UMLClassInfo("CAT"));
 
             Relationship.addRelationship("DOG", "BIRD", RelationshipType.GENERALIZATION);
             Relationship.addRelationship("DOG", "CAT", RelationshipType.GENERALIZATION);
@@ -180,11 +180,11 @@ public class RelationshipTests {
      */
     @Test
     public void testGetType() {
-        UMLClass.classMap.put("DOG", new UMLClassInfo("DOG"));
-        UMLClass.classMap.put("BIRD", new UMLClassInfo("BIRD"));
+        UMLClass.getClassMap().put("DOG", new UMLClassInfo("DOG"));
+        UMLClass.getClassMap().put("BIRD", new UMLClassInfo("BIRD"));
         Relationship.addRelationship("DOG", "BIRD", RelationshipType.COMPOSITION);
 
-        Relationship relationship = Relationship.relationshipList.getFirst();
+        Relationship relationship = Relationship.getRelationshipList().getFirst();
         assertEquals(RelationshipType.COMPOSITION, relationship.getType());
     }
 
@@ -194,11 +194,11 @@ public class RelationshipTests {
      */
     @Test
     public void testSetType() {
-        UMLClass.classMap.put("DOG", new UMLClassInfo("DOG"));
-        UMLClass.classMap.put("BIRD", new UMLClassInfo("BIRD"));
+        UMLClass.getClassMap().put("DOG", new UMLClassInfo("DOG"));
+        UMLClass.getClassMap().put("BIRD", new UMLClassInfo("BIRD"));
         Relationship.addRelationship("DOG", "BIRD", RelationshipType.GENERALIZATION);
 
-        Relationship relationship = Relationship.relationshipList.getFirst();
+        Relationship relationship = Relationship.getRelationshipList().getFirst();
         relationship.setType(RelationshipType.AGGREGATION);
         assertEquals(RelationshipType.AGGREGATION, relationship.getType());
     }
@@ -209,11 +209,11 @@ public class RelationshipTests {
      */
     @Test
     public void testGetClassNameAsArray() {
-        UMLClass.classMap.put("DOG", new UMLClassInfo("DOG"));
-        UMLClass.classMap.put("BIRD", new UMLClassInfo("BIRD"));
+        UMLClass.getClassMap().put("DOG", new UMLClassInfo("DOG"));
+        UMLClass.getClassMap().put("BIRD", new UMLClassInfo("BIRD"));
         Relationship.addRelationship("DOG", "BIRD", RelationshipType.COMPOSITION);
 
-        Relationship relationship = Relationship.relationshipList.getFirst();
+        Relationship relationship = Relationship.getRelationshipList().getFirst();
         String[] classes = relationship.getClassNamesAsArray();
         assertEquals(2, classes.length);
         assertEquals("BIRD", classes[1]);
@@ -226,10 +226,10 @@ public class RelationshipTests {
      */
     @Test
     public void testGetAttachedRelationships() {
-        UMLClass.classMap.put("DOG", new UMLClassInfo("DOG"));
-        UMLClass.classMap.put("CAT", new UMLClassInfo("CAT"));
-        UMLClass.classMap.put("BIRD", new UMLClassInfo("BIRD"));
-        UMLClass.classMap.put("TIGER", new UMLClassInfo("TIGER"));
+        UMLClass.getClassMap().put("DOG", new UMLClassInfo("DOG"));
+        UMLClass.getClassMap().put("CAT", new UMLClassInfo("CAT"));
+        UMLClass.getClassMap().put("BIRD", new UMLClassInfo("BIRD"));
+        UMLClass.getClassMap().put("TIGER", new UMLClassInfo("TIGER"));
 
 
         Relationship.addRelationship("DOG", "TIGER", RelationshipType.COMPOSITION);
@@ -278,8 +278,8 @@ public class RelationshipTests {
     @Test
     public void testRelationshipHasClass() {
         // Add classes to the UMLClass map
-        UMLClass.classMap.put("DOG", new UMLClassInfo("DOG"));
-        UMLClass.classMap.put("BIRD", new UMLClassInfo("BIRD"));
+        UMLClass.getClassMap().put("DOG", new UMLClassInfo("DOG"));
+        UMLClass.getClassMap().put("BIRD", new UMLClassInfo("BIRD"));
 
         // Add a relationship between DOG and BIRD
         Relationship.addRelationship("DOG", "BIRD", RelationshipType.COMPOSITION);
@@ -297,8 +297,8 @@ public class RelationshipTests {
     @Test
     public void testRelationshipExistsWithType() {
         // Add classes to the UMLClass map
-        UMLClass.classMap.put("DOG", new UMLClassInfo("DOG"));
-        UMLClass.classMap.put("BIRD", new UMLClassInfo("BIRD"));
+        UMLClass.getClassMap().put("DOG", new UMLClassInfo("DOG"));
+        UMLClass.getClassMap().put("BIRD", new UMLClassInfo("BIRD"));
 
         // Add a COMPOSITION relationship between DOG and BIRD
         Relationship.addRelationship("DOG", "BIRD", RelationshipType.COMPOSITION);
@@ -316,8 +316,8 @@ public class RelationshipTests {
     @Test
     public void testGetRelationships() {
         // Add classes to the UMLClass map
-        UMLClass.classMap.put("DOG", new UMLClassInfo("DOG"));
-        UMLClass.classMap.put("BIRD", new UMLClassInfo("BIRD"));
+        UMLClass.getClassMap().put("DOG", new UMLClassInfo("DOG"));
+        UMLClass.getClassMap().put("BIRD", new UMLClassInfo("BIRD"));
 
         // Add a COMPOSITION relationship between DOG and BIRD
         Relationship.addRelationship("DOG", "BIRD", RelationshipType.COMPOSITION);
@@ -0,0 +1,174 @@
+import codecain.BackendCode.Model.Diagram;
+import codecain.BackendCode.Model.Relationship;
+import codecain.BackendCode.Model.RelationshipType;
+import codecain.GraphicalUserInterface.Controller.Layout.RoutingOptimizer;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.ClassBounds;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.GridCell;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.GridPath;
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.RelationshipRouter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link RoutingOptimizer}, which nudges classes to open corridors for lines.
+ */
+public class RoutingOptimizerTests {
+
+    /**
+     * Verifies that a class standing between two related classes is moved so their line gets shorter.
+     */
+    @Test
+    void testBlockingClassMovedOutOfTheWay() {
+        Map<String, ClassBounds> boxes = new LinkedHashMap<>();
+        boxes.put("A", new ClassBounds(100, 100, 200, 300));
+        boxes.put("M", new ClassBounds(310, 100, 200, 300));
+        boxes.put("B", new ClassBounds(520, 100, 200, 300));
+        List<Relationship> relationships = relationships(new String[][] {{"A", "B"}});
+
+        Map<String, ClassBounds> placed = RoutingOptimizer.optimize(boxes, relationships, RoutingOptimizer.DEFAULT_PASSES);
+
+        int[] before = routeQuality(boxes, relationships);
+        int[] after = routeQuality(placed, relationships);
+        assertEquals(0, after[0]);
+        assertTrue(after[1] < before[1], "line did not get shorter: " + before[1] + " -> " + after[1]);
+        assertNoOverlaps(placed);
+    }
+
+    /**
+     * Verifies that a class boxed in by its neighbours gets a corridor, so its line can be routed.
+     */
+    @Test
+    void testBoxedInClassGetsRouted() {
+        Map<String, ClassBounds> boxes = new LinkedHashMap<>();
+        boxes.put("A", new ClassBounds(500, 500, 200, 300));
+        boxes.put("T", new ClassBounds(400, 190, 400, 305));
+        boxes.put("B", new ClassBounds(400, 805, 400, 300));
+        boxes.put("L", new ClassBounds(190, 495, 305, 310));
+        boxes.put("R", new ClassBounds(705, 495, 305, 310));
+        boxes.put("Far", new ClassBounds(1600, 500, 200, 300));
+        List<Relationship> relationships = relationships(new String[][] {{"A", "Far"}});
+        assertEquals(1, routeQuality(boxes, relationships)[0]);
+
+        Map<String, ClassBounds> placed = RoutingOptimizer.optimize(boxes, relationships, RoutingOptimizer.DEFAULT_PASSES);
+
+        assertEquals(0, routeQuality(placed, relationships)[0]);
+        assertNoOverlaps(placed);
+    }
+
+    /**
+     * Verifies that a layout whose lines already route straight is left alone.
+     */
+    @Test
+    void testClearLayoutUnchanged() {
+        Map<String, ClassBounds> boxes = new LinkedHashMap<>();
+        boxes.put("A", new ClassBounds(100, 100, 200, 300));
+        boxes.put("B", new ClassBounds(500, 100, 200, 300));
+        List<Relationship> relationships = relationships(new String[][] {{"A", "B"}});
+
+        assertEquals(boxes, RoutingOptimizer.optimize(boxes, relationships, RoutingOptimizer.DEFAULT_PASSES));
+    }
+
+    /**
+     * Verifies that with bundling on, the lines into a hub are judged as the shared line they are
+     * drawn as: fewer classes are moved than for separate lines, and the bundled lines end up
+     * covering fewer cells.
+     */
+    @Test
+    void testBundledHubIsOptimizedAsBundled() {
+        int count = 12;
+        Map<String, ClassBounds> boxes = new LinkedHashMap<>();
+        boxes.put("Base", new ClassBounds(100 + (count / 2) * 250, 100, 200, 200));
+        String[][] pairs = new String[count][];
+        for (int i = 0; i < count; i++) {
+            boxes.put("Sub" + i, new ClassBounds(100 + i * 250, 600 + (i % 3) * 350, 200, 300));
+            pairs[i] = new String[] {"Sub" + i, "Base"};
+        }
+        List<Relationship> relationships = relationships(pairs);
+
+        Map<String, ClassBounds> separate = RoutingOptimizer.optimize(boxes, relationships, RoutingOptimizer.DEFAULT_PASSES, false);
+        Map<String, ClassBounds> bundled = RoutingOptimizer.optimize(boxes, relationships, RoutingOptimizer.DEFAULT_PASSES, true);
+
+        assertTrue(moved(boxes, bundled) < moved(boxes, separate),
+                "bundled moved " + moved(boxes, bundled) + " classes, separate " + moved(boxes, separate));
+        Map<Relationship, GridPath> before = RelationshipRouter.sizedFor(boxes).setBundling(true).route(boxes, relationships);
+        Map<Relationship, GridPath> after = RelationshipRouter.sizedFor(bundled).setBundling(true).route(bundled, relationships);
+        assertTrue(usedCells(after) < usedCells(before),
+                "bundled lines cover " + usedCells(after) + " cells, before " + usedCells(before));
+        assertNoOverlaps(bundled);
+    }
+
+    /**
+     * Verifies that a negative pass count is rejected.
+     */
+    @Test
+    void testNegativePassesRejected() {
+        assertThrows(IllegalArgumentException.class, () -> RoutingOptimizer.optimize(Map.of(), List.of(), -1));
+    }
+
+    /**
+     * Creates relationships between pairs of classes, in a diagram of their own.
+     */
+    private static List<Relationship> relationships(String[][] pairs) {
+        List<Relationship> relationships = new ArrayList<>();
+        Diagram.runWith(new Diagram(), () -> {
+            for (String[] pair : pairs) {
+                relationships.add(new Relationship(pair[0], pair[1], RelationshipType.AGGREGATION));
+            }
+        });
+        return relationships;
+    }
+
+    /**
+     * Routes every line and returns how many failed and the total length of the others.
+     */
+    private static int[] routeQuality(Map<String, ClassBounds> boxes, List<Relationship> relationships) {
+        int failed = 0;
+        int length = 0;
+        for (GridPath path : RelationshipRouter.sizedFor(boxes).route(boxes, relationships).values()) {
+            if (path.size() == 0) {
+                failed++;
+            } else {
+                length += path.size();
+            }
+        }
+        return new int[] {failed, length};
+    }
+
+    private static int moved(Map<String, ClassBounds> before, Map<String, ClassBounds> after) {
+        int moved = 0;
+        for (Map.Entry<String, ClassBounds> entry : before.entrySet()) {
+            if (!entry.getValue().equals(after.get(entry.getKey()))) {
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    private static int usedCells(Map<Relationship, GridPath> paths) {
+        Set<GridCell> cells = new HashSet<>();
+        for (GridPath path : paths.values()) {
+            cells.addAll(path.getCells());
+        }
+        return cells.size();
+    }
+
+    private static void assertNoOverlaps(Map<String, ClassBounds> placed) {
+        List<ClassBounds> list = new ArrayList<>(placed.values());
+        for (int i = 0; i < list.size(); i++) {
+            for (int j = i + 1; j < list.size(); j++) {
+                ClassBounds a = list.get(i);
+                ClassBounds b = list.get(j);
+                assertFalse(a.intersects(b.getX(), b.getY(), b.getWidth(), b.getHeight()),
+                        "boxes overlap: " + a + " and " + b);
+            }
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -17,6 +18,8 @@ import static org.junit.jupiter.api.Assertions.*;
 public class SaveManagerTests {
 
     private final String testPath = "testUml.json";
+    private final String segmentedPath = "testUmlSegmented.json";
+    private final File segmentDirectory = new File("testUmlSegmented.segments");
     private Map<String, UMLClassInfo> testClassMap;
 
     /**
@@ -43,9 +46,9 @@ public class SaveManagerTests {
         testClassMap.put("Whale", classInfo6);
         testClassMap.put("Eagle", classInfo7);
         testClassMap.put("Pigeon", classInfo8);
-        UMLClass.classMap = new HashMap<>(testClassMap);
+        UMLClass.setClassMap(new HashMap<>(testClassMap));
 
-        Relationship.relationshipList.clear();
+        Relationship.getRelationshipList().clear();
         Relationship.addRelationship("Dog", "Cat", RelationshipType.AGGREGATION);
         Relationship.addRelationship("Wolf", "Tiger", RelationshipType.COMPOSITION);
         Relationship.addRelationship("Shark", "Whale", RelationshipType.REALIZATION);
@@ -62,6 +65,14 @@ public class SaveManagerTests {
         if (file.exists()) {
             file.delete();
         }
+        new File(segmentedPath).delete();
+        File[] segments = segmentDirectory.listFiles();
+        if (segments != null) {
+            for (File segment : segments) {
+                segment.delete();
+            }
+        }
+        segmentDirectory.delete();
     }
 
     /**
@@ -84,8 +95,8 @@ public class SaveManagerTests {
      */
     @Test
     void testSaveToJSON_Invalid() throws IOException {
-        UMLClass.classMap.clear();
-        Relationship.relationshipList.clear();
+        UMLClass.getClassMap().clear();
+        Relationship.getRelationshipList().clear();
 
         SaveManager.saveToJSON(testPath);
         File file = new File(testPath);
@@ -136,13 +147,13 @@ public class SaveManagerTests {
     @Test
     void testLoadFromJSON_Valid() throws IOException {
         SaveManager.saveToJSON(testPath);
-        UMLClass.classMap.clear();
-        Relationship.relationshipList.clear();
+        UMLClass.getClassMap().clear();
+        Relationship.getRelationshipList().clear();
 
         SaveManager.loadFromJSON(testPath);
 
-        assertEquals(8, UMLClass.classMap.size(), "Class Map size should be 8");
-        assertEquals(4, Relationship.relationshipList.size(), "Relationship List size should be 4");
+        assertEquals(8, UMLClass.getClassMap().size(), "Class Map size should be 8");
+        assertEquals(4, Relationship.getRelationshipList().size(), "Relationship List size should be 4");
     }
 
     /**
@@ -184,10 +195,10 @@ public class SaveManagerTests {
         classMap.put("Dog", new UMLClassInfo("Dog"));
         classMap.put("Cat", new UMLClassInfo("Cat"));
 
-        Relationship.relationshipList.clear();
+        Relationship.getRelationshipList().clear();
         Relationship.addRelationship("Dog", "Cat", RelationshipType.AGGREGATION);
 
-        SaveManager.saveToJSON(testPath, classMap, Relationship.relationshipList);
+        SaveManager.saveToJSON(testPath, classMap, Relationship.getRelationshipList());
         File file = new File(testPath);
         assertTrue(file.exists(), "JSON file should exist");
         ObjectMapper mapper = new ObjectMapper();
@@ -196,4 +207,157 @@ public class SaveManagerTests {
         assertEquals(2, ((Map<?, ?>) uml.get("classes")).size(), "Class Map size should be 2");
         assertEquals(1, ((List<?>) uml.get("relationships")).size(), "Relationship List size should be 1");
     }
+
+    /**
+     * Verifies that a lazy load restores names, positions and relationships immediately
+     * and reads class members only when they are first accessed.
+     *
+     * @throws IOException if an error occurs during file operations.
+     */
+    @Test
+    void testLoadFromJSONLazy_LoadsMembersOnAccess() throws IOException {
+        UMLClass.getClassMap().get("Dog").getFields().add(new UMLFieldInfo("int", "age"));
+        UMLMethodInfo bark = new UMLMethodInfo("bark", new ArrayList<>());
+        bark.addParameter(new UMLParameterInfo("int", "volume"));
+        UMLClass.getClassMap().get("Dog").getMethods().add(bark);
+        UMLClass.getClassMap().get("Dog").setX(120);
+        UMLClass.getClassMap().get("Dog").setY(340);
+        SaveManager.saveToJSON(testPath);
+
+        SaveManager.loadFromJSONLazy(testPath);
+
+        UMLClassInfo dog = UMLClass.getClassMap().get("Dog");
+        assertEquals(8, UMLClass.getClassMap().size(), "Class Map size should be 8");
+        assertEquals(4, Relationship.getRelationshipList().size(), "Relationship List size should be 4");
+        assertEquals("Dog", dog.getClassName());
+        assertEquals(120, dog.getX());
+        assertEquals(340, dog.getY());
+        assertFalse(dog.isLoaded(), "Members should not be read until accessed");
+
+        assertEquals("int age", dog.getFields().get(0).toString());
+        assertTrue(dog.isLoaded(), "Members should be read on first access");
+        assertEquals("bark(int volume)", dog.getMethodByName("bark").toString());
+        assertFalse(UMLClass.getClassMap().get("Cat").isLoaded(), "Other classes should stay unread");
+    }
+
+    /**
+     * Verifies that a lazily loaded diagram can be saved back over the file it was mapped from.
+     *
+     * @throws IOException if an error occurs during file operations.
+     */
+    @Test
+    void testLoadFromJSONLazy_SaveOverSameFile() throws IOException {
+        UMLClass.getClassMap().get("Cat").getFields().add(new UMLFieldInfo("String", "name"));
+        SaveManager.saveToJSON(testPath);
+        SaveManager.loadFromJSONLazy(testPath);
+
+        SaveManager.saveToJSON(testPath);
+        SaveManager.loadFromJSON(testPath);
+
+        assertEquals(8, UMLClass.getClassMap().size(), "Class Map size should be 8");
+        assertEquals("String name", UMLClass.getClassMap().get("Cat").getFields().get(0).toString());
+    }
+
+    /**
+     * Verifies that a segmented save can be loaded back with its classes, members and relationships.
+     *
+     * @throws IOException if an error occurs during file operations.
+     */
+    @Test
+    void testSegmentedSaveAndLoad() throws IOException {
+        UMLClass.getClassMap().get("Dog").getFields().add(new UMLFieldInfo("int", "age"));
+        SaveManager.saveToSegmentedJSON(segmentedPath);
+        assertTrue(SaveManager.isSegmentedJSON(segmentedPath), "Manifest should be recognized");
+        assertFalse(UMLClass.getClassMap().get("Dog").isDirty(), "Saved classes should be clean");
+
+        UMLClass.setClassMap(new HashMap<>());
+        Relationship.getRelationshipList().clear();
+        SaveManager.loadFromJSON(segmentedPath);
+
+        assertEquals(8, UMLClass.getClassMap().size(), "Class Map size should be 8");
+        assertEquals(4, Relationship.getRelationshipList().size(), "Relationship List size should be 4");
+        assertEquals("int age", UMLClass.getClassMap().get("Dog").getFields().get(0).toString());
+        assertFalse(UMLClass.getClassMap().get("Dog").isDirty(), "Loaded classes should be clean");
+    }
+
+    /**
+     * Verifies that saving again after changing one class only writes the segment holding that class.
+     *
+     * @throws IOException if an error occurs during file operations.
+     */
+    @Test
+    void testSegmentedSaveRewritesOnlyChangedSegments() throws IOException {
+        for (int i = 0; i < 200; i++) {
+            UMLClass.getClassMap().put("Class" + i, new UMLClassInfo("Class" + i));
+        }
+        SaveManager.saveToSegmentedJSON(segmentedPath);
+        Set<String> before = new HashSet<>(Arrays.asList(segmentDirectory.list()));
+
+        UMLClass.getClassMap().get("Class42").getMethods().add(new UMLMethodInfo("run", new ArrayList<>()));
+        assertTrue(UMLClass.getClassMap().get("Class42").isDirty(), "Changed class should be dirty");
+        SaveManager.saveToSegmentedJSON(segmentedPath);
+        Set<String> after = new HashSet<>(Arrays.asList(segmentDirectory.list()));
+
+        Set<String> added = new HashSet<>(after);
+        added.removeAll(before);
+        Set<String> removed = new HashSet<>(before);
+        removed.removeAll(after);
+        assertEquals(1, added.size(), "Only one new segment should be written");
+        assertEquals(1, removed.size(), "Only the replaced segment should be deleted");
+        assertEquals(before.size(), after.size());
+
+        SaveManager.loadFromJSON(segmentedPath);
+        assertEquals(208, UMLClass.getClassMap().size());
+        assertNotNull(UMLClass.getClassMap().get("Class42").getMethodByName("run"));
+    }
+
+    /**
+     * Verifies that renaming a parameter marks the class that owns it as dirty.
+     *
+     * @throws IOException if an error occurs during file operations.
+     */
+    @Test
+    void testParameterChangeMarksClassDirty() throws IOException {
+        UMLMethodInfo method = new UMLMethodInfo("bark", new ArrayList<>());
+        UMLParameterInfo parameter = new UMLParameterInfo("int", "volume");
+        method.addParameter(parameter);
+        UMLClass.getClassMap().get("Dog").getMethods().add(method);
+        SaveManager.saveToSegmentedJSON(segmentedPath);
+        assertFalse(UMLClass.getClassMap().get("Dog").isDirty());
+
+        parameter.setParameterName("loudness");
+
+        assertTrue(UMLClass.getClassMap().get("Dog").isDirty(), "Owning class should be dirty");
+        assertFalse(UMLClass.getClassMap().get("Cat").isDirty(), "Other classes should stay clean");
+    }
+
+    /**
+     * Verifies that saving after a load does not fail on segments left behind by a save that
+     * stopped before it wrote its manifest, and that those segments are cleaned up.
+     *
+     * @throws IOException if an error occurs during file operations.
+     */
+    @Test
+    void testSaveAfterLoadSkipsOrphanedSegments() throws IOException {
+        SaveManager.saveToSegmentedJSON(segmentedPath);
+        long highest = -1;
+        for (String name : segmentDirectory.list()) {
+            highest = Math.max(highest, Long.parseLong(name.substring(name.lastIndexOf('-') + 1, name.length() - 5)));
+        }
+        File orphanedClasses = new File(segmentDirectory, "classes-" + (highest + 1) + ".json");
+        File orphanedRelationships = new File(segmentDirectory, "relationships-" + (highest + 2) + ".json");
+        Files.writeString(orphanedClasses.toPath(), "{}");
+        Files.writeString(orphanedRelationships.toPath(), "[]");
+
+        SaveManager.loadFromJSON(segmentedPath);
+        UMLClass.getClassMap().get("Dog").getFields().add(new UMLFieldInfo("int", "age"));
+        Relationship.getRelationshipList().remove(0);
+        assertDoesNotThrow(() -> SaveManager.saveToSegmentedJSON(segmentedPath));
+        assertFalse(orphanedClasses.exists(), "Orphaned segments should be deleted");
+        assertFalse(orphanedRelationships.exists(), "Orphaned segments should be deleted");
+
+        SaveManager.loadFromJSON(segmentedPath);
+        assertEquals("int age", UMLClass.getClassMap().get("Dog").getFields().get(0).toString());
+        assertEquals(3, Relationship.getRelationshipList().size());
+    }
 }
@@ -1,18 +1,28 @@
+import codecain.BackendCode.Model.Diagram;
+import codecain.BackendCode.Model.ModelEvent;
 import codecain.BackendCode.Model.Relationship;
 import codecain.BackendCode.Model.UMLClass;
 import codecain.BackendCode.Model.UMLClassInfo;
+import codecain.BackendCode.Model.UMLFieldInfo;
 import codecain.BackendCode.Model.RelationshipType;
+import codecain.BackendCode.Model.SaveManager;
+import codecain.BackendCode.UndoRedo.Caretaker;
 import codecain.BackendCode.UndoRedo.StateManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Unit tests for the {@link StateManager} class.
  * This class tests the functionality of saving, undoing, and redoing states of the UML diagram,
- * including the behavior of the {@code UMLClass.classMap} and {@code Relationship.relationshipList}.
+ * including the behavior of the {@code UMLClass.getClassMap()} and {@code Relationship.getRelationshipList()}.
  */
 public class StateManagerTest {
 
@@ -23,18 +33,18 @@ public class StateManagerTest {
 
     /**
      * Sets up the test environment before each test.
-     * Resets the {@code UMLClass.classMap} and {@code Relationship.relationshipList} to ensure a clean state.
+     * Resets the {@code UMLClass.getClassMap()} and {@code Relationship.getRelationshipList()} to ensure a clean state.
      */
     @BeforeEach
     void setUp() {
         stateManager = new StateManager();
-        UMLClass.classMap.clear();
-        Relationship.relationshipList.clear();
+        UMLClass.getClassMap().clear();
+        Relationship.getRelationshipList().clear();
     }
 
     /**
      * Tests the {@link StateManager#saveState()} method.
-     * Verifies that the current state of {@code UMLClass.classMap} and {@code Relationship.relationshipList} is saved.
+     * Verifies that the current state of {@code UMLClass.getClassMap()} and {@code Relationship.getRelationshipList()} is saved.
      */
     @Test
     public void testSaveState() {
@@ -44,8 +54,8 @@ public class StateManagerTest {
 
         stateManager.saveState();
 
-        assertFalse(UMLClass.classMap.isEmpty(), "The class map should not be empty after saving state.");
-        assertFalse(Relationship.relationshipList.isEmpty(), "The relationship list should not be empty after saving state.");
+        assertFalse(UMLClass.getClassMap().isEmpty(), "The class map should not be empty after saving state.");
+        assertFalse(Relationship.getRelationshipList().isEmpty(), "The relationship list should not be empty after saving state.");
     }
 
     /**
@@ -65,8 +75,8 @@ public class StateManagerTest {
         boolean undo = stateManager.undo();
 
         assertTrue(undo, "The undo operation should succeed.");
-        assertEquals(2, UMLClass.classMap.size(), "The class map should have two entries after undo.");
-        assertEquals(1, Relationship.relationshipList.size(), "The relationship list should have one entry after undo.");
+        assertEquals(2, UMLClass.getClassMap().size(), "The class map should have two entries after undo.");
+        assertEquals(1, Relationship.getRelationshipList().size(), "The relationship list should have one entry after undo.");
     }
 
     /**
@@ -97,8 +107,8 @@ public class StateManagerTest {
         boolean redo = stateManager.redo();
 
         assertTrue(redo, "The redo operation should succeed.");
-        assertEquals(1, UMLClass.classMap.size(), "The class map should have one entry after redo.");
-        assertEquals(0, Relationship.relationshipList.size(), "The relationship list should be empty after redo.");
+        assertEquals(1, UMLClass.getClassMap().size(), "The class map should have one entry after redo.");
+        assertEquals(0, Relationship.getRelationshipList().size(), "The relationship list should be empty after redo.");
     }
 
     /**
@@ -126,18 +136,221 @@ public class StateManagerTest {
         UMLClass.removeClass("Dog");
         UMLClass.removeClass("Cat");
 
-        assertEquals(0, UMLClass.classMap.size(), "The class map should be empty after removing all classes.");
+        assertEquals(0, UMLClass.getClassMap().size(), "The class map should be empty after removing all classes.");
 
         stateManager.undo();
-        assertEquals(2, UMLClass.classMap.size(), "The class map should have two entries after the first undo.");
-        assertTrue(UMLClass.classMap.containsKey("Dog"), "The class map should contain 'Dog' after undo.");
+        assertEquals(2, UMLClass.getClassMap().size(), "The class map should have two entries after the first undo.");
+        assertTrue(UMLClass.getClassMap().containsKey("Dog"), "The class map should contain 'Dog' after undo.");
 
         stateManager.redo();
-        assertEquals(0, UMLClass.classMap.size(), "The class map should be empty after redo to the most recent state.");
+        assertEquals(0, UMLClass.getClassMap().size(), "The class map should be empty after redo to the most recent state.");
 
         stateManager.undo();
-        assertEquals(2, UMLClass.classMap.size(), "The class map should have two entries after the second undo.");
-        assertTrue(UMLClass.classMap.containsKey("Dog"), "The class map should contain 'Dog' after undo.");
-        assertTrue(UMLClass.classMap.containsKey("Cat"), "The class map should contain 'Cat' after undo.");
+        assertEquals(2, UMLClass.getClassMap().size(), "The class map should have two entries after the second undo.");
+        assertTrue(UMLClass.getClassMap().containsKey("Dog"), "The class map should contain 'Dog' after undo.");
+        assertTrue(UMLClass.getClassMap().containsKey("Cat"), "The class map should contain 'Cat' after undo.");
+    }
+
+    /**
+     * Tests {@link StateManager#beginBatch()} and {@link StateManager#endBatch()}.
+     * Verifies that every change made during a batch is undone in a single step.
+     */
+    @Test
+    public void testBatchIsUndoneAsOneStep() {
+        UMLClass.addClass("Dog");
+
+        stateManager.beginBatch();
+        for (int i = 0; i < 50; i++) {
+            stateManager.saveState();
+            UMLClass.addClass("Class" + i);
+        }
+        stateManager.endBatch();
+
+        assertFalse(stateManager.inBatch(), "The batch should be closed.");
+        assertEquals(51, UMLClass.getClassMap().size());
+        assertTrue(stateManager.undo(), "The batch should be undoable.");
+        assertEquals(1, UMLClass.getClassMap().size(), "Undo should restore the state from before the batch.");
+        assertFalse(stateManager.undo(), "The batch should only record one undo step.");
+        assertThrows(IllegalStateException.class, () -> stateManager.endBatch());
+    }
+
+    /**
+     * Tests that undo and redo patch the diagram in place.
+     * Verifies that an unchanged class keeps its object, that member and position changes made after
+     * the saved state are undone, and that redo brings them back.
+     */
+    @Test
+    public void testUndoPatchesClassesInPlace() {
+        UMLClass.addClass("Dog");
+        UMLClass.addClass("Cat");
+        UMLClassInfo dog = UMLClass.getClassInfo("Dog");
+        UMLClassInfo cat = UMLClass.getClassInfo("Cat");
+
+        stateManager.saveState();
+        dog.getFields().add(new UMLFieldInfo("String", "name"));
+        dog.setX(120);
+
+        assertTrue(stateManager.undo());
+        assertSame(dog, UMLClass.getClassInfo("Dog"), "A class in both states should keep its object.");
+        assertSame(cat, UMLClass.getClassInfo("Cat"), "An unchanged class should keep its object.");
+        assertTrue(dog.getFields().isEmpty(), "The added field should be undone.");
+        assertEquals(0, dog.getX(), "The move should be undone.");
+
+        assertTrue(stateManager.redo());
+        assertSame(dog, UMLClass.getClassInfo("Dog"));
+        assertEquals(1, dog.getFields().size(), "Redo should bring the field back.");
+        assertEquals(120, dog.getX());
+    }
+
+    /**
+     * Tests that undo only reports what it changed to the diagram's listeners.
+     */
+    @Test
+    public void testUndoReportsOnlyDifferences() {
+        UMLClass.addClass("Dog");
+        UMLClass.addClass("Cat");
+        Relationship.addRelationship("Dog", "Cat", RelationshipType.AGGREGATION);
+        Relationship relationship = Relationship.getRelationshipList().get(0);
+        stateManager.saveState();
+        UMLClass.addClass("Bird");
+
+        List<ModelEvent> events = new ArrayList<>();
+        Consumer<List<ModelEvent>> listener = events::addAll;
+        Diagram.current().getEvents().addListener(listener);
+        try {
+            assertTrue(stateManager.undo());
+        } finally {
+            Diagram.current().getEvents().removeListener(listener);
+        }
+        assertEquals(List.of(ModelEvent.forClass(ModelEvent.Kind.CLASS_REMOVED, "Bird")), events);
+        assertSame(relationship, Relationship.getRelationshipList().get(0), "An unchanged relationship should be kept.");
+    }
+
+    /**
+     * Tests that saving a state after a lazy load does not read the members of the classes.
+     * Verifies that undo keeps them unread too, and that a saved state still reads the right members
+     * after the file was saved over.
+     */
+    @Test
+    public void testSaveStateKeepsLazyClassesUnloaded() throws IOException {
+        File file = new File("testLazyUndo.json");
+        try {
+            UMLClass.addClass("Dog");
+            UMLClass.addClass("Cat");
+            UMLClass.getClassInfo("Dog").getFields().add(new UMLFieldInfo("String", "name"));
+            SaveManager.saveToJSON(file.getPath());
+            SaveManager.loadFromJSONLazy(file.getPath());
+
+            stateManager.saveState();
+            UMLClassInfo dog = UMLClass.getClassInfo("Dog");
+            assertFalse(dog.isLoaded(), "Saving a state should not read the members.");
+            assertFalse(UMLClass.getClassInfo("Cat").isLoaded(), "Saving a state should not read the members.");
+
+            dog.setX(200);
+            assertTrue(stateManager.undo());
+            assertEquals(0, dog.getX(), "The move should be undone.");
+            assertFalse(dog.isLoaded(), "Undo should not read members that did not change.");
+
+            stateManager.saveState();
+            UMLClass.removeClass("Dog");
+            SaveManager.saveToJSON(file.getPath());
+            assertTrue(stateManager.undo());
+            assertEquals("String name", UMLClass.getClassInfo("Dog").getFields().get(0).toString(),
+                    "A saved state should still read its members after the file was saved over.");
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Tests that a batch only groups the states saved on the thread that opened it.
+     * Verifies that another session editing the same diagram during the batch still gets its own
+     * undo step.
+     */
+    @Test
+    public void testBatchDoesNotSwallowOtherThreads() throws InterruptedException {
+        Diagram diagram = new Diagram();
+        StateManager history = diagram.getStateManager();
+        Diagram.runWith(diagram, () -> UMLClass.addClass("Dog"));
+
+        history.beginBatch();
+        history.saveState();
+        Thread other = new Thread(() -> {
+            history.saveState();
+            Diagram.runWith(diagram, () -> UMLClass.addClass("Cat"));
+        });
+        other.start();
+        other.join();
+        history.saveState();
+        history.endBatch();
+
+        assertTrue(history.undo(), "The other thread's change should be undoable.");
+        assertFalse(diagram.getClassMap().containsKey("Cat"));
+        assertTrue(history.undo(), "The batch should be undoable.");
+        assertFalse(history.undo(), "The batch should only record one undo step.");
+    }
+
+    /**
+     * Tests {@link StateManager#recordChange(Runnable)}.
+     * Verifies that an edit that changes nothing, like a cancelled dialog, records no undo step
+     * and keeps the redo history, while a real change is recorded.
+     */
+    @Test
+    public void testRecordChangeSkipsEditsThatChangeNothing() {
+        UMLClass.addClass("Dog");
+        stateManager.saveState();
+        UMLClass.addClass("Cat");
+        assertTrue(stateManager.undo());
+
+        assertFalse(stateManager.recordChange(() -> UMLClass.exists("Dog")), "Nothing should have changed.");
+        assertFalse(stateManager.undo(), "A cancelled edit should not record an undo step.");
+        assertTrue(stateManager.redo(), "A cancelled edit should keep the redo history.");
+
+        assertTrue(stateManager.recordChange(() -> UMLClass.addClass("Bird")));
+        assertTrue(stateManager.undo());
+        assertFalse(UMLClass.exists("Bird"), "Undo should revert the recorded change.");
+        assertTrue(UMLClass.exists("Cat"));
+    }
+
+    /**
+     * Tests that the undo history only keeps the most recent {@link Caretaker#MAX_HISTORY} states.
+     */
+    @Test
+    public void testHistoryIsCapped() {
+        for (int i = 0; i < Caretaker.MAX_HISTORY + 20; i++) {
+            stateManager.saveState();
+            UMLClass.addClass("Class" + i);
+        }
+
+        int undone = 0;
+        while (stateManager.undo()) {
+            undone++;
+        }
+        assertEquals(Caretaker.MAX_HISTORY, undone);
+        assertTrue(UMLClass.exists("Class19"), "States older than the limit should be dropped.");
+        assertFalse(UMLClass.exists("Class20"));
+    }
+
+    /**
+     * Tests that saved states share the copy of a class until the class changes.
+     * Verifies that a change makes a new copy and leaves the shared one as it was.
+     */
+    @Test
+    public void testUnchangedClassesShareSnapshots() {
+        UMLClass.addClass("Dog");
+        UMLClassInfo dog = UMLClass.getClassInfo("Dog");
+
+        UMLClassInfo first = dog.snapshot();
+        assertSame(first, dog.snapshot(), "An unchanged class should not be copied again.");
+
+        dog.getFields().add(new UMLFieldInfo("String", "name"));
+        UMLClassInfo second = dog.snapshot();
+        assertNotSame(first, second, "A changed class should be copied again.");
+        assertTrue(first.getFields().isEmpty(), "The earlier copy should not see the change.");
+        assertEquals(1, second.getFields().size());
+
+        dog.getFields().get(0).setFieldName("nickname");
+        assertNotSame(second, dog.snapshot(), "Editing a member should make a new copy.");
+        assertEquals("name", second.getFields().get(0).getFieldName());
     }
 }
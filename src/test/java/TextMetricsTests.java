@@ -0,0 +1,101 @@
+import codecain.GraphicalUserInterface.Controller.RelationshipLines.ClassBounds;
+import codecain.GraphicalUserInterface.View.MaxWidthTracker;
+import codecain.GraphicalUserInterface.View.TextMetricsCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link TextMetricsCache} and {@link MaxWidthTracker}, which size class boxes
+ * without measuring every member again.
+ */
+public class TextMetricsTests {
+
+    /**
+     * A mutable item, standing in for a field that is renamed in place.
+     */
+    private static class Row {
+        String text;
+
+        Row(String text) {
+            this.text = text;
+        }
+    }
+
+    /**
+     * Verifies that each string is measured once per font and that fonts do not share widths.
+     */
+    @Test
+    void testCacheMeasuresOnce() {
+        AtomicInteger measured = new AtomicInteger();
+        TextMetricsCache narrow = TextMetricsCache.forFont("test-narrow", text -> {
+            measured.incrementAndGet();
+            return text.length();
+        });
+        TextMetricsCache wide = TextMetricsCache.forFont("test-wide", text -> text.length() * 2.0);
+
+        assertEquals(5, narrow.width("hello"));
+        assertEquals(5, narrow.width("hello"));
+        assertEquals(1, measured.get());
+        assertEquals(10, wide.width("hello"));
+        assertSame(narrow, TextMetricsCache.forFont("test-narrow", text -> 0));
+    }
+
+    /**
+     * Verifies that the cached row widths are the widths ClassBounds measured before.
+     */
+    @Test
+    void testClassBoundsTextWidth() {
+        double width = ClassBounds.textWidth("int counter");
+        assertTrue(width > 0);
+        assertEquals(width, ClassBounds.textWidth("int counter"));
+        assertTrue(ClassBounds.textWidth("int counterWithALongerName") > width);
+    }
+
+    /**
+     * Verifies that the maximum follows adds and removes, including removing the widest of equal items.
+     */
+    @Test
+    void testTrackerMaximum() {
+        MaxWidthTracker<Row> tracker = new MaxWidthTracker<>(row -> row.text.length());
+        assertEquals(0, tracker.getMaxWidth());
+
+        Row a = new Row("aaaa");
+        Row b = new Row("bbbbbbbb");
+        Row c = new Row("cccccccc");
+        tracker.update(List.of(), List.of(a, b, c));
+        assertEquals(8, tracker.getMaxWidth());
+        assertEquals(3, tracker.size());
+
+        tracker.remove(b);
+        assertEquals(8, tracker.getMaxWidth());
+        tracker.remove(c);
+        assertEquals(4, tracker.getMaxWidth());
+        tracker.remove(c);
+        assertEquals(1, tracker.size());
+    }
+
+    /**
+     * Verifies that an item changed in place is removed with the width it was added with,
+     * and that adding it again measures it again.
+     */
+    @Test
+    void testTrackerChangedInPlace() {
+        MaxWidthTracker<Row> tracker = new MaxWidthTracker<>(row -> row.text.length());
+        Row a = new Row("aa");
+        Row b = new Row("bbbbbb");
+        tracker.update(List.of(), List.of(a, b));
+
+        b.text = "b";
+        tracker.add(b);
+        assertEquals(2, tracker.getMaxWidth());
+        assertEquals(2, tracker.size());
+
+        a.text = "a much longer name";
+        tracker.update(List.of(a), List.of());
+        assertEquals(1, tracker.getMaxWidth());
+    }
+}
@@ -19,7 +19,7 @@ public class UMLClassTests {
      */
     @BeforeEach
     public void setUp() {
-        UMLClass.classMap.clear();
+        UMLClass.getClassMap().clear();
     }
 
     /**
@@ -27,7 +27,7 @@ public class UMLClassTests {
      */
     @AfterEach
     public void tearDown() {
-        UMLClass.classMap.clear();
+        UMLClass.getClassMap().clear();
     }
 
     /**
@@ -36,7 +36,7 @@ public class UMLClassTests {
     @Test
     public void testAddClass() {
         UMLClass.addClass("DOG");
-        assertTrue(UMLClass.classMap.containsKey("DOG"));
+        assertTrue(UMLClass.getClassMap().containsKey("DOG"));
     }
 
     /**
@@ -46,7 +46,7 @@ public class UMLClassTests {
     public void testAddDuplicatedClass() {
         UMLClass.addClass("DOG");
         UMLClass.addClass("DOG");
-        assertEquals(1, UMLClass.classMap.size(), "Should prompt you can't add a class that already exists");
+        assertEquals(1, UMLClass.getClassMap().size(), "Should prompt you can't add a class that already exists");
     }
     @Test
     public void testAddClassNullName() {
@@ -72,7 +72,7 @@ public class UMLClassTests {
     public void testRemoveClass() {
         UMLClass.addClass("DOG");
         UMLClass.removeClass("DOG");
-        assertFalse(UMLClass.classMap.containsKey("DOG"));
+        assertFalse(UMLClass.getClassMap().containsKey("DOG"));
     }
 
     /**
@@ -81,7 +81,7 @@ public class UMLClassTests {
     @Test
     public void testRemoveNonExistingClass() {
         UMLClass.removeClass("DOG");
-        assertFalse(UMLClass.classMap.containsKey("DOG"), "Should prompt you cannot delete a class that isn't there");
+        assertFalse(UMLClass.getClassMap().containsKey("DOG"), "Should prompt you cannot delete a class that isn't there");
     }
     @Test
     public void testRemoveClassNullName() {
@@ -107,8 +107,8 @@ public class UMLClassTests {
     public void testRenamingClass() {
         UMLClass.addClass("DOG");
         UMLClass.renameClass("DOG", "CAT");
-        assertFalse(UMLClass.classMap.containsKey("DOG"));
-        assertTrue(UMLClass.classMap.containsKey("CAT"));
+        assertFalse(UMLClass.getClassMap().containsKey("DOG"));
+        assertTrue(UMLClass.getClassMap().containsKey("CAT"));
     }
 
     /**
@@ -120,8 +120,8 @@ public class UMLClassTests {
         UMLClass.addClass("CAT");
         UMLClass.renameClass("DOG", "CAT");
         // These should both be true because the renaming should fail
-        assertTrue(UMLClass.classMap.containsKey("DOG"));
-        assertTrue(UMLClass.classMap.containsKey("CAT"));
+        assertTrue(UMLClass.getClassMap().containsKey("DOG"));
+        assertTrue(UMLClass.getClassMap().containsKey("CAT"));
     }
 
     /**
@@ -130,8 +130,8 @@ public class UMLClassTests {
     @Test
     public void testRenamingNonExistingClass() {
         UMLClass.renameClass("DOG", "CAT");
-        assertFalse(UMLClass.classMap.containsKey("DOG"));
-        assertFalse(UMLClass.classMap.containsKey("CAT"));
+        assertFalse(UMLClass.getClassMap().containsKey("DOG"));
+        assertFalse(UMLClass.getClassMap().containsKey("CAT"));
     }
     /**
      * Tests renaming a class with a null old name.
@@ -368,7 +368,7 @@ public void testGetClassDetailsWithFieldsAndMethods() {
 public void testGetClassDetailsWithRelationships() {
     UMLClass.addClass("DOG");
     UMLClass.addClass("CAT");
-    Relationship.relationshipList.add(new Relationship("DOG", "CAT", RelationshipType.COMPOSITION));
+    Relationship.getRelationshipList().add(new Relationship("DOG", "CAT", RelationshipType.COMPOSITION));
 
     String details = UMLClass.getClassDetails("DOG");
     String expectedDetails = "Class Name: DOG\n" +
@@ -393,8 +393,8 @@ public void testGetClassDetailsWithMultipleRelationships() {
     UMLClass.addClass("DOG");
     UMLClass.addClass("CAT");
     UMLClass.addClass("BIRD");
-    Relationship.relationshipList.add(new Relationship("DOG", "CAT", RelationshipType.AGGREGATION));
-    Relationship.relationshipList.add(new Relationship("DOG", "BIRD", RelationshipType.COMPOSITION));
+    Relationship.getRelationshipList().add(new Relationship("DOG", "CAT", RelationshipType.AGGREGATION));
+    Relationship.getRelationshipList().add(new Relationship("DOG", "BIRD", RelationshipType.COMPOSITION));
 
     String details = UMLClass.getClassDetails("DOG");
     String expectedDetails = "Class Name: DOG\n" +
@@ -20,7 +20,7 @@ public class UMLFieldsTests {
      */
     @BeforeEach
     public void setUp() {
-        UMLClass.classMap.clear();
+        UMLClass.getClassMap().clear();
         umlFields = new UMLFields();
     }
 
@@ -29,7 +29,7 @@ public class UMLFieldsTests {
      */
     @AfterEach
     public void tearDown() {
-        UMLClass.classMap.clear();
+        UMLClass.getClassMap().clear();
     }
 
     /**
@@ -40,7 +40,7 @@ public class UMLFieldsTests {
         UMLClass.addClass("Test");
         umlFields.addField("Test", "DOG", "String");
 
-        UMLClassInfo classInfo = UMLClass.classMap.get("Test");
+        UMLClassInfo classInfo = UMLClass.getClassMap().get("Test");
         assertNotNull(classInfo);
         assertEquals(1, classInfo.getFields().size());
     }
@@ -51,7 +51,7 @@ public class UMLFieldsTests {
     @Test
     public void testAddFieldToNonExistingClass() {
         umlFields.addField("Test", "DOG", "String");
-        assertFalse(UMLClass.classMap.containsKey("Test"));
+        assertFalse(UMLClass.getClassMap().containsKey("Test"));
     }
 
     /**
@@ -63,7 +63,7 @@ public class UMLFieldsTests {
         umlFields.addField("Test", "DOG", "String");
         umlFields.addField("Test", "DOG", "String");
 
-        UMLClassInfo classInfo = UMLClass.classMap.get("Test");
+        UMLClassInfo classInfo = UMLClass.getClassMap().get("Test");
         assertEquals(1, classInfo.getFields().size(), "The duplicated field shouldn't be added");
     }
 
@@ -76,7 +76,7 @@ public class UMLFieldsTests {
         umlFields.addField("Test", "String", "DOG");
         umlFields.removeField("Test", "DOG");
 
-        UMLClassInfo classInfo = UMLClass.classMap.get("Test");
+        UMLClassInfo classInfo = UMLClass.getClassMap().get("Test");
         assertEquals(0, classInfo.getFields().size());
     }
 
@@ -88,7 +88,7 @@ public class UMLFieldsTests {
         UMLClass.addClass("Test");
         umlFields.removeField("Test", "DOG");
 
-        UMLClassInfo classInfo = UMLClass.classMap.get("Test");
+        UMLClassInfo classInfo = UMLClass.getClassMap().get("Test");
         assertEquals(0, classInfo.getFields().size(), "Should give error that you cannot remove a non-existing field from class");
     }
 
@@ -98,7 +98,7 @@ public class UMLFieldsTests {
     @Test
     public void testRemoveFieldFromNonExistingClass() {
         umlFields.removeField("Test", "DOG");
-        assertFalse(UMLClass.classMap.containsKey("Test"), "Should be prompted that you can't remove from a non-existing class");
+        assertFalse(UMLClass.getClassMap().containsKey("Test"), "Should be prompted that you can't remove from a non-existing class");
     }
 
     /**
@@ -110,7 +110,7 @@ public class UMLFieldsTests {
         umlFields.addField("Test", "String", "DOG");
         umlFields.renameField("Test", "DOG",  "Int", "numOfCats");
 
-        UMLClassInfo classInfo = UMLClass.classMap.get("Test");
+        UMLClassInfo classInfo = UMLClass.getClassMap().get("Test");
         UMLFieldInfo newFieldName = classInfo.getFields().get(0);
         assertEquals("numOfCats", newFieldName.getFieldName());
         assertEquals("Int", newFieldName.getFieldType());
@@ -124,7 +124,7 @@ public class UMLFieldsTests {
         UMLClass.addClass("Test");
         umlFields.renameField("Test", "DOG", "CAT", "String");
 
-        UMLClassInfo classInfo = UMLClass.classMap.get("Test");
+        UMLClassInfo classInfo = UMLClass.getClassMap().get("Test");
         assertEquals(0, classInfo.getFields().size());
     }
 
@@ -138,7 +138,7 @@ public class UMLFieldsTests {
         umlFields.addField("Test", "numOfCats", "Int");
         umlFields.renameField("Test", "DOG", "numOfCats", "Int");
 
-        UMLClassInfo classInfo = UMLClass.classMap.get("Test");
+        UMLClassInfo classInfo = UMLClass.getClassMap().get("Test");
         assertEquals(2, classInfo.getFields().size(), "Should be prompted you cannot rename to an existing field name");
     }
 }
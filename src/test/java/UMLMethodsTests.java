@@ -21,7 +21,7 @@ public class UMLMethodsTests {
      */
     @BeforeEach
     void setUp() {
-        UMLClass.classMap.clear();
+        UMLClass.getClassMap().clear();
         umlMethods = new UMLMethods();
     }
 
@@ -30,7 +30,7 @@ public class UMLMethodsTests {
      */
     @AfterEach
     void tearDown() {
-        UMLClass.classMap.clear();
+        UMLClass.getClassMap().clear();
     }
 
     /**
@@ -42,7 +42,7 @@ public class UMLMethodsTests {
         List<UMLParameterInfo> parameters = Arrays.asList(new UMLParameterInfo("int", "age"), new UMLParameterInfo("String", "name"));
         umlMethods.addMethod("Test", "AddDog", parameters);
 
-        UMLClassInfo classInfo = UMLClass.classMap.get("Test");
+        UMLClassInfo classInfo = UMLClass.getClassMap().get("Test");
         assertNotNull(classInfo);
         assertEquals(1, classInfo.getMethods().size());
     }
@@ -57,7 +57,7 @@ public class UMLMethodsTests {
         umlMethods.addMethod("Test", "AddDog", parameters);
         umlMethods.addMethod("Test", "AddDog", parameters);
 
-        UMLClassInfo classInfo = UMLClass.classMap.get("Test");
+        UMLClassInfo classInfo = UMLClass.getClassMap().get("Test");
         assertEquals(1, classInfo.getMethods().size(), "Should be prompted to not be able to add a duplicate method");
     }
 
@@ -68,7 +68,7 @@ public class UMLMethodsTests {
     public void testAddMethodToNonExistingClass() {
         List<UMLParameterInfo> parameters = Arrays.asList(new UMLParameterInfo("int", "age"), new UMLParameterInfo("String", "name"));
         umlMethods.addMethod("Test", "AddDog", parameters);
-        assertFalse(UMLClass.classMap.containsKey("Test"), "Should be prompted you can't add a method to a class that doesn't exist");
+        assertFalse(UMLClass.getClassMap().containsKey("Test"), "Should be prompted you can't add a method to a class that doesn't exist");
     }
 
     /**
@@ -81,7 +81,7 @@ public class UMLMethodsTests {
         umlMethods.addMethod("Test", "AddDog", parameters);
         umlMethods.removeMethod("Test", "AddDog");
 
-        UMLClassInfo classInfo = UMLClass.classMap.get("Test");
+        UMLClassInfo classInfo = UMLClass.getClassMap().get("Test");
         assertEquals(0, classInfo.getMethods().size());
     }
 
@@ -91,7 +91,7 @@ public class UMLMethodsTests {
     @Test
     public void testRemoveMethodFromNonExistingClass() {
         umlMethods.removeMethod("Test", "AddDog");
-        assertFalse(UMLClass.classMap.containsKey("Test"), "Should be prompted the class doesn't exist");
+        assertFalse(UMLClass.getClassMap().containsKey("Test"), "Should be prompted the class doesn't exist");
     }
 
     /**
@@ -104,7 +104,7 @@ public class UMLMethodsTests {
         umlMethods.addMethod("Test", "AddDog", parameters);
         umlMethods.removeMethod("Test", "RemoveCat");
 
-        UMLClassInfo classInfo = UMLClass.classMap.get("Test");
+        UMLClassInfo classInfo = UMLClass.getClassMap().get("Test");
         assertEquals(1, classInfo.getMethods().size(), "Shouldn't be prompted to enter a valid method");
     }
 
@@ -118,7 +118,7 @@ public class UMLMethodsTests {
         umlMethods.addMethod("Test", "AddDog", parameters);
         umlMethods.renameMethod("Test", "AddDog", "AddMultipleDogs");
 
-        UMLClassInfo classInfo = UMLClass.classMap.get("Test");
+        UMLClassInfo classInfo = UMLClass.getClassMap().get("Test");
         UMLMethodInfo methodInfo = classInfo.getMethodByName("AddMultipleDogs");
 
         assertNotNull(methodInfo);
@@ -132,7 +132,7 @@ public class UMLMethodsTests {
     public void testRenameMethodFromNonExistingMethod() {
         UMLClass.addClass("Test");
         umlMethods.renameMethod("Test", "AddDog", "AddMultipleDogs");
-        UMLClassInfo classInfo = UMLClass.classMap.get("Test");
+        UMLClassInfo classInfo = UMLClass.getClassMap().get("Test");
         assertNull(classInfo.getMethodByName("AddMultipleDogs"));
     }
 
@@ -146,7 +146,7 @@ public class UMLMethodsTests {
         umlMethods.addMethod("Test", "RemoveDog", Arrays.asList(new UMLParameterInfo("float", "weight")));
         umlMethods.renameMethod("Test", "AddDog", "RemoveDog");
 
-        UMLClassInfo classInfo = UMLClass.classMap.get("Test");
+        UMLClassInfo classInfo = UMLClass.getClassMap().get("Test");
         // Should not change either name
         assertNotNull(classInfo.getMethodByName("AddDog"));
         assertNotNull(classInfo.getMethodByName("RemoveDog"));
@@ -163,7 +163,7 @@ public class UMLMethodsTests {
         umlMethods.addMethod("Test", "AddDog", parameters);
 
         umlMethods.addParameter("Test", "AddDog", "String", "PuppyCounter");
-        UMLClassInfo classInfo = UMLClass.classMap.get("Test");
+        UMLClassInfo classInfo = UMLClass.getClassMap().get("Test");
         UMLMethodInfo methodInfo = classInfo.getMethodByName("AddDog");
 
         assertTrue(methodInfo.getParameters().contains(new UMLParameterInfo("String", "PuppyCounter")));
@@ -179,7 +179,7 @@ public class UMLMethodsTests {
         umlMethods.addMethod("Test", "AddDog", parameters);
         umlMethods.removeParameter("Test", "AddDog", "DogCounter");
 
-        UMLClassInfo classInfo = UMLClass.classMap.get("Test");
+        UMLClassInfo classInfo = UMLClass.getClassMap().get("Test");
         UMLMethodInfo methodInfo = classInfo.getMethodByName("AddDog");
         assertFalse(methodInfo.getParameters().contains(new UMLParameterInfo("int", "DogCounter")));
     }
@@ -194,7 +194,7 @@ public class UMLMethodsTests {
         umlMethods.addMethod("Test", "AddDog", parameters);
         umlMethods.addParameter("Test", "AddDog", "String", "PuppyCounter");
         umlMethods.changeSingleParameter("Test", "AddDog", "PuppyCounter", "String", "CutePuppyCounter");
-        UMLClassInfo classInfo = UMLClass.classMap.get("Test");
+        UMLClassInfo classInfo = UMLClass.getClassMap().get("Test");
         UMLMethodInfo methodInfo = classInfo.getMethodByName("AddDog");
         List<UMLParameterInfo> expectedParameters = Arrays.asList(
                 new UMLParameterInfo("int", "DogCounter"),
@@ -217,7 +217,7 @@ public class UMLMethodsTests {
                 new UMLParameterInfo("boolean", "IsPuppy")
         );
         umlMethods.changeAllParameters("Test", "AddDog", newParameters);
-        UMLClassInfo classInfo = UMLClass.classMap.get("Test");
+        UMLClassInfo classInfo = UMLClass.getClassMap().get("Test");
         UMLMethodInfo methodInfo = classInfo.getMethodByName("AddDog");
         assertEquals(newParameters, methodInfo.getParameters());
     }
@@ -233,7 +233,7 @@ public class UMLMethodsTests {
         umlMethods.addMethod("Test", "AddDog", parameters);
         parameters.clear();
 
-        UMLClassInfo classInfo = UMLClass.classMap.get("Test");
+        UMLClassInfo classInfo = UMLClass.getClassMap().get("Test");
         UMLMethodInfo methodInfo = classInfo.getMethodByName("AddDog");
         assertEquals(1, methodInfo.getParameters().size());
     }
@@ -250,7 +250,7 @@ public class UMLMethodsTests {
         );
         umlMethods.addMethod("Test", "AddDog", parameters);
 
-        UMLClassInfo classInfo = UMLClass.classMap.get("Test");
+        UMLClassInfo classInfo = UMLClass.getClassMap().get("Test");
         UMLMethodInfo methodInfo = classInfo.getMethodByName("AddDog");
         List<UMLParameterInfo> newParameters = Arrays.asList(
                 new UMLParameterInfo("double", "treats"),